@@ -0,0 +1,72 @@
+package com.redhat.cloud.notifications;
+
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.Context;
+import com.redhat.cloud.notifications.ingress.Event;
+import com.redhat.cloud.notifications.ingress.Metadata;
+import com.redhat.cloud.notifications.ingress.Parser;
+import com.redhat.cloud.notifications.ingress.Payload;
+import com.redhat.cloud.notifications.models.AggregationCommand;
+import io.quarkus.logging.Log;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.redhat.cloud.notifications.DailyEmailAggregationJob.APP_NAME;
+import static com.redhat.cloud.notifications.DailyEmailAggregationJob.BUNDLE_NAME;
+import static com.redhat.cloud.notifications.DailyEmailAggregationJob.EGRESS_CHANNEL;
+import static com.redhat.cloud.notifications.DailyEmailAggregationJob.EVENT_TYPE_NAME;
+import static java.time.ZoneOffset.UTC;
+
+@ApplicationScoped
+public class AggregationCommandSender {
+
+    @Inject
+    @Channel(EGRESS_CHANNEL)
+    Emitter<String> emitterIngress;
+
+    /**
+     * Sends the aggregation commands of a single org to the engine, in one
+     * Kafka message.
+     * @param aggregationCommands the aggregation commands of the org.
+     */
+    public void send(List<AggregationCommand> aggregationCommands) {
+
+        List<Event> eventList = new ArrayList<>();
+        aggregationCommands.stream().forEach(aggregationCommand -> {
+            Payload.PayloadBuilder payloadBuilder = new Payload.PayloadBuilder();
+            Map<String, Object> payload = JsonObject.mapFrom(aggregationCommand).getMap();
+            payload.forEach(payloadBuilder::withAdditionalProperty);
+
+            eventList.add(new Event.EventBuilder()
+                .withMetadata(new Metadata.MetadataBuilder().build())
+                .withPayload(payloadBuilder.build())
+                .build());
+        });
+
+        Action action = new Action.ActionBuilder()
+            .withBundle(BUNDLE_NAME)
+            .withApplication(APP_NAME)
+            .withEventType(EVENT_TYPE_NAME)
+            .withOrgId(aggregationCommands.get(0).getAggregationKey().getOrgId())
+            .withTimestamp(LocalDateTime.now(UTC))
+            .withEvents(eventList)
+            .withContext(new Context.ContextBuilder()
+                .withAdditionalProperty("single_daily_digest_enabled", true)
+                .build())
+            .build();
+
+        String encodedAction = Parser.encode(action);
+        Log.infof("Encoded Payload: %s", encodedAction);
+        Message<String> message = Message.of(encodedAction);
+        emitterIngress.send(message);
+    }
+}
@@ -3,33 +3,24 @@ package com.redhat.cloud.notifications;
 import com.redhat.cloud.notifications.config.AggregatorConfig;
 import com.redhat.cloud.notifications.db.AggregationOrgConfigRepository;
 import com.redhat.cloud.notifications.db.EmailAggregationRepository;
-import com.redhat.cloud.notifications.ingress.Action;
-import com.redhat.cloud.notifications.ingress.Context;
-import com.redhat.cloud.notifications.ingress.Event;
-import com.redhat.cloud.notifications.ingress.Metadata;
-import com.redhat.cloud.notifications.ingress.Parser;
-import com.redhat.cloud.notifications.ingress.Payload;
 import com.redhat.cloud.notifications.models.AggregationCommand;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.exporter.PushGateway;
 import io.quarkus.logging.Log;
 import io.quarkus.runtime.LaunchMode;
-import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.reactive.messaging.Channel;
-import org.eclipse.microprofile.reactive.messaging.Emitter;
-import org.eclipse.microprofile.reactive.messaging.Message;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import static java.time.ZoneOffset.UTC;
@@ -58,10 +49,11 @@ public class DailyEmailAggregationJob {
     LocalTime defaultDailyDigestTime;
 
     @Inject
-    @Channel(EGRESS_CHANNEL)
-    Emitter<String> emitterIngress;
+    AggregationCommandSender aggregationCommandSender;
 
     private Gauge pairsProcessed;
+    private Gauge orgsSent;
+    private Gauge orgsFailed;
 
     @ActivateRequestContext
     public void processDailyEmail() {
@@ -81,10 +73,29 @@ public class DailyEmailAggregationJob {
             Log.infof("found %s commands", aggregationCommands.size());
             Log.debugf("Aggregation commands: %s", aggregationCommands);
 
-            aggregationCommands.stream().collect(Collectors.groupingBy(AggregationCommand::getOrgId))
-                .values().forEach(this::sendIt);
-
-            List<String> orgIdsToUpdate = aggregationCommands.stream().map(agc -> agc.getAggregationKey().getOrgId()).collect(Collectors.toList());
+            /*
+             * The engine processes the aggregation commands in the order they are received from Kafka.
+             * The orgs that have been waiting for their digest the longest (oldest lastRun) are sent first.
+             */
+            List<List<AggregationCommand>> commandsByOrg = aggregationCommands.stream()
+                .collect(Collectors.groupingBy(AggregationCommand::getOrgId))
+                .values().stream()
+                .sorted(Comparator.comparing(DailyEmailAggregationJob::getOldestStart))
+                .toList();
+
+            // A failure for one org must not prevent the other orgs from receiving their digest.
+            List<String> orgIdsToUpdate = new ArrayList<>();
+            for (List<AggregationCommand> orgAggregationCommands : commandsByOrg) {
+                String orgId = orgAggregationCommands.get(0).getOrgId();
+                try {
+                    aggregationCommandSender.send(orgAggregationCommands);
+                    orgIdsToUpdate.add(orgId);
+                    orgsSent.inc();
+                } catch (Exception e) {
+                    Log.errorf(e, "Daily aggregation failed for org ID %s", orgId);
+                    orgsFailed.inc();
+                }
+            }
             Log.debugf("Found following org IDs to update: %s", orgIdsToUpdate);
 
             aggregationOrgConfigRepository.updateLastCronJobRunAccordingOrgPref(orgIdsToUpdate, now);
@@ -121,46 +132,48 @@ public class DailyEmailAggregationJob {
                 .help("Number of orgId and application pairs processed.")
                 .register(registry);
         pairsProcessed.set(pendingAggregationCommands.size());
+        orgsSent = Gauge
+                .build()
+                .name("aggregator_job_orgs_sent")
+                .help("Number of orgs whose aggregation commands were sent.")
+                .register(registry);
+        orgsFailed = Gauge
+                .build()
+                .name("aggregator_job_orgs_failed")
+                .help("Number of orgs whose aggregation commands could not be sent.")
+                .register(registry);
+        pendingAggregationCommands.stream()
+                .map(AggregationCommand::getStart)
+                .min(Comparator.naturalOrder())
+                .ifPresent(oldestStart -> Gauge
+                        .build()
+                        .name("aggregator_job_oldest_last_run_age_seconds")
+                        .help("Age in seconds of the oldest last run among the orgs processed by the aggregator job.")
+                        .register(registry)
+                        .set(Duration.between(oldestStart, endTime).toSeconds()));
 
         return pendingAggregationCommands;
     }
 
-    private void sendIt(List<AggregationCommand> aggregationCommands) {
-
-        List<Event> eventList = new ArrayList<>();
-        aggregationCommands.stream().forEach(aggregationCommand -> {
-            Payload.PayloadBuilder payloadBuilder = new Payload.PayloadBuilder();
-            Map<String, Object> payload = JsonObject.mapFrom(aggregationCommand).getMap();
-            payload.forEach(payloadBuilder::withAdditionalProperty);
-
-            eventList.add(new Event.EventBuilder()
-                .withMetadata(new Metadata.MetadataBuilder().build())
-                .withPayload(payloadBuilder.build())
-                .build());
-        });
-
-        Action action = new Action.ActionBuilder()
-            .withBundle(BUNDLE_NAME)
-            .withApplication(APP_NAME)
-            .withEventType(EVENT_TYPE_NAME)
-            .withOrgId(aggregationCommands.get(0).getAggregationKey().getOrgId())
-            .withTimestamp(LocalDateTime.now(UTC))
-            .withEvents(eventList)
-            .withContext(new Context.ContextBuilder()
-                .withAdditionalProperty("single_daily_digest_enabled", true)
-                .build())
-            .build();
-
-        String encodedAction = Parser.encode(action);
-        Log.infof("Encoded Payload: %s", encodedAction);
-        Message<String> message = Message.of(encodedAction);
-        emitterIngress.send(message);
+    private static LocalDateTime getOldestStart(List<AggregationCommand> aggregationCommands) {
+        return aggregationCommands.stream()
+                .map(AggregationCommand::getStart)
+                .min(Comparator.naturalOrder())
+                .orElse(LocalDateTime.MAX);
     }
 
     Gauge getPairsProcessed() {
         return pairsProcessed;
     }
 
+    Gauge getOrgsSent() {
+        return orgsSent;
+    }
+
+    Gauge getOrgsFailed() {
+        return orgsFailed;
+    }
+
     // For automatic tests purpose
     protected void setDefaultDailyDigestTime(LocalTime defaultDailyDigestTime) {
         this.defaultDailyDigestTime = defaultDailyDigestTime;
@@ -11,6 +11,7 @@ import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Gauge;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
 import io.smallrye.reactive.messaging.memory.InMemoryConnector;
 import io.smallrye.reactive.messaging.memory.InMemorySink;
 import jakarta.enterprise.inject.Any;
@@ -25,12 +26,15 @@ import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
 import static java.time.ZoneOffset.UTC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
 
 @QuarkusTest
 @QuarkusTestResource(TestLifecycleManager.class)
@@ -42,6 +46,9 @@ class DailyEmailAggregationJobTest {
     @Inject
     DailyEmailAggregationJob testee;
 
+    @InjectSpy
+    AggregationCommandSender aggregationCommandSender;
+
     @Inject
     @Any
     InMemoryConnector connector;
@@ -312,4 +319,58 @@ class DailyEmailAggregationJobTest {
 
         assertEquals(0, emailAggregations.size());
     }
+
+    @Test
+    void shouldSendOldestLastRunFirst() {
+        helpers.addEmailAggregation("recentOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addEmailAggregation("oldestOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addEmailAggregation("olderOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addEmailAggregation("olderOrgId", "rhel", "unknown-application", "somePolicyId", "someHostId");
+        addAggregationOrgConfig("recentOrgId", LocalDateTime.now(UTC).minusDays(1));
+        addAggregationOrgConfig("oldestOrgId", LocalDateTime.now(UTC).minusDays(3));
+        addAggregationOrgConfig("olderOrgId", LocalDateTime.now(UTC).minusDays(2));
+
+        testee.processDailyEmail();
+
+        List<String> orgIds = getRecordsFromKafka().stream()
+            .map(AggregationCommand::getOrgId)
+            .distinct()
+            .collect(Collectors.toList());
+        assertEquals(List.of("oldestOrgId", "olderOrgId", "recentOrgId"), orgIds);
+        assertEquals(3.0, testee.getOrgsSent().get());
+        assertEquals(0.0, testee.getOrgsFailed().get());
+    }
+
+    @Test
+    void shouldSendOtherOrgsWhenOneOrgFails() {
+        helpers.addEmailAggregation("failingOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addEmailAggregation("someOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addEmailAggregation("anotherOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        LocalDateTime lastRun = LocalDateTime.now(UTC).minusDays(1).withNano(0);
+        // The failing org is sent first, it must not prevent the other orgs from being sent.
+        addAggregationOrgConfig("failingOrgId", lastRun.minusDays(1));
+        addAggregationOrgConfig("someOrgId", lastRun);
+        addAggregationOrgConfig("anotherOrgId", lastRun);
+        doThrow(new IllegalStateException("Kafka is down")).when(aggregationCommandSender)
+            .send(argThat(commands -> commands != null && "failingOrgId".equals(commands.get(0).getOrgId())));
+
+        testee.processDailyEmail();
+
+        List<AggregationCommand> listCommand = getRecordsFromKafka();
+        assertEquals(2, listCommand.size());
+        checkAggCommand(listCommand, "someOrgId", "rhel", "policies");
+        checkAggCommand(listCommand, "anotherOrgId", "rhel", "policies");
+        assertEquals(2.0, testee.getOrgsSent().get());
+        assertEquals(1.0, testee.getOrgsFailed().get());
+
+        // Only the orgs that were sent have their last run updated, the failing org will be retried.
+        assertEquals(lastRun.minusDays(1), helpers.findAggregationOrgConfigByOrgId("failingOrgId").getLastRun());
+        assertTrue(lastRun.isBefore(helpers.findAggregationOrgConfigByOrgId("someOrgId").getLastRun()));
+        assertTrue(lastRun.isBefore(helpers.findAggregationOrgConfigByOrgId("anotherOrgId").getLastRun()));
+    }
+
+    private void addAggregationOrgConfig(String orgId, LocalDateTime lastRun) {
+        LocalTime now = LocalTime.now(UTC);
+        helpers.addAggregationOrgConfig(new AggregationOrgConfig(orgId, LocalTime.of(now.getHour(), now.getMinute()), lastRun));
+    }
 }
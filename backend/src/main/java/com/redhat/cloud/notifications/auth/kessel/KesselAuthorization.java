@@ -8,6 +8,8 @@ import com.redhat.cloud.notifications.routers.SecurityContextUtil;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -23,6 +25,7 @@ import org.project_kessel.api.relations.v1beta1.SubjectReference;
 import org.project_kessel.relations.client.CheckClient;
 import org.project_kessel.relations.client.LookupClient;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -54,6 +57,11 @@ public class KesselAuthorization {
      * particular permission for a subject.
      */
     private static final String KESSEL_METRICS_PERMISSION_CHECK_TIMER_NAME = "notifications.kessel.relationships.permission.check.requests";
+    /**
+     * Represents the name of the cache that holds the integrations each
+     * subject is authorized to access, per permission.
+     */
+    public static final String AUTHORIZED_INTEGRATIONS_CACHE_NAME = "kessel-authorized-integrations";
 
     @Inject
     CheckClient checkClient;
@@ -67,6 +75,9 @@ public class KesselAuthorization {
     @Inject
     BackendConfig backendConfig;
 
+    @CacheName(AUTHORIZED_INTEGRATIONS_CACHE_NAME)
+    Cache authorizedIntegrationsCache;
+
     /**
      * Checks if the subject on the security context has permission on the
      * given resource. Throws
@@ -125,12 +136,45 @@ public class KesselAuthorization {
      *                        identity.
      * @param integrationPermission the integration's permission we want to use
      *                              to filter the target integrations with.
-     * @return a set of integration IDs the user has permission to access.
+     * @return an unmodifiable set of integration IDs the user has permission
+     * to access.
      */
     public Set<UUID> lookupAuthorizedIntegrations(final SecurityContext securityContext, final IntegrationPermission integrationPermission) {
         // Identify the subject.
         final RhIdentity identity = SecurityContextUtil.extractRhIdentity(securityContext);
 
+        // The lookup streams every authorized integration from Kessel, so its
+        // result is kept for a short time to avoid repeating it for every page
+        // the subject requests.
+        final AuthorizedIntegrationsKey key = new AuthorizedIntegrationsKey(identity.getOrgId(), identity.getUserId(), integrationPermission.getKesselPermissionName());
+
+        return this.authorizedIntegrationsCache
+            .get(key, k -> this.lookupAuthorizedIntegrations(identity, integrationPermission))
+            .await().indefinitely();
+    }
+
+    /**
+     * Discards the cached authorized integrations of every subject of the
+     * given organization. It must be called when integrations are created or
+     * deleted, so that the subjects see the change right away.
+     * @param orgId the organization the integrations belong to.
+     */
+    public void invalidateAuthorizedIntegrations(final String orgId) {
+        this.authorizedIntegrationsCache
+            .invalidateIf(key -> key instanceof AuthorizedIntegrationsKey authorizedIntegrationsKey && orgId.equals(authorizedIntegrationsKey.orgId()))
+            .await().indefinitely();
+    }
+
+    /**
+     * Looks up the integrations the given subject has the given permission
+     * for, without using the cache.
+     * @param identity the subject's identity.
+     * @param integrationPermission the integration's permission we want to use
+     *                              to filter the target integrations with.
+     * @return an unmodifiable set of integration IDs the user has permission
+     * to access.
+     */
+    private Set<UUID> lookupAuthorizedIntegrations(final RhIdentity identity, final IntegrationPermission integrationPermission) {
         // Build the lookup request for Kessel.
         final LookupResourcesRequest request = this.buildLookupResourcesRequest(identity, integrationPermission);
 
@@ -166,7 +210,7 @@ public class KesselAuthorization {
             uuids.add(UUID.fromString(response.getResource().getId()));
         }
 
-        return uuids;
+        return Collections.unmodifiableSet(uuids);
     }
 
     /**
@@ -224,4 +268,13 @@ public class KesselAuthorization {
     private String getUserId(RhIdentity identity) {
         return backendConfig.getKesselDomain() + "/" + identity.getUserId();
     }
+
+    /**
+     * Identifies the cached authorized integrations of a subject for a
+     * permission.
+     * @param orgId the subject's organization.
+     * @param userId the subject's user identifier.
+     * @param permission the Kessel permission's name.
+     */
+    record AuthorizedIntegrationsKey(String orgId, String userId, String permission) { }
 }
@@ -0,0 +1,29 @@
+package com.redhat.cloud.notifications.db.functions;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the {@code equals_any(value, array)} HQL function, which is rendered as {@code value = any(array)}.
+ * Unlike an {@code IN} list, the array is bound as a single parameter, so the size of the SQL statement does not
+ * depend on the number of values and PostgreSQL can reuse the statement.
+ */
+public class EqualsAnyFunctionContributor implements FunctionContributor {
+
+    public static final String EQUALS_ANY = "equals_any";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+            .getBasicTypeRegistry()
+            .resolve(StandardBasicTypes.BOOLEAN);
+
+        functionContributions.getFunctionRegistry()
+            .patternDescriptorBuilder(EQUALS_ANY, "(?1 = any(?2))")
+            .setExactArgumentCount(2)
+            .setInvariantType(booleanType)
+            .register();
+    }
+}
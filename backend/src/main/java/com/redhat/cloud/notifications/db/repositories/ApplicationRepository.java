@@ -190,6 +190,17 @@ public class ApplicationRepository {
 
     }
 
+    /**
+     * Returns all event types, with their application fetched so that they can be used outside of the persistence
+     * context which loaded them.
+     * @return all event types
+     */
+    public List<EventType> getEventTypesWithApplication() {
+        String query = "SELECT et FROM EventType et JOIN FETCH et.application";
+        return entityManager.createQuery(query, EventType.class)
+                .getResultList();
+    }
+
     public List<EventType> getEventTypes(UUID appId) {
         String query = "FROM EventType WHERE application.id = :appId order by name";
         Application app = entityManager.find(Application.class, appId);
@@ -4,8 +4,8 @@ import com.redhat.cloud.notifications.config.BackendConfig;
 import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.models.BehaviorGroup;
 import com.redhat.cloud.notifications.models.Bundle;
-import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.EventType;
+import com.redhat.cloud.notifications.routers.UserPreferencesSchemaCache;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -19,10 +19,12 @@ import jakarta.ws.rs.NotFoundException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
@@ -43,6 +45,9 @@ public class BehaviorGroupRepository {
     @Inject
     BackendConfig backendConfig;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
     /**
      * Counts all the behavior groups by their org id and event type id.
      * @param orgId the org id to filter with.
@@ -269,6 +274,7 @@ public class BehaviorGroupRepository {
 
     @Transactional
     public boolean delete(String orgId, UUID behaviorGroupId, boolean isDefaultBehavior) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         checkBehaviorGroup(behaviorGroupId, isDefaultBehavior);
         String query = "DELETE FROM BehaviorGroup WHERE id = :id";
 
@@ -290,6 +296,7 @@ public class BehaviorGroupRepository {
 
     @Transactional
     public boolean linkEventTypeDefaultBehavior(UUID eventTypeId, UUID behaviorGroupId) {
+        userPreferencesSchemaCache.invalidateForcedEmails(null);
         checkBehaviorGroup(behaviorGroupId, true);
         String insertQuery = "INSERT INTO event_type_behavior (event_type_id, behavior_group_id, created) " +
                 "VALUES (:eventTypeId, :behaviorGroupId, :created) " +
@@ -304,6 +311,7 @@ public class BehaviorGroupRepository {
 
     @Transactional
     public boolean unlinkEventTypeDefaultBehavior(UUID eventTypeId, UUID behaviorGroupId) {
+        userPreferencesSchemaCache.invalidateForcedEmails(null);
         checkBehaviorGroup(behaviorGroupId, true);
         String deleteQuery = "DELETE FROM EventTypeBehavior " +
                 "WHERE eventType.id = :eventTypeId " +
@@ -322,6 +330,7 @@ public class BehaviorGroupRepository {
      */
     @Transactional
     public void updateBehaviorEventTypes(String orgId, UUID behaviorGroupId, Set<UUID> eventTypeIds) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         BehaviorGroup behaviorGroup = entityManager.find(BehaviorGroup.class, behaviorGroupId);
         if (behaviorGroup == null || !behaviorGroup.getOrgId().equals(orgId)) {
             throw new NotFoundException("Behavior group not found in the org");
@@ -370,20 +379,21 @@ public class BehaviorGroupRepository {
         eventTypesToAdd.removeAll(eventTypesFromDb);
 
         if (!eventTypesToAdd.isEmpty()) {
-            for (UUID eventTypeId : eventTypesToAdd) {
-                String insertQuery = "INSERT INTO event_type_behavior (event_type_id, behavior_group_id, created) " +
-                        "SELECT :eventTypeId, :behaviorGroupId, :created";
-                entityManager.createNativeQuery(insertQuery)
-                        .setParameter("eventTypeId", eventTypeId)
-                        .setParameter("behaviorGroupId", behaviorGroupId)
-                        .setParameter("created", LocalDateTime.now(UTC))
-                        .executeUpdate();
-            }
+            // All links are inserted with a single statement, whatever the number of event types.
+            String insertQuery = "INSERT INTO event_type_behavior (event_type_id, behavior_group_id, created) " +
+                    "SELECT event_type_id, :behaviorGroupId, :created FROM unnest(CAST(:eventTypeIds AS uuid[])) AS ids(event_type_id) " +
+                    "ON CONFLICT (event_type_id, behavior_group_id) DO NOTHING";
+            entityManager.createNativeQuery(insertQuery)
+                    .setParameter("eventTypeIds", toArrayLiteral(eventTypesToAdd))
+                    .setParameter("behaviorGroupId", behaviorGroupId)
+                    .setParameter("created", LocalDateTime.now(UTC))
+                    .executeUpdate();
         }
     }
 
     @Transactional
     public Set<UUID> updateEventTypeBehaviors(String orgId, UUID eventTypeId, Set<UUID> behaviorGroupIds) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         Set<UUID> updatedBg = new HashSet<>();
 
         // First, let's make sure the event type exists.
@@ -441,14 +451,15 @@ public class BehaviorGroupRepository {
                 List<UUID> behaviorsToInsert = new ArrayList<>(behaviorGroupIds);
                 behaviorsToInsert.removeAll(behaviorsFromDb);
                 updatedBg.addAll(behaviorsToInsert);
-                for (UUID behaviorGroupId : behaviorsToInsert) {
+                if (!behaviorsToInsert.isEmpty()) {
+                    // All links are inserted with a single statement, whatever the number of behavior groups.
                     String insertQuery = "INSERT INTO event_type_behavior (event_type_id, behavior_group_id, created) " +
-                            "SELECT :eventTypeId, :behaviorGroupId, :created " +
-                            "WHERE EXISTS (SELECT 1 FROM behavior_group WHERE org_id = :orgId AND id = :behaviorGroupId) " +
+                            "SELECT :eventTypeId, id, :created FROM behavior_group " +
+                            "WHERE org_id = :orgId AND id = ANY(CAST(:behaviorGroupIds AS uuid[])) " +
                             "ON CONFLICT (event_type_id, behavior_group_id) DO NOTHING";
                     entityManager.createNativeQuery(insertQuery)
                             .setParameter("eventTypeId", eventTypeId)
-                            .setParameter("behaviorGroupId", behaviorGroupId)
+                            .setParameter("behaviorGroupIds", toArrayLiteral(behaviorsToInsert))
                             .setParameter("created", LocalDateTime.now(UTC))
                             .setParameter("orgId", orgId)
                             .executeUpdate();
@@ -471,6 +482,7 @@ public class BehaviorGroupRepository {
      */
     @Transactional
     public void appendBehaviorGroupToEventType(final String orgId, final UUID behaviorGroupUuid, final UUID eventTypeUuid) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         final String appendBehaviorGroupQuery =
             "INSERT INTO " +
                 "event_type_behavior(behavior_group_id, event_type_id, created) " +
@@ -507,6 +519,7 @@ public class BehaviorGroupRepository {
 
     @Transactional
     public void appendActionToBehaviorGroup(final UUID behaviorGroupUuid, final UUID endpointUuid, final int position, final String orgId) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         final String appendBehaviorGroupQuery =
             "INSERT INTO behavior_group_action(behavior_group_id, endpoint_id, created, position) " +
                 "SELECT :behaviorGroupUuid, :endpointUuid, :created, :position " +
@@ -537,6 +550,7 @@ public class BehaviorGroupRepository {
      */
     @Transactional
     public void deleteBehaviorGroupFromEventType(final UUID eventTypeUuid, final UUID behaviorGroupUuid, final String orgId) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         final var deleteFromEventTypeQuery =
             "DELETE FROM " +
                 "EventTypeBehavior AS etb " +
@@ -572,6 +586,7 @@ public class BehaviorGroupRepository {
 
     @Transactional
     public void deleteEndpointFromBehaviorGroup(final UUID behaviorGroupUuid, final Set<UUID> endpointUuids, final String orgId) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         final var deleteFromEventTypeQuery =
             "DELETE FROM BehaviorGroupAction AS bga " +
                 "WHERE bga.behaviorGroup.id = :behaviorGroupUuid " +
@@ -635,6 +650,7 @@ public class BehaviorGroupRepository {
 
     @Transactional
     public void updateBehaviorGroupActions(String orgId, UUID behaviorGroupId, List<UUID> endpointIds) {
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
 
         // First, let's make sure the behavior group exists and is owned by the current organization.
         String checkBehaviorGroupQuery = "SELECT 1 FROM BehaviorGroup WHERE id = :id AND ";
@@ -685,24 +701,24 @@ public class BehaviorGroupRepository {
                     .executeUpdate();
         }
 
-        for (UUID endpointId : endpointIds) {
+        if (!endpointIds.isEmpty()) {
             /*
-             * Then, we'll execute an "upsert" based on the given endpointIds list:
+             * Then, we'll execute a single "upsert" statement based on the given endpointIds list:
              * - if an action already exists, its position will be updated
              * - otherwise, the action will be inserted into the database
              * In the end, all inserted or updated actions will have the same position than the endpointIds list order.
+             * When an endpoint is listed more than once, its first position is used.
              */
             String upsertQuery = "INSERT INTO behavior_group_action (behavior_group_id, endpoint_id, position, created) " +
-                    "SELECT :behaviorGroupId, :endpointId, :position, :created " +
-                    "WHERE EXISTS (SELECT 1 FROM endpoints WHERE org_id " +
-                    (orgId == null ? "IS NULL" : "= :orgId") +
-                    " AND id = :endpointId) " +
-                    "ON CONFLICT (behavior_group_id, endpoint_id) DO UPDATE SET position = :position";
+                    "SELECT DISTINCT ON (ids.endpoint_id) :behaviorGroupId, ids.endpoint_id, ids.position - 1, :created " +
+                    "FROM unnest(CAST(:endpointIds AS uuid[])) WITH ORDINALITY AS ids(endpoint_id, position) " +
+                    "JOIN endpoints e ON e.id = ids.endpoint_id AND e.org_id " + (orgId == null ? "IS NULL " : "= :orgId ") +
+                    "ORDER BY ids.endpoint_id, ids.position " +
+                    "ON CONFLICT (behavior_group_id, endpoint_id) DO UPDATE SET position = EXCLUDED.position";
 
             var sessionQuery = entityManager.createNativeQuery(upsertQuery)
                     .setParameter("behaviorGroupId", behaviorGroupId)
-                    .setParameter("endpointId", endpointId)
-                    .setParameter("position", endpointIds.indexOf(endpointId))
+                    .setParameter("endpointIds", toArrayLiteral(endpointIds))
                     .setParameter("created", LocalDateTime.now(UTC));
 
             if (orgId != null) {
@@ -722,10 +738,11 @@ public class BehaviorGroupRepository {
     }
 
     public List<BehaviorGroup> findBehaviorGroupsByEndpointId(String orgId, Set<UUID> endpointIds) {
-        for (UUID endpointId : endpointIds) {
-            if (entityManager.find(Endpoint.class, endpointId) == null) {
-                throw new NotFoundException("Endpoint not found");
-            }
+        long existingEndpoints = entityManager.createQuery("SELECT COUNT(*) FROM Endpoint WHERE id IN (:endpointIds)", Long.class)
+                .setParameter("endpointIds", endpointIds)
+                .getSingleResult();
+        if (existingEndpoints != endpointIds.size()) {
+            throw new NotFoundException("Endpoint not found");
         }
 
         String query = "SELECT bg FROM BehaviorGroup bg LEFT JOIN FETCH bg.bundle JOIN bg.actions a WHERE bg.orgId = :orgId AND a.endpoint.id in (:endpointIds)";
@@ -791,4 +808,18 @@ public class BehaviorGroupRepository {
 
         return count < MAXIMUM_NUMBER_BEHAVIOR_GROUPS;
     }
+
+    /**
+     * Builds the PostgreSQL literal of a UUID array, which is bound as a single parameter and cast to {@code uuid[]}
+     * by the native queries. The literal doesn't need any escaping since it is only made of UUIDs.
+     * @param ids the UUIDs.
+     * @return the array literal.
+     */
+    static String toArrayLiteral(Collection<UUID> ids) {
+        StringJoiner literal = new StringJoiner(",", "{", "}");
+        for (UUID id : ids) {
+            literal.add(id.toString());
+        }
+        return literal.toString();
+    }
 }
@@ -32,6 +32,16 @@ public class BundleRepository {
                 .getResultList();
     }
 
+    /**
+     * Returns the version of the catalog, which is increased by the database each time a bundle, an application or
+     * an event type is created, updated or deleted.
+     * @return the current catalog version
+     */
+    public long getCatalogVersion() {
+        String query = "SELECT version FROM catalog_version";
+        return ((Number) entityManager.createNativeQuery(query).getSingleResult()).longValue();
+    }
+
     public Bundle getBundle(UUID id) {
         return entityManager.find(Bundle.class, id);
     }
@@ -36,7 +36,7 @@ public class EndpointEventTypeRepository {
         String query = "SELECT e FROM Endpoint e JOIN e.eventTypes ev WHERE (e.orgId = :orgId OR e.orgId IS NULL) AND ev.id = :eventTypeId";
 
         if (authorizedIds.isPresent()) {
-            query += " AND e.id in (:authorizedIds)";
+            query += " AND equals_any(e.id, :authorizedIds)";
         }
 
         if (limiter != null) {
@@ -50,7 +50,7 @@ public class EndpointEventTypeRepository {
             .setParameter("eventTypeId", eventTypeId);
 
         if (authorizedIds.isPresent()) {
-            typedQuery.setParameter("authorizedIds", authorizedIds.get());
+            typedQuery.setParameter("authorizedIds", authorizedIds.get().toArray(UUID[]::new));
         }
 
         if (limiter != null && limiter.getLimit() != null && limiter.getLimit().getLimit() > 0) {
@@ -12,6 +12,7 @@ import com.redhat.cloud.notifications.models.EndpointType;
 import com.redhat.cloud.notifications.models.PagerDutyProperties;
 import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
 import com.redhat.cloud.notifications.models.WebhookProperties;
+import com.redhat.cloud.notifications.routers.UserPreferencesSchemaCache;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -44,6 +45,9 @@ public class EndpointRepository {
     @Inject
     BackendConfig backendConfig;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
     public void checkEndpointNameDuplicate(Endpoint endpoint) {
         if (endpoint.getType() != null && endpoint.getType().isSystemEndpointType) {
             // This check does not apply for email subscriptions - as these are managed by us.
@@ -181,6 +185,8 @@ public class EndpointRepository {
 
     @Transactional
     public boolean deleteEndpoint(String orgId, UUID id) {
+        // The behavior group actions of the endpoint are deleted with it.
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
         String query = "DELETE FROM Endpoint WHERE orgId = :orgId AND id = :id";
         int rowCount = entityManager.createQuery(query)
                 .setParameter("id", id)
@@ -324,7 +330,7 @@ public class EndpointRepository {
                                                 .ifOr(basicTypes.size() > 0, "e.compositeType.type IN (:endpointType)", "endpointType", basicTypes)
                                                 .ifOr(compositeTypes.size() > 0, "e.compositeType IN (:compositeTypes)", "compositeTypes", compositeTypes)
                                 )
-                                .ifAnd(authorizedIds != null, "e.id IN (:authorizedIds)", "authorizedIds", authorizedIds)
+                                .ifAnd(authorizedIds != null, "equals_any(e.id, :authorizedIds)", "authorizedIds", (Supplier<UUID[]>) () -> authorizedIds.toArray(UUID[]::new))
                                 .ifAnd(activeOnly != null, "e.enabled = :enabled", "enabled", activeOnly)
                                 .ifAnd(
                                         name != null && !name.isEmpty(),
@@ -4,6 +4,7 @@ import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.models.CompositeEndpointType;
 import com.redhat.cloud.notifications.models.EndpointType;
 import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.models.NotificationHistory;
 import com.redhat.cloud.notifications.models.NotificationStatus;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -14,7 +15,10 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -25,9 +29,18 @@ public class EventRepository {
     @Inject
     EntityManager entityManager;
 
+    /**
+     * Returns a page of the event log. The events only hold the fields shown by the event log, the heavy columns are
+     * only read when they are requested.
+     * @param fetchNotificationHistory whether the notification history entries of the events should be fetched
+     * @param includeDetails whether the details of the notification history entries should be fetched
+     * @param includePayload whether the payload of the events should be fetched
+     * @return the events of the page
+     */
     public List<Event> getEvents(String orgId, Set<UUID> bundleIds, Set<UUID> appIds, String eventTypeDisplayName,
                                       LocalDate startDate, LocalDate endDate, Set<EndpointType> endpointTypes, Set<CompositeEndpointType> compositeEndpointTypes,
-                                      Set<Boolean> invocationResults, boolean fetchNotificationHistory, Set<NotificationStatus> status, Query query) {
+                                      Set<Boolean> invocationResults, boolean fetchNotificationHistory, boolean includeDetails, boolean includePayload,
+                                      Set<NotificationStatus> status, Query query) {
         query.setSortFields(Event.SORT_FIELDS);
         query.setDefaultSortBy("created:DESC");
         Optional<Query.Sort> sort = query.getSort();
@@ -36,20 +49,57 @@ public class EventRepository {
             return new ArrayList<>();
         }
 
-        String hql;
-        if (fetchNotificationHistory) {
-            hql = "SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.historyEntries he WHERE e.id IN (:eventIds)";
-        } else {
-            hql = "FROM Event e WHERE e.id IN (:eventIds)";
+        String hql = "SELECT NEW Event(e.id, e.bundleDisplayName, e.applicationDisplayName, e.eventTypeDisplayName, e.created";
+        if (includePayload) {
+            hql += ", e.payload";
         }
+        hql += ") FROM Event e WHERE e.id IN (:eventIds)";
 
         if (sort.isPresent()) {
             hql += getOrderBy(sort.get());
         }
 
-        return entityManager.createQuery(hql, Event.class)
+        List<Event> events = entityManager.createQuery(hql, Event.class)
+                .setParameter("eventIds", eventIds)
+                .getResultList();
+
+        if (fetchNotificationHistory) {
+            Map<UUID, Set<NotificationHistory>> historyEntries = getHistoryEntries(eventIds, includeDetails);
+            for (Event event : events) {
+                event.setHistoryEntries(historyEntries.getOrDefault(event.getId(), Set.of()));
+            }
+        }
+
+        return events;
+    }
+
+    /*
+     * The history entries are read as tuples because their event is only needed to group them, and because their
+     * endpoint may have been deleted.
+     */
+    private Map<UUID, Set<NotificationHistory>> getHistoryEntries(List<UUID> eventIds, boolean includeDetails) {
+        String hql = "SELECT nh.event.id, nh.id, nh.endpoint.id, nh.compositeEndpointType.type, nh.compositeEndpointType.subType, " +
+                "nh.invocationResult, nh.status";
+        if (includeDetails) {
+            hql += ", nh.details";
+        }
+        hql += " FROM NotificationHistory nh WHERE nh.event.id IN (:eventIds)";
+
+        List<Object[]> rows = entityManager.createQuery(hql, Object[].class)
                 .setParameter("eventIds", eventIds)
                 .getResultList();
+
+        Map<UUID, Set<NotificationHistory>> historyEntries = new HashMap<>();
+        for (Object[] row : rows) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> details = includeDetails ? (Map<String, Object>) row[7] : null;
+            NotificationHistory historyEntry = new NotificationHistory((UUID) row[1], null, (Boolean) row[5], (NotificationStatus) row[6], null, null, details);
+            historyEntry.setEndpointId((UUID) row[2]);
+            historyEntry.setEndpointType((EndpointType) row[3]);
+            historyEntry.setEndpointSubType((String) row[4]);
+            historyEntries.computeIfAbsent((UUID) row[0], eventId -> new HashSet<>()).add(historyEntry);
+        }
+        return historyEntries;
     }
 
     public Long count(String orgId, Set<UUID> bundleIds, Set<UUID> appIds, String eventTypeDisplayName,
@@ -7,6 +7,7 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -30,6 +31,23 @@ public class EventTypeRepository {
         }
     }
 
+    /**
+     * Finds the event types of an application by their names.
+     * @param applicationId the identifier of the application.
+     * @param eventTypeNames the names of the event types to find.
+     * @return the event types found, unknown names are ignored.
+     */
+    public List<EventType> findByApplicationAndNames(UUID applicationId, Collection<String> eventTypeNames) {
+        if (eventTypeNames.isEmpty()) {
+            return List.of();
+        }
+        String query = "SELECT evt FROM EventType evt WHERE evt.application.id = :applicationId AND evt.name IN (:eventTypeNames)";
+        return entityManager.createQuery(query, EventType.class)
+            .setParameter("applicationId", applicationId)
+            .setParameter("eventTypeNames", eventTypeNames)
+            .getResultList();
+    }
+
     public Optional<Bundle> findBundleByEventTypeId(UUID eventTypeId) {
         String query = "SELECT evt.application.bundle FROM EventType evt WHERE evt.id = :eventTypeId";
         try {
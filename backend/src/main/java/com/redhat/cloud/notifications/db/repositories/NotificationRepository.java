@@ -9,7 +9,11 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import jakarta.ws.rs.BadRequestException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -54,6 +58,72 @@ public class NotificationRepository {
                 .getResultList();
     }
 
+    /**
+     * Gets a page of the notification history of the given endpoint, from the most recent element to the oldest one.
+     * The page starts right after the element identified by the cursor, so the cost of the query does not depend on
+     * how deep the page is in the history, unlike the offset based paging of
+     * {@link #getNotificationHistory(String, UUID, boolean, Query)}.
+     * @param orgId the event's OrgId the notifications will be filtered with.
+     * @param endpoint the endpoint's ID the notifications will be filtered with.
+     * @param includeDetails should the details of the notifications be fetched?
+     * @param after the cursor of the last element of the previous page, or {@code null} to get the first page.
+     * @param limit the maximum number of elements of the page.
+     * @return the page of notification history elements.
+     */
+    public List<NotificationHistory> getNotificationHistory(String orgId, UUID endpoint, boolean includeDetails, HistoryCursor after, int limit) {
+        String query = "SELECT NEW NotificationHistory(nh.id, nh.invocationTime, nh.invocationResult, nh.status, nh.endpoint, nh.created";
+        if (includeDetails) {
+            query += ", nh.details";
+        }
+        query += ") FROM NotificationHistory nh WHERE nh.endpoint.id = :endpointId AND nh.event.orgId = :orgId";
+        if (after != null) {
+            query += " AND (nh.created < :created OR (nh.created = :created AND nh.id < :id))";
+        }
+        // The ID breaks the ties between the elements created at the same time, so that the cursor is unique.
+        query += " ORDER BY nh.created DESC, nh.id DESC";
+
+        TypedQuery<NotificationHistory> historyQuery = entityManager.createQuery(query, NotificationHistory.class)
+                .setParameter("orgId", orgId)
+                .setParameter("endpointId", endpoint)
+                .setMaxResults(Math.min(limit, MAX_NOTIFICATION_HISTORY_RESULTS));
+        if (after != null) {
+            historyQuery.setParameter("created", after.created())
+                    .setParameter("id", after.id());
+        }
+
+        return historyQuery.getResultList();
+    }
+
+    /**
+     * Counts the number of notification history elements for the given Endpoint ID and OrgId, up to the given limit.
+     * Unlike {@link #countNotificationHistoryElements(UUID, String)}, the cost of the query does not depend on the
+     * size of the history.
+     * @param endpointId the endpoint's ID the notifications will be filtered with.
+     * @param orgId the event's OrgId the notifications will be filtered with.
+     * @param limit the maximum number of elements to count.
+     * @return the number of notification history elements, or {@code limit + 1} if there are more than {@code limit}
+     * elements.
+     */
+    public long countNotificationHistoryElements(UUID endpointId, String orgId, int limit) {
+        final String query =
+            "SELECT " +
+                "nh.id " +
+            "FROM " +
+                "NotificationHistory AS nh " +
+            "WHERE " +
+                "nh.endpoint.id = :endpointId " +
+            "AND " +
+                "nh.event.orgId = :orgId";
+
+        return this.entityManager
+            .createQuery(query, UUID.class)
+            .setParameter("endpointId", endpointId)
+            .setParameter("orgId", orgId)
+            .setMaxResults(limit + 1)
+            .getResultList()
+            .size();
+    }
+
     /**
      * Counts the number of notification history elements for the given Endpoint ID and OrgId.
      * @param endpointId the endpoint's ID the notifications will be filtered with.
@@ -96,4 +166,34 @@ public class NotificationRepository {
         }
     }
 
+    /**
+     * Identifies the position of a notification history element in the history of an endpoint.
+     * @param created the creation date of the element.
+     * @param id the ID of the element.
+     */
+    public record HistoryCursor(LocalDateTime created, UUID id) {
+
+        public static HistoryCursor of(NotificationHistory notificationHistory) {
+            return new HistoryCursor(notificationHistory.getCreated(), notificationHistory.getId());
+        }
+
+        /**
+         * Decodes a cursor that was returned to the client by {@link #encode()}.
+         * @param encoded the encoded cursor.
+         * @return the decoded cursor.
+         * @throws BadRequestException if the cursor is invalid.
+         */
+        public static HistoryCursor decode(String encoded) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("/", 2);
+                return new HistoryCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid 'after' query parameter", e);
+            }
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString((created + "/" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -4,12 +4,20 @@ import com.redhat.cloud.notifications.config.BackendConfig;
 import com.redhat.cloud.notifications.models.EventType;
 import com.redhat.cloud.notifications.models.EventTypeEmailSubscription;
 import com.redhat.cloud.notifications.models.SubscriptionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
@@ -19,12 +27,23 @@ import static com.redhat.cloud.notifications.models.SubscriptionType.INSTANT;
 @ApplicationScoped
 public class SubscriptionRepository {
 
+    /*
+     * Each row of the bulk upsert is bound with 3 parameters.
+     * This limit keeps the statements far below the maximum number of parameters supported by Postgres.
+     */
+    private static final int MAX_ROWS_PER_UPSERT = 1000;
+    private static final String UPDATE_SUBSCRIPTIONS_TIMER_NAME = "notifications.subscriptions.bulk.update";
+    private static final String CHANGES_TAG_KEY = "changes";
+
     @Inject
     EntityManager entityManager;
 
     @Inject
     BackendConfig backendConfig;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     public void subscribe(String orgId, String username, UUID eventTypeId, SubscriptionType subscriptionType) {
         updateSubscription(orgId, username, eventTypeId, subscriptionType, true);
     }
@@ -38,7 +57,7 @@ public class SubscriptionRepository {
         // We're performing an upsert to update the user subscription.
         String sql = "INSERT INTO email_subscriptions(org_id, user_id, event_type_id, subscription_type, subscribed) " +
             "VALUES (:orgId, :userId, :eventTypeId, :subscriptionType, :subscribed) " +
-            "ON CONFLICT (org_id, user_id, event_type_id, subscription_type) DO UPDATE SET subscribed = :subscribed";
+            "ON CONFLICT (org_id, user_id, event_type_id, subscription_type) DO UPDATE SET subscribed = :subscribed, updated = EXCLUDED.updated";
 
         // HQL does not support the ON CONFLICT clause, so we need a native query here
         entityManager.createNativeQuery(sql)
@@ -50,6 +69,69 @@ public class SubscriptionRepository {
             .executeUpdate();
     }
 
+    /**
+     * Applies all the given subscription changes of a user with as few upsert statements as possible, instead of
+     * one statement per event type and subscription type. If the same event type and subscription type appear
+     * several times, the last change wins.
+     * @param orgId the org ID of the user
+     * @param username the username of the user
+     * @param updates the subscription changes
+     */
+    @Transactional
+    public void updateSubscriptions(String orgId, String username, Collection<SubscriptionUpdate> updates) {
+        // Postgres rejects an upsert which affects the same row twice, so the changes are deduplicated first.
+        Map<SubscriptionKey, Boolean> changes = new LinkedHashMap<>();
+        for (SubscriptionUpdate update : updates) {
+            changes.put(new SubscriptionKey(update.eventTypeId(), update.subscriptionType()), update.subscribed());
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample timer = Timer.start(meterRegistry);
+        List<Map.Entry<SubscriptionKey, Boolean>> rows = new ArrayList<>(changes.entrySet());
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_UPSERT) {
+            List<Map.Entry<SubscriptionKey, Boolean>> chunk = rows.subList(from, Math.min(from + MAX_ROWS_PER_UPSERT, rows.size()));
+
+            StringBuilder sql = new StringBuilder("INSERT INTO email_subscriptions(org_id, user_id, event_type_id, subscription_type, subscribed) VALUES ");
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(:orgId, :userId, :eventTypeId").append(i).append(", :subscriptionType").append(i).append(", :subscribed").append(i).append(')');
+            }
+            sql.append(" ON CONFLICT (org_id, user_id, event_type_id, subscription_type) DO UPDATE SET subscribed = EXCLUDED.subscribed, updated = EXCLUDED.updated");
+
+            // HQL does not support the ON CONFLICT clause, so we need a native query here
+            Query query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("orgId", orgId)
+                .setParameter("userId", username);
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter("eventTypeId" + i, chunk.get(i).getKey().eventTypeId())
+                    .setParameter("subscriptionType" + i, chunk.get(i).getKey().subscriptionType().name())
+                    .setParameter("subscribed" + i, chunk.get(i).getValue());
+            }
+            query.executeUpdate();
+        }
+        timer.stop(meterRegistry.timer(UPDATE_SUBSCRIPTIONS_TIMER_NAME, Tags.of(CHANGES_TAG_KEY, getChangesBucket(rows.size()))));
+    }
+
+    /*
+     * The latency of the bulk update depends on the number of changes. Tagging the timer with the exact number
+     * would create too many time series, so the number of changes is bucketed.
+     */
+    private static String getChangesBucket(int changes) {
+        if (changes <= 10) {
+            return "1-10";
+        } else if (changes <= 100) {
+            return "11-100";
+        } else if (changes <= 1000) {
+            return "101-1000";
+        } else {
+            return "1001+";
+        }
+    }
+
     /**
      * Resubscribes all users to the event type identified by {@code eventTypeId}
      * if that event type is subscribed by default with subscriptions locked.
@@ -82,6 +164,22 @@ public class SubscriptionRepository {
             .getResultList();
     }
 
+    /**
+     * Returns a value which changes whenever a subscription of the user is created, updated or deleted. It is read
+     * with a single aggregate query on the primary key of the subscriptions, without loading them.
+     * @param orgId the org ID of the user
+     * @param username the username of the user
+     * @return the version of the user subscriptions
+     */
+    public String getEmailSubscriptionsVersion(String orgId, String username) {
+        String sql = "SELECT COUNT(*), MAX(updated) FROM email_subscriptions WHERE org_id = :orgId AND user_id = :userId";
+        Object[] result = (Object[]) entityManager.createNativeQuery(sql)
+            .setParameter("orgId", orgId)
+            .setParameter("userId", username)
+            .getSingleResult();
+        return result[0] + "-" + result[1];
+    }
+
     public List<EventTypeEmailSubscription> getEmailSubscriptionsPerEventTypeForUser(String orgId, String username) {
         String query = "SELECT es FROM EventTypeEmailSubscription es LEFT JOIN FETCH es.eventType ev LEFT JOIN FETCH ev.application a LEFT JOIN FETCH a.bundle b " +
             "WHERE es.id.orgId = :orgId AND es.id.userId = :userId and es.id.subscriptionType in (:subscriptionTypes)";
@@ -92,6 +190,12 @@ public class SubscriptionRepository {
             .getResultList();
     }
 
+    public record SubscriptionUpdate(UUID eventTypeId, SubscriptionType subscriptionType, boolean subscribed) {
+    }
+
+    private record SubscriptionKey(UUID eventTypeId, SubscriptionType subscriptionType) {
+    }
+
     private List<SubscriptionType> getAvailableTypes() {
         if (backendConfig.isDrawerEnabled()) {
             return List.of(INSTANT, DAILY, DRAWER);
@@ -2,25 +2,29 @@ package com.redhat.cloud.notifications.oapi;
 
 import com.redhat.cloud.notifications.Constants;
 import io.quarkus.logging.Log;
+import io.quarkus.smallrye.openapi.runtime.OpenApiDocumentService;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import io.vertx.ext.web.client.WebClientOptions;
-import io.vertx.mutiny.core.Vertx;
-import io.vertx.mutiny.core.buffer.Buffer;
-import io.vertx.mutiny.ext.web.client.HttpResponse;
-import io.vertx.mutiny.ext.web.client.WebClient;
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -35,11 +39,11 @@ public class OApiFilter {
     static String INTEGRATIONS_DESCRIPTION = "The API for Integrations provides endpoints that you can use to create and manage integrations between third-party applications and the Red Hat Hybrid Cloud Console.";
     static String NOTIFICATIONS_DESCRIPTION = "The API for Notifications provides endpoints that you can use to create and manage event notifications between third-party applications and the Red Hat Hybrid Cloud Console.";
 
+    /*
+     * Builds the document served at the "quarkus.smallrye-openapi.path" path, without going through HTTP.
+     */
     @Inject
-    Vertx vertx;
-
-    @ConfigProperty(name = "quarkus.http.port", defaultValue = "8085")
-    Integer port;
+    OpenApiDocumentService openApiDocumentService;
 
     /**
      * The name of the security scheme that smallrye will create for basic authentications. The default value is taken
@@ -49,21 +53,54 @@ public class OApiFilter {
     @ConfigProperty(name = "quarkus.smallrye-openapi.security-scheme-name", defaultValue = "SecurityScheme")
     String securitySchemeName;
 
-    private WebClient client;
+    /*
+     * The OpenAPI document only changes with a new deployment, so each filtered document is built once and then served
+     * from memory. The keys are limited to the valid options and versions since the other ones fail to build.
+     */
+    private final Map<String, FilteredDocument> filteredDocuments = new ConcurrentHashMap<>();
 
-    @PostConstruct
-    void initialize() {
-        this.client = WebClient.create(vertx,
-                new WebClientOptions().setDefaultHost("localhost").setDefaultPort(port));
+    /**
+     * Serves the filtered OpenAPI document, or a "not modified" response if the client already has the current version
+     * of the document.
+     * @param request the request, used to evaluate its "If-None-Match" header.
+     * @param openApiOption the API the document is filtered for.
+     * @param version the version of the API, or {@code null} for the non versioned APIs.
+     * @return the response.
+     */
+    public Response serveOpenApi(Request request, String openApiOption, String version) {
+        FilteredDocument document = getFilteredDocument(openApiOption, version);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(document.entityTag());
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(document.content(), MediaType.APPLICATION_JSON_TYPE)
+                .tag(document.entityTag())
+                .build();
     }
 
-    public String serveOpenApi(String openApiOption, String version) {
+    FilteredDocument getFilteredDocument(String openApiOption, String version) {
         if (!openApiOptions.contains(openApiOption)) {
             throw new WebApplicationException("No openapi file for [" + openApiOption + "] found.", 404);
         }
 
-        HttpResponse<Buffer> response = client.get("/openapi.json").sendAndAwait();
-        return filterJson(response.bodyAsJsonObject(), openApiOption, version).encode();
+        return filteredDocuments.computeIfAbsent(openApiOption + "/" + version, key -> {
+            JsonObject oapiModelJson = new JsonObject(Buffer.buffer(openApiDocumentService.getJsonDocument()));
+            byte[] content = filterJson(oapiModelJson, openApiOption, version).toBuffer().getBytes();
+            Log.debugf("Filtered OpenAPI document built [openApiOption=%s, version=%s, size=%d]", openApiOption, version, content.length);
+            return new FilteredDocument(content, new EntityTag(hash(content)));
+        });
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record FilteredDocument(byte[] content, EntityTag entityTag) {
     }
 
     private JsonObject filterJson(JsonObject oapiModelJson, String openApiOption, String version) {
@@ -0,0 +1,206 @@
+package com.redhat.cloud.notifications.routers;
+
+import com.redhat.cloud.notifications.db.repositories.ApplicationRepository;
+import com.redhat.cloud.notifications.db.repositories.BundleRepository;
+import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.Bundle;
+import com.redhat.cloud.notifications.models.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Holds a snapshot of the bundles, applications and event types. The catalog is only modified through the internal
+ * API, so the snapshot is shared by all requests until it is invalidated by this pod or until the database reports
+ * that another pod modified the catalog.
+ */
+@ApplicationScoped
+public class CatalogCache {
+
+    private static final String BUILD_TIMER_NAME = "notifications.catalog.build";
+    private static final String REQUESTS_COUNTER_NAME = "notifications.catalog.requests";
+
+    @Inject
+    BundleRepository bundleRepository;
+
+    @Inject
+    ApplicationRepository applicationRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    /*
+     * The catalog is also modified by other backend pods. Once the snapshot is older than this value, the catalog
+     * version is read from the database and the snapshot is rebuilt if the version changed, so this value bounds how
+     * long a stale snapshot can be served.
+     */
+    @ConfigProperty(name = "notifications.catalog.max-age", defaultValue = "PT10S")
+    Duration maxAge;
+
+    private volatile Catalog catalog;
+
+    private Timer buildTimer;
+    private Counter hitCounter;
+    private Counter revalidatedCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void init() {
+        buildTimer = meterRegistry.timer(BUILD_TIMER_NAME);
+        hitCounter = meterRegistry.counter(REQUESTS_COUNTER_NAME, "result", "hit");
+        revalidatedCounter = meterRegistry.counter(REQUESTS_COUNTER_NAME, "result", "revalidated");
+        missCounter = meterRegistry.counter(REQUESTS_COUNTER_NAME, "result", "miss");
+    }
+
+    public Catalog get() {
+        Catalog current = catalog;
+        if (current != null && current.checkedAt().plus(maxAge).isAfter(Instant.now())) {
+            hitCounter.increment();
+            return current;
+        }
+        synchronized (this) {
+            // Another request may have refreshed the catalog while this one was waiting for the lock.
+            current = catalog;
+            if (current != null && current.checkedAt().plus(maxAge).isAfter(Instant.now())) {
+                hitCounter.increment();
+                return current;
+            }
+            long version = bundleRepository.getCatalogVersion();
+            if (current != null && current.version() == version) {
+                revalidatedCounter.increment();
+                current = current.withCheckedAt(Instant.now());
+            } else {
+                missCounter.increment();
+                current = buildTimer.record(() -> build(version));
+            }
+            catalog = current;
+            return current;
+        }
+    }
+
+    /**
+     * Discards the cached catalog. When this method is called from a transaction, the catalog is discarded again once
+     * the transaction completes, otherwise a concurrent request could cache a catalog built from the data that was
+     * committed before the transaction.
+     */
+    public void invalidate() {
+        catalog = null;
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    catalog = null;
+                }
+            });
+        }
+    }
+
+    private Catalog build(long version) {
+        // Both lists are sorted by the database, the order is preserved by the catalog.
+        List<Bundle> bundles = bundleRepository.getBundles();
+        List<Application> applications = applicationRepository.getApplications((String) null);
+        List<EventType> eventTypes = applicationRepository.getEventTypesWithApplication();
+
+        Map<UUID, Bundle> bundlesById = new HashMap<>();
+        Map<String, Bundle> bundlesByName = new HashMap<>();
+        for (Bundle bundle : bundles) {
+            bundlesById.put(bundle.getId(), bundle);
+            bundlesByName.put(bundle.getName(), bundle);
+        }
+
+        Map<UUID, List<Application>> applicationsByBundleId = new HashMap<>();
+        Map<UUID, Application> applicationsById = new HashMap<>();
+        Map<String, Application> applicationsByName = new HashMap<>();
+        for (Application application : applications) {
+            applicationsByBundleId.computeIfAbsent(application.getBundleId(), ignored -> new ArrayList<>()).add(application);
+            applicationsById.put(application.getId(), application);
+            Bundle bundle = bundlesById.get(application.getBundleId());
+            if (bundle != null) {
+                applicationsByName.put(key(bundle.getName(), application.getName()), application);
+            }
+        }
+        applicationsByBundleId.replaceAll((bundleId, bundleApplications) -> List.copyOf(bundleApplications));
+
+        Map<String, EventType> eventTypesByName = new HashMap<>();
+        for (EventType eventType : eventTypes) {
+            Application application = applicationsById.get(eventType.getApplicationId());
+            Bundle bundle = application == null ? null : bundlesById.get(application.getBundleId());
+            if (bundle != null) {
+                eventTypesByName.put(key(bundle.getName(), application.getName(), eventType.getName()), eventType);
+            }
+        }
+
+        Log.debugf("Catalog rebuilt [version=%d, bundles=%d, applications=%d, eventTypes=%d]", version, bundles.size(), applications.size(), eventTypes.size());
+        return new Catalog(version, Instant.now(), List.copyOf(bundles), unmodifiableMap(bundlesByName), List.copyOf(applications),
+            unmodifiableMap(applicationsByBundleId), unmodifiableMap(applicationsByName), unmodifiableMap(eventTypesByName));
+    }
+
+    private static String key(String... names) {
+        return String.join("/", names);
+    }
+
+    /*
+     * The entities held by the catalog are shared by all requests and must never be modified.
+     */
+    public record Catalog(long version, Instant checkedAt, List<Bundle> bundles, Map<String, Bundle> bundlesByName,
+                          List<Application> applications, Map<UUID, List<Application>> applicationsByBundleId,
+                          Map<String, Application> applicationsByName, Map<String, EventType> eventTypesByName) {
+
+        Catalog withCheckedAt(Instant checkedAt) {
+            return new Catalog(version, checkedAt, bundles, bundlesByName, applications, applicationsByBundleId, applicationsByName, eventTypesByName);
+        }
+
+        public Bundle getBundle(String bundleName) {
+            return bundlesByName.get(bundleName);
+        }
+
+        /**
+         * @param bundleName the name of the bundle, or {@code null} to get the applications of all bundles
+         * @return the applications, sorted by display name
+         */
+        public List<Application> getApplications(String bundleName) {
+            if (bundleName == null) {
+                return applications;
+            }
+            Bundle bundle = bundlesByName.get(bundleName);
+            return bundle == null ? List.of() : getApplications(bundle.getId());
+        }
+
+        public List<Application> getApplications(UUID bundleId) {
+            return applicationsByBundleId.getOrDefault(bundleId, List.of());
+        }
+
+        public Application getApplication(String bundleName, String applicationName) {
+            return applicationsByName.get(key(bundleName, applicationName));
+        }
+
+        public EventType getEventType(String bundleName, String applicationName, String eventTypeName) {
+            return eventTypesByName.get(key(bundleName, applicationName, eventTypeName));
+        }
+    }
+}
@@ -115,6 +115,8 @@ public class EndpointResource {
     public static final String HTTPS_ENDPOINT_SCHEME_REQUIRED = "The endpoint URL must start with \"https\"";
     public static final String UNSUPPORTED_ENDPOINT_TYPE = "Unsupported endpoint type";
     public static final String REDACTED_CREDENTIAL = "*****";
+    public static final String OFFSET_PAGING = "offset";
+    public static final String CURSOR_PAGING = "cursor";
 
     @Inject
     EndpointRepository endpointRepository;
@@ -237,6 +239,18 @@ public class EndpointResource {
                 name = "includeDetail",
                 description = "Include the detail in the reply",
                 schema = @Schema(type = SchemaType.BOOLEAN)
+                ),
+            @Parameter(
+                name = "paging",
+                in = ParameterIn.QUERY,
+                description = "Paging mode, either \"" + OFFSET_PAGING + "\" (default) or \"" + CURSOR_PAGING + "\". In the cursor mode, the pages are sorted from the most recent element to the oldest one, the next page is available from the \"next\" link and the count is capped at " + MAX_NOTIFICATION_HISTORY_RESULTS + " elements, which keeps the response time constant for the integrations with a large history.",
+                schema = @Schema(type = SchemaType.STRING, enumeration = { OFFSET_PAGING, CURSOR_PAGING })
+                ),
+            @Parameter(
+                name = "after",
+                in = ParameterIn.QUERY,
+                description = "Cursor of the last element of the previous page, only supported in the cursor paging mode.",
+                schema = @Schema(type = SchemaType.STRING)
                 )
         })
         public Page<NotificationHistoryDTO> getEndpointHistory(
@@ -244,30 +258,40 @@ public class EndpointResource {
                 @Context UriInfo uriInfo,
                 @PathParam("id") UUID id,
                 @QueryParam("includeDetail") Boolean includeDetail,
+                @QueryParam("paging") String paging,
+                @QueryParam("after") String after,
                 @BeanParam Query query
         ) {
             if (!this.endpointRepository.existsByUuidAndOrgId(id, getOrgId(sec))) {
                 throw new NotFoundException("Endpoint not found");
             }
 
+            final boolean cursorPaging = isCursorPaging(paging);
+
             if (this.backendConfig.isKesselRelationsEnabled(getOrgId(sec))) {
                 this.kesselAuthorization.hasPermissionOnResource(sec, IntegrationPermission.VIEW_HISTORY, ResourceType.INTEGRATION, id.toString());
 
-                return this.internalGetEndpointHistory(sec, uriInfo, id, includeDetail, query);
+                return this.internalGetEndpointHistory(sec, uriInfo, id, includeDetail, cursorPaging, after, query);
             } else {
-                return this.legacyRBACGetEndpointHistory(sec, uriInfo, id, includeDetail, query);
+                return this.legacyRBACGetEndpointHistory(sec, uriInfo, id, includeDetail, cursorPaging, after, query);
             }
         }
 
         @RolesAllowed(ConsoleIdentityProvider.RBAC_READ_INTEGRATIONS_ENDPOINTS)
-        protected Page<NotificationHistoryDTO> legacyRBACGetEndpointHistory(final SecurityContext securityContext, final UriInfo uriInfo, final UUID id, final Boolean includeDetail, final Query query) {
-            return this.internalGetEndpointHistory(securityContext, uriInfo, id, includeDetail, query);
+        protected Page<NotificationHistoryDTO> legacyRBACGetEndpointHistory(final SecurityContext securityContext, final UriInfo uriInfo, final UUID id, final Boolean includeDetail, final boolean cursorPaging, final String after, final Query query) {
+            return this.internalGetEndpointHistory(securityContext, uriInfo, id, includeDetail, cursorPaging, after, query);
         }
 
-        protected Page<NotificationHistoryDTO> internalGetEndpointHistory(final SecurityContext securityContext, final UriInfo uriInfo, final UUID id, final Boolean includeDetail, @Valid final Query query) {
+        protected Page<NotificationHistoryDTO> internalGetEndpointHistory(final SecurityContext securityContext, final UriInfo uriInfo, final UUID id, final Boolean includeDetail, final boolean cursorPaging, final String after, @Valid final Query query) {
             String orgId = getOrgId(securityContext);
             boolean doDetail = includeDetail != null && includeDetail;
 
+            if (cursorPaging) {
+                return this.getEndpointHistoryPerCursor(orgId, uriInfo, id, doDetail, after, query);
+            } else if (after != null) {
+                throw new BadRequestException("The 'after' query parameter is only supported with the cursor paging");
+            }
+
             final List<NotificationHistory> notificationHistory = this.notificationRepository.getNotificationHistory(orgId, id, doDetail, query);
             final long notificationHistoryCount = this.notificationRepository.countNotificationHistoryElements(id, orgId);
 
@@ -278,6 +302,66 @@ public class EndpointResource {
             );
         }
 
+        /**
+         * Gets a page of the endpoint's history using a cursor instead of an
+         * offset. The cost of the page and of its count does not depend on the
+         * size of the history.
+         * @param orgId the organization the endpoint belongs to.
+         * @param uriInfo the request's URI, used to build the page links.
+         * @param id the endpoint's identifier.
+         * @param includeDetail should the details be included in the page?
+         * @param after the cursor of the last element of the previous page.
+         * @param query the page related query elements.
+         * @return the page of notification history elements.
+         */
+        private Page<NotificationHistoryDTO> getEndpointHistoryPerCursor(final String orgId, final UriInfo uriInfo, final UUID id, final boolean includeDetail, final String after, final Query query) {
+            query.setSortFields(NotificationHistory.SORT_FIELDS);
+            query.getSort().ifPresent(sort -> {
+                if (!"nh.created".equals(sort.getSortColumn()) || sort.getSortOrder() != Query.Sort.Order.DESC) {
+                    throw new BadRequestException("Only the 'created:desc' sort is supported with the cursor paging");
+                }
+            });
+
+            if (query.getLimit().getOffset() != 0) {
+                throw new BadRequestException("The 'offset' and 'pageNumber' query parameters are not supported with the cursor paging");
+            }
+
+            final int limit = query.getLimit().getLimit();
+            final NotificationRepository.HistoryCursor cursor = after == null || after.isBlank() ? null : NotificationRepository.HistoryCursor.decode(after);
+
+            final List<NotificationHistory> notificationHistory = this.notificationRepository.getNotificationHistory(orgId, id, includeDetail, cursor, limit);
+            final long notificationHistoryCount = this.notificationRepository.countNotificationHistoryElements(id, orgId, MAX_NOTIFICATION_HISTORY_RESULTS);
+
+            final String baseLink = uriInfo.getPath() + "?paging=" + CURSOR_PAGING + "&limit=" + limit;
+            final Map<String, String> links = new HashMap<>();
+            links.put("first", baseLink);
+            // A full page means that there may be more elements.
+            if (notificationHistory.size() == limit) {
+                links.put("next", baseLink + "&after=" + NotificationRepository.HistoryCursor.of(notificationHistory.getLast()).encode());
+            }
+
+            final Meta meta = new Meta(Math.min(notificationHistoryCount, MAX_NOTIFICATION_HISTORY_RESULTS));
+            if (notificationHistoryCount > MAX_NOTIFICATION_HISTORY_RESULTS) {
+                meta.setCountCapped(true);
+            }
+
+            return new Page<>(
+                commonMapper.notificationHistoryListToNotificationHistoryDTOList(notificationHistory),
+                links,
+                meta
+            );
+        }
+
+        private static boolean isCursorPaging(final String paging) {
+            if (paging == null || OFFSET_PAGING.equals(paging)) {
+                return false;
+            } else if (CURSOR_PAGING.equals(paging)) {
+                return true;
+            } else {
+                throw new BadRequestException("Invalid 'paging' query parameter");
+            }
+        }
+
         @GET
         @Path("/{id}")
         @Produces(APPLICATION_JSON)
@@ -554,6 +638,10 @@ public class EndpointResource {
             this.kesselAssets.createIntegration(sec, workspaceId.toString(), createdEndpoint.getId().toString());
         }
 
+        if (this.backendConfig.isKesselRelationsEnabled(orgId)) {
+            this.kesselAuthorization.invalidateAuthorizedIntegrations(orgId);
+        }
+
         return createdEndpoint;
     }
 
@@ -760,6 +848,10 @@ public class EndpointResource {
             this.kesselAssets.deleteIntegration(securityContext, workspaceId.toString(), id.toString());
         }
 
+        if (this.backendConfig.isKesselRelationsEnabled(orgId)) {
+            this.kesselAuthorization.invalidateAuthorizedIntegrations(orgId);
+        }
+
         return Response.noContent().build();
     }
 
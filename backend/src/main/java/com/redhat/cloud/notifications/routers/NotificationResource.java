@@ -112,6 +112,9 @@ public class NotificationResource {
     @Inject
     EventTypeRepository eventTypeRepository;
 
+    @Inject
+    CatalogCache catalogCache;
+
     @Path(Constants.API_NOTIFICATIONS_V_1_0 + "/notifications")
     public static class V1 extends NotificationResource {
         @GET
@@ -246,7 +249,7 @@ public class NotificationResource {
     }
 
     public Bundle internalGetBundleByName(final String bundleName) {
-        Bundle bundle = bundleRepository.getBundle(bundleName);
+        Bundle bundle = catalogCache.get().getBundle(bundleName);
         if (bundle == null) {
             throw new NotFoundException();
         }
@@ -281,7 +284,7 @@ public class NotificationResource {
     }
 
     public Application internalGetApplicationByNameAndBundleName(final String bundleName, final String applicationName) {
-        Application application = applicationRepository.getApplication(bundleName, applicationName);
+        Application application = catalogCache.get().getApplication(bundleName, applicationName);
         if (application == null) {
             throw new NotFoundException();
         }
@@ -318,7 +321,7 @@ public class NotificationResource {
     }
 
     public EventType internalGetEventTypesByNameAndBundleAndApplicationName(final String bundleName, final String applicationName, final String eventTypeName) {
-        EventType eventType = applicationRepository.getEventType(bundleName, applicationName, eventTypeName);
+        EventType eventType = catalogCache.get().getEventType(bundleName, applicationName, eventTypeName);
         if (eventType == null) {
             throw new NotFoundException();
         }
@@ -393,7 +396,7 @@ public class NotificationResource {
     @Produces(APPLICATION_JSON)
     @Operation(summary = "List configured applications", description = "Returns a list of configured applications that includes the application name, the display name, and the ID. You can use this list to configure a filter in the UI.")
     public List<Facet> getApplicationsFacets(@Context SecurityContext sec, @QueryParam("bundleName") String bundleName) {
-        return applicationRepository.getApplications(bundleName)
+        return catalogCache.get().getApplications(bundleName)
             .stream()
             .map(a -> new Facet(a.getId().toString(), a.getName(), a.getDisplayName()))
             .collect(Collectors.toList());
@@ -404,12 +407,13 @@ public class NotificationResource {
     @Produces(APPLICATION_JSON)
     @Operation(summary = "List configured bundles", description = "Returns a list of configured bundles that includes the bundle name, the display name, and the ID. You can use this list to configure a filter in the UI.")
     public List<Facet> getBundleFacets(@Context SecurityContext sec, @QueryParam("includeApplications") boolean includeApplications) {
-        return bundleRepository.getBundles()
+        CatalogCache.Catalog catalog = catalogCache.get();
+        return catalog.bundles()
             .stream()
             .map(b -> {
                 List<Facet> applications = null;
                 if (includeApplications) {
-                    applications = applicationRepository.getApplications(b.getId()).stream()
+                    applications = catalog.getApplications(b.getId()).stream()
                         .map(a -> new Facet(a.getId().toString(), a.getName(), a.getDisplayName()))
                         .collect(Collectors.toList());
                 }
@@ -6,7 +6,10 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 
 /**
  * Serve the final OpenAPI documents.
@@ -20,8 +23,8 @@ public class OApiResource {
     @GET
     @Path("/{what}/{version}/openapi.json")
     @Produces(MediaType.APPLICATION_JSON)
-    public String serveOpenAPI(@PathParam("what") String what, @PathParam("version") String version) {
-        return oApiFilter.serveOpenApi(what, version);
+    public Response serveOpenAPI(@Context Request request, @PathParam("what") String what, @PathParam("version") String version) {
+        return oApiFilter.serveOpenApi(request, what, version);
     }
 
 }
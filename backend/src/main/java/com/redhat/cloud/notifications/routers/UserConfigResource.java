@@ -30,13 +30,14 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.resteasy.reactive.RestPath;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.redhat.cloud.notifications.models.SubscriptionType.INSTANT;
@@ -68,6 +69,12 @@ public class UserConfigResource {
     @Inject
     BackendConfig backendConfig;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
+    @Inject
+    CatalogCache catalogCache;
+
     @Path(Constants.API_NOTIFICATIONS_V_1_0 + "/user-config")
     public static class V1 extends UserConfigResource {
 
@@ -100,32 +107,26 @@ public class UserConfigResource {
             throw new BadRequestException("Subscribing to or unsubscribing from instant emails is not supported");
         }
 
+        // The changes of all event types are collected first and then written with a bulk upsert.
+        List<SubscriptionRepository.SubscriptionUpdate> updates = new ArrayList<>();
         // for each bundle
         userSettings.bundles.forEach((bundleName, bundleSettingsValue) ->
             // for each application
             bundleSettingsValue.applications.forEach((applicationName, applicationSettingsValue) -> {
                 Application app = applicationRepository.getApplication(bundleName, applicationName);
                 if (app != null) {
-                    // foreach event Type
-                    applicationSettingsValue.eventTypes.forEach((eventTypeName, eventTypeValue) -> {
-                        Optional<EventType> eventType = eventTypeRepository.find(app.getId(), eventTypeName);
-                        if (eventType.isPresent() && !eventType.get().isSubscriptionLocked()) {
+                    // The event types of the application are all loaded with a single query.
+                    for (EventType eventType : eventTypeRepository.findByApplicationAndNames(app.getId(), applicationSettingsValue.eventTypes.keySet())) {
+                        if (!eventType.isSubscriptionLocked()) {
                             // for each email subscription
-                            eventTypeValue.emailSubscriptionTypes.forEach((subscriptionType, subscribed) -> {
-                                if (subscribed) {
-                                    subscriptionRepository.subscribe(
-                                        orgId, userName, eventType.get().getId(), subscriptionType
-                                    );
-                                } else {
-                                    subscriptionRepository.unsubscribe(
-                                        orgId, userName, eventType.get().getId(), subscriptionType
-                                    );
-                                }
-                            });
+                            applicationSettingsValue.eventTypes.get(eventType.getName()).emailSubscriptionTypes.forEach((subscriptionType, subscribed) ->
+                                updates.add(new SubscriptionRepository.SubscriptionUpdate(eventType.getId(), subscriptionType, subscribed))
+                            );
                         }
-                    });
+                    }
                 }
             }));
+        subscriptionRepository.updateSubscriptions(orgId, userName, updates);
 
         return Response.ok().build();
     }
@@ -134,17 +135,35 @@ public class UserConfigResource {
     @Path("/notification-event-type-preference")
     @Produces(APPLICATION_JSON)
     @Tag(name = OApiFilter.PRIVATE)
-    public Response getSettingsSchemaByEventType(@Context SecurityContext sec) {
+    public Response getSettingsSchemaByEventType(@Context SecurityContext sec, @Context Request request) {
         forbidAccessInCaseOfServiceAccountAuthentication(sec);
 
         final String name = getUsername(sec);
         String orgId = getOrgId(sec);
 
+        // The user independent part of the schema is shared by all requests.
+        UserPreferencesSchemaCache.Schema schema = userPreferencesSchemaCache.get();
+        List<String> applicationsWithForcedEmails = userPreferencesSchemaCache.getApplicationsWithForcedEmails(orgId);
+
+        /*
+         * The ETag is computed from version inputs which are cheap to read: the catalog version, the schema hash,
+         * the forced emails of the org and the version of the user subscriptions, read with a single aggregate query.
+         * If the client already has the current version of the response, the subscriptions are not loaded and the
+         * response is neither built nor serialized.
+         */
+        EntityTag etag = new EntityTag(catalogCache.get().version() + "-" + schema.hash() + "-" +
+            Integer.toHexString(applicationsWithForcedEmails.hashCode()) + "-" +
+            Integer.toHexString(subscriptionRepository.getEmailSubscriptionsVersion(orgId, name).hashCode()));
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.tag(etag).build();
+        }
+
         List<EventTypeEmailSubscription> emailSubscriptions = subscriptionRepository.getEmailSubscriptionsPerEventTypeForUser(orgId, name);
-        SettingsValuesByEventType settingsValues = getSettingsValueForUserByEventType(emailSubscriptions, orgId);
+        SettingsValuesByEventType settingsValues = schema.toSettingsValues(applicationsWithForcedEmails);
+        patchWithUserPreferencesIfExists(settingsValues, emailSubscriptions);
         String jsonFormString = settingsValuesToJsonForm(settingsValues);
         Response.ResponseBuilder builder = Response.ok(jsonFormString);
-        EntityTag etag = new EntityTag(String.valueOf(jsonFormString.hashCode()));
         builder.header("ETag", etag);
         return builder.build();
     }
@@ -258,21 +277,6 @@ public class UserConfigResource {
         }
     }
 
-    private SettingsValuesByEventType getSettingsValueForUserByEventType(List<EventTypeEmailSubscription> emailSubscriptions, String orgId) {
-        SettingsValuesByEventType settingsValues = new SettingsValuesByEventType();
-
-        for (Bundle bundle : bundleRepository.getBundles()) {
-            List<String> applicationsWithForcedEmails = applicationRepository.getApplicationsWithForcedEmail(bundle.getId(), orgId)
-                    .stream().map(Application::getName).collect(Collectors.toList());
-            for (Application application : bundle.getApplications()) {
-                addApplicationStructureDetails(settingsValues, application, applicationsWithForcedEmails.contains(application.getName()));
-            }
-        }
-
-        patchWithUserPreferencesIfExists(settingsValues, emailSubscriptions);
-        return settingsValues;
-    }
-
     private static void forbidAccessInCaseOfServiceAccountAuthentication(SecurityContext sec) {
         if (isServiceAccountAuthentication(sec)) {
             throw new ForbiddenException("This api can't be used with a service account authentication");
@@ -0,0 +1,292 @@
+package com.redhat.cloud.notifications.routers;
+
+import com.redhat.cloud.notifications.config.BackendConfig;
+import com.redhat.cloud.notifications.db.repositories.ApplicationRepository;
+import com.redhat.cloud.notifications.db.repositories.BundleRepository;
+import com.redhat.cloud.notifications.db.repositories.TemplateRepository;
+import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.Bundle;
+import com.redhat.cloud.notifications.models.EventType;
+import com.redhat.cloud.notifications.models.SubscriptionType;
+import com.redhat.cloud.notifications.routers.models.SettingsValuesByEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static com.redhat.cloud.notifications.models.SubscriptionType.INSTANT;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Holds the part of the user preferences schema which doesn't depend on the user: the bundles, applications and
+ * visible event types, along with the subscription types supported by each event type. Building that structure
+ * requires one query per event type and subscription type, so it is built once and shared by all requests until
+ * it is invalidated or expires.
+ */
+@ApplicationScoped
+public class UserPreferencesSchemaCache {
+
+    private static final String BUILD_TIMER_NAME = "notifications.user-preferences.schema.build";
+    private static final String REQUESTS_COUNTER_NAME = "notifications.user-preferences.schema.requests";
+    private static final String FORCED_EMAILS_CACHE_NAME = "user-preferences-forced-emails";
+
+    @Inject
+    BundleRepository bundleRepository;
+
+    @Inject
+    TemplateRepository templateRepository;
+
+    @Inject
+    ApplicationRepository applicationRepository;
+
+    @Inject
+    BackendConfig backendConfig;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @CacheName(FORCED_EMAILS_CACHE_NAME)
+    Cache forcedEmailsCache;
+
+    /*
+     * The schema is also modified by other backend pods. Their changes are only visible here once the schema
+     * expires, so this value bounds how long a stale schema can be served.
+     */
+    @ConfigProperty(name = "notifications.user-preferences.schema.max-age", defaultValue = "PT1M")
+    Duration maxAge;
+
+    private final AtomicReference<Schema> schema = new AtomicReference<>();
+
+    private Timer buildTimer;
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void init() {
+        buildTimer = meterRegistry.timer(BUILD_TIMER_NAME);
+        hitCounter = meterRegistry.counter(REQUESTS_COUNTER_NAME, "result", "hit");
+        missCounter = meterRegistry.counter(REQUESTS_COUNTER_NAME, "result", "miss");
+    }
+
+    public Schema get() {
+        Flags flags = currentFlags();
+        Schema current = schema.get();
+        if (isUsable(current, flags)) {
+            hitCounter.increment();
+            return current;
+        }
+        synchronized (this) {
+            // Another request may have rebuilt the schema while this one was waiting for the lock.
+            current = schema.get();
+            if (isUsable(current, flags)) {
+                hitCounter.increment();
+                return current;
+            }
+            missCounter.increment();
+            Schema rebuilt = buildTimer.record(() -> build(flags));
+            schema.set(rebuilt);
+            return rebuilt;
+        }
+    }
+
+    /**
+     * Returns the applications of the schema for which the emails are sent regardless of the user preferences in the
+     * given org. The result is cached per org, so it can be part of the user preferences ETag without a DB query.
+     * @param orgId the org ID
+     * @return the applications with forced emails, formatted as {@code bundle/application} and sorted
+     */
+    @CacheResult(cacheName = FORCED_EMAILS_CACHE_NAME)
+    public List<String> getApplicationsWithForcedEmails(String orgId) {
+        List<String> applicationsWithForcedEmails = new ArrayList<>();
+        for (BundleSchema bundle : get().bundles()) {
+            for (Application application : applicationRepository.getApplicationsWithForcedEmail(bundle.id(), orgId)) {
+                applicationsWithForcedEmails.add(bundle.name() + "/" + application.getName());
+            }
+        }
+        applicationsWithForcedEmails.sort(null);
+        return List.copyOf(applicationsWithForcedEmails);
+    }
+
+    /**
+     * Discards the cached schema. When this method is called from a transaction, the schema is discarded again once
+     * the transaction completes, otherwise a concurrent request could cache a schema built from the data that was
+     * committed before the transaction.
+     */
+    public void invalidate() {
+        invalidateNowAndAfterTransaction(() -> schema.set(null));
+    }
+
+    /**
+     * Discards the cached applications with forced emails of an org. This has to be called whenever the behavior
+     * groups, their actions or their event types change. Like the schema, they are discarded again once the current
+     * transaction completes. The other backend pods keep their cached value until it expires.
+     * @param orgId the org ID, or {@code null} when a default behavior group changed, which affects all orgs
+     */
+    public void invalidateForcedEmails(String orgId) {
+        if (orgId == null) {
+            invalidateNowAndAfterTransaction(() -> forcedEmailsCache.invalidateAll().await().indefinitely());
+        } else {
+            invalidateNowAndAfterTransaction(() -> forcedEmailsCache.invalidate(orgId).await().indefinitely());
+        }
+    }
+
+    private void invalidateNowAndAfterTransaction(Runnable invalidation) {
+        invalidation.run();
+        if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private boolean isUsable(Schema current, Flags flags) {
+        return current != null && current.flags().equals(flags) && current.builtAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    private Flags currentFlags() {
+        return new Flags(backendConfig.isInstantEmailsEnabled(), backendConfig.isDrawerEnabled(), backendConfig.isDefaultTemplateEnabled());
+    }
+
+    private Schema build(Flags flags) {
+        List<BundleSchema> bundles = new ArrayList<>();
+        for (Bundle bundle : bundleRepository.getBundles()) {
+            List<ApplicationSchema> applications = new ArrayList<>();
+            for (Application application : sortedByName(bundle.getApplications(), Application::getName)) {
+                List<EventTypeSchema> eventTypes = new ArrayList<>();
+                for (EventType eventType : sortedByName(application.getEventTypes(), EventType::getName)) {
+                    if (eventType.isVisible()) {
+                        Map<SubscriptionType, Boolean> defaultValues = new EnumMap<>(SubscriptionType.class);
+                        for (SubscriptionType subscriptionType : SubscriptionType.values()) {
+                            if (flags.instantEmailsEnabled() || subscriptionType != INSTANT) {
+                                boolean supported = templateRepository.isEmailSubscriptionSupported(bundle.getName(), application.getName(), eventType.getId(), subscriptionType);
+                                if (supported) {
+                                    defaultValues.put(subscriptionType, subscriptionType.isSubscribedByDefault() || eventType.isSubscribedByDefault());
+                                }
+                            }
+                        }
+                        if (!defaultValues.isEmpty()) {
+                            eventTypes.add(new EventTypeSchema(eventType.getName(), eventType.getDisplayName(), eventType.isSubscriptionLocked(), unmodifiableMap(defaultValues)));
+                        }
+                    }
+                }
+                if (!eventTypes.isEmpty()) {
+                    applications.add(new ApplicationSchema(application.getName(), application.getDisplayName(), List.copyOf(eventTypes)));
+                }
+            }
+            if (!applications.isEmpty()) {
+                bundles.add(new BundleSchema(bundle.getId(), bundle.getName(), bundle.getDisplayName(), List.copyOf(applications)));
+            }
+        }
+        Schema built = new Schema(List.copyOf(bundles), flags, Instant.now());
+        Log.debugf("User preferences schema rebuilt [bundles=%d, hash=%s]", bundles.size(), built.hash());
+        return built;
+    }
+
+    private static <T> List<T> sortedByName(Collection<T> items, Function<T, String> name) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(name));
+        return sorted;
+    }
+
+    public record Flags(boolean instantEmailsEnabled, boolean drawerEnabled, boolean defaultTemplateEnabled) {
+    }
+
+    public record EventTypeSchema(String name, String displayName, boolean subscriptionLocked, Map<SubscriptionType, Boolean> defaultValues) {
+    }
+
+    public record ApplicationSchema(String name, String displayName, List<EventTypeSchema> eventTypes) {
+    }
+
+    public record BundleSchema(UUID id, String name, String displayName, List<ApplicationSchema> applications) {
+    }
+
+    public record Schema(List<BundleSchema> bundles, Flags flags, Instant builtAt, String hash) {
+
+        Schema(List<BundleSchema> bundles, Flags flags, Instant builtAt) {
+            this(bundles, flags, builtAt, computeHash(bundles, flags));
+        }
+
+        /**
+         * Returns a new mutable copy of the schema, with the forced emails flag set on the given applications.
+         * @param applicationsWithForcedEmails the applications with forced emails, formatted as {@code bundle/application}
+         * @return the settings values that will be patched with the user preferences
+         */
+        public SettingsValuesByEventType toSettingsValues(Collection<String> applicationsWithForcedEmails) {
+            SettingsValuesByEventType settingsValues = new SettingsValuesByEventType();
+            for (BundleSchema bundle : bundles) {
+                SettingsValuesByEventType.BundleSettingsValue bundleSettingsValue = new SettingsValuesByEventType.BundleSettingsValue();
+                bundleSettingsValue.displayName = bundle.displayName();
+                for (ApplicationSchema application : bundle.applications()) {
+                    boolean withForcedEmails = applicationsWithForcedEmails.contains(bundle.name() + "/" + application.name());
+                    SettingsValuesByEventType.ApplicationSettingsValue applicationSettingsValue = new SettingsValuesByEventType.ApplicationSettingsValue();
+                    applicationSettingsValue.displayName = application.displayName();
+                    for (EventTypeSchema eventType : application.eventTypes()) {
+                        SettingsValuesByEventType.EventTypeSettingsValue eventTypeSettingsValue = new SettingsValuesByEventType.EventTypeSettingsValue();
+                        eventTypeSettingsValue.displayName = eventType.displayName();
+                        eventTypeSettingsValue.hasForcedEmail = withForcedEmails;
+                        eventTypeSettingsValue.subscriptionLocked = eventType.subscriptionLocked();
+                        eventTypeSettingsValue.emailSubscriptionTypes.putAll(eventType.defaultValues());
+                        applicationSettingsValue.eventTypes.put(eventType.name(), eventTypeSettingsValue);
+                    }
+                    bundleSettingsValue.applications.put(application.name(), applicationSettingsValue);
+                }
+                settingsValues.bundles.put(bundle.name(), bundleSettingsValue);
+            }
+            return settingsValues;
+        }
+
+        /*
+         * The hash is part of the ETag returned to the clients, which can reach any backend pod. It is therefore
+         * computed from a canonical representation of the schema rather than from identity-based hash codes.
+         */
+        private static String computeHash(List<BundleSchema> bundles, Flags flags) {
+            StringBuilder canonical = new StringBuilder(flags.toString()).append('\n');
+            for (BundleSchema bundle : bundles) {
+                canonical.append('B').append(bundle.name()).append('|').append(bundle.displayName()).append('\n');
+                for (ApplicationSchema application : bundle.applications()) {
+                    canonical.append('A').append(application.name()).append('|').append(application.displayName()).append('\n');
+                    for (EventTypeSchema eventType : application.eventTypes()) {
+                        canonical.append('E').append(eventType.name()).append('|').append(eventType.displayName())
+                            .append('|').append(eventType.subscriptionLocked());
+                        eventType.defaultValues().forEach((subscriptionType, subscribed) ->
+                            canonical.append('|').append(subscriptionType.name()).append('=').append(subscribed));
+                        canonical.append('\n');
+                    }
+                }
+            }
+            return Integer.toHexString(canonical.toString().hashCode());
+        }
+    }
+}
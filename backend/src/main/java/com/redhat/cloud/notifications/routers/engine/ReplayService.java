@@ -1,19 +1,41 @@
 package com.redhat.cloud.notifications.routers.engine;
 
 import com.redhat.cloud.notifications.routers.replay.EventsReplayRequest;
+import com.redhat.cloud.notifications.routers.replay.EventsReplayStatus;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
+import java.util.List;
+import java.util.UUID;
+
 import static com.redhat.cloud.notifications.Constants.API_INTERNAL;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
 @RegisterRestClient(configKey = "internal-engine")
+@Path(API_INTERNAL + "/replay")
 public interface ReplayService {
 
-    @Path(API_INTERNAL + "/replay")
     @POST
     @Consumes(APPLICATION_JSON)
-    void replay(EventsReplayRequest eventsReplayRequest);
+    @Produces(APPLICATION_JSON)
+    EventsReplayStatus replay(EventsReplayRequest eventsReplayRequest);
+
+    @GET
+    @Produces(APPLICATION_JSON)
+    List<EventsReplayStatus> getReplays();
+
+    @GET
+    @Path("/{id}")
+    @Produces(APPLICATION_JSON)
+    EventsReplayStatus getReplay(@PathParam("id") UUID id);
+
+    @POST
+    @Path("/{id}/resume")
+    @Produces(APPLICATION_JSON)
+    EventsReplayStatus resume(@PathParam("id") UUID id);
 }
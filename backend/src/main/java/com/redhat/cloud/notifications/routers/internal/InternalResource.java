@@ -24,7 +24,9 @@ import com.redhat.cloud.notifications.models.EventType;
 import com.redhat.cloud.notifications.models.InternalRoleAccess;
 import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
 import com.redhat.cloud.notifications.oapi.OApiFilter;
+import com.redhat.cloud.notifications.routers.CatalogCache;
 import com.redhat.cloud.notifications.routers.SecurityContextUtil;
+import com.redhat.cloud.notifications.routers.UserPreferencesSchemaCache;
 import com.redhat.cloud.notifications.routers.dailydigest.TriggerDailyDigestRequest;
 import com.redhat.cloud.notifications.routers.engine.DailyDigestService;
 import com.redhat.cloud.notifications.routers.engine.ReplayService;
@@ -35,6 +37,7 @@ import com.redhat.cloud.notifications.routers.internal.models.UpdateApplicationR
 import com.redhat.cloud.notifications.routers.internal.models.dto.ApplicationDTO;
 import com.redhat.cloud.notifications.routers.internal.models.transformer.ApplicationDTOTransformer;
 import com.redhat.cloud.notifications.routers.replay.EventsReplayRequest;
+import com.redhat.cloud.notifications.routers.replay.EventsReplayStatus;
 import io.quarkus.logging.Log;
 import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
 import jakarta.annotation.security.PermitAll;
@@ -56,6 +59,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.RedirectionException;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import org.apache.http.HttpStatus;
@@ -122,6 +126,12 @@ public class InternalResource {
     @Inject
     OApiFilter oApiFilter;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
+    @Inject
+    CatalogCache catalogCache;
+
     @Inject
     SecurityContextUtil securityContextUtil;
 
@@ -159,9 +169,34 @@ public class InternalResource {
     @POST
     @Path("/replay")
     @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed(RBAC_INTERNAL_ADMIN)
+    public EventsReplayStatus replay(@NotNull @Valid EventsReplayRequest eventsReplayRequest) {
+        return replayService.replay(eventsReplayRequest);
+    }
+
+    @GET
+    @Path("/replay")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed(RBAC_INTERNAL_ADMIN)
+    public List<EventsReplayStatus> getReplays() {
+        return replayService.getReplays();
+    }
+
+    @GET
+    @Path("/replay/{id}")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed(RBAC_INTERNAL_ADMIN)
+    public EventsReplayStatus getReplay(@PathParam("id") UUID id) {
+        return replayService.getReplay(id);
+    }
+
+    @POST
+    @Path("/replay/{id}/resume")
+    @Produces(APPLICATION_JSON)
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
-    public void replay(@NotNull @Valid EventsReplayRequest eventsReplayRequest) {
-        replayService.replay(eventsReplayRequest);
+    public EventsReplayStatus resumeReplay(@PathParam("id") UUID id) {
+        return replayService.resume(id);
     }
 
     @GET
@@ -188,8 +223,8 @@ public class InternalResource {
     @Path("/openapi.json")
     @Produces(MediaType.APPLICATION_JSON)
     @PermitAll
-    public String serveInternalOpenAPI() {
-        return oApiFilter.serveOpenApi(OApiFilter.INTERNAL, null);
+    public Response serveInternalOpenAPI(@Context Request request) {
+        return oApiFilter.serveOpenApi(request, OApiFilter.INTERNAL, null);
     }
 
     @POST
@@ -199,6 +234,8 @@ public class InternalResource {
     @Transactional
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_ADMIN)
     public Bundle createBundle(@NotNull @Valid Bundle bundle) {
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         return bundleRepository.createBundle(bundle);
     }
 
@@ -236,6 +273,8 @@ public class InternalResource {
      */
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_ADMIN)
     public Response updateBundle(@PathParam("bundleId") UUID bundleId, @NotNull @Valid Bundle bundle) {
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         int rowCount = bundleRepository.updateBundle(bundleId, bundle);
         if (rowCount == 0) {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -255,6 +294,8 @@ public class InternalResource {
      */
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_ADMIN)
     public boolean deleteBundle(@PathParam("bundleId") UUID bundleId) {
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         return bundleRepository.deleteBundle(bundleId);
     }
 
@@ -279,6 +320,8 @@ public class InternalResource {
         app.setBundleId(request.bundleId);
         app.setDisplayName(request.displayName);
         app.setName(request.name);
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         app = applicationRepository.createApp(app);
 
         InternalRoleAccess internalRoleAccess = null;
@@ -354,6 +397,8 @@ public class InternalResource {
         internalRoleAccess.setApplication(application);
 
         // Update the application and its permission.
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         this.applicationRepository.updateApplicationAndAccess(application, internalRoleAccess);
 
         return Response.ok().build();
@@ -370,6 +415,8 @@ public class InternalResource {
      */
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_ADMIN)
     public boolean deleteApplication(@Context SecurityContext sec, @PathParam("appId") UUID appId) {
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         return applicationRepository.deleteApplication(appId);
     }
 
@@ -389,6 +436,8 @@ public class InternalResource {
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_USER)
     public EventType createEventType(@Context SecurityContext sec, @NotNull @Valid EventType eventType) {
         securityContextUtil.hasPermissionForApplication(sec, eventType.getApplicationId());
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         return applicationRepository.createEventType(eventType);
     }
 
@@ -405,6 +454,8 @@ public class InternalResource {
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_USER)
     public Response updateEventType(@Context SecurityContext sec, @PathParam("eventTypeId") UUID eventTypeId, @NotNull @Valid EventType eventType) {
         securityContextUtil.hasPermissionForApplication(sec, eventType.getApplicationId());
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         int rowCount = applicationRepository.updateEventType(eventTypeId, eventType);
         if (rowCount == 0) {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -420,6 +471,8 @@ public class InternalResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public Response updateEventTypeVisibility(@PathParam("eventTypeId") UUID eventTypeId, @NotNull @Valid boolean isVisible) {
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         int rowCount = applicationRepository.updateEventTypeVisibility(eventTypeId, isVisible);
         if (rowCount == 0) {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -440,6 +493,8 @@ public class InternalResource {
     @RolesAllowed(ConsoleIdentityProvider.RBAC_INTERNAL_USER)
     public boolean deleteEventType(@Context SecurityContext sec, @PathParam("eventTypeId") UUID eventTypeId) {
         securityContextUtil.hasPermissionForEventType(sec, eventTypeId);
+        userPreferencesSchemaCache.invalidate();
+        catalogCache.invalidate();
         return applicationRepository.deleteEventTypeById(eventTypeId);
     }
 
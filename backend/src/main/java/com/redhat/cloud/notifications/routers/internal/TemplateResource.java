@@ -4,6 +4,7 @@ import com.redhat.cloud.notifications.db.repositories.TemplateRepository;
 import com.redhat.cloud.notifications.models.AggregationEmailTemplate;
 import com.redhat.cloud.notifications.models.InstantEmailTemplate;
 import com.redhat.cloud.notifications.models.Template;
+import com.redhat.cloud.notifications.routers.UserPreferencesSchemaCache;
 import com.redhat.cloud.notifications.routers.models.RenderEmailTemplateRequest;
 import com.redhat.cloud.notifications.routers.models.RenderEmailTemplateResponse;
 import com.redhat.cloud.notifications.templates.TemplateEngineClient;
@@ -47,6 +48,9 @@ public class TemplateResource {
     @Inject
     TemplateRepository templateRepository;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
     @Inject
     @RestClient
     TemplateEngineClient templateEngineClient;
@@ -105,6 +109,7 @@ public class TemplateResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public InstantEmailTemplate createInstantEmailTemplate(@NotNull @Valid InstantEmailTemplate template) {
+        userPreferencesSchemaCache.invalidate();
         return templateRepository.createInstantEmailTemplate(template);
     }
 
@@ -142,6 +147,7 @@ public class TemplateResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public Response updateInstantEmailTemplate(@RestPath UUID templateId, @NotNull @Valid InstantEmailTemplate template) {
+        userPreferencesSchemaCache.invalidate();
         boolean updated = templateRepository.updateInstantEmailTemplate(templateId, template);
         if (updated) {
             return Response.ok().build();
@@ -155,6 +161,7 @@ public class TemplateResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public boolean deleteInstantEmailTemplate(@RestPath UUID templateId) {
+        userPreferencesSchemaCache.invalidate();
         return templateRepository.deleteInstantEmailTemplate(templateId);
     }
 
@@ -165,6 +172,7 @@ public class TemplateResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public AggregationEmailTemplate createAggregationEmailTemplate(@NotNull @Valid AggregationEmailTemplate template) {
+        userPreferencesSchemaCache.invalidate();
         return templateRepository.createAggregationEmailTemplate(template);
     }
 
@@ -199,6 +207,7 @@ public class TemplateResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public Response updateAggregationEmailTemplate(@RestPath UUID templateId, @NotNull @Valid AggregationEmailTemplate template) {
+        userPreferencesSchemaCache.invalidate();
         boolean updated = templateRepository.updateAggregationEmailTemplate(templateId, template);
         if (updated) {
             return Response.ok().build();
@@ -212,6 +221,7 @@ public class TemplateResource {
     @Transactional
     @RolesAllowed(RBAC_INTERNAL_ADMIN)
     public boolean deleteAggregationEmailTemplate(@RestPath UUID templateId) {
+        userPreferencesSchemaCache.invalidate();
         return templateRepository.deleteAggregationEmailTemplate(templateId);
     }
 
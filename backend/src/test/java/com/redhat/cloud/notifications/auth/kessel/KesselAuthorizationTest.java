@@ -9,6 +9,8 @@ import com.redhat.cloud.notifications.auth.principal.rhid.RhIdentity;
 import com.redhat.cloud.notifications.auth.principal.rhid.RhServiceAccountIdentity;
 import com.redhat.cloud.notifications.auth.principal.rhid.RhUserIdentity;
 import com.redhat.cloud.notifications.config.BackendConfig;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
@@ -16,6 +18,7 @@ import jakarta.inject.Inject;
 import jakarta.ws.rs.ForbiddenException;
 import jakarta.ws.rs.core.SecurityContext;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.project_kessel.api.relations.v1beta1.CheckRequest;
@@ -47,6 +50,14 @@ public class KesselAuthorizationTest {
     @Inject
     KesselAuthorization kesselAuthorization;
 
+    @CacheName(KesselAuthorization.AUTHORIZED_INTEGRATIONS_CACHE_NAME)
+    Cache authorizedIntegrationsCache;
+
+    @BeforeEach
+    void clearAuthorizedIntegrationsCache() {
+        this.authorizedIntegrationsCache.invalidateAll().await().indefinitely();
+    }
+
     /**
      * Tests that when the principal is authorized, the function under test
      * does not raise an exception.
@@ -171,6 +182,52 @@ public class KesselAuthorizationTest {
         result.forEach(r -> Assertions.assertTrue(expectedUuids.contains(r), String.format("UUID \"%s\" not present in the expected UUIDs", r)));
     }
 
+    /**
+     * Tests that the authorized integrations are looked up once per subject
+     * and permission, until they get invalidated for the subject's
+     * organization.
+     */
+    @Test
+    void testLookupAuthorizedIntegrationsIsCached() {
+        // Mock the security context.
+        final SecurityContext mockedSecurityContext = Mockito.mock(SecurityContext.class);
+
+        // Create a RhIdentity principal and assign it to the mocked security
+        // context.
+        final RhIdentity identity = Mockito.mock(RhIdentity.class);
+        Mockito.when(identity.getName()).thenReturn("Red Hat user");
+        Mockito.when(identity.getOrgId()).thenReturn("cached-org-id");
+        Mockito.when(identity.getUserId()).thenReturn("cached-user-id");
+
+        final ConsolePrincipal<?> principal = new RhIdPrincipal(identity);
+        Mockito.when(mockedSecurityContext.getUserPrincipal()).thenReturn(principal);
+
+        // Simulate that Kessel returns a new iterator on every call.
+        final UUID integrationId = UUID.randomUUID();
+        final LookupResourcesResponse lookupResourcesResponse = LookupResourcesResponse.newBuilder().setResource(ObjectReference.newBuilder().setId(integrationId.toString()).build()).build();
+        Mockito.when(this.lookupClient.lookupResources(Mockito.any())).thenAnswer(invocation -> List.of(lookupResourcesResponse).iterator());
+
+        // Call the function under test a few times. Only the first call should
+        // reach Kessel.
+        Assertions.assertEquals(Set.of(integrationId), this.kesselAuthorization.lookupAuthorizedIntegrations(mockedSecurityContext, IntegrationPermission.VIEW));
+        Assertions.assertEquals(Set.of(integrationId), this.kesselAuthorization.lookupAuthorizedIntegrations(mockedSecurityContext, IntegrationPermission.VIEW));
+        Mockito.verify(this.lookupClient, Mockito.times(1)).lookupResources(Mockito.any());
+
+        // A different permission is looked up separately.
+        this.kesselAuthorization.lookupAuthorizedIntegrations(mockedSecurityContext, IntegrationPermission.EDIT);
+        Mockito.verify(this.lookupClient, Mockito.times(2)).lookupResources(Mockito.any());
+
+        // Invalidating another organization keeps the cached integrations.
+        this.kesselAuthorization.invalidateAuthorizedIntegrations("other-org-id");
+        this.kesselAuthorization.lookupAuthorizedIntegrations(mockedSecurityContext, IntegrationPermission.VIEW);
+        Mockito.verify(this.lookupClient, Mockito.times(2)).lookupResources(Mockito.any());
+
+        // Invalidating the subject's organization triggers a new lookup.
+        this.kesselAuthorization.invalidateAuthorizedIntegrations("cached-org-id");
+        this.kesselAuthorization.lookupAuthorizedIntegrations(mockedSecurityContext, IntegrationPermission.VIEW);
+        Mockito.verify(this.lookupClient, Mockito.times(3)).lookupResources(Mockito.any());
+    }
+
     /**
      * Test that permission check requests are properly built for both service
      * accounts and users.
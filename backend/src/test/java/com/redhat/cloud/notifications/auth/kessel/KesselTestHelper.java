@@ -3,6 +3,8 @@ package com.redhat.cloud.notifications.auth.kessel;
 import com.redhat.cloud.notifications.auth.kessel.permission.KesselPermission;
 import com.redhat.cloud.notifications.auth.rbac.workspace.WorkspaceUtils;
 import com.redhat.cloud.notifications.config.BackendConfig;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.mockito.Mockito;
@@ -40,6 +42,9 @@ public class KesselTestHelper {
     @Inject
     WorkspaceUtils workspaceUtils;
 
+    @CacheName(KesselAuthorization.AUTHORIZED_INTEGRATIONS_CACHE_NAME)
+    Cache authorizedIntegrationsCache;
+
     /**
      * The {@link UUID} that the {@link WorkspaceUtils#getDefaultWorkspaceId(String)}
      * method will return no matter what workspace is passed to it. The re
@@ -61,6 +66,10 @@ public class KesselTestHelper {
      *                                  will return in an iterator.
      */
     public void mockAuthorizedIntegrationsLookup(final Set<UUID> authorizedIntegrationsIds) {
+        // Make sure that the mocked integrations are not hidden by the ones
+        // that were cached by a previous lookup.
+        this.authorizedIntegrationsCache.invalidateAll().await().indefinitely();
+
         // It does not make sense to mock anything if we are not testing with
         // Kessel.
         if (!this.backendConfig.isKesselRelationsEnabled(anyString())) {
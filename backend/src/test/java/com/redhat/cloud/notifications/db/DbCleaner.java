@@ -16,6 +16,8 @@ import com.redhat.cloud.notifications.models.IntegrationTemplate;
 import com.redhat.cloud.notifications.models.NotificationHistory;
 import com.redhat.cloud.notifications.models.Status;
 import com.redhat.cloud.notifications.models.WebhookProperties;
+import com.redhat.cloud.notifications.routers.CatalogCache;
+import com.redhat.cloud.notifications.routers.UserPreferencesSchemaCache;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -59,6 +61,12 @@ public class DbCleaner {
     @Inject
     ApplicationRepository applicationRepository;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
+    @Inject
+    CatalogCache catalogCache;
+
     /**
      * Deletes all records from all database tables (except for flyway_schema_history) and restores the default records.
      * This method should be called from a method annotated with <b>both</b> {@link BeforeEach} and {@link AfterEach} in
@@ -90,5 +98,9 @@ public class DbCleaner {
         entityManager.createQuery("UPDATE CurrentStatus SET status = :status")
                 .setParameter("status", Status.UP)
                 .executeUpdate();
+
+        userPreferencesSchemaCache.invalidate();
+        userPreferencesSchemaCache.invalidateForcedEmails(null);
+        catalogCache.invalidate();
     }
 }
@@ -2,11 +2,13 @@ package com.redhat.cloud.notifications.db;
 
 import com.redhat.cloud.notifications.TestLifecycleManager;
 import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
+import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository.SubscriptionUpdate;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.Bundle;
 import com.redhat.cloud.notifications.models.EventType;
 import com.redhat.cloud.notifications.models.EventTypeEmailSubscription;
 import com.redhat.cloud.notifications.models.EventTypeEmailSubscriptionId;
+import com.redhat.cloud.notifications.models.SubscriptionType;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -14,8 +16,13 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
 import static com.redhat.cloud.notifications.models.SubscriptionType.INSTANT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -69,6 +76,53 @@ public class SubscriptionRepositoryTest {
         assertEquals(0, countUnsubscriptions(eventType.getId()));
     }
 
+    @Test
+    void testUpdateSubscriptionsAcrossChunks() {
+
+        Bundle bundle = resourceHelpers.createBundle("bundle" + randomString(), randomString());
+        Application app = resourceHelpers.createApplication(bundle.getId(), "app" + randomString(), randomString());
+
+        /*
+         * Two subscription types per event type: 2,002 distinct changes, which are split into two full chunks and a
+         * partial one with the current chunk size of 1,000 rows, and still span several chunks if that size changes.
+         */
+        List<EventType> eventTypes = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            eventTypes.add(resourceHelpers.createEventType(app.getId(), "event-type" + i));
+        }
+
+        // The first change is overridden by the last one, which must win even though they are far apart.
+        String orgId = randomString();
+        String username = randomString();
+        List<SubscriptionUpdate> updates = new ArrayList<>();
+        updates.add(new SubscriptionUpdate(eventTypes.get(0).getId(), INSTANT, true));
+        Map<String, Boolean> expected = new HashMap<>();
+        for (int i = 0; i < eventTypes.size(); i++) {
+            UUID eventTypeId = eventTypes.get(i).getId();
+            updates.add(new SubscriptionUpdate(eventTypeId, INSTANT, i % 2 == 0));
+            updates.add(new SubscriptionUpdate(eventTypeId, DAILY, i % 3 == 0));
+            expected.put(eventTypeId + "/" + INSTANT, i % 2 == 0);
+            expected.put(eventTypeId + "/" + DAILY, i % 3 == 0);
+        }
+        updates.add(new SubscriptionUpdate(eventTypes.get(0).getId(), INSTANT, false));
+        expected.put(eventTypes.get(0).getId() + "/" + INSTANT, false);
+
+        subscriptionRepository.updateSubscriptions(orgId, username, updates);
+        assertEquals(2002, expected.size());
+        assertEquals(expected, getSubscriptions(orgId, username));
+
+        // This time, the rows of each chunk go through the ON CONFLICT branch of the upsert.
+        List<SubscriptionUpdate> inverted = new ArrayList<>();
+        for (Map.Entry<String, Boolean> entry : expected.entrySet()) {
+            String[] key = entry.getKey().split("/");
+            inverted.add(new SubscriptionUpdate(UUID.fromString(key[0]), SubscriptionType.valueOf(key[1]), !entry.getValue()));
+        }
+        expected.replaceAll((key, subscribed) -> !subscribed);
+
+        subscriptionRepository.updateSubscriptions(orgId, username, inverted);
+        assertEquals(expected, getSubscriptions(orgId, username));
+    }
+
     @Transactional
     EventType createEventType(boolean subscribedByDefault, boolean subscriptionLocked) {
         Bundle bundle = resourceHelpers.createBundle("bundle" + randomString(), randomString());
@@ -101,6 +155,19 @@ public class SubscriptionRepositoryTest {
                 .getSingleResult();
     }
 
+    Map<String, Boolean> getSubscriptions(String orgId, String username) {
+        String hql = "SELECT id.eventTypeId, id.subscriptionType, subscribed FROM EventTypeEmailSubscription " +
+                "WHERE id.orgId = :orgId AND id.userId = :userId";
+        Map<String, Boolean> subscriptions = new HashMap<>();
+        for (Object[] row : entityManager.createQuery(hql, Object[].class)
+                .setParameter("orgId", orgId)
+                .setParameter("userId", username)
+                .getResultList()) {
+            subscriptions.put(row[0] + "/" + row[1], (Boolean) row[2]);
+        }
+        return subscriptions;
+    }
+
     private static String randomString() {
         return UUID.randomUUID().toString();
     }
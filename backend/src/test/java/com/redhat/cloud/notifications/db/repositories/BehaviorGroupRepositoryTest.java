@@ -23,7 +23,9 @@ import jakarta.ws.rs.NotFoundException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -357,6 +359,36 @@ public class BehaviorGroupRepositoryTest extends DbIsolatedTest {
         findBehaviorGroupsByEndpointId(endpoint1.getId(), behaviorGroup2.getId());
     }
 
+    @Test
+    void testUpdateManyBehaviorGroupActions() {
+        Bundle bundle = resourceHelpers.createBundle();
+        BehaviorGroup behaviorGroup = resourceHelpers.createBehaviorGroup(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, "displayName", bundle.getId());
+        List<UUID> endpointIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            endpointIds.add(resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK).getId());
+        }
+
+        // All actions are inserted, then all their positions are updated, then half of them are removed.
+        updateAndCheckBehaviorGroupActions(DEFAULT_ORG_ID, bundle.getId(), behaviorGroup.getId(), endpointIds.toArray(UUID[]::new));
+        Collections.reverse(endpointIds);
+        updateAndCheckBehaviorGroupActions(DEFAULT_ORG_ID, bundle.getId(), behaviorGroup.getId(), endpointIds.toArray(UUID[]::new));
+        updateAndCheckBehaviorGroupActions(DEFAULT_ORG_ID, bundle.getId(), behaviorGroup.getId(), endpointIds.subList(0, 15).toArray(UUID[]::new));
+    }
+
+    @Test
+    void testUpdateBehaviorGroupActionsWithDuplicateEndpoint() {
+        Bundle bundle = resourceHelpers.createBundle();
+        BehaviorGroup behaviorGroup = resourceHelpers.createBehaviorGroup(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, "displayName", bundle.getId());
+        Endpoint endpoint1 = resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK);
+        Endpoint endpoint2 = resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK);
+
+        // An endpoint listed twice is only linked once, at its first position.
+        behaviorGroupRepository.updateBehaviorGroupActions(DEFAULT_ORG_ID, behaviorGroup.getId(), List.of(endpoint1.getId(), endpoint2.getId(), endpoint1.getId()));
+        entityManager.clear();
+        List<BehaviorGroupAction> actions = findBehaviorGroupActions(DEFAULT_ORG_ID, bundle.getId(), behaviorGroup.getId());
+        assertEquals(List.of(endpoint1.getId(), endpoint2.getId()), actions.stream().map(action -> action.getEndpoint().getId()).toList());
+    }
+
     @Test
     void testAddMultipleEmailSubscriptionBehaviorGroupActions() {
         Bundle bundle = resourceHelpers.createBundle();
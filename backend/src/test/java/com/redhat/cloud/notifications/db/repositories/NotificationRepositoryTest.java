@@ -19,6 +19,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 @QuarkusTest
@@ -98,4 +101,79 @@ public class NotificationRepositoryTest {
         final long expectedCount = 1;
         Assertions.assertEquals(expectedCount, count, "the function under test has returned the wrong count");
     }
+
+    /**
+     * Tests that the {@link NotificationRepository#getNotificationHistory(String, UUID, boolean, NotificationRepository.HistoryCursor, int)}
+     * function walks through the whole history of the endpoint, from the most recent element to the oldest one, even
+     * when several elements were created at the same time, and that the capped count stops counting at the limit.
+     */
+    @Test
+    @Transactional
+    public void notificationHistoryCursorPagingTest() {
+        final String notUsedField = "not-used";
+        final String orgId = "test-org-id-cursor";
+
+        final Bundle bundle = this.resourceHelpers.createBundle("test-cursor-bundle", "Test cursor bundle");
+        final Application application = this.resourceHelpers.createApplication(bundle.getId(), "test-cursor-application", "Test cursor application");
+        final EventType eventType = this.resourceHelpers.createEventType(application.getId(), "test-cursor-event-type");
+
+        final Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setAccountId(notUsedField);
+        event.setEventType(eventType);
+        event.setPayload("test-cursor-payload");
+        event.setCreated(LocalDateTime.now());
+        event.setBundleId(bundle.getId());
+        event.setBundleDisplayName(bundle.getDisplayName());
+        event.setApplicationId(application.getId());
+        event.setApplicationDisplayName(application.getDisplayName());
+        event.setEventTypeDisplayName(eventType.getDisplayName());
+        event.setOrgId(orgId);
+        this.entityManager.persist(event);
+
+        final Endpoint endpoint = this.resourceHelpers.createEndpoint(notUsedField, orgId, EndpointType.CAMEL);
+
+        // Half of the elements share their creation date with another element.
+        final LocalDateTime now = LocalDateTime.now();
+        final List<NotificationHistory> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            final NotificationHistory notificationHistory = new NotificationHistory();
+            notificationHistory.setEndpoint(endpoint);
+            notificationHistory.setCreated(now.minusMinutes(i / 2));
+            notificationHistory.setInvocationTime(0L);
+            notificationHistory.setId(UUID.randomUUID());
+            notificationHistory.setEvent(event);
+            notificationHistory.setEndpointType(endpoint.getType());
+            notificationHistory.setEndpointSubType(endpoint.getSubType());
+            notificationHistory.setStatus(NotificationStatus.SUCCESS);
+            this.entityManager.persist(notificationHistory);
+            created.add(notificationHistory);
+        }
+        this.entityManager.flush();
+
+        final List<UUID> expectedIds = created.stream()
+            // PostgreSQL compares the UUIDs like their textual representation, unlike UUID#compareTo.
+            .sorted(Comparator.comparing(NotificationHistory::getCreated).thenComparing(notificationHistory -> notificationHistory.getId().toString()).reversed())
+            .map(NotificationHistory::getId)
+            .toList();
+
+        // Walk through the history with pages of 3 elements.
+        final List<UUID> fetchedIds = new ArrayList<>();
+        NotificationRepository.HistoryCursor cursor = null;
+        List<NotificationHistory> page;
+        do {
+            page = this.notificationRepository.getNotificationHistory(orgId, endpoint.getId(), false, cursor, 3);
+            page.forEach(notificationHistory -> fetchedIds.add(notificationHistory.getId()));
+            if (!page.isEmpty()) {
+                // The cursor goes through the client, so it's encoded and decoded like in a real request.
+                cursor = NotificationRepository.HistoryCursor.decode(NotificationRepository.HistoryCursor.of(page.getLast()).encode());
+            }
+        } while (page.size() == 3);
+
+        Assertions.assertEquals(expectedIds, fetchedIds, "the cursor paging did not return every element once in the expected order");
+
+        // The capped count returns the limit plus one when there are more elements than the limit.
+        Assertions.assertEquals(7, this.notificationRepository.countNotificationHistoryElements(endpoint.getId(), orgId, 10));
+        Assertions.assertEquals(6, this.notificationRepository.countNotificationHistoryElements(endpoint.getId(), orgId, 5));
+    }
 }
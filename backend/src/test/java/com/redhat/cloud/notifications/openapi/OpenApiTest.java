@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -124,6 +125,34 @@ public class OpenApiTest {
                 .statusCode(401); // We do credential checks before path check.
     }
 
+    /**
+     * Tests that the filtered documents are served with an entity tag, and
+     * that a client which already has the current version of a document gets
+     * a "not modified" response.
+     * @throws Exception if any unexpected exception is thrown.
+     */
+    @Test
+    void testEntityTag() throws Exception {
+        for (URL url : buildApiUrls(true)) {
+            final String entityTag = given()
+                    .accept("application/json")
+                    .when()
+                    .get(url)
+                    .then()
+                    .statusCode(200)
+                    .extract().header("ETag");
+            assertNotNull(entityTag, "the document served at " + url + " has no entity tag");
+
+            given()
+                    .accept("application/json")
+                    .header("If-None-Match", entityTag)
+                    .when()
+                    .get(url)
+                    .then()
+                    .statusCode(304);
+        }
+    }
+
     @Test
     void exportOpenApiFile() throws Exception {
 
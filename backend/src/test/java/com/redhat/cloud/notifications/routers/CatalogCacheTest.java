@@ -0,0 +1,74 @@
+package com.redhat.cloud.notifications.routers;
+
+import com.redhat.cloud.notifications.TestLifecycleManager;
+import com.redhat.cloud.notifications.db.DbIsolatedTest;
+import com.redhat.cloud.notifications.db.ResourceHelpers;
+import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.Bundle;
+import com.redhat.cloud.notifications.models.EventType;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@QuarkusTest
+@QuarkusTestResource(TestLifecycleManager.class)
+public class CatalogCacheTest extends DbIsolatedTest {
+
+    @Inject
+    CatalogCache catalogCache;
+
+    @Inject
+    ResourceHelpers resourceHelpers;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void testSnapshotIsReusedWhileTheCatalogIsUnchanged() {
+        CatalogCache.Catalog catalog = catalogCache.get();
+        CatalogCache.Catalog revalidated = catalogCache.get();
+        assertEquals(catalog.version(), revalidated.version());
+        assertSame(catalog.bundles(), revalidated.bundles());
+    }
+
+    @Test
+    void testSnapshotIsRebuiltWhenTheCatalogChanges() {
+        CatalogCache.Catalog catalog = catalogCache.get();
+        assertNull(catalog.getBundle("catalog-bundle"));
+
+        // The version is increased by the database, so changes made without invalidating the cache are detected too.
+        Bundle bundle = resourceHelpers.createBundle("catalog-bundle", "Catalog bundle");
+        Application application = resourceHelpers.createApplication(bundle.getId(), "catalog-app", "Catalog app");
+        resourceHelpers.createEventType(application.getId(), "catalog-event-type");
+
+        catalog = catalogCache.get();
+        assertEquals(bundle.getId(), catalog.getBundle("catalog-bundle").getId());
+        assertEquals(List.of(application.getId()), catalog.getApplications("catalog-bundle").stream().map(Application::getId).toList());
+        assertEquals(application.getId(), catalog.getApplication("catalog-bundle", "catalog-app").getId());
+        EventType eventType = catalog.getEventType("catalog-bundle", "catalog-app", "catalog-event-type");
+        assertNotNull(eventType);
+        // The application is fetched with the event type because it is serialized with it.
+        assertEquals("catalog-app", eventType.getApplication().getName());
+
+        renameBundle(bundle, "Renamed catalog bundle");
+        assertEquals("Renamed catalog bundle", catalogCache.get().getBundle("catalog-bundle").getDisplayName());
+    }
+
+    @Transactional
+    void renameBundle(Bundle bundle, String displayName) {
+        entityManager.createQuery("UPDATE Bundle SET displayName = :displayName WHERE id = :id")
+            .setParameter("displayName", displayName)
+            .setParameter("id", bundle.getId())
+            .executeUpdate();
+    }
+}
@@ -16,6 +16,7 @@ import com.redhat.cloud.notifications.db.DbIsolatedTest;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.db.model.Stats;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.db.repositories.NotificationRepository;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.BasicAuthentication;
 import com.redhat.cloud.notifications.models.BehaviorGroup;
@@ -24,8 +25,10 @@ import com.redhat.cloud.notifications.models.CamelProperties;
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.EndpointStatus;
 import com.redhat.cloud.notifications.models.EndpointType;
+import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.EventType;
 import com.redhat.cloud.notifications.models.HttpType;
+import com.redhat.cloud.notifications.models.NotificationStatus;
 import com.redhat.cloud.notifications.models.PagerDutyProperties;
 import com.redhat.cloud.notifications.models.PagerDutySeverity;
 import com.redhat.cloud.notifications.models.SourcesSecretable;
@@ -56,10 +59,12 @@ import io.quarkus.test.junit.mockito.InjectSpy;
 import io.restassured.RestAssured;
 import io.restassured.http.Header;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.core.UriBuilder;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.http.HttpStatus;
@@ -85,6 +90,7 @@ import org.project_kessel.relations.client.CheckClient;
 import org.project_kessel.relations.client.LookupClient;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -112,6 +118,7 @@ import static com.redhat.cloud.notifications.routers.EndpointResource.HTTPS_ENDP
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static io.restassured.http.ContentType.TEXT;
+import static java.time.ZoneOffset.UTC;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -4007,6 +4014,179 @@ public class EndpointResourceTest extends DbIsolatedTest {
         return response;
     }
 
+    /**
+     * Tests that the cursor paging of the endpoint's history returns every
+     * element exactly once, from the most recent one to the oldest one, and
+     * that the last page does not have a "next" link.
+     */
+    @Test
+    void testEndpointHistoryCursorPaging() {
+        final Header identityHeader = this.createFullAccessIdentityHeader();
+        final Endpoint endpoint = this.resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK);
+        final Set<UUID> historyIds = this.createNotificationHistories(endpoint, 5);
+
+        final Set<UUID> fetchedIds = new HashSet<>();
+        String after = null;
+        int pages = 0;
+        do {
+            final JsonObject page = this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "limit", 2), after, HttpStatus.SC_OK);
+            pages++;
+
+            final JsonArray data = page.getJsonArray("data");
+            LocalDateTime previousCreated = null;
+            for (int i = 0; i < data.size(); i++) {
+                final JsonObject history = data.getJsonObject(i);
+                assertTrue(fetchedIds.add(UUID.fromString(history.getString("id"))), "the same history element was returned twice");
+
+                final LocalDateTime created = LocalDateTime.parse(history.getString("created"));
+                if (previousCreated != null) {
+                    assertFalse(created.isAfter(previousCreated), "the history elements are not sorted from the most recent one");
+                }
+                previousCreated = created;
+            }
+
+            assertEquals(5L, page.getJsonObject("meta").getLong("count"));
+            assertNull(page.getJsonObject("meta").getBoolean("countCapped"));
+            assertNotNull(page.getJsonObject("links").getString("first"));
+
+            final String next = page.getJsonObject("links").getString("next");
+            after = next == null ? null : next.substring(next.indexOf("after=") + "after=".length());
+        } while (after != null);
+
+        // Two full pages, followed by a partial one without a "next" link.
+        assertEquals(3, pages);
+        assertEquals(historyIds, fetchedIds);
+    }
+
+    /**
+     * Tests that the count of the endpoint's history is capped in the cursor
+     * paging mode, and that the response says so.
+     */
+    @Test
+    void testEndpointHistoryCursorPagingCappedCount() {
+        final Header identityHeader = this.createFullAccessIdentityHeader();
+        final Endpoint endpoint = this.resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK);
+        this.createNotificationHistories(endpoint, NotificationRepository.MAX_NOTIFICATION_HISTORY_RESULTS + 1);
+
+        final JsonObject page = this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "limit", 10), null, HttpStatus.SC_OK);
+
+        assertEquals(10, page.getJsonArray("data").size());
+        assertEquals(NotificationRepository.MAX_NOTIFICATION_HISTORY_RESULTS, page.getJsonObject("meta").getLong("count"));
+        assertTrue(page.getJsonObject("meta").getBoolean("countCapped"));
+        assertNotNull(page.getJsonObject("links").getString("next"));
+
+        // The offset paging keeps returning the exact count.
+        final JsonObject offsetPage = this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("limit", 10), null, HttpStatus.SC_OK);
+        assertEquals(NotificationRepository.MAX_NOTIFICATION_HISTORY_RESULTS + 1L, offsetPage.getJsonObject("meta").getLong("count"));
+        assertNull(offsetPage.getJsonObject("meta").getBoolean("countCapped"));
+    }
+
+    /**
+     * Tests that the invalid or mixed paging query parameters of the
+     * endpoint's history are rejected with a {@link HttpStatus#SC_BAD_REQUEST}
+     * response.
+     */
+    @Test
+    void testEndpointHistoryInvalidPagingParameters() {
+        final Header identityHeader = this.createFullAccessIdentityHeader();
+        final Endpoint endpoint = this.resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK);
+        final String validCursor = new NotificationRepository.HistoryCursor(LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        // Unknown paging mode.
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "bogus"), null, HttpStatus.SC_BAD_REQUEST);
+        // Malformed cursor.
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor"), "not-a-cursor", HttpStatus.SC_BAD_REQUEST);
+        // Cursor without the cursor paging mode.
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of(), validCursor, HttpStatus.SC_BAD_REQUEST);
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "offset"), validCursor, HttpStatus.SC_BAD_REQUEST);
+        // Offset parameters in the cursor paging mode.
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "limit", 10, "offset", 10), null, HttpStatus.SC_BAD_REQUEST);
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "limit", 10, "pageNumber", 1), null, HttpStatus.SC_BAD_REQUEST);
+        // Any sort other than the creation date in the descending order in the cursor paging mode.
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "sort_by", "created:asc"), null, HttpStatus.SC_BAD_REQUEST);
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "sort_by", "status:desc"), null, HttpStatus.SC_BAD_REQUEST);
+
+        // Sanity check: the valid combinations are accepted.
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "cursor", "sort_by", "created:desc"), validCursor, HttpStatus.SC_OK);
+        this.getEndpointHistoryPage(identityHeader, endpoint.getId(), Map.of("paging", "offset", "limit", 10, "offset", 10), null, HttpStatus.SC_OK);
+    }
+
+    /**
+     * Creates an identity header with full RBAC access for the default
+     * organization.
+     * @return the created identity header.
+     */
+    private Header createFullAccessIdentityHeader() {
+        final String identityHeaderValue = TestHelpers.encodeRHIdentityInfo(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, DEFAULT_USER);
+        MockServerConfig.addMockRbacAccess(identityHeaderValue, FULL_ACCESS);
+        return TestHelpers.createRHIdentityHeader(identityHeaderValue);
+    }
+
+    /**
+     * Creates an event and the given number of history elements for it and
+     * the given endpoint, in a single transaction.
+     * @param endpoint the endpoint the history elements belong to.
+     * @param count the number of history elements to create.
+     * @return the identifiers of the created history elements.
+     */
+    @Transactional
+    Set<UUID> createNotificationHistories(final Endpoint endpoint, final int count) {
+        final Bundle bundle = this.resourceHelpers.createBundle("history-bundle", "History bundle");
+        final Application application = this.resourceHelpers.createApplication(bundle.getId(), "history-application", "History application");
+        final EventType eventType = this.resourceHelpers.createEventType(application.getId(), "history-event-type", "History event type", "History event type");
+
+        final Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setAccountId(DEFAULT_ACCOUNT_ID);
+        event.setOrgId(DEFAULT_ORG_ID);
+        event.setBundleId(bundle.getId());
+        event.setBundleDisplayName(bundle.getDisplayName());
+        event.setApplicationId(application.getId());
+        event.setApplicationDisplayName(application.getDisplayName());
+        event.setEventType(eventType);
+        event.setEventTypeDisplayName(eventType.getDisplayName());
+        event.setCreated(LocalDateTime.now(UTC));
+        event.setPayload("payload");
+        this.entityManager.persist(event);
+
+        final Set<UUID> historyIds = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            historyIds.add(this.resourceHelpers.createNotificationHistory(event, endpoint, NotificationStatus.SUCCESS).getId());
+        }
+        return historyIds;
+    }
+
+    /**
+     * Calls the V2 endpoint's history REST endpoint.
+     * @param identityHeader the identity header of the request.
+     * @param endpointId the endpoint's identifier.
+     * @param queryParams the query parameters of the request.
+     * @param after the cursor of the "after" query parameter, or {@code null}.
+     * @param expectedStatusCode the expected status code of the response.
+     * @return the page of history elements, or {@code null} if the request
+     * was not successful.
+     */
+    private JsonObject getEndpointHistoryPage(final Header identityHeader, final UUID endpointId, final Map<String, ?> queryParams, final String after, final int expectedStatusCode) {
+        final RequestSpecification request = given()
+            .basePath(TestConstants.API_INTEGRATIONS_V_2_0)
+            .header(identityHeader)
+            .pathParam("endpointId", endpointId)
+            .queryParams(queryParams);
+
+        if (after != null) {
+            request.queryParam("after", after);
+        }
+
+        final String responseBody = request
+            .when()
+            .get("/endpoints/{endpointId}/history")
+            .then()
+            .statusCode(expectedStatusCode)
+            .extract().asString();
+
+        return expectedStatusCode == HttpStatus.SC_OK ? new JsonObject(responseBody) : null;
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void testNotFoundResponsesUnknownEndpointId(final boolean isKesselRelationsApiEnabled) {
@@ -729,6 +729,46 @@ public class EventResourceTest extends DbIsolatedTest {
                 .contentType(JSON);
     }
 
+    @Test
+    void testHeavyColumnsAreOnlyReturnedWhenRequested() {
+        this.kesselTestHelper.mockKesselRelations(false);
+        Header identityHeader = mockRbac(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, DEFAULT_USER, FULL_ACCESS);
+
+        Bundle bundle = resourceHelpers.createBundle("bundle-details", "Bundle details");
+        Application app = resourceHelpers.createApplication(bundle.getId(), "app-details", "Application details");
+        EventType eventType = resourceHelpers.createEventType(app.getId(), "event-type-details", "Event type details", "Event type details");
+        Event event = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW);
+        Endpoint endpoint = resourceHelpers.createEndpoint(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, WEBHOOK);
+        NotificationHistory history = resourceHelpers.createNotificationHistory(event, endpoint, NotificationStatus.FAILED_EXTERNAL);
+        setDetails(history.getId(), Map.of("outcome", "HTTP 500"));
+
+        Page<EventLogEntry> page = getEventLogPage(identityHeader, null, null, null, null, null, null, null, null, null, null, null, false, true);
+        assertSameEvent(page.getData().get(0), event, history);
+        assertNull(page.getData().get(0).getPayload());
+        assertEquals(endpoint.getId(), page.getData().get(0).getActions().get(0).getEndpointId());
+        assertNull(page.getData().get(0).getActions().get(0).getDetails());
+
+        page = given()
+                .header(identityHeader)
+                .param("includeActions", true)
+                .param("includeDetails", true)
+                .param("includePayload", true)
+                .when().get(PATH)
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .contentType(JSON)
+                .extract().body().as(new TypeRef<>() {
+                });
+        assertSameEvent(page.getData().get(0), event, history);
+        assertEquals(PAYLOAD, page.getData().get(0).getPayload());
+        assertEquals(Map.of("outcome", "HTTP 500"), page.getData().get(0).getActions().get(0).getDetails());
+    }
+
+    @Transactional
+    void setDetails(UUID historyId, Map<String, Object> details) {
+        entityManager.find(NotificationHistory.class, historyId).setDetails(details);
+    }
+
     @Test
     public void fromNotificationStatusTest() {
         assertEquals(
@@ -10,14 +10,20 @@ import com.redhat.cloud.notifications.TestHelpers;
 import com.redhat.cloud.notifications.TestLifecycleManager;
 import com.redhat.cloud.notifications.config.BackendConfig;
 import com.redhat.cloud.notifications.db.DbIsolatedTest;
+import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.db.repositories.ApplicationRepository;
+import com.redhat.cloud.notifications.db.repositories.BehaviorGroupRepository;
+import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
 import com.redhat.cloud.notifications.db.repositories.EventTypeRepository;
 import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
 import com.redhat.cloud.notifications.models.AggregationEmailTemplate;
 import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.BehaviorGroup;
+import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.EventType;
 import com.redhat.cloud.notifications.models.InstantEmailTemplate;
 import com.redhat.cloud.notifications.models.SubscriptionType;
+import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
 import com.redhat.cloud.notifications.models.Template;
 import com.redhat.cloud.notifications.routers.models.SettingsValueByEventTypeJsonForm;
 import com.redhat.cloud.notifications.routers.models.SettingsValuesByEventType;
@@ -42,6 +48,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.CrudTestHelpers.createAggregationEmailTemplate;
@@ -53,6 +60,7 @@ import static com.redhat.cloud.notifications.CrudTestHelpers.createTemplate;
 import static com.redhat.cloud.notifications.CrudTestHelpers.deleteAggregationEmailTemplate;
 import static com.redhat.cloud.notifications.CrudTestHelpers.deleteBundle;
 import static com.redhat.cloud.notifications.CrudTestHelpers.deleteInstantEmailTemplate;
+import static com.redhat.cloud.notifications.models.EndpointType.EMAIL_SUBSCRIPTION;
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
 import static com.redhat.cloud.notifications.models.SubscriptionType.DRAWER;
 import static com.redhat.cloud.notifications.models.SubscriptionType.INSTANT;
@@ -61,12 +69,16 @@ import static io.restassured.http.ContentType.JSON;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
@@ -83,7 +95,7 @@ public class UserConfigResourceTest extends DbIsolatedTest {
     @InjectMock
     BackendConfig backendConfig;
 
-    @Inject
+    @InjectSpy
     SubscriptionRepository subscriptionRepository;
 
     @ConfigProperty(name = "internal.admin-role")
@@ -98,6 +110,18 @@ public class UserConfigResourceTest extends DbIsolatedTest {
     @Inject
     EventTypeRepository eventTypeRepository;
 
+    @Inject
+    UserPreferencesSchemaCache userPreferencesSchemaCache;
+
+    @Inject
+    ResourceHelpers resourceHelpers;
+
+    @Inject
+    BehaviorGroupRepository behaviorGroupRepository;
+
+    @Inject
+    EndpointRepository endpointRepository;
+
     record TestRecordNameAndDisplayName(String name, String displayName) { }
 
     private static final ObjectMapper mapper = new ObjectMapper();
@@ -268,6 +292,8 @@ public class UserConfigResourceTest extends DbIsolatedTest {
         Application applicationPolicies = new Application();
         applicationPolicies.setName("policies");
         when(applicationRepository.getApplicationsWithForcedEmail(any(), anyString())).thenReturn(List.of(applicationPolicies));
+        // The mock bypasses the behavior groups repository, which would have invalidated the cached forced emails.
+        userPreferencesSchemaCache.invalidateForcedEmails(orgId);
 
         settingsValuesByEventType = given()
             .header(identityHeader)
@@ -352,6 +378,14 @@ public class UserConfigResourceTest extends DbIsolatedTest {
             subscriptionRepository.unsubscribe(orgId, username, UUID.randomUUID(), DAILY);
         });
 
+        // Fail if we have unknown event type in a bulk update, but nothing will be added on database
+        assertThrows(PersistenceException.class, () -> {
+            subscriptionRepository.updateSubscriptions(orgId, username, List.of(
+                new SubscriptionRepository.SubscriptionUpdate(UUID.randomUUID(), DAILY, true),
+                new SubscriptionRepository.SubscriptionUpdate(UUID.randomUUID(), INSTANT, false)
+            ));
+        });
+
         // does not add if we try to create unknown bundle/apps
         settingsValues = createSettingsValue("not-found-bundle-2", "not-found-app-2", eventType, true, true, true);
         given()
@@ -454,6 +488,7 @@ public class UserConfigResourceTest extends DbIsolatedTest {
         entityManager.createQuery("UPDATE EventType SET visible = :visible where name='policy-triggered'")
             .setParameter("visible", visible)
             .executeUpdate();
+        userPreferencesSchemaCache.invalidate();
     }
 
     @Transactional
@@ -465,6 +500,7 @@ public class UserConfigResourceTest extends DbIsolatedTest {
                 .setParameter("subscribedByDefault", locked)
                 .setParameter("subscriptionLocked", locked)
                 .executeUpdate();
+        userPreferencesSchemaCache.invalidate();
     }
 
     private void postPreferencesByEventType(Header identityHeader, SettingsValuesByEventType settingsValues, int expectedStatusCode) {
@@ -531,6 +567,121 @@ public class UserConfigResourceTest extends DbIsolatedTest {
         deleteAggregationEmailTemplate(adminIdentity, templateId);
     }
 
+    @Test
+    void testSettingsByEventTypeConditionalGet() {
+        String identityHeaderValue = TestHelpers.encodeRHIdentityInfo("empty", "empty", "user");
+        Header identityHeader = TestHelpers.createRHIdentityHeader(identityHeaderValue);
+        MockServerConfig.addMockRbacAccess(identityHeaderValue, MockServerConfig.RbacAccess.FULL_ACCESS);
+
+        String bundle = "rhel";
+        String application = "policies";
+        String eventType = "policy-triggered";
+        createInstantTemplate(bundle, application, eventType);
+        createAggregationTemplate(bundle, application);
+
+        String etag = given()
+            .header(identityHeader)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200)
+            .extract().header("ETag");
+        assertNotNull(etag);
+
+        // The client already has the current version of the preferences.
+        clearInvocations(subscriptionRepository);
+        given()
+            .header(identityHeader)
+            .header("If-None-Match", etag)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(304)
+            .header("ETag", etag);
+        // The 304 is returned without loading the user subscriptions.
+        verify(subscriptionRepository, never()).getEmailSubscriptionsPerEventTypeForUser(anyString(), anyString());
+
+        // The user preferences changed, the ETag must change too.
+        postPreferencesByEventType(identityHeader, createSettingsValue(bundle, application, eventType, true, false, false), 200);
+        String updatedEtag = given()
+            .header(identityHeader)
+            .header("If-None-Match", etag)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200)
+            .extract().header("ETag");
+        assertNotEquals(etag, updatedEtag);
+
+        // The schema changed, the ETag must change too.
+        updatePoliciesEventTypeVisibility(false);
+        given()
+            .header(identityHeader)
+            .header("If-None-Match", updatedEtag)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200);
+    }
+
+    @Test
+    void testSettingsByEventTypeConditionalGetWithForcedEmails() {
+        String orgId = "empty";
+        String identityHeaderValue = TestHelpers.encodeRHIdentityInfo("empty", orgId, "user");
+        Header identityHeader = TestHelpers.createRHIdentityHeader(identityHeaderValue);
+        MockServerConfig.addMockRbacAccess(identityHeaderValue, MockServerConfig.RbacAccess.FULL_ACCESS);
+
+        String bundle = "rhel";
+        String application = "policies";
+        String eventType = "policy-triggered";
+        createInstantTemplate(bundle, application, eventType);
+        createAggregationTemplate(bundle, application);
+
+        // The forced emails of the org are cached by this request.
+        String etag = given()
+            .header(identityHeader)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200)
+            .extract().header("ETag");
+
+        // The emails of the event type are now sent regardless of the user preferences.
+        SystemSubscriptionProperties properties = new SystemSubscriptionProperties();
+        properties.setIgnorePreferences(true);
+        Endpoint endpoint = endpointRepository.getOrCreateSystemSubscriptionEndpoint("empty", orgId, properties, EMAIL_SUBSCRIPTION);
+        BehaviorGroup behaviorGroup = resourceHelpers.createBehaviorGroup("empty", orgId, "Forced emails", resourceHelpers.getBundleId(bundle));
+        behaviorGroupRepository.updateBehaviorGroupActions(orgId, behaviorGroup.getId(), List.of(endpoint.getId()));
+        behaviorGroupRepository.updateBehaviorEventTypes(orgId, behaviorGroup.getId(), Set.of(applicationRepository.getEventType(bundle, application, eventType).getId()));
+
+        SettingsValueByEventTypeJsonForm settingsValues = given()
+            .header(identityHeader)
+            .header("If-None-Match", etag)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200)
+            .extract().body().as(SettingsValueByEventTypeJsonForm.class);
+        assertNotNull(rhelPolicyForm(settingsValues).eventTypes.get(0).fields.get(0).infoMessage);
+        String forcedEtag = given()
+            .header(identityHeader)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200)
+            .extract().header("ETag");
+        assertNotEquals(etag, forcedEtag);
+        given()
+            .header(identityHeader)
+            .header("If-None-Match", forcedEtag)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(304);
+
+        // The emails are no longer forced, the ETag must change again.
+        behaviorGroupRepository.delete(orgId, behaviorGroup.getId());
+        given()
+            .header(identityHeader)
+            .header("If-None-Match", forcedEtag)
+            .when().get(PATH_EVENT_TYPE_PREFERENCE_API)
+            .then()
+            .statusCode(200)
+            .header("ETag", etag);
+    }
+
     @Test
     void testSettingsUserPreferenceUsingDeprecatedApi() {
         String accountId = "empty";
@@ -0,0 +1,85 @@
+package com.redhat.cloud.notifications.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Loads the benchmark fixtures and reproduces the parts of the Quarkus runtime configuration the benchmarked code
+ * depends on.
+ */
+public class Fixtures {
+
+    public static final String ADVISOR_ACTION = "fixtures/advisor-action.json";
+    public static final String POLICIES_CLOUD_EVENT = "fixtures/policies-cloud-event.json";
+
+    private static final String VERTX_CODEC = "io.quarkus.vertx.runtime.jackson.QuarkusJacksonJsonCodec";
+    private static final ObjectMapper OBJECT_MAPPER;
+
+    static {
+        // The benchmarked code logs each operation at INFO level, which would measure the console instead of the code.
+        System.setProperty("org.jboss.logging.provider", "jdk");
+        Logger.getLogger("").setLevel(Level.WARNING);
+        // Without the Arc container, the Vert.x JSON codec provided by Quarkus uses an ObjectMapper which isn't configured.
+        configure(getVertxCodecMapper());
+        OBJECT_MAPPER = configure(new ObjectMapper());
+    }
+
+    private Fixtures() {
+    }
+
+    /**
+     * Applies the runtime configuration. It is also applied by the other methods of this class, so this method only
+     * has to be called by the benchmarks which don't load any fixture.
+     */
+    public static void init() {
+    }
+
+    public static String load(String path) {
+        try (InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Fixture not found: " + path);
+            }
+            return new String(inputStream.readAllBytes(), UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fixture loading failed: " + path, e);
+        }
+    }
+
+    /**
+     * @return an {@link ObjectMapper} configured like the one Quarkus injects
+     */
+    public static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    private static ObjectMapper getVertxCodecMapper() {
+        try {
+            Field mapper = Class.forName(VERTX_CODEC).getDeclaredField("mapper");
+            mapper.setAccessible(true);
+            return (ObjectMapper) mapper.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Vert.x JSON codec configuration failed", e);
+        }
+    }
+
+    private static ObjectMapper configure(ObjectMapper objectMapper) {
+        return objectMapper
+            .registerModule(new Jdk8Module())
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+}
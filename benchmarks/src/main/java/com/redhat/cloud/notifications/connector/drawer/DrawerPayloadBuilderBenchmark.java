@@ -0,0 +1,81 @@
+package com.redhat.cloud.notifications.connector.drawer;
+
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.connector.drawer.constant.ExchangeProperty;
+import com.redhat.cloud.notifications.connector.drawer.model.DrawerEntryPayload;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Serialization of a drawer entry and its recipients into the Cloud Event sent to the drawer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrawerPayloadBuilderBenchmark {
+
+    @Param({"10", "1000"})
+    int recipientsCount;
+
+    private final DrawerPayloadBuilder drawerPayloadBuilder = new DrawerPayloadBuilder();
+    private CamelContext camelContext;
+    private Exchange exchange;
+
+    @Setup
+    public void setup() {
+        Fixtures.init();
+        DrawerEntryPayload payload = new DrawerEntryPayload();
+        payload.setEventId(UUID.randomUUID());
+        payload.setTitle("New recommendation");
+        payload.setDescription("my-host triggered 5 events");
+        payload.setCreated(LocalDateTime.now(UTC));
+        payload.setSource("Red Hat Enterprise Linux - Advisor");
+        payload.setBundle("Red Hat Enterprise Linux");
+
+        Set<String> recipients = new HashSet<>();
+        for (int i = 0; i < recipientsCount; i++) {
+            recipients.add("user-" + i);
+        }
+
+        camelContext = new DefaultCamelContext();
+        exchange = new DefaultExchange(camelContext);
+        exchange.setProperty(ExchangeProperty.DRAWER_ENTRY_PAYLOAD, payload);
+        exchange.setProperty(ExchangeProperty.RESOLVED_RECIPIENT_LIST, recipients);
+    }
+
+    @TearDown
+    public void tearDown() {
+        camelContext.stop();
+    }
+
+    @Benchmark
+    public Object buildPayload() {
+        drawerPayloadBuilder.process(exchange);
+        return exchange.getIn().getBody();
+    }
+}
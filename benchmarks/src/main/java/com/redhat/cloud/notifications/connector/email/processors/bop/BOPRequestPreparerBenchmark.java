@@ -0,0 +1,111 @@
+package com.redhat.cloud.notifications.connector.email.processors.bop;
+
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.connector.email.config.EmailConnectorConfig;
+import com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORG_ID;
+
+/**
+ * Serialization of a rendered email and its recipients into the requests sent to BOP. The rendered email is encoded
+ * once and each chunk of recipients is written around it, so the bytes allocated per email are reported by the
+ * {@code gc.alloc.rate.norm} metric of {@code prepareEmail} when the benchmark is run with {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BOPRequestPreparerBenchmark {
+
+    // The body of the email templates is mostly made of this layout.
+    private static final String RENDERED_BODY = "templates/Common/insightsEmailBody.html";
+
+    // Number of recipients chunks of an org-wide email.
+    private static final int CHUNKS_COUNT = 20;
+
+    @Param({"10", "100"})
+    int recipientsCount;
+
+    private final BOPRequestPreparer bopRequestPreparer = new BOPRequestPreparer();
+    private CamelContext camelContext;
+    private Exchange exchange;
+    private Set<String> recipients;
+
+    @Setup
+    public void setup() {
+        bopRequestPreparer.emailConnectorConfig = new BenchmarkEmailConnectorConfig();
+        recipients = new HashSet<>();
+        for (int i = 0; i < recipientsCount; i++) {
+            recipients.add("user-" + i + "@example.com");
+        }
+        camelContext = new DefaultCamelContext();
+        exchange = new DefaultExchange(camelContext);
+        exchange.setProperty(ExchangeProperty.RENDERED_SUBJECT, "Advisor - Red Hat Enterprise Linux - New recommendations");
+        exchange.setProperty(ExchangeProperty.RENDERED_BODY, Fixtures.load(RENDERED_BODY));
+        exchange.setProperty(ExchangeProperty.EMAIL_SENDER, "\"Red Hat Insights\" noreply@redhat.com");
+        exchange.setProperty(ORG_ID, "benchmark-org");
+    }
+
+    @TearDown
+    public void tearDown() {
+        camelContext.stop();
+    }
+
+    @Benchmark
+    public Object prepareRequest() {
+        // The processor replaces the recipients with the request.
+        exchange.getMessage().setBody(recipients);
+        bopRequestPreparer.process(exchange);
+        return exchange.getMessage().getBody();
+    }
+
+    @Benchmark
+    public Object prepareEmail() {
+        bopRequestPreparer.encodeEmail(exchange);
+        for (int i = 0; i < CHUNKS_COUNT; i++) {
+            exchange.getMessage().setBody(recipients);
+            bopRequestPreparer.process(exchange);
+        }
+        return exchange.getMessage().getBody();
+    }
+
+    private static class BenchmarkEmailConnectorConfig extends EmailConnectorConfig {
+
+        @Override
+        public String getBopApiToken() {
+            return "benchmark-token";
+        }
+
+        @Override
+        public String getBopClientId() {
+            return "benchmark-client";
+        }
+
+        @Override
+        public String getBopEnv() {
+            return "benchmark";
+        }
+    }
+}
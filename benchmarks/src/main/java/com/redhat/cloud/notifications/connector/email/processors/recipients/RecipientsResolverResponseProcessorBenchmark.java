@@ -0,0 +1,105 @@
+package com.redhat.cloud.notifications.connector.email.processors.recipients;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.connector.email.config.EmailConnectorConfig;
+import com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reading of the recipients-resolver response, either projected on the emails or made of the full users returned by
+ * the recipients-resolver versions which don't support projections.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipientsResolverResponseProcessorBenchmark {
+
+    @Param({"100", "10000"})
+    int recipientsCount;
+
+    @Param({"emails", "users"})
+    String responseFormat;
+
+    private final RecipientsResolverResponseProcessor processor = new RecipientsResolverResponseProcessor();
+    private CamelContext camelContext;
+    private Exchange exchange;
+    private byte[] response;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        processor.objectMapper = Fixtures.objectMapper();
+        processor.emailConnectorConfig = new BenchmarkEmailConnectorConfig();
+
+        ArrayNode users = Fixtures.objectMapper().createArrayNode();
+        for (int i = 0; i < recipientsCount; i++) {
+            String email = "user-" + i + "@example.com";
+            if ("emails".equals(responseFormat)) {
+                users.add(email);
+            } else {
+                users.addObject()
+                    .put("id", UUID.randomUUID().toString())
+                    .put("username", "user-" + i)
+                    .put("email", email)
+                    .put("admin", false);
+            }
+        }
+        response = Fixtures.objectMapper().writeValueAsString(users).getBytes(UTF_8);
+
+        camelContext = new DefaultCamelContext();
+        exchange = new DefaultExchange(camelContext);
+    }
+
+    @TearDown
+    public void tearDown() {
+        camelContext.stop();
+    }
+
+    @Benchmark
+    public Object processResponse() throws IOException {
+        exchange.getMessage().setBody(new ByteArrayInputStream(response));
+        exchange.setProperty(ExchangeProperty.EMAIL_RECIPIENTS, new HashSet<>());
+        processor.process(exchange);
+        return exchange.getProperty(ExchangeProperty.FILTERED_USERS);
+    }
+
+    private static class BenchmarkEmailConnectorConfig extends EmailConnectorConfig {
+
+        @Override
+        public int getMaxRecipientsPerEmail() {
+            return 50;
+        }
+
+        @Override
+        public boolean isEmailsInternalOnlyEnabled() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.redhat.cloud.notifications.db.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lists the integrations a user is authorized to view, with the authorized IDs bound as one parameter per ID in an IN
+ * list, as the endpoints listing did before, and bound as a single uuid[] parameter of {@code id = any(?)}, which is
+ * what the {@code equals_any} HQL function of the backend renders. Each operation reads a page and counts the
+ * authorized integrations, like the listing does.
+ *
+ * The benchmark needs a running Postgres database, such as the one of helpers/docker-compose.yaml. It works on its own
+ * table, which is dropped at the end:
+ *
+ *   java -jar benchmarks/target/benchmarks.jar EndpointRepositoryBenchmark -p jdbcUrl=jdbc:postgresql://localhost:5432/notifications
+ *
+ * The Kessel lookup which returns the authorized IDs is not measured, it is a remote call whose result is cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndpointRepositoryBenchmark {
+
+    private static final int ENDPOINTS_COUNT = 20000;
+    private static final int PAGE_SIZE = 20;
+    private static final String ORG_ID = "benchmark-org";
+
+    @Param("jdbc:postgresql://localhost:5432/notifications")
+    String jdbcUrl;
+
+    @Param("postgres")
+    String user;
+
+    @Param("postgres")
+    String password;
+
+    @Param({"10", "1000", "10000"})
+    int authorizedCount;
+
+    private Connection connection;
+    private List<UUID> authorizedIds;
+    private String inListPageQuery;
+    private String inListCountQuery;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_endpoints");
+            statement.execute("CREATE TABLE benchmark_endpoints (id UUID PRIMARY KEY, org_id VARCHAR(50), name VARCHAR(255) NOT NULL, " +
+                "endpoint_type_v2 VARCHAR(20) NOT NULL, enabled BOOLEAN NOT NULL)");
+            statement.execute("CREATE INDEX ix_benchmark_endpoints_org_id ON benchmark_endpoints (org_id)");
+        }
+
+        List<UUID> ids = new ArrayList<>(ENDPOINTS_COUNT);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO benchmark_endpoints VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ENDPOINTS_COUNT; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                insert.setObject(1, id);
+                insert.setString(2, ORG_ID);
+                insert.setString(3, "Integration " + i);
+                insert.setString(4, i % 2 == 0 ? "WEBHOOK" : "CAMEL");
+                insert.setBoolean(5, true);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE benchmark_endpoints");
+        }
+
+        Collections.shuffle(ids);
+        authorizedIds = ids.subList(0, authorizedCount);
+
+        String inList = String.join(", ", Collections.nCopies(authorizedCount, "?"));
+        inListPageQuery = "SELECT id, name, endpoint_type_v2, enabled FROM benchmark_endpoints WHERE org_id = ? AND id IN (" + inList + ") " +
+            "ORDER BY name LIMIT " + PAGE_SIZE;
+        inListCountQuery = "SELECT COUNT(*) FROM benchmark_endpoints WHERE org_id = ? AND id IN (" + inList + ")";
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_endpoints");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void inList(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement page = connection.prepareStatement(inListPageQuery)) {
+            bindInList(page);
+            consume(page, blackhole);
+        }
+        try (PreparedStatement count = connection.prepareStatement(inListCountQuery)) {
+            bindInList(count);
+            consume(count, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void anyArray(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement page = connection.prepareStatement("SELECT id, name, endpoint_type_v2, enabled FROM benchmark_endpoints " +
+            "WHERE org_id = ? AND id = any(?) ORDER BY name LIMIT " + PAGE_SIZE)) {
+            bindArray(page);
+            consume(page, blackhole);
+        }
+        try (PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM benchmark_endpoints WHERE org_id = ? AND id = any(?)")) {
+            bindArray(count);
+            consume(count, blackhole);
+        }
+    }
+
+    private void bindInList(PreparedStatement statement) throws SQLException {
+        statement.setString(1, ORG_ID);
+        for (int i = 0; i < authorizedIds.size(); i++) {
+            statement.setObject(i + 2, authorizedIds.get(i));
+        }
+    }
+
+    private void bindArray(PreparedStatement statement) throws SQLException {
+        statement.setString(1, ORG_ID);
+        // Built on each operation, like Hibernate does when it binds the array of the equals_any function.
+        statement.setArray(2, connection.createArrayOf("uuid", authorizedIds.toArray(UUID[]::new)));
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            int columnsCount = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                for (int i = 1; i <= columnsCount; i++) {
+                    blackhole.consume(resultSet.getObject(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.redhat.cloud.notifications.db.repositories;
+
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a page of the event log with the columns of the full Event entity, as the event log did before, and with the
+ * columns of the SELECT NEW projection of {@code EventRepository#getEvents} in the backend. Both read the events of the
+ * page by ID once the IDs are known, like the event log does.
+ *
+ * The benchmark needs a running Postgres database, such as the one of helpers/docker-compose.yaml. It works on its own
+ * table, which has the columns of the Event entity and is dropped at the end:
+ *
+ *   java -jar benchmarks/target/benchmarks.jar EventRepositoryBenchmark -prof gc -p jdbcUrl=jdbc:postgresql://localhost:5432/notifications
+ *
+ * Each operation is a row of the page: the throughput is in rows per second, and the normalized allocation rate of the
+ * gc profiler is the heap allocated per row. Only the JDBC reads are measured. The persistence context and the entity
+ * snapshots that Hibernate adds on top of the full entities are not, so the gap is larger in the application.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(EventRepositoryBenchmark.PAGE_SIZE)
+public class EventRepositoryBenchmark {
+
+    static final int PAGE_SIZE = 50;
+    private static final int PAGES_COUNT = 200;
+    private static final String ORG_ID = "benchmark-org";
+
+    private static final String FULL_ENTITY_QUERY = "SELECT id, created, account_id, org_id, bundle_id, bundle_display_name, application_id, " +
+        "application_display_name, event_type_id, event_type_display_name, payload, rendered_drawer_notification, source_environment " +
+        "FROM benchmark_event WHERE id = ANY(?) ORDER BY created DESC";
+    private static final String PROJECTION_QUERY = "SELECT id, bundle_display_name, application_display_name, event_type_display_name, created " +
+        "FROM benchmark_event WHERE id = ANY(?) ORDER BY created DESC";
+
+    @Param("jdbc:postgresql://localhost:5432/notifications")
+    String jdbcUrl;
+
+    @Param("postgres")
+    String user;
+
+    @Param("postgres")
+    String password;
+
+    private Connection connection;
+    private final List<Array> pages = new ArrayList<>();
+    private int nextPage;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_event");
+            statement.execute("CREATE TABLE benchmark_event (id UUID PRIMARY KEY, created TIMESTAMP NOT NULL, account_id VARCHAR(50), " +
+                "org_id VARCHAR(50) NOT NULL, bundle_id UUID NOT NULL, bundle_display_name VARCHAR NOT NULL, application_id UUID NOT NULL, " +
+                "application_display_name VARCHAR NOT NULL, event_type_id UUID NOT NULL, event_type_display_name VARCHAR NOT NULL, " +
+                "payload TEXT, rendered_drawer_notification TEXT, source_environment VARCHAR)");
+        }
+
+        // The payload and the rendered drawer notification of an Advisor event, which is a typical event log entry.
+        String payload = Fixtures.load(Fixtures.ADVISOR_ACTION);
+        String renderedDrawerNotification = "<p>" + "New recommendations were identified on the host. ".repeat(10) + "</p>";
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO benchmark_event VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int page = 0; page < PAGES_COUNT; page++) {
+                UUID[] pageIds = new UUID[PAGE_SIZE];
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    pageIds[i] = UUID.randomUUID();
+                    insert.setObject(1, pageIds[i]);
+                    insert.setTimestamp(2, Timestamp.valueOf(now.minusSeconds((long) page * PAGE_SIZE + i)));
+                    insert.setString(3, "benchmark-account");
+                    insert.setString(4, ORG_ID);
+                    insert.setObject(5, UUID.randomUUID());
+                    insert.setString(6, "Red Hat Enterprise Linux");
+                    insert.setObject(7, UUID.randomUUID());
+                    insert.setString(8, "Advisor");
+                    insert.setObject(9, UUID.randomUUID());
+                    insert.setString(10, "New recommendation");
+                    insert.setString(11, payload);
+                    insert.setString(12, renderedDrawerNotification);
+                    insert.setString(13, "prod");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                pages.add(connection.createArrayOf("uuid", pageIds));
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE benchmark_event");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_event");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<Object[]> fullEntity() throws SQLException {
+        return readPage(FULL_ENTITY_QUERY);
+    }
+
+    @Benchmark
+    public List<Object[]> projection() throws SQLException {
+        return readPage(PROJECTION_QUERY);
+    }
+
+    private List<Object[]> readPage(String query) throws SQLException {
+        Array pageIds = pages.get(nextPage);
+        nextPage = (nextPage + 1) % pages.size();
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setArray(1, pageIds);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columnsCount = resultSet.getMetaData().getColumnCount();
+                List<Object[]> rows = new ArrayList<>(PAGE_SIZE);
+                while (resultSet.next()) {
+                    Object[] row = new Object[columnsCount];
+                    for (int i = 0; i < columnsCount; i++) {
+                        row[i] = resultSet.getObject(i + 1);
+                    }
+                    rows.add(row);
+                }
+                return rows;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.redhat.cloud.notifications.recipients.resolver;
+
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
+import com.redhat.cloud.notifications.recipients.model.RecipientSettings;
+import com.redhat.cloud.notifications.recipients.model.User;
+import com.redhat.cloud.notifications.recipients.model.UserDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering of the users of an org by the recipients settings and the subscriptions. The users are returned by a stub
+ * which behaves like the users cache once it is warm, so only the filtering is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipientsResolverBenchmark {
+
+    private static final String ORG_ID = "benchmark-org";
+
+    @Param({"100", "1000", "10000"})
+    int orgSize;
+
+    private final RecipientsResolver recipientsResolver = new RecipientsResolver();
+    private Set<RecipientSettings> allUsers;
+    private Set<RecipientSettings> requestUsers;
+    private Set<RecipientSettings> groupUsers;
+    private Set<String> subscribers;
+    private Set<String> unsubscribers;
+
+    @Setup
+    public void setup() {
+        Fixtures.init();
+        List<User> users = new ArrayList<>(orgSize);
+        subscribers = new HashSet<>();
+        unsubscribers = new HashSet<>();
+        Set<String> requestUsernames = new HashSet<>();
+        for (int i = 0; i < orgSize; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID().toString());
+            user.setUsername("User-" + i);
+            user.setEmail("user-" + i + "@example.com");
+            user.setAdmin(i % 20 == 0);
+            users.add(user);
+            // One user out of ten is subscribed (or unsubscribed) and one out of four is named in the recipients settings.
+            if (i % 10 == 0) {
+                subscribers.add("User-" + i);
+                unsubscribers.add("User-" + i);
+            }
+            if (i % 4 == 0) {
+                requestUsernames.add("USER-" + i);
+            }
+        }
+
+        recipientsResolver.recipientsResolverConfig = new RecipientsResolverConfig();
+        recipientsResolver.fetchingUsers = new StubFetchUsersFromExternalServices(UserDirectory.of(users));
+
+        allUsers = Set.of(new RecipientSettings(false, false, null, null));
+        requestUsers = Set.of(new RecipientSettings(false, false, null, requestUsernames));
+        groupUsers = Set.of(new RecipientSettings(false, true, UUID.randomUUID(), null), new RecipientSettings(true, false, null, null));
+    }
+
+    @Benchmark
+    public Set<User> subscribedByDefault() {
+        return recipientsResolver.findRecipients(ORG_ID, allUsers, null, unsubscribers, true);
+    }
+
+    @Benchmark
+    public Set<User> notSubscribedByDefault() {
+        return recipientsResolver.findRecipients(ORG_ID, allUsers, subscribers, null, false);
+    }
+
+    @Benchmark
+    public Set<User> requestUsersIntersection() {
+        return recipientsResolver.findRecipients(ORG_ID, requestUsers, subscribers, null, false);
+    }
+
+    @Benchmark
+    public Set<User> groupAndAdmins() {
+        return recipientsResolver.findRecipients(ORG_ID, groupUsers, null, unsubscribers, true);
+    }
+
+    private static class StubFetchUsersFromExternalServices extends FetchUsersFromExternalServices {
+
+        private final UserDirectory users;
+
+        StubFetchUsersFromExternalServices(UserDirectory users) {
+            this.users = users;
+        }
+
+        @Override
+        public List<User> getUsers(String orgId, boolean adminsOnly) {
+            return users;
+        }
+
+        @Override
+        public List<User> getGroupUsers(String orgId, boolean adminOnly, UUID groupId) {
+            return users;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.redhat.cloud.notifications.templates;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.events.EventWrapperAction;
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.Context;
+import com.redhat.cloud.notifications.ingress.Payload;
+import com.redhat.cloud.notifications.models.Environment;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.templates.extensions.ActionExtension;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import com.redhat.cloud.notifications.utils.ActionParser;
+import io.quarkus.qute.Engine;
+import io.quarkus.qute.ReflectionValueResolver;
+import io.quarkus.qute.Template;
+import io.quarkus.qute.TemplateInstance;
+import io.quarkus.qute.TemplateLocator.TemplateLocation;
+import io.quarkus.qute.ValueResolver;
+import io.quarkus.qute.Variant;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compilation and rendering of an email template, of the default drawer template and of the default Microsoft Teams
+ * template. The engine processors compile the template of each notification before rendering it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateServiceBenchmark {
+
+    private static final String EMAIL_TEMPLATE = "templates/Advisor/newRecommendationInstantEmailBodyV2.html";
+
+    // Default drawer template, from the V1.78.0 migration.
+    private static final String DRAWER_TEMPLATE = "{#if data.context.display_name??}{data.context.display_name} triggered {data.events.size()} event{#if data.events.size() > 1}s{/if}{#else}{data.events.size()} event{#if data.events.size() > 1}s{/if} triggered{/if}";
+
+    // Default Microsoft Teams template, from the V1.73.0 migration.
+    private static final String INTEGRATION_TEMPLATE = "{\"@type\": \"MessageCard\", \"@context\": \"http://schema.org/extensions\", \"summary\": \"Red Hat notification\", \"sections\": [{\"activityTitle\": \"Instant notification - {data.application} - {data.bundle}\", \"activitySubtitle\": \"{#if data.context.display_name??}The following host triggered events{#else}{data.events.size()} event{#if data.events.size() > 1}s{/if} triggered{/if}\"{#if data.context.display_name??}, \"facts\": [{\"name\": \"Host\", \"value\": \"[{data.context.display_name}]({data.environment_url}{#if data.bundle == \"openshift\" and data.application == \"advisor\"}/openshift/insights/advisor/clusters/{data.context.display_name}{#else}/insights/inventory/{#if data.context.inventory_id??}{data.context.inventory_id}{#else}?hostname_or_id={data.context.display_name}{/if}{/if})\"}, {\"name\": \"Events\", \"value\": \"{data.events.size()}\"}]{/if}}], \"potentialAction\": [{\"@type\": \"ActionCard\", \"name\": \"Open {data.application}\", \"actions\": [{\"@type\": \"OpenUri\", \"name\": \"Open {data.application}\", \"targets\": [{\"os\": \"default\", \"uri\": \"{data.environment_url}/{#if data.bundle == \"application-services\" and data.application == \"rhosak\"}application-services/streams{#else}{#if data.bundle == \"openshift\"}openshift/{/if}insights/{data.application}{/if}\"}]}]}]}";
+
+    private final TemplateService templateService = new TemplateService();
+    private String emailTemplate;
+    private Template compiledEmailTemplate;
+    private Template compiledDrawerTemplate;
+    private Template compiledIntegrationTemplate;
+    private Action action;
+    private Map<?, ?> data;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        templateService.engine = buildEngine();
+        templateService.environment = new BenchmarkEnvironment();
+
+        emailTemplate = Fixtures.load(EMAIL_TEMPLATE);
+        compiledEmailTemplate = templateService.engine.parse(emailTemplate, null, "email");
+        compiledDrawerTemplate = templateService.engine.parse(DRAWER_TEMPLATE, null, "drawer");
+        compiledIntegrationTemplate = templateService.engine.parse(INTEGRATION_TEMPLATE, null, "integration");
+
+        action = new ActionParser().fromJsonString(Fixtures.load(Fixtures.ADVISOR_ACTION));
+        Event event = new Event();
+        event.setBundleDisplayName("Red Hat Enterprise Linux");
+        event.setApplicationDisplayName("Advisor");
+        event.setEventTypeDisplayName("New recommendation");
+        event.setEventWrapper(new EventWrapperAction(action));
+        // Same data as the one built by the drawer and integration processors.
+        JsonObject json = new BaseTransformer().toJsonObject(event);
+        json.put("environment_url", templateService.environment.url());
+        data = Fixtures.objectMapper().readValue(json.encode(), Map.class);
+    }
+
+    @Benchmark
+    public TemplateInstance compileEmailTemplate() {
+        return templateService.compileTemplate(emailTemplate, "email");
+    }
+
+    @Benchmark
+    public String renderEmailTemplate() {
+        return templateService.renderEmailBodyTemplate(action, compiledEmailTemplate.instance(), null, false);
+    }
+
+    @Benchmark
+    public TemplateInstance compileDrawerTemplate() {
+        return templateService.compileTemplate(DRAWER_TEMPLATE, "drawer");
+    }
+
+    @Benchmark
+    public String renderDrawerTemplate() {
+        return compiledDrawerTemplate.instance().data("data", data).render();
+    }
+
+    @Benchmark
+    public TemplateInstance compileIntegrationTemplate() {
+        return templateService.compileTemplate(INTEGRATION_TEMPLATE, "integration");
+    }
+
+    @Benchmark
+    public String renderIntegrationTemplate() {
+        return compiledIntegrationTemplate.instance().data("data", data).render();
+    }
+
+    /*
+     * Quarkus builds the engine at build time and generates the value resolvers. This engine resolves the properties
+     * by reflection and reproduces the template extensions used by the benchmarked templates.
+     */
+    private static Engine buildEngine() {
+        return Engine.builder()
+            .addDefaults()
+            .strictRendering(true)
+            .removeStandaloneLines(true)
+            .addValueResolver(new ReflectionValueResolver())
+            .addValueResolver(ValueResolver.builder()
+                .applyToBaseClass(Context.class)
+                .resolveSync(context -> ActionExtension.getFromContext((Context) context.getBase(), context.getName()))
+                .build())
+            .addValueResolver(ValueResolver.builder()
+                .applyToBaseClass(Payload.class)
+                .resolveSync(context -> ActionExtension.getFromPayload((Payload) context.getBase(), context.getName()))
+                .build())
+            .addLocator(TemplateServiceBenchmark::locate)
+            .build();
+    }
+
+    // Locates the templates included by the email templates.
+    private static Optional<TemplateLocation> locate(String id) {
+        URL url = TemplateServiceBenchmark.class.getClassLoader().getResource("templates/" + id + ".html");
+        if (url == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new TemplateLocation() {
+            @Override
+            public Reader read() {
+                try {
+                    return new InputStreamReader(url.openStream(), UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Template loading failed: " + id, e);
+                }
+            }
+
+            @Override
+            public Optional<Variant> getVariant() {
+                return Optional.empty();
+            }
+        });
+    }
+
+    public static class BenchmarkEnvironment extends Environment {
+
+        @Override
+        public String name() {
+            return "benchmark";
+        }
+
+        @Override
+        public String url() {
+            return "https://console.redhat.com";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.redhat.cloud.notifications.transformers;
+
+import com.redhat.cloud.event.parser.ConsoleCloudEventParser;
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.events.EventWrapperAction;
+import com.redhat.cloud.notifications.events.EventWrapperCloudEvent;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.models.NotificationsConsoleCloudEvent;
+import com.redhat.cloud.notifications.utils.ActionParser;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transformation of the events into the JSON data rendered by the integration and drawer templates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaseTransformerBenchmark {
+
+    private final BaseTransformer baseTransformer = new BaseTransformer();
+    private Event actionEvent;
+    private Event cloudEventEvent;
+
+    @Setup
+    public void setup() {
+        actionEvent = buildEvent();
+        actionEvent.setEventWrapper(new EventWrapperAction(new ActionParser().fromJsonString(Fixtures.load(Fixtures.ADVISOR_ACTION))));
+        cloudEventEvent = buildEvent();
+        cloudEventEvent.setEventWrapper(new EventWrapperCloudEvent(new ConsoleCloudEventParser()
+            .fromJsonString(Fixtures.load(Fixtures.POLICIES_CLOUD_EVENT), NotificationsConsoleCloudEvent.class)));
+    }
+
+    @Benchmark
+    public JsonObject transformAction() {
+        return baseTransformer.toJsonObject(actionEvent);
+    }
+
+    @Benchmark
+    public JsonObject transformCloudEvent() {
+        return baseTransformer.toJsonObject(cloudEventEvent);
+    }
+
+    private static Event buildEvent() {
+        Event event = new Event();
+        event.setBundleDisplayName("Red Hat Enterprise Linux");
+        event.setApplicationDisplayName("Advisor");
+        event.setEventTypeDisplayName("New recommendation");
+        return event;
+    }
+}
@@ -0,0 +1,51 @@
+package com.redhat.cloud.notifications.utils;
+
+import com.redhat.cloud.event.parser.ConsoleCloudEventParser;
+import com.redhat.cloud.notifications.benchmarks.Fixtures;
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.models.NotificationsConsoleCloudEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the Kafka messages consumed by the engine, which is the first step of the processing of every event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsersBenchmark {
+
+    private final ActionParser actionParser = new ActionParser();
+    private final ConsoleCloudEventParser cloudEventParser = new ConsoleCloudEventParser();
+    private String action;
+    private String cloudEvent;
+
+    @Setup
+    public void setup() {
+        action = Fixtures.load(Fixtures.ADVISOR_ACTION);
+        cloudEvent = Fixtures.load(Fixtures.POLICIES_CLOUD_EVENT);
+    }
+
+    @Benchmark
+    public Action parseAction() {
+        return actionParser.fromJsonString(action);
+    }
+
+    @Benchmark
+    public NotificationsConsoleCloudEvent parseCloudEvent() {
+        return cloudEventParser.fromJsonString(cloudEvent, NotificationsConsoleCloudEvent.class);
+    }
+}
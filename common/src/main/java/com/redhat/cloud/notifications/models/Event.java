@@ -80,6 +80,13 @@ public class Event {
     @Transient
     private EventWrapper<?, ?> eventWrapper;
 
+    /*
+     * The time (epoch millis) at which the engine consumed the Kafka message of this event. It is only known for the
+     * events consumed by this engine pod, the replayed and aggregated events don't have it.
+     */
+    @Transient
+    private Long consumedTime;
+
     public Event() { }
 
     public Event(EventType eventType, String payload, EventWrapper<?, ?> eventWrapper, Optional<String> sourceEnvironment) {
@@ -122,6 +129,21 @@ public class Event {
         this.created = Timestamp.from(created.toInstant());
     }
 
+    /**
+     * Constructor used to build the event log entries, which also include
+     * the payload of the event when it is requested.
+     * @param id the {@link UUID} of the event.
+     * @param bundleDisplayName the display name of the bundle.
+     * @param applicationDisplayName the display name of the application.
+     * @param eventTypeDisplayName the display name of the event type.
+     * @param created the date in which the event was created.
+     * @param payload the payload of the event.
+     */
+    public Event(final UUID id, final String bundleDisplayName, final String applicationDisplayName, final String eventTypeDisplayName, final Date created, final String payload) {
+        this(id, bundleDisplayName, applicationDisplayName, eventTypeDisplayName, created);
+        this.payload = payload;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -234,6 +256,14 @@ public class Event {
         this.eventWrapper = eventWrapper;
     }
 
+    public Long getConsumedTime() {
+        return consumedTime;
+    }
+
+    public void setConsumedTime(Long consumedTime) {
+        this.consumedTime = consumedTime;
+    }
+
     public String getRenderedDrawerNotification() {
         return renderedDrawerNotification;
     }
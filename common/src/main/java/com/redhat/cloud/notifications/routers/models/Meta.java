@@ -1,6 +1,7 @@
 package com.redhat.cloud.notifications.routers.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotNull;
 
@@ -10,6 +11,12 @@ public class Meta {
     @NotNull
     private Long count;
 
+    /*
+     * Set when the count was capped to keep its cost constant: there are more elements than what the count says.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean countCapped;
+
     public Meta() {
 
     }
@@ -25,4 +32,12 @@ public class Meta {
     public void setCount(Long count) {
         this.count = count;
     }
+
+    public Boolean getCountCapped() {
+        return countCapped;
+    }
+
+    public void setCountCapped(Boolean countCapped) {
+        this.countCapped = countCapped;
+    }
 }
@@ -0,0 +1,46 @@
+package com.redhat.cloud.notifications.routers.replay;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static com.fasterxml.jackson.databind.PropertyNamingStrategies.SnakeCaseStrategy;
+
+/**
+ * Represents the progress of an events replay, as reported by the engine.
+ */
+@JsonNaming(SnakeCaseStrategy.class)
+@JsonInclude(NON_NULL)
+public class EventsReplayStatus {
+
+    public UUID id;
+
+    public String orgId;
+
+    public LocalDateTime startDate;
+
+    public LocalDateTime endDate;
+
+    public String status;
+
+    public LocalDateTime checkpointCreated;
+
+    public UUID checkpointEventId;
+
+    public long processedEvents;
+
+    public long failedEvents;
+
+    /*
+     * Only reported by the engine pod which is running the replay, the replays which are not running in that pod
+     * don't have a throughput.
+     */
+    public Double eventsPerSecond;
+
+    public LocalDateTime created;
+
+    public LocalDateTime updated;
+}
@@ -4,4 +4,6 @@ public class ExchangeProperty {
 
     public static final String HTTP_ERROR_TYPE = "httpErrorType";
     public static final String HTTP_STATUS_CODE = "httpStatusCode";
+    // Same property as the one set by the connectors which let the users disable the SSL certificates verification.
+    public static final String TRUST_ALL = "trustAll";
 }
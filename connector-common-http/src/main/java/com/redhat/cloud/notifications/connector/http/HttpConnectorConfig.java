@@ -25,6 +25,8 @@ public class HttpConnectorConfig extends ConnectorConfig {
     private static final String CONNECT_TIMEOUT_MS = "notifications.connector.http.connect-timeout-ms";
     private static final String CONNECTIONS_PER_ROUTE = "notifications.connector.http.connections-per-route";
     private static final String MAX_TOTAL_CONNECTIONS = "notifications.connector.http.max-total-connections";
+    private static final String NON_BLOCKING_ENABLED = "notifications.connector.http.non-blocking.enabled";
+    private static final String NON_BLOCKING_MAX_WAIT_QUEUE_SIZE = "notifications.connector.http.non-blocking.max-wait-queue-size";
     private static final String SERVER_ERROR_LOG_LEVEL = "notifications.connector.http.server-error.log-level";
     private static final String SOCKET_TIMEOUT_MS = "notifications.connector.http.socket-timeout-ms";
 
@@ -43,6 +45,17 @@ public class HttpConnectorConfig extends ConnectorConfig {
     @ConfigProperty(name = MAX_TOTAL_CONNECTIONS, defaultValue = "200")
     int httpMaxTotalConnections;
 
+    /*
+     * When enabled, the connectors which support it deliver the notifications with the Vert.x HTTP client instead
+     * of the blocking Camel HTTP component. The Camel thread is then released during the remote call.
+     */
+    @ConfigProperty(name = NON_BLOCKING_ENABLED, defaultValue = "false")
+    boolean nonBlockingEnabled;
+
+    // Maximum number of requests waiting for a connection from the non-blocking client pool, -1 means unbounded.
+    @ConfigProperty(name = NON_BLOCKING_MAX_WAIT_QUEUE_SIZE, defaultValue = "-1")
+    int nonBlockingMaxWaitQueueSize;
+
     @ConfigProperty(name = SERVER_ERROR_LOG_LEVEL, defaultValue = "DEBUG")
     Level serverErrorLogLevel;
 
@@ -57,6 +70,8 @@ public class HttpConnectorConfig extends ConnectorConfig {
         config.put(CONNECT_TIMEOUT_MS, httpConnectTimeout);
         config.put(CONNECTIONS_PER_ROUTE, httpConnectionsPerRoute);
         config.put(MAX_TOTAL_CONNECTIONS, httpMaxTotalConnections);
+        config.put(NON_BLOCKING_ENABLED, nonBlockingEnabled);
+        config.put(NON_BLOCKING_MAX_WAIT_QUEUE_SIZE, nonBlockingMaxWaitQueueSize);
         config.put(SERVER_ERROR_LOG_LEVEL, serverErrorLogLevel);
         config.put(SOCKET_TIMEOUT_MS, httpSocketTimeout);
         return config;
@@ -82,6 +97,14 @@ public class HttpConnectorConfig extends ConnectorConfig {
         return httpMaxTotalConnections;
     }
 
+    public boolean isNonBlockingEnabled() {
+        return nonBlockingEnabled;
+    }
+
+    public int getNonBlockingMaxWaitQueueSize() {
+        return nonBlockingMaxWaitQueueSize;
+    }
+
     public Level getServerErrorLogLevel() {
         return serverErrorLogLevel;
     }
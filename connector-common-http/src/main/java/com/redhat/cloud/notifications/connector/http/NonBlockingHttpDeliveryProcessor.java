@@ -0,0 +1,228 @@
+package com.redhat.cloud.notifications.connector.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpClosedException;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.http.RequestOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.http.base.HttpHeaderFilterStrategy;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.spi.HeaderFilterStrategy;
+import org.apache.camel.support.AsyncCallbackToCompletableFutureAdapter;
+import org.apache.camel.support.AsyncProcessorHelper;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.HttpHostConnectException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.REMOTE_CALL_DURATION;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.TARGET_URL;
+import static com.redhat.cloud.notifications.connector.http.ExchangeProperty.TRUST_ALL;
+
+/**
+ * Delivers the exchange body to the URL from the {@link com.redhat.cloud.notifications.connector.ExchangeProperty#TARGET_URL}
+ * exchange property with the Vert.x HTTP client. Unlike the Camel HTTP component, this processor doesn't block the
+ * Camel thread while waiting for the remote server, so many deliveries can be in flight with a few threads.
+ * <p>
+ * The outcome of a delivery is reported the same way the Camel HTTP component does, so that
+ * {@link HttpExceptionProcessor} and {@link HttpRedeliveryPredicate} behave identically in both modes: a non-2xx
+ * response fails the exchange with an {@link HttpOperationFailedException} and the Vert.x network errors are
+ * translated to the exceptions thrown by the Apache HTTP client. The headers are filtered with the strategy of the Camel
+ * HTTP component.
+ * <p>
+ * The redirects are never followed, while the Camel HTTP component lets the Apache HTTP client follow them. A 3xx
+ * response fails the exchange like any other non-2xx response, with the {@code Location} header as the redirect
+ * location of the exception, and is reported as an {@link HttpErrorType#HTTP_3XX} error. The integrations have to be
+ * configured with their final URL.
+ */
+@ApplicationScoped
+public class NonBlockingHttpDeliveryProcessor implements AsyncProcessor {
+
+    static final String IN_FLIGHT_GAUGE_NAME = "http.delivery.in-flight";
+    static final String QUEUED_GAUGE_NAME = "http.delivery.queued";
+    static final String QUEUE_WAIT_TIMER_NAME = "http.delivery.queue-wait";
+    static final String POOL_CONNECTIONS_GAUGE_NAME = "http.delivery.pool.connections";
+
+    private static final HeaderFilterStrategy HEADER_FILTER_STRATEGY = new HttpHeaderFilterStrategy();
+
+    @Inject
+    HttpConnectorConfig connectorConfig;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private HttpClient client;
+    private HttpClient trustAllClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger trustAllConnections = new AtomicInteger();
+    private Timer queueWaitTimer;
+
+    @PostConstruct
+    void postConstruct() {
+        client = buildClient(false, connections);
+        trustAllClient = buildClient(true, trustAllConnections);
+        meterRegistry.gauge(IN_FLIGHT_GAUGE_NAME, inFlight);
+        meterRegistry.gauge(QUEUED_GAUGE_NAME, queued);
+        meterRegistry.gauge(POOL_CONNECTIONS_GAUGE_NAME, Tags.of("client", "default"), connections);
+        meterRegistry.gauge(POOL_CONNECTIONS_GAUGE_NAME, Tags.of("client", "trust-all"), trustAllConnections);
+        queueWaitTimer = meterRegistry.timer(QUEUE_WAIT_TIMER_NAME);
+    }
+
+    @PreDestroy
+    void preDestroy() {
+        client.close();
+        trustAllClient.close();
+    }
+
+    private HttpClient buildClient(boolean trustAll, AtomicInteger openConnections) {
+        HttpClientOptions options = new HttpClientOptions()
+            .setConnectTimeout(connectorConfig.getHttpConnectTimeout())
+            .setTrustAll(trustAll)
+            .setVerifyHost(!trustAll);
+        PoolOptions poolOptions = new PoolOptions()
+            .setHttp1MaxSize(connectorConfig.getHttpConnectionsPerRoute())
+            .setMaxWaitQueueSize(connectorConfig.getNonBlockingMaxWaitQueueSize());
+        return vertx.httpClientBuilder()
+            .with(options)
+            .with(poolOptions)
+            .withConnectHandler(connection -> {
+                openConnections.incrementAndGet();
+                connection.closeHandler(ignored -> openConnections.decrementAndGet());
+            })
+            .build();
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        String targetUrl = exchange.getProperty(TARGET_URL, String.class);
+        boolean trustAll = exchange.getProperty(TRUST_ALL, false, Boolean.class);
+        Message message = exchange.getMessage();
+        String body = message.getBody(String.class);
+
+        RequestOptions requestOptions = new RequestOptions()
+            .setAbsoluteURI(targetUrl)
+            .setMethod(getMethod(message, body))
+            .setIdleTimeout(connectorConfig.getHttpSocketTimeout());
+        message.getHeaders().forEach((name, value) -> {
+            if (value != null && !HEADER_FILTER_STRATEGY.applyFilterToCamelHeaders(name, value, exchange)) {
+                requestOptions.putHeader(name, String.valueOf(value));
+            }
+        });
+        // The Camel HTTP component filters the content type header too, and sets it on the request entity instead.
+        String contentType = message.getHeader(Exchange.CONTENT_TYPE, String.class);
+        if (contentType != null) {
+            requestOptions.putHeader(Exchange.CONTENT_TYPE, contentType);
+        }
+
+        inFlight.incrementAndGet();
+        queued.incrementAndGet();
+        Timer.Sample queueWait = Timer.start(meterRegistry);
+        // This processor is not a Camel endpoint, so RemoteCallEventNotifier doesn't see its remote calls.
+        long startTime = System.currentTimeMillis();
+        (trustAll ? trustAllClient : client).request(requestOptions)
+            .andThen(ignored -> {
+                queued.decrementAndGet();
+                queueWait.stop(queueWaitTimer);
+            })
+            .compose(request -> body == null ? request.send() : request.send(body))
+            .compose(response -> response.body().map(responseBody -> {
+                onResponse(exchange, targetUrl, response, responseBody);
+                return null;
+            }))
+            .onFailure(failure -> exchange.setException(translate(failure)))
+            .onComplete(ignored -> {
+                inFlight.decrementAndGet();
+                AtomicLong remoteCallDuration = exchange.getProperty(REMOTE_CALL_DURATION, AtomicLong.class);
+                if (remoteCallDuration != null) {
+                    remoteCallDuration.addAndGet(System.currentTimeMillis() - startTime);
+                }
+                // The rest of the route may block, so it must not run on a Vert.x event loop thread.
+                vertx.executeBlocking(() -> {
+                    callback.done(false);
+                    return null;
+                }, false);
+            });
+        return false;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    @Override
+    public CompletableFuture<Exchange> processAsync(Exchange exchange) {
+        AsyncCallbackToCompletableFutureAdapter<Exchange> callback = new AsyncCallbackToCompletableFutureAdapter<>(exchange);
+        process(exchange, callback);
+        return callback.getFuture();
+    }
+
+    private static HttpMethod getMethod(Message message, String body) {
+        Object method = message.getHeader(Exchange.HTTP_METHOD);
+        if (method != null) {
+            return HttpMethod.valueOf(method.toString());
+        } else {
+            return body == null ? HttpMethod.GET : HttpMethod.POST;
+        }
+    }
+
+    private static void onResponse(Exchange exchange, String targetUrl, HttpClientResponse response, Buffer responseBody) {
+        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+            Message message = exchange.getMessage();
+            message.setHeader(Exchange.HTTP_RESPONSE_CODE, response.statusCode());
+            message.setHeader(Exchange.HTTP_RESPONSE_TEXT, response.statusMessage());
+            message.setBody(responseBody.toString());
+        } else {
+            Map<String, String> responseHeaders = new HashMap<>();
+            response.headers().forEach(header -> responseHeaders.put(header.getKey(), header.getValue()));
+            exchange.setException(new HttpOperationFailedException(targetUrl, response.statusCode(), response.statusMessage(),
+                response.getHeader("Location"), responseHeaders, responseBody.toString()));
+        }
+    }
+
+    /*
+     * HttpExceptionProcessor and HttpRedeliveryPredicate were written for the exceptions thrown by the Apache HTTP
+     * client, so the Vert.x and Netty exceptions are translated to their Apache HTTP client equivalent.
+     */
+    static Throwable translate(Throwable failure) {
+        if (failure instanceof io.netty.channel.ConnectTimeoutException) {
+            return new ConnectTimeoutException(failure.getMessage());
+        } else if (failure instanceof ConnectException) {
+            return new HttpHostConnectException(failure.getMessage());
+        } else if (failure instanceof TimeoutException) {
+            return new SocketTimeoutException(failure.getMessage());
+        } else if (failure instanceof HttpClosedException) {
+            return new IOException(failure.getMessage(), failure);
+        } else {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.redhat.cloud.notifications.connector.http;
+
+import io.netty.channel.ConnectTimeoutException;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import jakarta.inject.Inject;
+import org.apache.camel.Exchange;
+import org.apache.camel.http.base.HttpOperationFailedException;
+import org.apache.camel.quarkus.test.CamelQuarkusTestSupport;
+import org.apache.hc.client5.http.HttpHostConnectException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.TARGET_URL;
+import static org.apache.camel.test.junit5.TestSupport.createExchangeWithBody;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class NonBlockingHttpDeliveryProcessorTest extends CamelQuarkusTestSupport {
+
+    @Inject
+    NonBlockingHttpDeliveryProcessor processor;
+
+    @Inject
+    HttpRedeliveryPredicate redeliveryPredicate;
+
+    @Inject
+    Vertx vertx;
+
+    HttpServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = vertx.createHttpServer()
+            .requestHandler(request -> request.body().onSuccess(body -> {
+                switch (request.path()) {
+                    case "/ok" -> request.response().putHeader("X-Received-Method", request.method().name()).end("received " + body + " with token " + request.getHeader("X-Insight-Token") +
+                        " as " + request.getHeader("Content-Type") + " from " + request.getHeader("CamelInternalHeader"));
+                    case "/moved" -> request.response().setStatusCode(307).putHeader("Location", "/ok").end();
+                    case "/rate-limited" -> request.response().setStatusCode(429).end("slow down");
+                    case "/not-found" -> request.response().setStatusCode(404).end("not found");
+                    default -> request.response().setStatusCode(500).end();
+                }
+            }))
+            .listen(0)
+            .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testSuccessfulDelivery() throws Exception {
+        Exchange exchange = deliver("/ok");
+        assertNull(exchange.getException());
+        assertEquals(200, exchange.getMessage().getHeader(Exchange.HTTP_RESPONSE_CODE));
+        // The Camel headers are not forwarded but the other headers are.
+        assertEquals("received {\"foo\":\"bar\"} with token secret as application/json from null", exchange.getMessage().getBody(String.class));
+    }
+
+    @Test
+    void testRedirectNotFollowed() throws Exception {
+        Exchange exchange = deliver("/moved");
+        HttpOperationFailedException e = assertInstanceOf(HttpOperationFailedException.class, exchange.getException());
+        assertEquals(307, e.getStatusCode());
+        assertEquals("/ok", e.getRedirectLocation());
+    }
+
+    @Test
+    void testRetriedStatusCode() throws Exception {
+        Exchange exchange = deliver("/rate-limited");
+        HttpOperationFailedException e = assertInstanceOf(HttpOperationFailedException.class, exchange.getException());
+        assertEquals(429, e.getStatusCode());
+        assertEquals("slow down", e.getResponseBody());
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT, e);
+        assertTrue(redeliveryPredicate.matches(exchange));
+    }
+
+    @Test
+    void testNotRetriedStatusCode() throws Exception {
+        Exchange exchange = deliver("/not-found");
+        HttpOperationFailedException e = assertInstanceOf(HttpOperationFailedException.class, exchange.getException());
+        assertEquals(404, e.getStatusCode());
+        exchange.setProperty(Exchange.EXCEPTION_CAUGHT, e);
+        assertTrue(redeliveryPredicate.doesNotMatch(exchange));
+    }
+
+    @Test
+    void testTranslatedFailures() {
+        assertInstanceOf(org.apache.hc.client5.http.ConnectTimeoutException.class, NonBlockingHttpDeliveryProcessor.translate(new ConnectTimeoutException("timeout")));
+        assertInstanceOf(HttpHostConnectException.class, NonBlockingHttpDeliveryProcessor.translate(new ConnectException("refused")));
+        assertInstanceOf(SocketTimeoutException.class, NonBlockingHttpDeliveryProcessor.translate(new TimeoutException("idle")));
+        assertInstanceOf(IOException.class, NonBlockingHttpDeliveryProcessor.translate(new io.vertx.core.http.HttpClosedException("closed")));
+    }
+
+    private Exchange deliver(String path) throws Exception {
+        Exchange exchange = createExchangeWithBody(context, "{\"foo\":\"bar\"}");
+        exchange.setProperty(TARGET_URL, "http://localhost:" + server.actualPort() + path);
+        exchange.getMessage().setHeader(Exchange.CONTENT_TYPE, "application/json");
+        exchange.getMessage().setHeader("X-Insight-Token", "secret");
+        exchange.getMessage().setHeader("CamelInternalHeader", "not-forwarded");
+        processor.processAsync(exchange).get(10, TimeUnit.SECONDS);
+        return exchange;
+    }
+}
@@ -4,9 +4,13 @@ import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import org.apache.camel.builder.endpoint.EndpointRouteBuilder;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.KAFKA_REINJECTION_DELAY;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORG_ID;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.PROCESSING_START_TIME;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.REMOTE_CALL_DURATION;
 import static org.apache.camel.LoggingLevel.DEBUG;
 import static org.apache.camel.LoggingLevel.INFO;
 import static org.apache.camel.builder.endpoint.dsl.KafkaEndpointBuilderFactory.KafkaEndpointConsumerBuilder;
@@ -34,6 +38,13 @@ public abstract class EngineToConnectorRouteBuilder extends EndpointRouteBuilder
     @Inject
     IncomingKafkaReinjectionHeadersProcessor incomingKafkaReinjectionHeadersProcessor;
 
+    /**
+     * Responsible for extracting the stage timestamps set by the engine from
+     * the Kafka headers.
+     */
+    @Inject
+    IncomingKafkaStageHeadersProcessor incomingKafkaStageHeadersProcessor;
+
     @Inject
     KafkaReinjectionProcessor kafkaReinjectionProcessor;
 
@@ -55,6 +66,9 @@ public abstract class EngineToConnectorRouteBuilder extends EndpointRouteBuilder
         // Camel components must be configured before they are included in Camel routes definitions.
         configureComponents();
 
+        // Measures the time spent in the remote services, which is returned to the engine with the stage timestamps.
+        getContext().getManagementStrategy().addEventNotifier(new RemoteCallEventNotifier());
+
         onException(Throwable.class)
                 .onWhen(redeliveryPredicate::matches)
                 .handled(true)
@@ -69,6 +83,13 @@ public abstract class EngineToConnectorRouteBuilder extends EndpointRouteBuilder
                 .handled(true)
                 .process(exceptionProcessor);
 
+        // The SEDA queueing delay ends when a connector route takes the message, which happens in configureRoutes().
+        interceptFrom(seda(ENGINE_TO_CONNECTOR).getUri())
+                .process(exchange -> {
+                    exchange.setProperty(PROCESSING_START_TIME, System.currentTimeMillis());
+                    exchange.setProperty(REMOTE_CALL_DURATION, new AtomicLong());
+                });
+
         // Forward the messages from the regular incoming Kafka topic.
         from(buildKafkaEndpoint()).routeId(ROUTE_ID_KAFKA_REGULAR_ROUTE).to(direct(ENTRYPOINT));
 
@@ -79,6 +100,7 @@ public abstract class EngineToConnectorRouteBuilder extends EndpointRouteBuilder
                 .to(log(getClass().getName()).level("DEBUG").showHeaders(true).showBody(true))
                 .filter(incomingCloudEventFilter)
                 .process(this.incomingKafkaReinjectionHeadersProcessor)
+                .process(this.incomingKafkaStageHeadersProcessor)
                 // Headers coming from Kafka must not be forwarded to external services.
                 .removeHeaders("*")
                 .process(incomingCloudEventProcessor)
@@ -28,6 +28,27 @@ public class ExchangeProperty {
     public static final String REDELIVERY_ATTEMPTS = "redeliveryAttempts";
     public static final String RETURN_SOURCE = "source";
     public static final String START_TIME = "startTime";
+    /**
+     * Specifies the time (epoch millis) at which the engine consumed the
+     * event, when the engine knows it.
+     */
+    public static final String CONSUMED_TIME = "consumedTime";
+    /**
+     * Specifies the time (epoch millis) at which the engine sent the
+     * notification to the connector.
+     */
+    public static final String SENT_TIME = "sentTime";
+    /**
+     * Specifies the time (epoch millis) at which the connector route took the
+     * notification from the SEDA queue.
+     */
+    public static final String PROCESSING_START_TIME = "processingStartTime";
+    /**
+     * Holds an {@link java.util.concurrent.atomic.AtomicLong} with the time in
+     * milliseconds spent waiting for the remote services. The holder is shared
+     * by the copies of the exchange, like the ones made by a split.
+     */
+    public static final String REMOTE_CALL_DURATION = "remoteCallDuration";
     public static final String SUCCESSFUL = "successful";
     public static final String TARGET_URL = "targetUrl";
     public static final String TYPE = "type";
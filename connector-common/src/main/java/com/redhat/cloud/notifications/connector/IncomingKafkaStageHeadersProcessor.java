@@ -0,0 +1,36 @@
+package com.redhat.cloud.notifications.connector;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.CONSUMED_TIME;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.SENT_TIME;
+
+@ApplicationScoped
+public class IncomingKafkaStageHeadersProcessor implements Processor {
+    /**
+     * Extracts the stage timestamps set by the engine from the Kafka headers,
+     * before the headers are removed from the exchange. The timestamps are
+     * returned to the engine in the outgoing Cloud Event.
+     * @param exchange the exchange representing the Kafka message.
+     */
+    @Override
+    public void process(final Exchange exchange) {
+        copyHeader(exchange, KafkaHeader.CONSUMED_TIME, CONSUMED_TIME);
+        copyHeader(exchange, KafkaHeader.SENT_TIME, SENT_TIME);
+    }
+
+    private static void copyHeader(final Exchange exchange, final String header, final String property) {
+        // The Kafka headers are received as byte arrays.
+        final String value = exchange.getIn().getHeader(header, String.class);
+        if (value != null) {
+            try {
+                exchange.setProperty(property, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                Log.debugf("Ignored invalid stage timestamp [header=%s, value=%s]", header, value);
+            }
+        }
+    }
+}
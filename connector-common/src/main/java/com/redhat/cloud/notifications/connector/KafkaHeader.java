@@ -6,4 +6,10 @@ public class KafkaHeader {
      * times a message got reinjected in the "incoming" topic.
      */
     public static final String REINJECTION_COUNT = "x-rh-notifications-connector-reinjections-count";
+    /**
+     * Specifies the names of the headers set by the engine with the times
+     * (epoch millis) at which it consumed the event and sent the notification.
+     */
+    public static final String CONSUMED_TIME = "x-rh-notifications-consumed-time";
+    public static final String SENT_TIME = "x-rh-notifications-sent-time";
 }
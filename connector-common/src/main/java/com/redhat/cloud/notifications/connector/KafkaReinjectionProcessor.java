@@ -8,8 +8,10 @@ import org.apache.camel.Processor;
 
 import java.util.concurrent.TimeUnit;
 
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.CONSUMED_TIME;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.KAFKA_REINJECTION_COUNT;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.KAFKA_REINJECTION_DELAY;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.SENT_TIME;
 import static com.redhat.cloud.notifications.connector.IncomingCloudEventFilter.X_RH_NOTIFICATIONS_CONNECTOR_HEADER;
 
 @ApplicationScoped
@@ -47,5 +49,15 @@ public class KafkaReinjectionProcessor implements Processor {
         // otherwise it does not get properly pushed to Kafka. When attempted
         // to send the integer directly, the value simply was not there.
         message.setHeader(KafkaHeader.REINJECTION_COUNT, String.valueOf(reinjectionCount + 1));
+
+        // The stage timestamps of the engine are kept so that the reinjected message still reports them.
+        final Long consumedTime = exchange.getProperty(CONSUMED_TIME, Long.class);
+        if (consumedTime != null) {
+            message.setHeader(KafkaHeader.CONSUMED_TIME, String.valueOf(consumedTime));
+        }
+        final Long sentTime = exchange.getProperty(SENT_TIME, Long.class);
+        if (sentTime != null) {
+            message.setHeader(KafkaHeader.SENT_TIME, String.valueOf(sentTime));
+        }
     }
 }
@@ -9,10 +9,15 @@ import org.apache.camel.Processor;
 import org.apache.camel.util.json.JsonObject;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.CONSUMED_TIME;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.OUTCOME;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.PROCESSING_START_TIME;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.REMOTE_CALL_DURATION;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.RETURN_SOURCE;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.SENT_TIME;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.START_TIME;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.SUCCESSFUL;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.TARGET_URL;
@@ -25,6 +30,8 @@ public class OutgoingCloudEventBuilder implements Processor {
 
     public static final String CE_SPEC_VERSION = "1.0";
     public static final String CE_TYPE = "com.redhat.console.notifications.history";
+    public static final String STAGE_TIMESTAMPS = "stage_timestamps";
+    public static final String REMOTE_CALL_DURATION_KEY = "remote_call_duration";
 
     public void process(Exchange exchange) throws Exception {
 
@@ -41,11 +48,15 @@ public class OutgoingCloudEventBuilder implements Processor {
         details.put("type", exchange.getProperty(TYPE, String.class));
         details.put("target", exchange.getProperty(TARGET_URL, String.class));
         details.put("outcome", exchange.getProperty(OUTCOME, String.class));
+        addDetails(exchange, details);
+
+        long now = System.currentTimeMillis();
 
         JsonObject data = new JsonObject();
         data.put("successful", exchange.getProperty(SUCCESSFUL, Boolean.class));
-        data.put("duration", System.currentTimeMillis() - exchange.getProperty(START_TIME, Long.class));
+        data.put("duration", now - exchange.getProperty(START_TIME, Long.class));
         data.put("details", details);
+        addStageTimestamps(exchange, data, now);
 
         // Include the payload's identifier in the response, so that the engine
         // can delete it afterward. Also, remove the exchange property from the
@@ -68,4 +79,38 @@ public class OutgoingCloudEventBuilder implements Processor {
 
         in.setBody(outgoingCloudEvent.toJson());
     }
+
+    /*
+     * The engine uses these timestamps to measure the duration of each stage of the notification. The timestamps
+     * which are unknown, like the processing start of a message filtered out before the SEDA queue, are left out.
+     */
+    private static void addStageTimestamps(Exchange exchange, JsonObject data, long now) {
+        JsonObject timestamps = new JsonObject();
+        putIfNotNull(timestamps, "consumed", exchange.getProperty(CONSUMED_TIME, Long.class));
+        putIfNotNull(timestamps, "sent", exchange.getProperty(SENT_TIME, Long.class));
+        putIfNotNull(timestamps, "received", exchange.getProperty(START_TIME, Long.class));
+        putIfNotNull(timestamps, "processing_started", exchange.getProperty(PROCESSING_START_TIME, Long.class));
+        timestamps.put("completed", now);
+        data.put(STAGE_TIMESTAMPS, timestamps);
+
+        AtomicLong remoteCallDuration = exchange.getProperty(REMOTE_CALL_DURATION, AtomicLong.class);
+        if (remoteCallDuration != null) {
+            data.put(REMOTE_CALL_DURATION_KEY, remoteCallDuration.get());
+        }
+    }
+
+    private static void putIfNotNull(JsonObject jsonObject, String key, Long value) {
+        if (value != null) {
+            jsonObject.put(key, value);
+        }
+    }
+
+    /**
+     * Lets a connector add its own entries to the details of the outgoing history cloud event
+     * before it is serialized, which avoids decoding and encoding the cloud event again.
+     * @param exchange the exchange being processed
+     * @param details the details of the outgoing cloud event data
+     */
+    protected void addDetails(Exchange exchange, JsonObject details) {
+    }
 }
@@ -0,0 +1,47 @@
+package com.redhat.cloud.notifications.connector;
+
+import org.apache.camel.spi.CamelEvent;
+import org.apache.camel.spi.CamelEvent.ExchangeSentEvent;
+import org.apache.camel.support.EventNotifierSupport;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.REMOTE_CALL_DURATION;
+
+/**
+ * Adds the time spent in the HTTP endpoints of the routes to the {@link ExchangeProperty#REMOTE_CALL_DURATION}
+ * holder of the exchange, so that the remote latency can be told apart from the processing time of the connector.
+ * The processors which call remote services without a Camel endpoint add their time to the holder themselves.
+ */
+public class RemoteCallEventNotifier extends EventNotifierSupport {
+
+    public RemoteCallEventNotifier() {
+        setIgnoreCamelContextEvents(true);
+        setIgnoreRouteEvents(true);
+        setIgnoreServiceEvents(true);
+        setIgnoreStepEvents(true);
+        setIgnoreExchangeCreatedEvent(true);
+        setIgnoreExchangeCompletedEvent(true);
+        setIgnoreExchangeFailedEvents(true);
+        setIgnoreExchangeRedeliveryEvents(true);
+        setIgnoreExchangeSendingEvents(true);
+    }
+
+    @Override
+    public boolean isEnabled(CamelEvent event) {
+        return event instanceof ExchangeSentEvent sentEvent && isRemote(sentEvent.getEndpoint().getEndpointUri());
+    }
+
+    @Override
+    public void notify(CamelEvent event) {
+        ExchangeSentEvent sentEvent = (ExchangeSentEvent) event;
+        AtomicLong remoteCallDuration = sentEvent.getExchange().getProperty(REMOTE_CALL_DURATION, AtomicLong.class);
+        if (remoteCallDuration != null) {
+            remoteCallDuration.addAndGet(sentEvent.getTimeTaken());
+        }
+    }
+
+    static boolean isRemote(String endpointUri) {
+        return endpointUri.startsWith("http:") || endpointUri.startsWith("https:");
+    }
+}
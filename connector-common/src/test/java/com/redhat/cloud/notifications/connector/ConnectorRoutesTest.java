@@ -32,6 +32,8 @@ import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcess
 import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcessor.CLOUD_EVENT_TYPE;
 import static com.redhat.cloud.notifications.connector.OutgoingCloudEventBuilder.CE_SPEC_VERSION;
 import static com.redhat.cloud.notifications.connector.OutgoingCloudEventBuilder.CE_TYPE;
+import static com.redhat.cloud.notifications.connector.OutgoingCloudEventBuilder.REMOTE_CALL_DURATION_KEY;
+import static com.redhat.cloud.notifications.connector.OutgoingCloudEventBuilder.STAGE_TIMESTAMPS;
 import static org.apache.camel.builder.AdviceWith.adviceWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -350,6 +352,12 @@ public abstract class ConnectorRoutesTest extends CamelQuarkusTestSupport {
         assertEquals(expectedSuccessful, data.getBoolean("successful"));
         assertNotNull(data.getString("duration"));
         assertNotNull(data.getJsonObject("details").getString("type"));
+        assertNotNull(data.getJsonObject(STAGE_TIMESTAMPS).getLong("received"));
+        if (expectedSuccessful) {
+            // The message went through the SEDA queue of the connector, which measured the time spent in the remote service.
+            assertNotNull(data.getJsonObject(STAGE_TIMESTAMPS).getLong("processing_started"));
+            assertNotNull(data.getLong(REMOTE_CALL_DURATION_KEY));
+        }
         if (null != expectedTargetUrl) {
             assertEquals(expectedTargetUrl, data.getJsonObject("details").getString("target"));
         }
@@ -0,0 +1,52 @@
+package com.redhat.cloud.notifications.connector;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.apache.camel.Exchange;
+import org.apache.camel.quarkus.test.CamelQuarkusTestSupport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.camel.test.junit5.TestSupport.createExchangeWithBody;
+
+@QuarkusTest
+public class IncomingKafkaStageHeadersProcessorTest extends CamelQuarkusTestSupport {
+    @Inject
+    IncomingKafkaStageHeadersProcessor incomingKafkaStageHeadersProcessor;
+
+    /**
+     * Test that the processor doesn't set the stage timestamps when the
+     * engine didn't send them.
+     */
+    @Test
+    void testProcessNoHeader() {
+        final Exchange exchange = createExchangeWithBody(context, "");
+
+        // Call the processor under test.
+        this.incomingKafkaStageHeadersProcessor.process(exchange);
+
+        Assertions.assertNull(exchange.getProperty(ExchangeProperty.CONSUMED_TIME), "the consumed time should not be set when the header is not present");
+        Assertions.assertNull(exchange.getProperty(ExchangeProperty.SENT_TIME), "the sent time should not be set when the header is not present");
+    }
+
+    /**
+     * Test that the processor reads the stage timestamps from the Kafka
+     * headers, which are received as byte arrays, and ignores the invalid
+     * ones.
+     */
+    @Test
+    void testProcess() {
+        final long sentTime = System.currentTimeMillis();
+
+        final Exchange exchange = createExchangeWithBody(context, "");
+        exchange.getMessage().setHeader(KafkaHeader.CONSUMED_TIME, "invalid".getBytes(UTF_8));
+        exchange.getMessage().setHeader(KafkaHeader.SENT_TIME, String.valueOf(sentTime).getBytes(UTF_8));
+
+        // Call the processor under test.
+        this.incomingKafkaStageHeadersProcessor.process(exchange);
+
+        Assertions.assertNull(exchange.getProperty(ExchangeProperty.CONSUMED_TIME), "an invalid consumed time should be ignored");
+        Assertions.assertEquals(sentTime, exchange.getProperty(ExchangeProperty.SENT_TIME), "the sent time was not properly read from the Kafka header");
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.camel.test.junit5.TestSupport.createExchangeWithBody;
 
@@ -47,4 +48,36 @@ public class OutgoingCloudEventBuilderTest extends CamelQuarkusTestSupport {
 
         Assertions.assertEquals(payloadId, data.getString(PayloadDetails.PAYLOAD_DETAILS_ID_KEY));
     }
+
+    /**
+     * Tests that the stage timestamps known by the connector and the time
+     * spent in the remote services are returned to the engine.
+     *
+     * @throws Exception if any unexpected error occurs.
+     */
+    @Test
+    void testOutgoingCloudEventContainsStageTimestamps() throws Exception {
+        final long startTime = System.currentTimeMillis();
+
+        final Exchange exchange = createExchangeWithBody(context, "");
+        exchange.setProperty(ExchangeProperty.SENT_TIME, startTime - 20);
+        exchange.setProperty(ExchangeProperty.START_TIME, startTime);
+        exchange.setProperty(ExchangeProperty.PROCESSING_START_TIME, startTime + 10);
+        exchange.setProperty(ExchangeProperty.REMOTE_CALL_DURATION, new AtomicLong(5));
+
+        // Call the processor under test.
+        this.outgoingCloudEventBuilder.process(exchange);
+
+        final JsonObject body = new JsonObject(exchange.getMessage().getBody(String.class));
+        final JsonObject data = new JsonObject(body.getString("data"));
+        final JsonObject timestamps = data.getJsonObject(OutgoingCloudEventBuilder.STAGE_TIMESTAMPS);
+
+        // The engine didn't send the time at which it consumed the event.
+        Assertions.assertFalse(timestamps.containsKey("consumed"));
+        Assertions.assertEquals(startTime - 20, timestamps.getLong("sent"));
+        Assertions.assertEquals(startTime, timestamps.getLong("received"));
+        Assertions.assertEquals(startTime + 10, timestamps.getLong("processing_started"));
+        Assertions.assertTrue(timestamps.getLong("completed") >= startTime);
+        Assertions.assertEquals(5L, data.getLong(OutgoingCloudEventBuilder.REMOTE_CALL_DURATION_KEY));
+    }
 }
@@ -1,29 +1,93 @@
 package com.redhat.cloud.notifications.connector.drawer;
 
 import com.redhat.cloud.notifications.connector.OutgoingCloudEventBuilder;
+import com.redhat.cloud.notifications.connector.drawer.config.DrawerConnectorConfig;
 import com.redhat.cloud.notifications.connector.drawer.constant.ExchangeProperty;
-import io.vertx.core.json.JsonObject;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
-import org.apache.camel.Message;
+import org.apache.camel.util.json.JsonArray;
+import org.apache.camel.util.json.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @ApplicationScoped
 @Alternative
 @Priority(0) // The value doesn't matter.
 public class CloudEventHistoryBuilder extends OutgoingCloudEventBuilder {
 
+    /*
+     * The resolved recipients are sent to the engine as a gzipped and base64 encoded comma separated list of
+     * usernames, or as the legacy resolved_recipient_list array when the legacy recipients are enabled.
+     * The engine removes them from the details before the history is updated.
+     */
+    public static final String RESOLVED_RECIPIENTS_GZIP = "resolved_recipients_gzip";
+    public static final String RESOLVED_RECIPIENTS_COUNT = "resolved_recipients_count";
+
+    static final String HISTORY_PAYLOAD_SIZE_SUMMARY_NAME = "drawer.history.payload.size";
+    static final String HISTORY_RECIPIENTS_SIZE_SUMMARY_NAME = "drawer.history.recipients.size";
+
+    @Inject
+    DrawerConnectorConfig drawerConnectorConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private DistributionSummary payloadSizeSummary;
+    private DistributionSummary recipientsSizeSummary;
+
+    @PostConstruct
+    void postConstruct() {
+        payloadSizeSummary = DistributionSummary.builder(HISTORY_PAYLOAD_SIZE_SUMMARY_NAME)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        recipientsSizeSummary = DistributionSummary.builder(HISTORY_RECIPIENTS_SIZE_SUMMARY_NAME)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
     @Override
     public void process(Exchange exchange) throws Exception {
         super.process(exchange);
+        payloadSizeSummary.record(exchange.getIn().getBody(String.class).length());
+    }
 
-        Message in = exchange.getIn();
-        JsonObject cloudEvent = new JsonObject(in.getBody(String.class));
-        JsonObject data = new JsonObject(cloudEvent.getString("data"));
-        data.getJsonObject("details").put(ExchangeProperty.RESOLVED_RECIPIENT_LIST, exchange.getProperty(ExchangeProperty.RESOLVED_RECIPIENT_LIST));
+    @Override
+    protected void addDetails(Exchange exchange, JsonObject details) {
+        Set<String> recipients = exchange.getProperty(ExchangeProperty.RESOLVED_RECIPIENT_LIST, Set.class);
+        if (recipients == null) {
+            return;
+        }
+        if (drawerConnectorConfig.isLegacyRecipientsEnabled()) {
+            details.put(ExchangeProperty.RESOLVED_RECIPIENT_LIST, new JsonArray(recipients));
+        } else {
+            String encodedRecipients = encodeRecipients(recipients);
+            recipientsSizeSummary.record(encodedRecipients.length());
+            details.put(RESOLVED_RECIPIENTS_GZIP, encodedRecipients);
+            details.put(RESOLVED_RECIPIENTS_COUNT, recipients.size());
+        }
+    }
 
-        cloudEvent.put("data", data.encode());
-        in.setBody(cloudEvent.encode());
+    static String encodeRecipients(Set<String> recipients) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(String.join(",", recipients).getBytes(UTF_8));
+        } catch (IOException e) {
+            // This can't happen with a ByteArrayOutputStream.
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
     }
 }
@@ -1,6 +1,7 @@
 package com.redhat.cloud.notifications.connector.drawer.config;
 
 import com.redhat.cloud.notifications.connector.http.HttpConnectorConfig;
+import io.quarkus.runtime.LaunchMode;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import java.util.Map;
@@ -8,18 +9,30 @@ import java.util.Map;
 @ApplicationScoped
 public class DrawerConnectorConfig extends HttpConnectorConfig {
 
+    private static final String LEGACY_RECIPIENTS_ENABLED = "notifications.connector.drawer.legacy-recipients.enabled";
     private static final String DRAWER_TOPIC = "notifications.connector.kafka.outgoing.drawer.topic";
 
     private static final String RECIPIENTS_RESOLVER_USER_SERVICE_URL = "notifications.connector.recipients-resolver.url";
     @ConfigProperty(name = RECIPIENTS_RESOLVER_USER_SERVICE_URL)
     String recipientsResolverServiceURL;
 
+    /*
+     * The resolved recipients are sent to the engine as a gzipped list by default. The legacy resolved_recipient_list
+     * array is only needed while engine instances without the gzipped recipients support of DrawerProcessor are still
+     * running. Enable this when the drawer connector is deployed before the engine, and disable it again once every
+     * engine instance runs a version that reads resolved_recipients_gzip. The legacy branch of DrawerProcessor can be
+     * removed when no environment enables this anymore.
+     */
+    @ConfigProperty(name = LEGACY_RECIPIENTS_ENABLED, defaultValue = "false")
+    boolean legacyRecipientsEnabled;
+
     @ConfigProperty(name = DRAWER_TOPIC)
     String outgoingDrawerTopic;
 
     @Override
     protected Map<String, Object> getLoggedConfiguration() {
         Map<String, Object> config = super.getLoggedConfiguration();
+        config.put(LEGACY_RECIPIENTS_ENABLED, legacyRecipientsEnabled);
         config.put(DRAWER_TOPIC, outgoingDrawerTopic);
         config.put(RECIPIENTS_RESOLVER_USER_SERVICE_URL, recipientsResolverServiceURL);
         return config;
@@ -32,4 +45,24 @@ public class DrawerConnectorConfig extends HttpConnectorConfig {
     public String getRecipientsResolverServiceURL() {
         return recipientsResolverServiceURL;
     }
+
+    public boolean isLegacyRecipientsEnabled() {
+        return legacyRecipientsEnabled;
+    }
+
+    public void setLegacyRecipientsEnabled(boolean legacyRecipientsEnabled) {
+        checkTestLaunchMode();
+        this.legacyRecipientsEnabled = legacyRecipientsEnabled;
+    }
+
+    /**
+     * This method throws an {@link IllegalStateException} if it is invoked with a launch mode different from
+     * {@link io.quarkus.runtime.LaunchMode#TEST TEST}. It should be added to methods that allow overriding a
+     * config value from tests only, preventing doing so from runtime code.
+     */
+    private static void checkTestLaunchMode() {
+        if (!LaunchMode.current().isDevOrTest()) {
+            throw new IllegalStateException("Illegal config value override detected");
+        }
+    }
 }
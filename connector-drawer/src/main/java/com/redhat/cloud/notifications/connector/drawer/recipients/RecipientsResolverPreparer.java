@@ -35,6 +35,7 @@ public class RecipientsResolverPreparer implements Processor {
         recipientsQuery.recipientSettings = Set.copyOf(recipientSettings);
         recipientsQuery.subscribedByDefault = true;
         recipientsQuery.authorizationCriteria = authorizationCriteria;
+        recipientsQuery.projection = "USERNAME";
 
         // Serialize the payload.
         exchange.getMessage().setBody(objectMapper.writeValueAsString(recipientsQuery));
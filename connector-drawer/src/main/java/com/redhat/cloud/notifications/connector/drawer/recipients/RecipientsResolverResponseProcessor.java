@@ -1,16 +1,19 @@
 package com.redhat.cloud.notifications.connector.drawer.recipients;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.redhat.cloud.notifications.connector.drawer.constant.ExchangeProperty;
 import com.redhat.cloud.notifications.connector.drawer.model.DrawerUser;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
 
 @ApplicationScoped
 public class RecipientsResolverResponseProcessor implements Processor {
@@ -19,17 +22,29 @@ public class RecipientsResolverResponseProcessor implements Processor {
     ObjectMapper objectMapper;
 
     /**
-     * Processes the response from the recipients-resolver service. Grabs the users from the
-     * response.
+     * Processes the response from the recipients-resolver service. Grabs the usernames from the
+     * response, which is read as a stream.
      * @param exchange the exchange of the pipeline.
-     * @throws JsonProcessingException if the incoming payload cannot be read
-     * into the {@link DrawerUser} model.
+     * @throws IOException if the incoming payload cannot be read.
      */
     @Override
-    public void process(final Exchange exchange) throws JsonProcessingException {
-        final String body = exchange.getMessage().getBody(String.class);
-        final List<DrawerUser> recipientsList = Arrays.asList(this.objectMapper.readValue(body, DrawerUser[].class));
+    public void process(final Exchange exchange) throws IOException {
+        final Set<String> usernames = new HashSet<>();
+        try (InputStream body = exchange.getMessage().getBody(InputStream.class);
+             JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, Set.class, "The recipients-resolver response is not an array");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                    usernames.add(parser.getText());
+                } else {
+                    // The users are returned as objects by the recipients-resolver versions which don't support projections.
+                    usernames.add(parser.readValueAs(DrawerUser.class).getUsername());
+                }
+            }
+        }
 
-        exchange.setProperty(ExchangeProperty.RESOLVED_RECIPIENT_LIST, recipientsList.stream().map(DrawerUser::getUsername).collect(Collectors.toSet()));
+        exchange.setProperty(ExchangeProperty.RESOLVED_RECIPIENT_LIST, usernames);
     }
 }
@@ -25,4 +25,7 @@ public class RecipientsQuery {
     public boolean subscribedByDefault;
 
     public JsonObject authorizationCriteria;
+
+    // The only user field this connector needs, recipients-resolver will return an array of strings.
+    public String projection;
 }
@@ -12,25 +12,34 @@ import com.redhat.cloud.notifications.connector.drawer.model.DrawerUser;
 import com.redhat.cloud.notifications.connector.drawer.model.RecipientSettings;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
-import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
 import org.apache.camel.Predicate;
 import org.apache.camel.builder.AdviceWithRouteBuilder;
 import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockserver.mock.action.ExpectationResponseCallback;
 import org.mockserver.model.HttpRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static com.redhat.cloud.notifications.connector.ConnectorToEngineRouteBuilder.CONNECTOR_TO_ENGINE;
 import static com.redhat.cloud.notifications.connector.ConnectorToEngineRouteBuilder.SUCCESS;
 import static com.redhat.cloud.notifications.connector.EngineToConnectorRouteBuilder.ENGINE_TO_CONNECTOR;
+import static com.redhat.cloud.notifications.connector.drawer.CloudEventHistoryBuilder.RESOLVED_RECIPIENTS_COUNT;
+import static com.redhat.cloud.notifications.connector.drawer.CloudEventHistoryBuilder.RESOLVED_RECIPIENTS_GZIP;
 import static com.redhat.cloud.notifications.connector.drawer.DrawerRouteBuilder.CONNECTOR_TO_DRAWER;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.camel.builder.AdviceWith.adviceWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -44,6 +53,11 @@ class DrawerConnectorRoutesTest extends ConnectorRoutesTest {
     @Inject
     DrawerConnectorConfig drawerConnectorConfig;
 
+    @AfterEach
+    void resetLegacyRecipients() {
+        drawerConnectorConfig.setLegacyRecipientsEnabled(false);
+    }
+
     @Override
     protected String getMockEndpointPattern() {
         return null;
@@ -125,8 +139,10 @@ class DrawerConnectorRoutesTest extends ConnectorRoutesTest {
 
         JsonObject jsonObject = testSuccessfulDrawerNotification(0, 0);
         JsonObject data = new JsonObject(jsonObject.getString("data"));
-        JsonArray recipientsList = data.getJsonObject("details").getJsonArray(ExchangeProperty.RESOLVED_RECIPIENT_LIST);
-        assertEquals(0, recipientsList.size());
+        JsonObject details = data.getJsonObject("details");
+        assertNull(details.getValue(ExchangeProperty.RESOLVED_RECIPIENT_LIST));
+        assertEquals(0, details.getInteger(RESOLVED_RECIPIENTS_COUNT));
+        assertEquals(Set.of(), getResolvedRecipients(details));
     }
 
     @Test
@@ -147,8 +163,42 @@ class DrawerConnectorRoutesTest extends ConnectorRoutesTest {
 
         JsonObject jsonObject = testSuccessfulDrawerNotification(1, 2);
         JsonObject data = new JsonObject(jsonObject.getString("data"));
-        JsonArray recipientsList = data.getJsonObject("details").getJsonArray(ExchangeProperty.RESOLVED_RECIPIENT_LIST);
-        assertEquals(2, recipientsList.size());
+        JsonObject details = data.getJsonObject("details");
+        assertNull(details.getValue(ExchangeProperty.RESOLVED_RECIPIENT_LIST));
+        assertEquals(2, details.getInteger(RESOLVED_RECIPIENTS_COUNT));
+        assertEquals(Set.of("username-1", "username-2"), getResolvedRecipients(details));
+    }
+
+    @Test
+    void testSuccessFulNotificationWithProjectedRecipients() throws Exception {
+        ExpectationResponseCallback verifyProjectedRequest = req -> {
+            assertEquals("USERNAME", new JsonObject(req.getBodyAsString()).getString("projection"));
+            return response().withBody("[\"username-1\",\"username-2\",\"username-3\"]").withStatusCode(200);
+        };
+
+        getMockHttpRequest("/internal/recipients-resolver", verifyProjectedRequest);
+
+        JsonObject jsonObject = testSuccessfulDrawerNotification(1, 3);
+        JsonObject data = new JsonObject(jsonObject.getString("data"));
+        JsonObject details = data.getJsonObject("details");
+        assertEquals(3, details.getInteger(RESOLVED_RECIPIENTS_COUNT));
+        assertEquals(Set.of("username-1", "username-2", "username-3"), getResolvedRecipients(details));
+    }
+
+    @Test
+    void testSuccessFulNotificationWithLegacyRecipients() throws Exception {
+        drawerConnectorConfig.setLegacyRecipientsEnabled(true);
+
+        ExpectationResponseCallback verifyProjectedRequest = req -> response().withBody("[\"username-1\",\"username-2\"]").withStatusCode(200);
+
+        getMockHttpRequest("/internal/recipients-resolver", verifyProjectedRequest);
+
+        JsonObject jsonObject = testSuccessfulDrawerNotification(1, 2);
+        JsonObject data = new JsonObject(jsonObject.getString("data"));
+        JsonObject details = data.getJsonObject("details");
+        assertNull(details.getValue(RESOLVED_RECIPIENTS_GZIP));
+        assertNull(details.getValue(RESOLVED_RECIPIENTS_COUNT));
+        assertEquals(Set.of("username-1", "username-2"), new HashSet<>(details.getJsonArray(ExchangeProperty.RESOLVED_RECIPIENT_LIST).getList()));
     }
 
     @Test
@@ -161,8 +211,7 @@ class DrawerConnectorRoutesTest extends ConnectorRoutesTest {
         // request returns a 500.
         JsonObject jsonObject = testFailedNotification(this.connectorConfig.getRedeliveryMaxAttempts());
         JsonObject data = new JsonObject(jsonObject.getString("data"));
-        JsonArray recipientsList = data.getJsonObject("details").getJsonArray(ExchangeProperty.RESOLVED_RECIPIENT_LIST);
-        assertNull(recipientsList);
+        assertNull(data.getJsonObject("details").getString(RESOLVED_RECIPIENTS_GZIP));
     }
 
     @Override
@@ -247,4 +296,12 @@ class DrawerConnectorRoutesTest extends ConnectorRoutesTest {
             assertEquals(notification.drawerEntryPayload().getTitle(), secondPayloadLevel.getString("title"));
         }
     }
+
+    private static Set<String> getResolvedRecipients(JsonObject details) throws IOException {
+        byte[] compressed = Base64.getDecoder().decode(details.getString(RESOLVED_RECIPIENTS_GZIP));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            String recipients = new String(gzip.readAllBytes(), UTF_8);
+            return recipients.isEmpty() ? Set.of() : new HashSet<>(Arrays.asList(recipients.split(",")));
+        }
+    }
 }
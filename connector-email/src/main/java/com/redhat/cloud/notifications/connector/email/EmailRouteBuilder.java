@@ -85,7 +85,7 @@ public class EmailRouteBuilder extends EngineToConnectorRouteBuilder {
             .process(recipientsResolverRequestPreparer)
             .to(RECIPIENTS_RESOLVER_RESPONSE_TIME_METRIC + TIMER_ACTION_START)
                 .to(setupRecipientResolverEndpoint())
-            .to(RECIPIENTS_RESOLVER_RESPONSE_TIME_METRIC + TIMER_ACTION_START)
+            .to(RECIPIENTS_RESOLVER_RESPONSE_TIME_METRIC + TIMER_ACTION_STOP)
             .process(recipientsResolverResponseProcessor)
             .choice().when(shouldSkipEmail())
                 .log(INFO, getClass().getName(), "Skipped Email notification because the recipients list was empty [orgId=${exchangeProperty." + ORG_ID + "}, historyId=${exchangeProperty." + ID + "}]")
@@ -96,6 +96,8 @@ public class EmailRouteBuilder extends EngineToConnectorRouteBuilder {
 
         from(direct(Routes.SPLIT_AND_SEND))
             .routeId(Routes.SPLIT_AND_SEND)
+            // The rendered email is encoded once, before the recipients are split into chunks.
+            .process(this.BOPRequestPreparer::encodeEmail)
             .split(simpleF("${exchangeProperty.%s}", ExchangeProperty.FILTERED_USERS))
             .to(direct(Routes.SEND_EMAIL_BOP))
             .end();
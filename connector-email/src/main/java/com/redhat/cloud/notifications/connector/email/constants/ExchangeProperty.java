@@ -44,6 +44,11 @@ public class ExchangeProperty {
      * Holds the rendered subject contents, ready to be sent in an email.
      */
     public static final String RENDERED_SUBJECT = "rendered_subject";
+    /**
+     * Holds the rendered subject and body, encoded once in the payload
+     * accepted by BOP and shared by all the recipients chunks.
+     */
+    public static final String ENCODED_EMAIL = "encoded_email";
 
     public static final String RECIPIENTS_SIZE = "recipientsSize";
 
@@ -0,0 +1,128 @@
+package com.redhat.cloud.notifications.connector.email.model.bop;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+/**
+ * Represents the payload accepted by BOP/MBOP, with the parts that are shared
+ * by all the recipients chunks of an email already encoded in JSON:
+ * <pre>
+ * {"emails":[{"subject":"...","body":"...","recipients":[],"ccList":[],"bodyType":"html","bccList":[...]}],
+ *  "skipUsersResolution":true,"emailSender":"...","defaultRecipient":"..."}
+ * </pre>
+ * The subject and the body are encoded once per email, then each request is
+ * assembled by writing only the recipients of the chunk between these parts.
+ */
+public class EncodedEmail {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+
+    public EncodedEmail(final String subject, final String body, final String emailSender) {
+        // Recipients and the carbon copies will never be used for privacy
+        // reasons, all the recipients are blind carbon copies.
+        // The quotes and the new lines of the rendered HTML make the encoded
+        // body a few percent larger than the rendered one.
+        this.prefix = encode(body == null ? 256 : body.length() + body.length() / 8 + 256, generator -> {
+            generator.writeRaw("{\"emails\":[{\"subject\":");
+            generator.writeString(subject);
+            generator.writeRaw(",\"body\":");
+            generator.writeString(body);
+            generator.writeRaw(",\"recipients\":[],\"ccList\":[],\"bodyType\":\"html\",\"bccList\":[");
+        });
+        this.suffix = encode(256, generator -> {
+            generator.writeRaw("]}],\"skipUsersResolution\":true");
+            if (emailSender != null) {
+                generator.writeRaw(",\"emailSender\":");
+                generator.writeString(emailSender);
+                generator.writeRaw(",\"defaultRecipient\":");
+                generator.writeString(emailSender);
+            }
+            generator.writeRaw("}");
+        });
+    }
+
+    /**
+     * Assembles the request sent to BOP for a chunk of recipients.
+     * @param bccList the recipients of the chunk.
+     * @return the request, encoded in UTF-8.
+     */
+    public byte[] toRequest(final Collection<String> bccList) {
+        // The email addresses rarely need to be escaped, they are then
+        // written as is.
+        final byte[][] escapedRecipients = new byte[bccList.size()][];
+        int length = this.prefix.length + this.suffix.length;
+        int index = 0;
+        for (final String recipient : bccList) {
+            if (isPlainAscii(recipient)) {
+                length += recipient.length();
+            } else {
+                escapedRecipients[index] = ENCODER.quoteAsUTF8(recipient);
+                length += escapedRecipients[index].length;
+            }
+            // The quotes and the comma around the recipient.
+            length += 3;
+            index++;
+        }
+
+        // The request is written in a single array of the exact size.
+        final byte[] request = new byte[index == 0 ? length : length - 1];
+        System.arraycopy(this.prefix, 0, request, 0, this.prefix.length);
+        int position = this.prefix.length;
+        index = 0;
+        for (final String recipient : bccList) {
+            if (index > 0) {
+                request[position++] = ',';
+            }
+            request[position++] = '"';
+            final byte[] escapedRecipient = escapedRecipients[index++];
+            if (escapedRecipient == null) {
+                for (int i = 0; i < recipient.length(); i++) {
+                    request[position++] = (byte) recipient.charAt(i);
+                }
+            } else {
+                System.arraycopy(escapedRecipient, 0, request, position, escapedRecipient.length);
+                position += escapedRecipient.length;
+            }
+            request[position++] = '"';
+        }
+        System.arraycopy(this.suffix, 0, request, position, this.suffix.length);
+        return request;
+    }
+
+    private static boolean isPlainAscii(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7E || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(final int estimatedSize, final JsonWriter writer) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(estimatedSize);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+            // The strings are written as root values, without any separator.
+            generator.setRootValueSeparator(null);
+            writer.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode the email", e);
+        }
+        return output.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
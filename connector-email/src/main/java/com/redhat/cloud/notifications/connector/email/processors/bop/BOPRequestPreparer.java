@@ -2,9 +2,7 @@ package com.redhat.cloud.notifications.connector.email.processors.bop;
 
 import com.redhat.cloud.notifications.connector.email.config.EmailConnectorConfig;
 import com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty;
-import com.redhat.cloud.notifications.connector.email.model.bop.Email;
-import com.redhat.cloud.notifications.connector.email.model.bop.SendEmailsRequest;
-import io.vertx.core.json.JsonObject;
+import com.redhat.cloud.notifications.connector.email.model.bop.EncodedEmail;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
@@ -21,35 +19,37 @@ public class BOPRequestPreparer implements Processor {
     @Inject
     EmailConnectorConfig emailConnectorConfig;
 
+    /**
+     * Encodes the parts of the payload that are shared by all the recipients
+     * chunks of the email. It is meant to be called before the recipients are
+     * split, so that the chunks reuse the encoded email instead of encoding
+     * the rendered body again.
+     * @param exchange the exchange of the pipeline.
+     */
+    public void encodeEmail(final Exchange exchange) {
+        exchange.setProperty(ExchangeProperty.ENCODED_EMAIL, new EncodedEmail(
+            exchange.getProperty(ExchangeProperty.RENDERED_SUBJECT, String.class),
+            exchange.getProperty(ExchangeProperty.RENDERED_BODY, String.class),
+            exchange.getProperty(ExchangeProperty.EMAIL_SENDER, String.class)
+        ));
+    }
+
     /**
      * Prepares the payload that BOP expects.
      * @param exchange the exchange of the pipeline.
      */
     @Override
     public void process(final Exchange exchange) {
-        final String subject = exchange.getProperty(ExchangeProperty.RENDERED_SUBJECT, String.class);
-        final String body = exchange.getProperty(ExchangeProperty.RENDERED_BODY, String.class);
         Set<String> recipients = exchange.getMessage().getBody(Set.class);
         exchange.setProperty(ExchangeProperty.RECIPIENTS_SIZE, recipients.size());
 
-        // Prepare the email to be sent.
-        final Email email = new Email(
-            subject,
-            body,
-            recipients
-        );
-
-        JsonObject bopBody;
-
-        final SendEmailsRequest request = new SendEmailsRequest(
-            Set.of(email),
-            exchange.getProperty(ExchangeProperty.EMAIL_SENDER, String.class),
-            exchange.getProperty(ExchangeProperty.EMAIL_SENDER, String.class)
-        );
-        bopBody = JsonObject.mapFrom(request);
+        if (exchange.getProperty(ExchangeProperty.ENCODED_EMAIL) == null) {
+            encodeEmail(exchange);
+        }
+        final EncodedEmail email = exchange.getProperty(ExchangeProperty.ENCODED_EMAIL, EncodedEmail.class);
 
         // Specify the message's payload in JSON.
-        exchange.getMessage().setBody(bopBody.encode());
+        exchange.getMessage().setBody(email.toRequest(recipients));
 
         // Specify the request's method.
         exchange.getMessage().setHeader(Exchange.HTTP_METHOD, HttpMethods.POST);
@@ -38,6 +38,7 @@ public class RecipientsResolverRequestPreparer implements Processor {
         recipientsQuery.recipientSettings = Set.copyOf(recipientSettings);
         recipientsQuery.subscribedByDefault = subscribedByDefault;
         recipientsQuery.authorizationCriteria = authorizationCriteria;
+        recipientsQuery.projection = "EMAIL";
 
         // Serialize the payload.
         exchange.getMessage().setBody(objectMapper.writeValueAsString(recipientsQuery));
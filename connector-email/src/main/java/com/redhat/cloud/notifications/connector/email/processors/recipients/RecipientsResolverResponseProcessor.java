@@ -1,7 +1,9 @@
 package com.redhat.cloud.notifications.connector.email.processors.recipients;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.redhat.cloud.notifications.connector.email.config.EmailConnectorConfig;
 import com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty;
 import com.redhat.cloud.notifications.connector.email.model.settings.User;
@@ -10,14 +12,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.toSet;
-
 @ApplicationScoped
 public class RecipientsResolverResponseProcessor implements Processor {
 
@@ -28,17 +30,14 @@ public class RecipientsResolverResponseProcessor implements Processor {
     EmailConnectorConfig emailConnectorConfig;
 
     /**
-     * Processes the response from the recipients-resolver service. Grabs the users from the
-     * response.
+     * Processes the response from the recipients-resolver service. Grabs the emails from the
+     * response, which is read as a stream.
      * @param exchange the exchange of the pipeline.
-     * @throws JsonProcessingException if the incoming payload cannot be read
-     * into the {@link User} model.
+     * @throws IOException if the incoming payload cannot be read.
      */
     @Override
-    public void process(final Exchange exchange) throws JsonProcessingException {
-        final String body = exchange.getMessage().getBody(String.class);
-        final Set<String> recipientsList = Arrays.asList(this.objectMapper.readValue(body, User[].class))
-            .stream().map(User::getEmail).collect(toSet());
+    public void process(final Exchange exchange) throws IOException {
+        final Set<String> recipientsList = readEmails(exchange);
 
         Set<String> emails = exchange.getProperty(ExchangeProperty.EMAIL_RECIPIENTS, Set.class);
         if (emailConnectorConfig.isEmailsInternalOnlyEnabled()) {
@@ -54,6 +53,25 @@ public class RecipientsResolverResponseProcessor implements Processor {
         exchange.setProperty(ExchangeProperty.FILTERED_USERS, partition(recipientsList, emailConnectorConfig.getMaxRecipientsPerEmail() - 1));
     }
 
+    private Set<String> readEmails(final Exchange exchange) throws IOException {
+        final Set<String> emails = new HashSet<>();
+        try (InputStream body = exchange.getMessage().getBody(InputStream.class);
+             JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, Set.class, "The recipients-resolver response is not an array");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                    emails.add(parser.getText());
+                } else {
+                    // The users are returned as objects by the recipients-resolver versions which don't support projections.
+                    emails.add(parser.readValueAs(User.class).getEmail());
+                }
+            }
+        }
+        return emails;
+    }
+
     private static Set<List<String>> partition(Set<String> collection, int n) {
         AtomicInteger counter = new AtomicInteger();
         return collection.stream()
@@ -150,10 +150,32 @@ public class RecipientsListTest extends CamelQuarkusTestSupport {
         }
     }
 
+    @Test
+    void testProjectedRecipients() throws Exception {
+        ExpectationResponseCallback verifyProjectedRequest = req -> {
+            assertEquals("EMAIL", objectMapper.readTree(req.getBodyAsString()).get("projection").asText());
+            return response().withBody("[\"user-1@redhat.com\",\"user-2@redhat.com\"]").withStatusCode(200);
+        };
+
+        Exchange exchange = test(verifyProjectedRequest);
+        MockEndpoint successEndpoint = getMockEndpoint("mock:direct:" + SUCCESS);
+        MockEndpoint bopRoute = getMockEndpoint("mock:direct:" + SEND_EMAIL_BOP);
+
+        successEndpoint.expectedMessageCount(1);
+        bopRoute.expectedMessageCount(1);
+
+        producerTemplate.send("seda:" + ENGINE_TO_CONNECTOR, exchange);
+        successEndpoint.assertIsSatisfied();
+        bopRoute.assertIsSatisfied();
+        assertEquals(Set.of("user-1@redhat.com", "user-2@redhat.com"), Set.copyOf(bopRoute.getReceivedExchanges().get(0).getIn().getBody(List.class)));
+    }
+
     private HttpRequest getMockHttpRequest(String path, String method, ExpectationResponseCallback expectationResponseCallback) {
         HttpRequest postReq = new HttpRequest()
             .withPath(path)
             .withMethod(method);
+        // The expectations registered by the previous tests would otherwise take precedence.
+        MockServerLifecycleManager.getClient().clear(postReq);
         MockServerLifecycleManager.getClient()
             .withSecure(false)
             .when(postReq)
@@ -8,6 +8,7 @@ import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.http.HttpMethods;
 import org.apache.camel.quarkus.test.CamelQuarkusTestSupport;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -16,6 +17,7 @@ import java.util.Set;
 
 import static org.apache.camel.test.junit5.TestSupport.createExchangeWithBody;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
@@ -79,4 +81,45 @@ public class BOPRequestPreparerTest extends CamelQuarkusTestSupport {
 
         assertTrue(actualBody.getBoolean("skipUsersResolution"));
     }
+
+    /**
+     * Tests that the email is encoded once and reused for each chunk of
+     * recipients, and that the rendered contents are escaped.
+     */
+    @Test
+    void testEncodedEmailReusedAcrossChunks() {
+        final String emailSubject = "Subject with \"quotes\" and a backslash \\";
+        final String emailBody = "<p class=\"body\">Body with a new line\n, a tab\t and unicode: é€😀</p>";
+        final String emailSender = "\"Red Hat Insights\" noreply@redhat.com";
+
+        final Exchange parent = createExchangeWithBody(context, null);
+        parent.setProperty(ExchangeProperty.RENDERED_SUBJECT, emailSubject);
+        parent.setProperty(ExchangeProperty.RENDERED_BODY, emailBody);
+        parent.setProperty(ExchangeProperty.EMAIL_SENDER, emailSender);
+        this.bopRequestPreparer.encodeEmail(parent);
+
+        // The chunks are copies of the exchange, as made by the splitter.
+        final Exchange firstChunk = parent.copy();
+        firstChunk.getMessage().setBody(Set.of("foo@bar.com", "bar@foo.com"));
+        final Exchange secondChunk = parent.copy();
+        secondChunk.getMessage().setBody(Set.of("a@a.com"));
+
+        this.bopRequestPreparer.process(firstChunk);
+        this.bopRequestPreparer.process(secondChunk);
+
+        assertSame(parent.getProperty(ExchangeProperty.ENCODED_EMAIL), firstChunk.getProperty(ExchangeProperty.ENCODED_EMAIL));
+        assertSame(parent.getProperty(ExchangeProperty.ENCODED_EMAIL), secondChunk.getProperty(ExchangeProperty.ENCODED_EMAIL));
+
+        final JsonObject firstBody = new JsonObject(firstChunk.getMessage().getBody(String.class));
+        final JsonObject firstEmail = firstBody.getJsonArray("emails").getJsonObject(0);
+        assertEquals(emailSubject, firstEmail.getString("subject"));
+        assertEquals(emailBody, firstEmail.getString("body"));
+        assertEquals(Set.of("foo@bar.com", "bar@foo.com"), Set.copyOf(firstEmail.getJsonArray("bccList").getList()));
+        assertEquals(emailSender, firstBody.getString("emailSender"));
+        assertEquals(emailSender, firstBody.getString("defaultRecipient"));
+
+        final JsonObject secondEmail = new JsonObject(secondChunk.getMessage().getBody(String.class)).getJsonArray("emails").getJsonObject(0);
+        assertEquals(emailBody, secondEmail.getString("body"));
+        assertEquals(Set.of("a@a.com"), Set.copyOf(secondEmail.getJsonArray("bccList").getList()));
+    }
 }
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.connector.google.chat;
 
 import com.redhat.cloud.notifications.connector.EngineToConnectorRouteBuilder;
 import com.redhat.cloud.notifications.connector.http.HttpConnectorConfig;
+import com.redhat.cloud.notifications.connector.http.NonBlockingHttpDeliveryProcessor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -26,6 +27,9 @@ public class GoogleChatRouteBuilder extends EngineToConnectorRouteBuilder {
     @Inject
     HttpConnectorConfig connectorConfig;
 
+    @Inject
+    NonBlockingHttpDeliveryProcessor nonBlockingHttpDeliveryProcessor;
+
     @Override
     public void configureRoutes() {
         from(seda(ENGINE_TO_CONNECTOR))
@@ -40,7 +44,13 @@ public class GoogleChatRouteBuilder extends EngineToConnectorRouteBuilder {
                      * That involve to split Urls parameters, surround each value by `RAW()` instruction, then concat all those to rebuild endpoint url.
                      * To avoid all those steps, we decode the full url, then Camel will encode it to send the expected format to Google servers.
                      */
-                    .toD(URLDecoder.decode("${exchangeProperty." + TARGET_URL + "}", UTF_8), connectorConfig.getEndpointCacheMaxSize())
+                    .choice()
+                        // The Vert.x client sends the url as is, so it is not encoded twice.
+                        .when(exchange -> connectorConfig.isNonBlockingEnabled())
+                            .process(nonBlockingHttpDeliveryProcessor)
+                        .otherwise()
+                            .toD(URLDecoder.decode("${exchangeProperty." + TARGET_URL + "}", UTF_8), connectorConfig.getEndpointCacheMaxSize())
+                    .end()
                 .to(GOOGLE_CHAT_RESPONSE_TIME_METRIC + TIMER_ACTION_STOP)
                 .log(INFO, getClass().getName(), "Sent Google Chat notification [orgId=${exchangeProperty." + ORG_ID + "}, historyId=${exchangeProperty." + ID + "}]")
                 .to(direct(SUCCESS));
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.connector.microsoft.teams;
 
 import com.redhat.cloud.notifications.connector.EngineToConnectorRouteBuilder;
 import com.redhat.cloud.notifications.connector.http.HttpConnectorConfig;
+import com.redhat.cloud.notifications.connector.http.NonBlockingHttpDeliveryProcessor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -23,6 +24,9 @@ public class TeamsRouteBuilder extends EngineToConnectorRouteBuilder {
     @Inject
     HttpConnectorConfig connectorConfig;
 
+    @Inject
+    NonBlockingHttpDeliveryProcessor nonBlockingHttpDeliveryProcessor;
+
     @Override
     public void configureRoutes() {
         from(seda(ENGINE_TO_CONNECTOR))
@@ -30,7 +34,12 @@ public class TeamsRouteBuilder extends EngineToConnectorRouteBuilder {
                 .setHeader(HTTP_METHOD, constant("POST"))
                 .setHeader(CONTENT_TYPE, constant("application/json"))
                 .to(TEAMS_RESPONSE_TIME_METRIC + TIMER_ACTION_START)
-                    .toD("${exchangeProperty." + TARGET_URL + "}", connectorConfig.getEndpointCacheMaxSize())
+                    .choice()
+                        .when(exchange -> connectorConfig.isNonBlockingEnabled())
+                            .process(nonBlockingHttpDeliveryProcessor)
+                        .otherwise()
+                            .toD("${exchangeProperty." + TARGET_URL + "}", connectorConfig.getEndpointCacheMaxSize())
+                    .end()
                 .to(TEAMS_RESPONSE_TIME_METRIC + TIMER_ACTION_STOP)
                 .log(INFO, getClass().getName(), "Sent Microsoft Teams notification [orgId=${exchangeProperty." + ORG_ID + "}, historyId=${exchangeProperty." + ID + "}]")
                 .to(direct(SUCCESS));
@@ -3,6 +3,7 @@ package com.redhat.cloud.notifications.connector.pagerduty;
 import com.redhat.cloud.notifications.connector.EngineToConnectorRouteBuilder;
 import com.redhat.cloud.notifications.connector.authentication.secrets.SecretsLoader;
 import com.redhat.cloud.notifications.connector.http.HttpConnectorConfig;
+import com.redhat.cloud.notifications.connector.http.NonBlockingHttpDeliveryProcessor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -28,6 +29,9 @@ public class PagerDutyRouteBuilder extends EngineToConnectorRouteBuilder {
     @Inject
     HttpConnectorConfig connectorConfig;
 
+    @Inject
+    NonBlockingHttpDeliveryProcessor nonBlockingHttpDeliveryProcessor;
+
     @Inject
     SecretsLoader secretsLoader;
 
@@ -46,7 +50,12 @@ public class PagerDutyRouteBuilder extends EngineToConnectorRouteBuilder {
             .process(secretsLoader)
             .process(authenticationProcessor)
             .to(PAGERDUTY_RESPONSE_TIME_METRIC + TIMER_ACTION_START)
-            .toD(URLDecoder.decode("${exchangeProperty." + TARGET_URL + "}", UTF_8), connectorConfig.getEndpointCacheMaxSize())
+            .choice()
+                .when(exchange -> connectorConfig.isNonBlockingEnabled())
+                    .process(nonBlockingHttpDeliveryProcessor)
+                .otherwise()
+                    .toD(URLDecoder.decode("${exchangeProperty." + TARGET_URL + "}", UTF_8), connectorConfig.getEndpointCacheMaxSize())
+            .end()
             .to(PAGERDUTY_RESPONSE_TIME_METRIC + TIMER_ACTION_STOP)
             .log(INFO, getClass().getName(), "Sent PagerDuty notification " +
                 "[orgId=${exchangeProperty." + ORG_ID + "}, historyId=${exchangeProperty." +
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.connector.slack;
 
 import com.redhat.cloud.notifications.connector.EngineToConnectorRouteBuilder;
 import com.redhat.cloud.notifications.connector.http.HttpConnectorConfig;
+import com.redhat.cloud.notifications.connector.http.NonBlockingHttpDeliveryProcessor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -23,6 +24,9 @@ public class SlackRouteBuilder extends EngineToConnectorRouteBuilder {
     @Inject
     HttpConnectorConfig connectorConfig;
 
+    @Inject
+    NonBlockingHttpDeliveryProcessor nonBlockingHttpDeliveryProcessor;
+
     @Override
     public void configureRoutes() {
         from(seda(ENGINE_TO_CONNECTOR))
@@ -30,7 +34,12 @@ public class SlackRouteBuilder extends EngineToConnectorRouteBuilder {
                 .setHeader(HTTP_METHOD, constant("POST"))
                 .setHeader(CONTENT_TYPE, constant("application/json; charset=utf-8"))
                 .to(SLACK_RESPONSE_TIME_METRIC + TIMER_ACTION_START)
-                .toD("${exchangeProperty." + TARGET_URL + "}", connectorConfig.getEndpointCacheMaxSize())
+                .choice()
+                    .when(exchange -> connectorConfig.isNonBlockingEnabled())
+                        .process(nonBlockingHttpDeliveryProcessor)
+                    .otherwise()
+                        .toD("${exchangeProperty." + TARGET_URL + "}", connectorConfig.getEndpointCacheMaxSize())
+                .end()
                 .to(SLACK_RESPONSE_TIME_METRIC + TIMER_ACTION_STOP)
                 .log(INFO, getClass().getName(), "Sent Slack notification [orgId=${exchangeProperty." + ORG_ID + "}, historyId=${exchangeProperty." + ID + "}]")
                 .to(direct(SUCCESS));
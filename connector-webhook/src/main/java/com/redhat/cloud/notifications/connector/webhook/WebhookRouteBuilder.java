@@ -3,6 +3,7 @@ package com.redhat.cloud.notifications.connector.webhook;
 import com.redhat.cloud.notifications.connector.EngineToConnectorRouteBuilder;
 import com.redhat.cloud.notifications.connector.authentication.secrets.SecretsLoader;
 import com.redhat.cloud.notifications.connector.http.HttpConnectorConfig;
+import com.redhat.cloud.notifications.connector.http.NonBlockingHttpDeliveryProcessor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.apache.camel.builder.endpoint.dsl.HttpEndpointBuilderFactory;
@@ -32,6 +33,9 @@ public class WebhookRouteBuilder extends EngineToConnectorRouteBuilder {
     @Inject
     HttpConnectorConfig connectorConfig;
 
+    @Inject
+    NonBlockingHttpDeliveryProcessor nonBlockingHttpDeliveryProcessor;
+
     @Inject
     SecretsLoader secretsLoader;
 
@@ -47,6 +51,12 @@ public class WebhookRouteBuilder extends EngineToConnectorRouteBuilder {
             .process(authenticationProcessor)
             // SSL certificates may or may not be verified depending on the integration settings.
             .choice()
+                // The non-blocking client reads the TRUST_ALL property itself.
+                .when(exchange -> connectorConfig.isNonBlockingEnabled())
+                    .to(ENDPOINT_RESPONSE_TIME_METRIC + TIMER_ACTION_START)
+                        .process(nonBlockingHttpDeliveryProcessor)
+                    .to(ENDPOINT_RESPONSE_TIME_METRIC + TIMER_ACTION_STOP)
+                .endChoice()
                 .when(exchangeProperty(TRUST_ALL))
                     .toD(buildUnsecureSslEndpoint(), connectorConfig.getEndpointCacheMaxSize())
                 .endChoice()
@@ -0,0 +1,27 @@
+-- The backend pods cache the bundles, applications and event types. This version is increased by any change to
+-- these tables, which lets each pod detect with a single cheap query that its cached catalog is stale.
+CREATE TABLE catalog_version (
+    id INTEGER PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 0);
+
+CREATE FUNCTION increment_catalog_version() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END
+$$ LANGUAGE PLPGSQL;
+
+CREATE TRIGGER bundles_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON bundles
+    FOR EACH STATEMENT EXECUTE PROCEDURE increment_catalog_version();
+
+CREATE TRIGGER applications_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON applications
+    FOR EACH STATEMENT EXECUTE PROCEDURE increment_catalog_version();
+
+CREATE TRIGGER event_type_catalog_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON event_type
+    FOR EACH STATEMENT EXECUTE PROCEDURE increment_catalog_version();
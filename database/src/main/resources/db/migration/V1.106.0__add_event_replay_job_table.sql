@@ -0,0 +1,27 @@
+CREATE TABLE event_replay_job (
+    id                      UUID                                                    NOT NULL,
+    org_id                  VARCHAR(50),
+    start_date              TIMESTAMP WITHOUT TIME ZONE                             NOT NULL,
+    end_date                TIMESTAMP WITHOUT TIME ZONE                             NOT NULL,
+    status                  VARCHAR(20)                                             NOT NULL,
+    checkpoint_created      TIMESTAMP WITHOUT TIME ZONE,
+    checkpoint_event_id     UUID,
+    processed_events        BIGINT                                                  NOT NULL DEFAULT 0,
+    failed_events           BIGINT                                                  NOT NULL DEFAULT 0,
+
+    created                 TIMESTAMP WITHOUT TIME ZONE                             NOT NULL,
+    updated                 TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_event_replay_job_id PRIMARY KEY (id)
+);
+
+COMMENT ON TABLE event_replay_job IS 'Holds the progress of the events replays so that they can be resumed after an interruption';
+
+COMMENT ON COLUMN event_replay_job.org_id IS 'The org ID of the replayed events, or null if the events of all orgs are replayed';
+COMMENT ON COLUMN event_replay_job.status IS 'The status of the replay: RUNNING, INTERRUPTED, FAILED or COMPLETED';
+COMMENT ON COLUMN event_replay_job.checkpoint_created IS 'The creation date of the last event replayed before the checkpoint';
+COMMENT ON COLUMN event_replay_job.checkpoint_event_id IS 'The ID of the last event replayed before the checkpoint';
+COMMENT ON COLUMN event_replay_job.updated IS 'Updated at each checkpoint, a running replay that is not updated anymore was abandoned by its pod';
+
+-- The replay of the events of all orgs reads the events in (created, id) order.
+CREATE INDEX ix_event_created_id ON event (created, id);
@@ -0,0 +1,23 @@
+CREATE TABLE email_aggregation_state (
+    org_id                  VARCHAR(50)                                             NOT NULL,
+    bundle                  VARCHAR(255)                                            NOT NULL,
+    application             VARCHAR(255)                                            NOT NULL,
+    window_end              TIMESTAMP WITHOUT TIME ZONE                             NOT NULL,
+    partition_key           VARCHAR(36)                                             NOT NULL,
+    recipients_query        TEXT,
+    state                   TEXT,
+    aggregations            INTEGER                                                 NOT NULL DEFAULT 0,
+    first_created           TIMESTAMP WITHOUT TIME ZONE,
+    last_created            TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_email_aggregation_state PRIMARY KEY (org_id, bundle, application, window_end, partition_key)
+);
+
+COMMENT ON TABLE email_aggregation_state IS 'Holds the daily digest aggregators states, updated each time an email_aggregation row is inserted when the incremental aggregation is enabled';
+
+COMMENT ON COLUMN email_aggregation_state.window_end IS 'The scheduled daily digest time of the org which ends the window, only the email_aggregation rows created during the day before that time are aggregated in the state';
+COMMENT ON COLUMN email_aggregation_state.partition_key IS 'all for the state which aggregates all the email_aggregation rows of the application, or a name-based UUID of recipients_query for the state which only aggregates the rows with the same recipients';
+COMMENT ON COLUMN email_aggregation_state.recipients_query IS 'The part of the email_aggregation payloads which determines their recipients: event type, action recipients and authorization criteria';
+COMMENT ON COLUMN email_aggregation_state.aggregations IS 'The number of email_aggregation rows aggregated in the state, compared with the rows of the digest window before the state is used';
+COMMENT ON COLUMN email_aggregation_state.first_created IS 'The earliest creation date of the email_aggregation rows aggregated in the state';
+COMMENT ON COLUMN email_aggregation_state.last_created IS 'The latest creation date of the email_aggregation rows aggregated in the state';
@@ -0,0 +1,3 @@
+-- The user preferences ETag is derived from the number of subscriptions of the user and from their last update date,
+-- which lets the backend answer a conditional request without loading the subscriptions.
+ALTER TABLE email_subscriptions ADD COLUMN updated TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT (NOW() AT TIME ZONE 'UTC');
@@ -44,6 +44,12 @@ public class EngineConfig {
     private static final String NOTIFICATIONS_EMAIL_SENDER_OPENSHIFT_STAGE = "notifications.email.sender.openshift.stage";
     private static final String NOTIFICATIONS_EMAIL_SENDER_OPENSHIFT_PROD = "notifications.email.sender.openshift.prod";
     private static final String NOTIFICATIONS_USE_OCM_REFACTORED_TEMPLATES = "notifications.use-ocm-refactored-templates";
+    private static final String DRAWER_INSERT_BATCH_WINDOW = "notifications.drawer.insert-batch.window";
+    private static final String DRAWER_INSERT_BATCH_MAX_ROWS = "notifications.drawer.insert-batch.max-rows";
+    private static final String REPLAY_PARALLELISM = "notifications.replay.parallelism";
+    private static final String REPLAY_MAX_EVENTS_PER_SECOND = "notifications.replay.max-events-per-second";
+    private static final String REPLAY_STALE_AFTER = "notifications.replay.stale-after";
+    private static final String INCREMENTAL_AGGREGATION = "notifications.aggregation.incremental.enabled";
 
     /*
      * Unleash configuration
@@ -124,6 +130,43 @@ public class EngineConfig {
     @ConfigProperty(name = NOTIFICATIONS_USE_OCM_REFACTORED_TEMPLATES, defaultValue = "false")
     boolean useOCMRefactoredTemplates;
 
+    /**
+     * How long the drawer notifications of an event can wait for the drawer notifications of other events before
+     * they are inserted together. Zero disables the batching.
+     */
+    @ConfigProperty(name = DRAWER_INSERT_BATCH_WINDOW, defaultValue = "0S")
+    Duration drawerInsertBatchWindow;
+
+    @ConfigProperty(name = DRAWER_INSERT_BATCH_MAX_ROWS, defaultValue = "50000")
+    int drawerInsertBatchMaxRows;
+
+    /**
+     * How many events of a replay can be processed at the same time by each engine pod.
+     */
+    @ConfigProperty(name = REPLAY_PARALLELISM, defaultValue = "4")
+    int replayParallelism;
+
+    /**
+     * How many events can be replayed per second by each engine pod, all replays included. Zero disables the limit.
+     */
+    @ConfigProperty(name = REPLAY_MAX_EVENTS_PER_SECOND, defaultValue = "20")
+    int replayMaxEventsPerSecond;
+
+    /**
+     * A running replay is refreshed by its pod every {@code notifications.replay.heartbeat-period}, whatever the
+     * duration of its pages. If it wasn't updated for that long, the pod that ran it is considered gone and the replay
+     * can be resumed by another pod. This has to be several times the heartbeat period.
+     */
+    @ConfigProperty(name = REPLAY_STALE_AFTER, defaultValue = "5M")
+    Duration replayStaleAfter;
+
+    /**
+     * When enabled, the daily digest aggregators are updated when the email aggregations are inserted and their state
+     * is used to build the digests instead of reading all the email aggregations of the day again.
+     */
+    @ConfigProperty(name = INCREMENTAL_AGGREGATION, defaultValue = "false")
+    boolean incrementalAggregationEnabled;
+
     /**
      * The email sender address for the Red Hat Hybrid Cloud Console.
      */
@@ -184,6 +227,12 @@ public class EngineConfig {
         config.put(NOTIFICATIONS_USE_OCM_REFACTORED_TEMPLATES, isUseOCMRefactoredTemplates());
         config.put(toggleDirectEndpointToEventTypeDryRunEnabled, isDirectEndpointToEventTypeDryRunEnabled());
         config.put(toggleUseDirectEndpointToEventTypeEnabled, isUseDirectEndpointToEventTypeEnabled());
+        config.put(DRAWER_INSERT_BATCH_WINDOW, drawerInsertBatchWindow);
+        config.put(DRAWER_INSERT_BATCH_MAX_ROWS, drawerInsertBatchMaxRows);
+        config.put(REPLAY_PARALLELISM, replayParallelism);
+        config.put(REPLAY_MAX_EVENTS_PER_SECOND, replayMaxEventsPerSecond);
+        config.put(REPLAY_STALE_AFTER, replayStaleAfter);
+        config.put(INCREMENTAL_AGGREGATION, incrementalAggregationEnabled);
 
         Log.info("=== Startup configuration ===");
         config.forEach((key, value) -> {
@@ -312,4 +361,28 @@ public class EngineConfig {
     public boolean isUseOCMRefactoredTemplates() {
         return useOCMRefactoredTemplates;
     }
+
+    public Duration getDrawerInsertBatchWindow() {
+        return drawerInsertBatchWindow;
+    }
+
+    public int getDrawerInsertBatchMaxRows() {
+        return drawerInsertBatchMaxRows;
+    }
+
+    public int getReplayParallelism() {
+        return replayParallelism;
+    }
+
+    public int getReplayMaxEventsPerSecond() {
+        return replayMaxEventsPerSecond;
+    }
+
+    public Duration getReplayStaleAfter() {
+        return replayStaleAfter;
+    }
+
+    public boolean isIncrementalAggregationEnabled() {
+        return incrementalAggregationEnabled;
+    }
 }
@@ -0,0 +1,27 @@
+package com.redhat.cloud.notifications.db.repositories;
+
+import com.redhat.cloud.notifications.models.AggregationOrgConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalTime;
+import java.util.Optional;
+
+@ApplicationScoped
+public class AggregationOrgConfigRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Returns the time of the day when the daily digest of an org is scheduled. The aggregator creates the missing
+     * org configurations with the default time when it runs, so the time may not be known yet for a new org.
+     * @param orgId the org ID
+     * @return the scheduled time of the daily digest, or an empty value if the org doesn't have any configuration
+     */
+    public Optional<LocalTime> findDailyDigestTime(String orgId) {
+        return Optional.ofNullable(entityManager.find(AggregationOrgConfig.class, orgId))
+                .map(AggregationOrgConfig::getScheduledExecutionTime);
+    }
+}
@@ -5,21 +5,91 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @ApplicationScoped
 public class DrawerNotificationRepository {
 
+    /*
+     * The rows are bound as typed arrays which are unnested by Postgres. This limits the size of each array so that
+     * a very large batch doesn't have to be held in a single bind message.
+     */
+    static final int MAX_ROWS_PER_STATEMENT = 50_000;
+
+    private static final String INSERT_QUERY = "INSERT INTO drawer_notification (user_id, org_id, event_id, created) " +
+        "SELECT * FROM UNNEST(?, ?, ?, ?) ON CONFLICT (org_id, user_id, event_id) DO NOTHING";
+
     @Inject
     EntityManager entityManager;
 
+    /**
+     * The drawer notifications of an event that have to be inserted.
+     * @param orgId the org ID of the event
+     * @param eventId the ID of the event
+     * @param created the creation date of the event
+     * @param userIds the usernames of the drawer notifications recipients
+     */
+    public record DrawerNotificationsInsert(String orgId, UUID eventId, LocalDateTime created, String[] userIds) {
+    }
+
     @Transactional
     public void create(Event event, String userIds) {
-        entityManager.createNativeQuery("CALL insert_drawer_notifications(:userIds, :orgId, :eventId, :created)")
-            .setParameter("userIds", userIds)
-            .setParameter("orgId", event.getOrgId())
-            .setParameter("eventId", event.getId())
-            .setParameter("created", Timestamp.valueOf(event.getCreated())).executeUpdate();
+        create(List.of(new DrawerNotificationsInsert(event.getOrgId(), event.getId(), event.getCreated(), userIds.split(","))));
+    }
+
+    /**
+     * Inserts the drawer notifications of one or several events in a single transaction. Drawer notifications
+     * that already exist are ignored.
+     * @param inserts the drawer notifications to insert
+     * @return the number of inserted rows
+     */
+    @Transactional
+    public int create(List<DrawerNotificationsInsert> inserts) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            int insertedRows = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_QUERY)) {
+                int totalRows = inserts.stream().mapToInt(insert -> insert.userIds().length).sum();
+                int chunkSize = Math.min(totalRows, MAX_ROWS_PER_STATEMENT);
+                String[] userIds = new String[chunkSize];
+                String[] orgIds = new String[chunkSize];
+                UUID[] eventIds = new UUID[chunkSize];
+                Timestamp[] created = new Timestamp[chunkSize];
+                int rows = 0;
+                for (DrawerNotificationsInsert insert : inserts) {
+                    Timestamp eventCreated = Timestamp.valueOf(insert.created());
+                    for (String userId : insert.userIds()) {
+                        userIds[rows] = userId;
+                        orgIds[rows] = insert.orgId();
+                        eventIds[rows] = insert.eventId();
+                        created[rows] = eventCreated;
+                        rows++;
+                        totalRows--;
+                        if (rows == chunkSize) {
+                            statement.setArray(1, connection.createArrayOf("text", userIds));
+                            statement.setArray(2, connection.createArrayOf("text", orgIds));
+                            statement.setArray(3, connection.createArrayOf("uuid", eventIds));
+                            statement.setArray(4, connection.createArrayOf("timestamp", created));
+                            insertedRows += statement.executeUpdate();
+                            rows = 0;
+                            if (totalRows < chunkSize) {
+                                // The last chunk is smaller than the previous ones.
+                                chunkSize = totalRows;
+                                userIds = new String[chunkSize];
+                                orgIds = new String[chunkSize];
+                                eventIds = new UUID[chunkSize];
+                                created = new Timestamp[chunkSize];
+                            }
+                        }
+                    }
+                }
+            }
+            return insertedRows;
+        });
     }
 }
@@ -41,6 +41,17 @@ public class EmailAggregationRepository {
                 .getResultList();
     }
 
+    public long countEmailAggregation(EmailAggregationKey key, LocalDateTime start, LocalDateTime end) {
+        String query = "SELECT COUNT(*) FROM EmailAggregation WHERE orgId = :orgId AND bundleName = :bundleName AND applicationName = :applicationName AND created > :start AND created <= :end";
+        return entityManager.createQuery(query, Long.class)
+                .setParameter("orgId", key.getOrgId())
+                .setParameter("bundleName", key.getBundle())
+                .setParameter("applicationName", key.getApplication())
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getSingleResult();
+    }
+
     @Transactional
     public int purgeOldAggregation(EmailAggregationKey key, LocalDateTime lastUsedTime) {
         String query = "DELETE FROM EmailAggregation WHERE orgId = :orgId AND bundleName = :bundleName AND applicationName = :applicationName AND created <= :created";
@@ -0,0 +1,88 @@
+package com.redhat.cloud.notifications.db.repositories;
+
+import com.redhat.cloud.notifications.models.EmailAggregationKey;
+import com.redhat.cloud.notifications.processors.email.state.EmailAggregationState;
+import com.redhat.cloud.notifications.processors.email.state.EmailAggregationStateId;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.redhat.cloud.notifications.processors.email.state.EmailAggregationState.ALL_PARTITION;
+import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
+
+@ApplicationScoped
+public class EmailAggregationStateRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Locks the state of a partition, after creating it if it doesn't exist yet. The state is locked by a
+     * "SELECT FOR UPDATE" until the current transaction is complete, so the email aggregations inserted at the same
+     * time by other threads or pods are aggregated one after the other.
+     * @param aggregationKey the key of the aggregated application
+     * @param windowEnd the end of the window of the state
+     * @param partitionKey the partition of the state
+     * @param recipientsQuery the recipients query of the partition, only saved when the state is created
+     * @return the locked state, or {@code null} if it was deleted by a purge while this method was waiting for the lock
+     */
+    public EmailAggregationState lockOrCreate(EmailAggregationKey aggregationKey, LocalDateTime windowEnd, String partitionKey, JsonObject recipientsQuery) {
+        String sql = "INSERT INTO email_aggregation_state (org_id, bundle, application, window_end, partition_key, recipients_query, aggregations) " +
+                "VALUES (:orgId, :bundle, :application, :windowEnd, :partitionKey, :recipientsQuery, 0) " +
+                "ON CONFLICT DO NOTHING";
+        entityManager.createNativeQuery(sql)
+                .setParameter("orgId", aggregationKey.getOrgId())
+                .setParameter("bundle", aggregationKey.getBundle())
+                .setParameter("application", aggregationKey.getApplication())
+                .setParameter("windowEnd", windowEnd)
+                .setParameter("partitionKey", partitionKey)
+                .setParameter("recipientsQuery", recipientsQuery == null ? null : recipientsQuery.encode())
+                .executeUpdate();
+        return entityManager.find(EmailAggregationState.class, new EmailAggregationStateId(aggregationKey, windowEnd, partitionKey), PESSIMISTIC_WRITE);
+    }
+
+    public List<EmailAggregationState> getStates(EmailAggregationKey aggregationKey) {
+        String hql = "FROM EmailAggregationState WHERE id.orgId = :orgId AND id.bundleName = :bundleName AND id.applicationName = :applicationName";
+        return entityManager.createQuery(hql, EmailAggregationState.class)
+                .setParameter("orgId", aggregationKey.getOrgId())
+                .setParameter("bundleName", aggregationKey.getBundle())
+                .setParameter("applicationName", aggregationKey.getApplication())
+                .getResultList();
+    }
+
+    /**
+     * Deletes the states of the windows which ended before the end of a purge, and the partitions states of the
+     * later windows. The {@link EmailAggregationState#ALL_PARTITION} states of the later windows are kept because
+     * they are locked by the purge and by the concurrent folds.
+     * @param aggregationKey the key of the aggregated application
+     * @param end the end of the purge
+     * @return the number of deleted states
+     */
+    @Transactional
+    public int deleteStatesBeforeRebuild(EmailAggregationKey aggregationKey, LocalDateTime end) {
+        String hql = "DELETE FROM EmailAggregationState WHERE id.orgId = :orgId AND id.bundleName = :bundleName AND id.applicationName = :applicationName " +
+                "AND (id.windowEnd <= :end OR id.partitionKey <> :allPartition)";
+        return entityManager.createQuery(hql)
+                .setParameter("orgId", aggregationKey.getOrgId())
+                .setParameter("bundleName", aggregationKey.getBundle())
+                .setParameter("applicationName", aggregationKey.getApplication())
+                .setParameter("end", end)
+                .setParameter("allPartition", ALL_PARTITION)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public int deleteStates(EmailAggregationKey aggregationKey) {
+        String hql = "DELETE FROM EmailAggregationState WHERE id.orgId = :orgId AND id.bundleName = :bundleName AND id.applicationName = :applicationName";
+        return entityManager.createQuery(hql)
+                .setParameter("orgId", aggregationKey.getOrgId())
+                .setParameter("bundleName", aggregationKey.getBundle())
+                .setParameter("applicationName", aggregationKey.getApplication())
+                .executeUpdate();
+    }
+}
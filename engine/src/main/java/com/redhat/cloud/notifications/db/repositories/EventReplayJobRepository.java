@@ -0,0 +1,176 @@
+package com.redhat.cloud.notifications.db.repositories;
+
+import com.redhat.cloud.notifications.events.replay.EventReplayJob;
+import com.redhat.cloud.notifications.events.replay.EventReplayJobStatus;
+import com.redhat.cloud.notifications.models.Event;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.redhat.cloud.notifications.events.replay.EventReplayJobStatus.FAILED;
+import static com.redhat.cloud.notifications.events.replay.EventReplayJobStatus.INTERRUPTED;
+import static com.redhat.cloud.notifications.events.replay.EventReplayJobStatus.RUNNING;
+import static com.redhat.cloud.notifications.models.EndpointType.EMAIL_SUBSCRIPTION;
+import static com.redhat.cloud.notifications.models.NotificationStatus.FAILED_EXTERNAL;
+import static com.redhat.cloud.notifications.models.NotificationStatus.SUCCESS;
+import static java.time.ZoneOffset.UTC;
+
+@ApplicationScoped
+public class EventReplayJobRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Transactional
+    public EventReplayJob create(String orgId, LocalDateTime startDate, LocalDateTime endDate) {
+        EventReplayJob job = new EventReplayJob();
+        job.setOrgId(orgId);
+        job.setStartDate(startDate);
+        job.setEndDate(endDate);
+        job.setStatus(RUNNING);
+        job.setUpdated(LocalDateTime.now(UTC));
+        entityManager.persist(job);
+        return job;
+    }
+
+    public Optional<EventReplayJob> findById(UUID id) {
+        return Optional.ofNullable(entityManager.find(EventReplayJob.class, id));
+    }
+
+    public List<EventReplayJob> findLatest(int maxResults) {
+        return entityManager.createQuery("FROM EventReplayJob ORDER BY created DESC", EventReplayJob.class)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    /**
+     * Finds the replays that were interrupted by a pod shutdown or abandoned by a pod that was killed. These replays
+     * can be resumed by any pod.
+     * @param staleBefore a running replay which was not updated since that date is considered abandoned
+     * @return the IDs of the replays
+     */
+    public List<UUID> findResumable(LocalDateTime staleBefore) {
+        return entityManager.createQuery("SELECT id FROM EventReplayJob WHERE status = :interrupted " +
+                        "OR (status = :running AND updated < :staleBefore)", UUID.class)
+                .setParameter("interrupted", INTERRUPTED)
+                .setParameter("running", RUNNING)
+                .setParameter("staleBefore", staleBefore)
+                .getResultList();
+    }
+
+    /**
+     * Marks a replay as running if it is not already running in another pod. Several pods can try to resume the
+     * same replay, only one of them will claim it.
+     * @param id the ID of the replay
+     * @param staleBefore a running replay which was not updated since that date is considered abandoned
+     * @return {@code true} if the replay was claimed by the caller
+     */
+    @Transactional
+    public boolean claim(UUID id, LocalDateTime staleBefore) {
+        return entityManager.createQuery("UPDATE EventReplayJob SET status = :running, updated = :now WHERE id = :id " +
+                        "AND (status IN (:interrupted, :failed) OR (status = :running AND updated < :staleBefore))")
+                .setParameter("running", RUNNING)
+                .setParameter("now", LocalDateTime.now(UTC))
+                .setParameter("id", id)
+                .setParameter("interrupted", INTERRUPTED)
+                .setParameter("failed", FAILED)
+                .setParameter("staleBefore", staleBefore)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Saves the checkpoint of a replay and adds the events replayed since the previous checkpoint to its counts.
+     * @param job the replay, with its new checkpoint
+     * @param processedEvents the number of events replayed since the previous checkpoint
+     * @param failedEvents the number of events which failed to be replayed since the previous checkpoint
+     */
+    @Transactional
+    public void checkpoint(EventReplayJob job, long processedEvents, long failedEvents) {
+        entityManager.createQuery("UPDATE EventReplayJob SET checkpointCreated = :checkpointCreated, " +
+                        "checkpointEventId = :checkpointEventId, processedEvents = processedEvents + :processedEvents, " +
+                        "failedEvents = failedEvents + :failedEvents, updated = :now WHERE id = :id")
+                .setParameter("checkpointCreated", job.getCheckpointCreated())
+                .setParameter("checkpointEventId", job.getCheckpointEventId())
+                .setParameter("processedEvents", processedEvents)
+                .setParameter("failedEvents", failedEvents)
+                .setParameter("now", LocalDateTime.now(UTC))
+                .setParameter("id", job.getId())
+                .executeUpdate();
+    }
+
+    /**
+     * Refreshes the update date of replays running in the current pod, so that they are not considered abandoned while
+     * a page is still being replayed.
+     * @param ids the IDs of the replays
+     */
+    @Transactional
+    public void heartbeat(Collection<UUID> ids) {
+        entityManager.createQuery("UPDATE EventReplayJob SET updated = :now WHERE id IN (:ids) AND status = :running")
+                .setParameter("now", LocalDateTime.now(UTC))
+                .setParameter("ids", ids)
+                .setParameter("running", RUNNING)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public void updateStatus(UUID id, EventReplayJobStatus status) {
+        entityManager.createQuery("UPDATE EventReplayJob SET status = :status, updated = :now WHERE id = :id")
+                .setParameter("status", status)
+                .setParameter("now", LocalDateTime.now(UTC))
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns the next events that have to be replayed: the events which failed to be sent by email and which were
+     * not sent successfully since then. The events are sorted by (created, id) and read after the checkpoint of the
+     * replay, so the events replayed successfully, which leave the candidates, don't shift the next pages.
+     * @param job the replay
+     * @param maxResults the page size
+     * @return the events, with their event type, application and bundle
+     */
+    // The replays read the events from their own threads, where the request context is not active.
+    @Transactional
+    public List<Event> getEventsAfterCheckpoint(EventReplayJob job, int maxResults) {
+        String hql = "FROM Event e JOIN FETCH e.eventType et JOIN FETCH et.application a JOIN FETCH a.bundle " +
+                "WHERE e.created > :start AND e.created <= :end " +
+                "AND EXISTS (SELECT 1 FROM NotificationHistory " +
+                "WHERE e = event AND compositeEndpointType.type = :endpointType AND status = :failed) " +
+                "AND NOT EXISTS (SELECT 1 FROM NotificationHistory " +
+                "WHERE e = event AND compositeEndpointType.type = :endpointType AND status = :success)";
+
+        if (job.getCheckpointEventId() != null) {
+            hql += " AND (e.created > :checkpointCreated OR (e.created = :checkpointCreated AND e.id > :checkpointEventId))";
+        }
+        if (job.getOrgId() != null) {
+            hql += " AND e.orgId = :orgId";
+        }
+        hql += " ORDER BY e.created, e.id";
+
+        TypedQuery<Event> typedQuery = entityManager.createQuery(hql, Event.class)
+                .setParameter("start", job.getStartDate())
+                .setParameter("end", job.getEndDate())
+                .setParameter("endpointType", EMAIL_SUBSCRIPTION)
+                .setParameter("failed", FAILED_EXTERNAL)
+                .setParameter("success", SUCCESS)
+                .setMaxResults(maxResults);
+
+        if (job.getCheckpointEventId() != null) {
+            typedQuery.setParameter("checkpointCreated", job.getCheckpointCreated());
+            typedQuery.setParameter("checkpointEventId", job.getCheckpointEventId());
+        }
+        if (job.getOrgId() != null) {
+            typedQuery.setParameter("orgId", job.getOrgId());
+        }
+
+        return typedQuery.getResultList();
+    }
+}
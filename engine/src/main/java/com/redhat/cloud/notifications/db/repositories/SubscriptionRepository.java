@@ -1,39 +1,72 @@
 package com.redhat.cloud.notifications.db.repositories;
 
 import com.redhat.cloud.notifications.models.SubscriptionType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.CacheResult;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 @ApplicationScoped
 public class SubscriptionRepository {
 
+    public static final String SUBSCRIPTION_SNAPSHOT_SIZE_NAME = "subscription.snapshot.size";
+
     @Inject
     EntityManager entityManager;
 
-    public List<String> getSubscribers(String orgId, UUID eventTypeId, SubscriptionType subscriptionType) {
+    @Inject
+    MeterRegistry registry;
+
+    private DistributionSummary subscriptionSnapshotSize;
+
+    @PostConstruct
+    void postConstruct() {
+        subscriptionSnapshotSize = registry.summary(SUBSCRIPTION_SNAPSHOT_SIZE_NAME);
+    }
+
+    /*
+     * The subscribers and unsubscribers are cached because bursts of events from the same org and event type would
+     * otherwise run the same query over and over. Subscription changes are made by the backend which cannot invalidate
+     * this cache, so the entries are only kept for a short duration (see application.properties).
+     */
+    @CacheResult(cacheName = "subscribers")
+    public Set<String> getSubscribers(String orgId, UUID eventTypeId, SubscriptionType subscriptionType) {
         return getSubscriptions(orgId, eventTypeId, subscriptionType, true);
     }
 
-    public List<String> getUnsubscribers(String orgId, UUID eventTypeId, SubscriptionType subscriptionType) {
+    @CacheResult(cacheName = "unsubscribers")
+    public Set<String> getUnsubscribers(String orgId, UUID eventTypeId, SubscriptionType subscriptionType) {
         return getSubscriptions(orgId, eventTypeId, subscriptionType, false);
     }
 
-    private List<String> getSubscriptions(String orgId, UUID eventTypeId, SubscriptionType subscriptionType, boolean subscribed) {
+    private Set<String> getSubscriptions(String orgId, UUID eventTypeId, SubscriptionType subscriptionType, boolean subscribed) {
         String hql = "SELECT id.userId FROM EventTypeEmailSubscription WHERE id.orgId = :orgId AND id.subscriptionType = :subscriptionType " +
                 "AND eventType.id = :eventTypeId AND subscribed = :subscribed";
-        return entityManager.createQuery(hql, String.class)
+        List<String> userIds = entityManager.createQuery(hql, String.class)
                 .setParameter("orgId", orgId)
                 .setParameter("subscriptionType", subscriptionType)
                 .setParameter("eventTypeId", eventTypeId)
                 .setParameter("subscribed", subscribed)
                 .getResultList();
+        subscriptionSnapshotSize.record(userIds.size());
+        // The result is cached and shared by all callers, it has to be immutable.
+        return Set.copyOf(userIds);
     }
 
     public Map<String, Set<String>> getSubscribersByEventType(String orgId, UUID appId, SubscriptionType subscriptionType) {
@@ -44,6 +77,59 @@ public class SubscriptionRepository {
         return getSubscriptionsByEventType(orgId, appId, subscriptionType, false);
     }
 
+    /**
+     * Returns the version of the subscriptions of each event type of an application, without loading them. The
+     * version is a hash of the subscriptions computed by the database, so two versions are equal only if the
+     * subscriptions are equal, even after deletions. It matches {@link #computeSubscriptionsVersion(Set, Set)} for the
+     * same subscriptions. The event types without any subscriptions are not part of the result.
+     * @param orgId the org ID
+     * @param appId the application ID
+     * @param subscriptionType the subscription type
+     * @return the subscriptions versions, by event type name
+     */
+    public Map<String, String> getSubscriptionsVersionByEventType(String orgId, UUID appId, SubscriptionType subscriptionType) {
+        String sql = "SELECT et.name, MD5(STRING_AGG(es.user_id || ':' || CAST(es.subscribed AS TEXT), ',' ORDER BY es.user_id COLLATE \"C\")) " +
+                "FROM email_subscriptions es " +
+                "JOIN event_type et ON et.id = es.event_type_id " +
+                "WHERE es.org_id = :orgId AND et.application_id = :appId AND es.subscription_type = :subscriptionType " +
+                "GROUP BY et.name";
+
+        List<Object[]> records = entityManager.createNativeQuery(sql, Object[].class)
+            .setParameter("orgId", orgId)
+            .setParameter("appId", appId)
+            .setParameter("subscriptionType", subscriptionType.name())
+            .getResultList();
+
+        Map<String, String> versions = new HashMap<>();
+        for (Object[] record : records) {
+            versions.put((String) record[0], (String) record[1]);
+        }
+        return versions;
+    }
+
+    /**
+     * Computes the version of subscriptions loaded from the database, the same way
+     * {@link #getSubscriptionsVersionByEventType(String, UUID, SubscriptionType)} does.
+     * @param subscribers the subscribers of an event type
+     * @param unsubscribers the unsubscribers of the same event type
+     * @return the subscriptions version
+     */
+    public static String computeSubscriptionsVersion(Set<String> subscribers, Set<String> unsubscribers) {
+        // The database sorts the user IDs with the "C" collation, which is the natural order of the Java strings.
+        Map<String, Boolean> subscriptions = new TreeMap<>();
+        subscribers.forEach(userId -> subscriptions.put(userId, true));
+        unsubscribers.forEach(userId -> subscriptions.put(userId, false));
+        String canonical = subscriptions.entrySet().stream()
+            .map(subscription -> subscription.getKey() + ":" + subscription.getValue())
+            .collect(Collectors.joining(","));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(canonical.getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is supported by all Java platforms.
+            throw new IllegalStateException(e);
+        }
+    }
+
     public Map<String, Set<String>> getSubscriptionsByEventType(String orgId, UUID appId, SubscriptionType subscriptionType, boolean subscribed) {
         String query = "SELECT eventType.name, es.id.userId FROM EventTypeEmailSubscription es WHERE id.orgId = :orgId " +
                 "AND eventType.application.id = :appId AND id.subscriptionType = :subscriptionType AND subscribed = :subscribed";
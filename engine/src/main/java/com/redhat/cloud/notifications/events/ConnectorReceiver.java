@@ -5,7 +5,9 @@ import com.redhat.cloud.notifications.db.repositories.NotificationHistoryReposit
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.processors.drawer.DrawerProcessor;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.vertx.core.json.Json;
@@ -19,6 +21,8 @@ import org.eclipse.microprofile.reactive.messaging.Incoming;
 import java.util.Map;
 import java.util.UUID;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * We sent data via Camel. Now Camel informs us about the outcome,
  * which we need to put into the notifications history.
@@ -29,7 +33,10 @@ public class ConnectorReceiver {
     public static final String FROMCAMEL_CHANNEL = "fromcamel";
     public static final String MESSAGES_ERROR_COUNTER_NAME = "camel.messages.error";
     public static final String MESSAGES_PROCESSED_COUNTER_NAME = "camel.messages.processed";
+    public static final String MESSAGES_SIZE_SUMMARY_NAME = "camel.messages.size";
+    public static final String STAGE_DURATION_TIMER_NAME = "notifications.connector.stage.duration";
     public static final String EGRESS_CHANNEL = "egress";
+    public static final String CONNECTOR_RECEIVER_WORKER = "connector-receiver";
 
     @Inject
     NotificationHistoryRepository notificationHistoryRepository;
@@ -60,12 +67,14 @@ public class ConnectorReceiver {
 
     @Acknowledgment(Acknowledgment.Strategy.POST_PROCESSING)
     @Incoming(FROMCAMEL_CHANNEL)
-    @Blocking
+    @Blocking(value = CONNECTOR_RECEIVER_WORKER, ordered = false)
     @ActivateRequestContext
     public void processAsync(String payload) {
         try {
             Log.infof("Processing return from camel: %s", payload);
             Map<String, Object> decodedPayload = decodeItem(payload);
+            recordMessageSize(decodedPayload, payload);
+            recordStageDurations(decodedPayload, System.currentTimeMillis());
 
             String historyId = (String) decodedPayload.get("historyId");
             final Endpoint endpoint = notificationHistoryRepository.getEndpointForHistoryId(historyId);
@@ -86,6 +95,72 @@ public class ConnectorReceiver {
         }
     }
 
+    private void recordMessageSize(Map<String, Object> decodedPayload, String payload) {
+        String type = null;
+        if (decodedPayload.get("details") instanceof Map<?, ?> details && details.get("type") instanceof String detailsType) {
+            type = detailsType;
+        }
+        DistributionSummary.builder(MESSAGES_SIZE_SUMMARY_NAME)
+            .baseUnit("bytes")
+            .tag("type", type == null ? "unknown" : type)
+            .register(meterRegistry)
+            .record(payload.length());
+    }
+
+    /*
+     * Records the duration of each stage of the notification from the timestamps returned by the connector:
+     * - engine: from the consumption of the event to the notification sent to the connector
+     * - kafka_to_connector: from the notification sent by the engine to its reception by the connector
+     * - connector_queue: the time spent in the SEDA queue of the connector
+     * - remote_call: the time spent waiting for the remote services
+     * - connector_processing: the rest of the time spent in the connector
+     * - kafka_to_engine: from the return sent by the connector to its reception by the engine
+     * The Kafka stages compare the clocks of two pods, so they are skipped when the clocks skew makes them negative.
+     */
+    private void recordStageDurations(Map<String, Object> decodedPayload, long now) {
+        if (!(decodedPayload.get("stage_timestamps") instanceof Map<?, ?> timestamps)) {
+            // The connector doesn't return the stage timestamps yet.
+            return;
+        }
+        String connector = decodedPayload.get("connector") instanceof String source ? source : "unknown";
+        Long consumed = getTimestamp(timestamps, "consumed");
+        Long sent = getTimestamp(timestamps, "sent");
+        Long received = getTimestamp(timestamps, "received");
+        Long processingStarted = getTimestamp(timestamps, "processing_started");
+        Long completed = getTimestamp(timestamps, "completed");
+        long remoteCall = decodedPayload.get("remote_call_duration") instanceof Number duration ? duration.longValue() : 0L;
+
+        recordStageDuration(connector, "engine", consumed, sent);
+        recordStageDuration(connector, "kafka_to_connector", sent, received);
+        recordStageDuration(connector, "connector_queue", received, processingStarted);
+        if (processingStarted != null && completed != null) {
+            recordStageDuration(connector, "remote_call", remoteCall);
+            recordStageDuration(connector, "connector_processing", completed - processingStarted - remoteCall);
+        }
+        recordStageDuration(connector, "kafka_to_engine", completed, now);
+    }
+
+    private static Long getTimestamp(Map<?, ?> timestamps, String stage) {
+        return timestamps.get(stage) instanceof Number timestamp ? timestamp.longValue() : null;
+    }
+
+    private void recordStageDuration(String connector, String stage, Long start, Long end) {
+        if (start != null && end != null) {
+            recordStageDuration(connector, stage, end - start);
+        }
+    }
+
+    private void recordStageDuration(String connector, String stage, long duration) {
+        if (duration >= 0) {
+            Timer.builder(STAGE_DURATION_TIMER_NAME)
+                .tag("connector", connector)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration, MILLISECONDS);
+        }
+    }
+
     private Map<String, Object> decodeItem(String s) {
 
         // 1st step CloudEvent as String -> map
@@ -97,6 +172,8 @@ public class ConnectorReceiver {
         // 2nd step data item (as String) to final map
         Map<String, Object> map = Json.decodeValue((String) ceMap.get("data"), Map.class);
         map.put("historyId", id);
+        // The source of the CloudEvent is the name of the connector.
+        map.put("connector", ceMap.get("source"));
         return map;
     }
 
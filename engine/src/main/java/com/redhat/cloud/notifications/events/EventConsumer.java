@@ -153,6 +153,8 @@ public class EventConsumer {
     public void process(Message<String> message) {
         // This timer will have dynamic tag values based on the action parsed from the received message.
         Timer.Sample consumedTimer = Timer.start(registry);
+        // Propagated to the connectors, which return it to the engine with their own stage timestamps.
+        long consumedTime = System.currentTimeMillis();
         String payload = message.getPayload();
         Map<String, String> tags = new HashMap<>();
         // The two following variables have to be final or effectively final. That why their type is String[] instead of String.
@@ -243,6 +245,7 @@ public class EventConsumer {
                  */
                 Optional<String> sourceEnvironmentHeader = kafkaHeaders.get(SOURCE_ENVIRONMENT_HEADER);
                 Event event = new Event(eventType, payload, eventWrapperToProcess, sourceEnvironmentHeader);
+                event.setConsumedTime(consumedTime);
                 if (event.getId() == null) {
                     // NOTIF-499 If there is no ID provided whatsoever we create one.
                     event.setId(Objects.requireNonNullElseGet(messageId, UUID::randomUUID));
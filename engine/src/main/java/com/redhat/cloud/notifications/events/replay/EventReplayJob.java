@@ -0,0 +1,115 @@
+package com.redhat.cloud.notifications.events.replay;
+
+import com.redhat.cloud.notifications.models.CreationUpdateTimestamped;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The progress of an events replay. The events are replayed in (created, id) order and the key of the last replayed
+ * event is saved as a checkpoint after each page, which is where an interrupted replay is resumed from.
+ */
+@Entity
+@Table(name = "event_replay_job")
+public class EventReplayJob extends CreationUpdateTimestamped {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private String orgId;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    @Enumerated(EnumType.STRING)
+    private EventReplayJobStatus status;
+
+    private LocalDateTime checkpointCreated;
+
+    private UUID checkpointEventId;
+
+    private long processedEvents;
+
+    private long failedEvents;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getOrgId() {
+        return orgId;
+    }
+
+    public void setOrgId(String orgId) {
+        this.orgId = orgId;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public EventReplayJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EventReplayJobStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCheckpointCreated() {
+        return checkpointCreated;
+    }
+
+    public void setCheckpointCreated(LocalDateTime checkpointCreated) {
+        this.checkpointCreated = checkpointCreated;
+    }
+
+    public UUID getCheckpointEventId() {
+        return checkpointEventId;
+    }
+
+    public void setCheckpointEventId(UUID checkpointEventId) {
+        this.checkpointEventId = checkpointEventId;
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public void setProcessedEvents(long processedEvents) {
+        this.processedEvents = processedEvents;
+    }
+
+    public long getFailedEvents() {
+        return failedEvents;
+    }
+
+    public void setFailedEvents(long failedEvents) {
+        this.failedEvents = failedEvents;
+    }
+}
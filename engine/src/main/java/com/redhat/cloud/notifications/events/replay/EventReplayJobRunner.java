@@ -0,0 +1,296 @@
+package com.redhat.cloud.notifications.events.replay;
+
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.EventReplayJobRepository;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.routers.replay.EventsReplayStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.redhat.cloud.notifications.events.replay.EventReplayJobStatus.COMPLETED;
+import static com.redhat.cloud.notifications.events.replay.EventReplayJobStatus.FAILED;
+import static com.redhat.cloud.notifications.events.replay.EventReplayJobStatus.INTERRUPTED;
+import static java.time.ZoneOffset.UTC;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs the events replays in the background. Each replay reads the events page by page in (created, id) order, the
+ * events of a page are replayed in parallel by a pool shared by all replays, then the key of the last event of the
+ * page is saved as a checkpoint. A replay interrupted by a pod shutdown is resumed from its checkpoint by the next
+ * pod that starts. The running replays are also refreshed periodically, independently of their pages, so that a page
+ * slowed down by the rate limit is never mistaken for an abandoned replay and resumed by another pod.
+ * <p>
+ * The checkpoint moves past the events which failed to be replayed. These events are not retried by the same replay,
+ * but they still have no successful email history, so a new replay of the same time frame retries them. The number
+ * of failed events of a replay tells when that is needed.
+ */
+@ApplicationScoped
+public class EventReplayJobRunner {
+
+    static final String REPLAYED_EVENTS_COUNTER_NAME = "notifications.replay.events";
+    static final String PAGE_TIMER_NAME = "notifications.replay.page.duration";
+    static final String RUNNING_JOBS_GAUGE_NAME = "notifications.replay.jobs.running";
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_LISTED_JOBS = 20;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    @Inject
+    EventReplayJobRepository eventReplayJobRepository;
+
+    @Inject
+    EventReplayer eventReplayer;
+
+    @Inject
+    EngineConfig engineConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<UUID, Progress> runningJobs = new ConcurrentHashMap<>();
+    private ExecutorService jobExecutor;
+    private ExecutorService replayExecutor;
+    private volatile boolean stopping;
+    private long nextPermitNanos;
+    private Counter processedCounter;
+    private Counter failedCounter;
+    private Timer pageTimer;
+
+    @PostConstruct
+    void postConstruct() {
+        jobExecutor = Executors.newCachedThreadPool(threadFactory("event-replay-job"));
+        replayExecutor = Executors.newFixedThreadPool(Math.max(1, engineConfig.getReplayParallelism()), threadFactory("event-replay"));
+        processedCounter = meterRegistry.counter(REPLAYED_EVENTS_COUNTER_NAME, "result", "processed");
+        failedCounter = meterRegistry.counter(REPLAYED_EVENTS_COUNTER_NAME, "result", "failed");
+        pageTimer = meterRegistry.timer(PAGE_TIMER_NAME);
+        meterRegistry.gaugeMapSize(RUNNING_JOBS_GAUGE_NAME, Tags.empty(), runningJobs);
+    }
+
+    @PreDestroy
+    void preDestroy() {
+        // The running replays stop after their current page and are marked as interrupted.
+        stopping = true;
+        jobExecutor.shutdown();
+        try {
+            if (!jobExecutor.awaitTermination(SHUTDOWN_TIMEOUT.toSeconds(), SECONDS)) {
+                Log.warnf("Replays still running after %s, they will be resumed once they are considered stale", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        replayExecutor.shutdownNow();
+    }
+
+    @ActivateRequestContext
+    void resumeOnStartup(@Observes StartupEvent event) {
+        for (UUID id : eventReplayJobRepository.findResumable(getStaleBefore())) {
+            resume(id).ifPresent(job -> Log.infof("Resumed the events replay %s from its checkpoint", id));
+        }
+    }
+
+    public EventsReplayStatus start(String orgId, LocalDateTime startDate, LocalDateTime endDate) {
+        EventReplayJob job = eventReplayJobRepository.create(orgId, startDate, endDate);
+        Log.infof("Starting the events replay %s of the events from %s to %s", job.getId(), startDate, endDate);
+        submit(job);
+        return toStatus(job);
+    }
+
+    /**
+     * Resumes an interrupted, failed or abandoned replay from its checkpoint.
+     * @param id the ID of the replay
+     * @return the replay, or an empty optional if it doesn't exist or can't be resumed
+     */
+    public Optional<EventsReplayStatus> resume(UUID id) {
+        if (!eventReplayJobRepository.claim(id, getStaleBefore())) {
+            return Optional.empty();
+        }
+        return eventReplayJobRepository.findById(id).map(job -> {
+            submit(job);
+            return toStatus(job);
+        });
+    }
+
+    public Optional<EventsReplayStatus> getStatus(UUID id) {
+        return eventReplayJobRepository.findById(id).map(this::toStatus);
+    }
+
+    public List<EventsReplayStatus> getLatestStatuses() {
+        return eventReplayJobRepository.findLatest(MAX_LISTED_JOBS).stream().map(this::toStatus).toList();
+    }
+
+    private void submit(EventReplayJob job) {
+        // The progress is registered before the job is queued so that the status of the job reports its throughput.
+        runningJobs.put(job.getId(), new Progress());
+        jobExecutor.execute(() -> run(job));
+    }
+
+    private void run(EventReplayJob job) {
+        Progress progress = runningJobs.get(job.getId());
+        try {
+            List<Event> events;
+            do {
+                if (stopping) {
+                    eventReplayJobRepository.updateStatus(job.getId(), INTERRUPTED);
+                    Log.infof("Interrupted the events replay %s", job.getId());
+                    return;
+                }
+                Timer.Sample pageSample = Timer.start(meterRegistry);
+                events = eventReplayJobRepository.getEventsAfterCheckpoint(job, PAGE_SIZE);
+                if (!events.isEmpty()) {
+                    replayPage(job, events, progress);
+                }
+                pageSample.stop(pageTimer);
+            } while (events.size() == PAGE_SIZE);
+            eventReplayJobRepository.updateStatus(job.getId(), COMPLETED);
+            Log.infof("Completed the events replay %s [processed=%d, failed=%d]", job.getId(), progress.processed, progress.failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            eventReplayJobRepository.updateStatus(job.getId(), INTERRUPTED);
+        } catch (Exception e) {
+            Log.errorf(e, "Events replay %s failed, it can be resumed from its last checkpoint", job.getId());
+            eventReplayJobRepository.updateStatus(job.getId(), FAILED);
+        } finally {
+            runningJobs.remove(job.getId());
+        }
+    }
+
+    private void replayPage(EventReplayJob job, List<Event> events, Progress progress) throws InterruptedException, ExecutionException {
+        List<Future<Boolean>> results = new ArrayList<>(events.size());
+        for (Event event : events) {
+            acquirePermit();
+            results.add(replayExecutor.submit(() -> replay(event)));
+        }
+        long processed = 0;
+        long failed = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                processed++;
+            } else {
+                failed++;
+            }
+        }
+        // The checkpoint is only moved once every event of the page was replayed.
+        Event lastEvent = events.get(events.size() - 1);
+        job.setCheckpointCreated(lastEvent.getCreated());
+        job.setCheckpointEventId(lastEvent.getId());
+        eventReplayJobRepository.checkpoint(job, processed, failed);
+        progress.processed += processed;
+        progress.failed += failed;
+    }
+
+    private boolean replay(Event event) {
+        try {
+            eventReplayer.replay(event);
+            processedCounter.increment();
+            return true;
+        } catch (Exception e) {
+            Log.errorf(e, "Event replay failed [eventId=%s]", event.getId());
+            failedCounter.increment();
+            return false;
+        }
+    }
+
+    /*
+     * Paces the replayed events so that all replays of this pod stay under the configured rate. The permits are
+     * acquired by the threads of the replays before the events are submitted to the shared pool.
+     */
+    private void acquirePermit() throws InterruptedException {
+        int maxEventsPerSecond = engineConfig.getReplayMaxEventsPerSecond();
+        if (maxEventsPerSecond <= 0) {
+            return;
+        }
+        long interval = SECONDS.toNanos(1) / maxEventsPerSecond;
+        long delay;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permit = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permit + interval;
+            delay = permit - now;
+        }
+        if (delay > 0) {
+            NANOSECONDS.sleep(delay);
+        }
+    }
+
+    @Scheduled(every = "${notifications.replay.heartbeat-period:1m}", delayed = "${notifications.replay.heartbeat-period:1m}")
+    void heartbeat() {
+        if (!runningJobs.isEmpty()) {
+            eventReplayJobRepository.heartbeat(runningJobs.keySet());
+        }
+    }
+
+    private LocalDateTime getStaleBefore() {
+        return LocalDateTime.now(UTC).minus(engineConfig.getReplayStaleAfter());
+    }
+
+    private EventsReplayStatus toStatus(EventReplayJob job) {
+        EventsReplayStatus status = new EventsReplayStatus();
+        status.id = job.getId();
+        status.orgId = job.getOrgId();
+        status.startDate = job.getStartDate();
+        status.endDate = job.getEndDate();
+        status.status = job.getStatus().name();
+        status.checkpointCreated = job.getCheckpointCreated();
+        status.checkpointEventId = job.getCheckpointEventId();
+        status.processedEvents = job.getProcessedEvents();
+        status.failedEvents = job.getFailedEvents();
+        status.created = job.getCreated();
+        status.updated = job.getUpdated();
+        Progress progress = runningJobs.get(job.getId());
+        if (progress != null) {
+            status.eventsPerSecond = progress.getEventsPerSecond();
+        }
+        return status;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /*
+     * The progress of a replay since it was started or resumed by this pod. The counts are only updated by the
+     * thread of the replay.
+     */
+    private static class Progress {
+
+        final long startNanos = System.nanoTime();
+        volatile long processed;
+        volatile long failed;
+
+        double getEventsPerSecond() {
+            double seconds = (System.nanoTime() - startNanos) / (double) SECONDS.toNanos(1);
+            return seconds <= 0 ? 0 : (processed + failed) / seconds;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.redhat.cloud.notifications.events.replay;
+
+public enum EventReplayJobStatus {
+    RUNNING,
+    // The pod that ran the replay was stopped, the replay will be resumed from its checkpoint by the next pod.
+    INTERRUPTED,
+    // The replay stopped because of an unexpected error, it can be resumed from its checkpoint through the API.
+    FAILED,
+    COMPLETED
+}
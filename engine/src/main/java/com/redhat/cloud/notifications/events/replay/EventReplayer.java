@@ -0,0 +1,103 @@
+package com.redhat.cloud.notifications.events.replay;
+
+import com.redhat.cloud.event.parser.ConsoleCloudEventParser;
+import com.redhat.cloud.event.parser.exceptions.ConsoleCloudEventParsingException;
+import com.redhat.cloud.notifications.cloudevent.transformers.CloudEventTransformer;
+import com.redhat.cloud.notifications.cloudevent.transformers.CloudEventTransformerFactory;
+import com.redhat.cloud.notifications.events.EndpointProcessor;
+import com.redhat.cloud.notifications.events.EventWrapper;
+import com.redhat.cloud.notifications.events.EventWrapperAction;
+import com.redhat.cloud.notifications.events.EventWrapperCloudEvent;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.models.NotificationsConsoleCloudEvent;
+import com.redhat.cloud.notifications.utils.ActionParser;
+import com.redhat.cloud.notifications.utils.ActionParsingException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+
+/**
+ * Replays a single event. This bean is called concurrently by the threads of the replays.
+ */
+@ApplicationScoped
+public class EventReplayer {
+
+    // Every Console Cloud Event has this attribute, the actions don't.
+    private static final String CLOUD_EVENT_SPEC_VERSION = "\"specversion\"";
+
+    @Inject
+    EndpointProcessor endpointProcessor;
+
+    @Inject
+    ActionParser actionParser;
+
+    @Inject
+    CloudEventTransformerFactory cloudEventTransformerFactory;
+
+    ConsoleCloudEventParser cloudEventParser = new ConsoleCloudEventParser();
+
+    @ActivateRequestContext
+    public void replay(Event event) {
+        EventWrapper<?, ?> eventWrapper = parsePayload(event.getPayload());
+
+        if (eventWrapper instanceof EventWrapperCloudEvent eventWrapperCloudEvent) {
+            // We loaded a cloud event and identified the event-type it belongs to
+            // At this point, lets check if we have a transformation available for this event
+            // If we do, transform the event - Later this will be done on a by-integration basis
+            Optional<CloudEventTransformer> transformer = cloudEventTransformerFactory.getTransformerIfSupported(eventWrapperCloudEvent);
+            if (transformer.isPresent()) {
+                eventWrapper = new EventWrapperAction(
+                        transformer.get().toAction(
+                                eventWrapperCloudEvent,
+                                event.getEventType().getApplication().getBundle().getName(),
+                                event.getEventType().getApplication().getName(),
+                                event.getEventType().getName()
+                        ));
+            }
+        }
+
+        event.setEventWrapper(eventWrapper);
+
+        endpointProcessor.process(event, true);
+    }
+
+    /*
+     * The payload is first parsed with the parser it most likely belongs to, so that the failure of the other parser,
+     * which is expensive because it builds a message containing the whole payload, only happens for unusual payloads.
+     */
+    EventWrapper<?, ?> parsePayload(String payload) {
+        if (payload.contains(CLOUD_EVENT_SPEC_VERSION)) {
+            try {
+                return parseCloudEvent(payload);
+            } catch (ConsoleCloudEventParsingException cloudEventParseException) {
+                try {
+                    return parseAction(payload);
+                } catch (ActionParsingException actionParseException) {
+                    cloudEventParseException.addSuppressed(actionParseException);
+                    throw cloudEventParseException;
+                }
+            }
+        } else {
+            try {
+                return parseAction(payload);
+            } catch (ActionParsingException actionParseException) {
+                try {
+                    return parseCloudEvent(payload);
+                } catch (ConsoleCloudEventParsingException cloudEventParseException) {
+                    actionParseException.addSuppressed(cloudEventParseException);
+                    throw actionParseException;
+                }
+            }
+        }
+    }
+
+    private EventWrapperAction parseAction(String payload) {
+        return new EventWrapperAction(actionParser.fromJsonString(payload));
+    }
+
+    private EventWrapperCloudEvent parseCloudEvent(String payload) {
+        return new EventWrapperCloudEvent(cloudEventParser.fromJsonString(payload, NotificationsConsoleCloudEvent.class));
+    }
+}
@@ -48,6 +48,12 @@ public class ConnectorSender {
     // TODO notification should end with a s but eventing-integrations does not expect it...
     public static final String CLOUD_EVENT_TYPE_PREFIX = "com.redhat.console.notification.toCamel.";
     public static final String X_RH_NOTIFICATIONS_CONNECTOR_HEADER = "x-rh-notifications-connector";
+    /*
+     * The stage timestamps (epoch millis) of the notification in the engine. The connectors return them with their
+     * own stage timestamps so that ConnectorReceiver can measure the duration of each stage.
+     */
+    public static final String X_RH_NOTIFICATIONS_CONSUMED_TIME_HEADER = "x-rh-notifications-consumed-time";
+    public static final String X_RH_NOTIFICATIONS_SENT_TIME_HEADER = "x-rh-notifications-sent-time";
 
     private static final String NOTIFICATIONS_PAYLOAD_STORED_DATABASE_METRIC_NAME = "notifications.payload.stored.database";
     private static final String TAG_KEY_CONNECTOR = "connector";
@@ -109,7 +115,7 @@ public class ConnectorSender {
         }
 
         try {
-            Message<JsonObject> message = buildMessage(payload, history.getId(), connector);
+            Message<JsonObject> message = buildMessage(payload, history.getId(), connector, event.getConsumedTime());
 
             if (this.engineConfig.isOutgoingKafkaHighVolumeTopicEnabled() && this.isEventFromHighVolumeApplication(event)) {
                 this.highVolumeEmitter.send(message);
@@ -127,9 +133,9 @@ public class ConnectorSender {
         }
     }
 
-    private static Message<JsonObject> buildMessage(JsonObject payload, UUID historyId, String connector) {
+    private static Message<JsonObject> buildMessage(JsonObject payload, UUID historyId, String connector, Long consumedTime) {
 
-        OutgoingKafkaRecordMetadata<String> kafkaMetadata = buildOutgoingKafkaRecordMetadata(connector);
+        OutgoingKafkaRecordMetadata<String> kafkaMetadata = buildOutgoingKafkaRecordMetadata(connector, consumedTime);
 
         String cloudEventId = historyId.toString();
         String cloudEventType = CLOUD_EVENT_TYPE_PREFIX + connector;
@@ -143,9 +149,13 @@ public class ConnectorSender {
                 .addMetadata(tracingMetadata);
     }
 
-    private static OutgoingKafkaRecordMetadata<String> buildOutgoingKafkaRecordMetadata(String connector) {
+    private static OutgoingKafkaRecordMetadata<String> buildOutgoingKafkaRecordMetadata(String connector, Long consumedTime) {
         Headers headers = new RecordHeaders()
-                .add(X_RH_NOTIFICATIONS_CONNECTOR_HEADER, connector.getBytes(UTF_8));
+                .add(X_RH_NOTIFICATIONS_CONNECTOR_HEADER, connector.getBytes(UTF_8))
+                .add(X_RH_NOTIFICATIONS_SENT_TIME_HEADER, String.valueOf(System.currentTimeMillis()).getBytes(UTF_8));
+        if (consumedTime != null) {
+            headers.add(X_RH_NOTIFICATIONS_CONSUMED_TIME_HEADER, String.valueOf(consumedTime).getBytes(UTF_8));
+        }
         return OutgoingKafkaRecordMetadata.<String>builder()
                 .withHeaders(headers)
                 .build();
@@ -0,0 +1,172 @@
+package com.redhat.cloud.notifications.processors.drawer;
+
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository.DrawerNotificationsInsert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Groups the drawer notifications inserts of the events returned by the drawer connector within a short window, so
+ * that bursts of events are persisted with a few large statements in a single transaction instead of one statement
+ * and one transaction per event. The caller is blocked until its drawer notifications are persisted, which means
+ * that the Kafka message that carried them is only acknowledged after that. Several events can only share a batch
+ * if they are processed concurrently by the connector receiver.
+ */
+@ApplicationScoped
+public class DrawerNotificationBatcher {
+
+    static final String BATCH_ROWS_SUMMARY_NAME = "drawer.insert.batch.rows";
+    static final String BATCH_EVENTS_SUMMARY_NAME = "drawer.insert.batch.events";
+    static final String INSERTED_ROWS_COUNTER_NAME = "drawer.insert.rows";
+    static final String INSERT_TIMER_NAME = "drawer.insert.duration";
+
+    @Inject
+    DrawerNotificationRepository drawerNotificationRepository;
+
+    @Inject
+    EngineConfig engineConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    private ScheduledExecutorService flushScheduler;
+    private Batch pendingBatch;
+    private DistributionSummary batchRowsSummary;
+    private DistributionSummary batchEventsSummary;
+    private Counter insertedRowsCounter;
+    private Timer insertTimer;
+
+    @PostConstruct
+    void postConstruct() {
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "drawer-insert-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchRowsSummary = meterRegistry.summary(BATCH_ROWS_SUMMARY_NAME);
+        batchEventsSummary = meterRegistry.summary(BATCH_EVENTS_SUMMARY_NAME);
+        insertedRowsCounter = meterRegistry.counter(INSERTED_ROWS_COUNTER_NAME);
+        insertTimer = meterRegistry.timer(INSERT_TIMER_NAME);
+    }
+
+    @PreDestroy
+    void preDestroy() {
+        Batch batch;
+        synchronized (lock) {
+            batch = pendingBatch;
+            pendingBatch = null;
+        }
+        if (batch != null) {
+            flush(batch);
+        }
+        flushScheduler.shutdown();
+    }
+
+    /**
+     * Inserts the drawer notifications of an event, possibly along with the drawer notifications of other events.
+     * This method returns once the drawer notifications are persisted.
+     * @param insert the drawer notifications to insert
+     */
+    public void insert(DrawerNotificationsInsert insert) {
+        long window = engineConfig.getDrawerInsertBatchWindow().toMillis();
+        Batch batch;
+        Batch fullBatch = null;
+        if (window <= 0) {
+            batch = new Batch(insert);
+            flush(batch);
+            awaitResult(batch);
+            return;
+        }
+
+        synchronized (lock) {
+            if (pendingBatch == null) {
+                Batch newBatch = new Batch();
+                pendingBatch = newBatch;
+                flushScheduler.schedule(() -> flushIfPending(newBatch), window, MILLISECONDS);
+            }
+            batch = pendingBatch;
+            batch.add(insert);
+            if (batch.rows >= engineConfig.getDrawerInsertBatchMaxRows()) {
+                // The batch is flushed right away by the caller thread instead of waiting for the end of the window.
+                pendingBatch = null;
+                fullBatch = batch;
+            }
+        }
+        if (fullBatch != null) {
+            flush(fullBatch);
+        }
+        awaitResult(batch);
+    }
+
+    private static void awaitResult(Batch batch) {
+        try {
+            batch.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private void flushIfPending(Batch batch) {
+        synchronized (lock) {
+            if (pendingBatch != batch) {
+                // The batch was full and has already been flushed.
+                return;
+            }
+            pendingBatch = null;
+        }
+        flush(batch);
+    }
+
+    private void flush(Batch batch) {
+        try {
+            int insertedRows = insertTimer.recordCallable(() -> drawerNotificationRepository.create(batch.inserts));
+            batchRowsSummary.record(batch.rows);
+            batchEventsSummary.record(batch.inserts.size());
+            insertedRowsCounter.increment(insertedRows);
+            batch.result.complete(null);
+        } catch (Exception e) {
+            Log.errorf(e, "Drawer notifications insert failed [events=%d, rows=%d]", batch.inserts.size(), batch.rows);
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private static class Batch {
+
+        final List<DrawerNotificationsInsert> inserts = new ArrayList<>();
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        int rows;
+
+        Batch() {
+        }
+
+        Batch(DrawerNotificationsInsert insert) {
+            add(insert);
+        }
+
+        void add(DrawerNotificationsInsert insert) {
+            inserts.add(insert);
+            rows += insert.userIds().length;
+        }
+    }
+}
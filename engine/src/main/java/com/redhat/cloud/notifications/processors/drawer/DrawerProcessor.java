@@ -4,7 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.repositories.BundleRepository;
-import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository.DrawerNotificationsInsert;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
 import com.redhat.cloud.notifications.db.repositories.EventRepository;
 import com.redhat.cloud.notifications.db.repositories.NotificationHistoryRepository;
@@ -26,18 +26,28 @@ import io.quarkus.qute.TemplateInstance;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static com.redhat.cloud.notifications.models.IntegrationTemplate.TemplateKind.ALL;
 import static com.redhat.cloud.notifications.models.SubscriptionType.DRAWER;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @ApplicationScoped
 public class DrawerProcessor extends SystemEndpointTypeProcessor {
 
+    static final String RESOLVED_RECIPIENTS_GZIP = "resolved_recipients_gzip";
+    static final String RESOLVED_RECIPIENTS_COUNT = "resolved_recipients_count";
+    static final String RESOLVED_RECIPIENT_LIST = "resolved_recipient_list";
+
     @Inject
     TemplateRepository templateRepository;
 
@@ -54,7 +64,7 @@ public class DrawerProcessor extends SystemEndpointTypeProcessor {
     EndpointRepository endpointRepository;
 
     @Inject
-    DrawerNotificationRepository drawerNotificationRepository;
+    DrawerNotificationBatcher drawerNotificationBatcher;
 
     @Inject
     EventRepository eventRepository;
@@ -99,7 +109,7 @@ public class DrawerProcessor extends SystemEndpointTypeProcessor {
         DrawerEntryPayload drawerEntryPayload = buildJsonPayloadFromEvent(event);
 
         final Set<String> unsubscribers =
-                Set.copyOf(subscriptionRepository.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), DRAWER));
+                subscriptionRepository.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), DRAWER);
         final Set<RecipientSettings> recipientSettings = extractAndTransformRecipientSettings(event, endpoints);
 
         // Prepare all the data to be sent to the connector.
@@ -153,14 +163,40 @@ public class DrawerProcessor extends SystemEndpointTypeProcessor {
     public void manageConnectorDrawerReturnsIfNeeded(Map<String, Object> decodedPayload, UUID historyId) {
         Map<String, Object> details = (HashMap<String, Object>) decodedPayload.get("details");
         if (null != details && "com.redhat.console.notification.toCamel.drawer".equals(details.get("type"))) {
-            com.redhat.cloud.notifications.models.Event event = notificationHistoryRepository.getEventIdFromHistoryId(historyId);
-            List<String> recipients = (List<String>) details.get("resolved_recipient_list");
-            if (null != recipients && recipients.size() > 0) {
-                String drawerNotificationIds = String.join(",", recipients);
-                drawerNotificationRepository.create(event, drawerNotificationIds);
-                details.remove("resolved_recipient_list");
-                details.put("new_drawer_entry_counter", recipients.size());
+            // The recipients must never be persisted with the history details, even when there are none.
+            String encodedRecipients = (String) details.remove(RESOLVED_RECIPIENTS_GZIP);
+            details.remove(RESOLVED_RECIPIENTS_COUNT);
+            List<String> legacyRecipients = (List<String>) details.remove(RESOLVED_RECIPIENT_LIST);
+
+            String[] recipients;
+            if (encodedRecipients != null) {
+                recipients = decodeRecipients(encodedRecipients);
+            } else if (legacyRecipients != null) {
+                // Only sent by the drawer connector when notifications.connector.drawer.legacy-recipients.enabled is set.
+                recipients = legacyRecipients.toArray(new String[0]);
+            } else {
+                return;
+            }
+
+            if (recipients.length > 0) {
+                com.redhat.cloud.notifications.models.Event event = notificationHistoryRepository.getEventIdFromHistoryId(historyId);
+                drawerNotificationBatcher.insert(new DrawerNotificationsInsert(event.getOrgId(), event.getId(), event.getCreated(), recipients));
+                details.put("new_drawer_entry_counter", recipients.length);
             }
         }
     }
+
+    /*
+     * The drawer connector sends the resolved recipients as a gzipped and base64 encoded comma separated list of
+     * usernames.
+     */
+    static String[] decodeRecipients(String encodedRecipients) {
+        byte[] compressed = Base64.getDecoder().decode(encodedRecipients);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            String recipients = new String(gzip.readAllBytes(), UTF_8);
+            return recipients.isEmpty() ? new String[0] : recipients.split(",");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Drawer recipients decoding failed", e);
+        }
+    }
 }
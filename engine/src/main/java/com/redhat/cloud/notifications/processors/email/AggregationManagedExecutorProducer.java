@@ -8,10 +8,13 @@ import org.eclipse.microprofile.context.ManagedExecutor;
 @ApplicationScoped
 public class AggregationManagedExecutorProducer {
 
-    @ConfigProperty(name = "notifications.aggregation.managed-executor.max-queued", defaultValue = "100")
+    public static final String AGGREGATION_MAX_QUEUED = "notifications.aggregation.managed-executor.max-queued";
+    public static final String AGGREGATION_MAX_ASYNC = "notifications.aggregation.managed-executor.max-async";
+
+    @ConfigProperty(name = AGGREGATION_MAX_QUEUED, defaultValue = "100")
     int maxQueued;
 
-    @ConfigProperty(name = "notifications.aggregation.managed-executor.max-async", defaultValue = "10")
+    @ConfigProperty(name = AGGREGATION_MAX_ASYNC, defaultValue = "10")
     int maxAsync;
 
     @Produces
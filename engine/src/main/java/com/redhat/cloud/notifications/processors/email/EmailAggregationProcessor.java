@@ -40,19 +40,26 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.context.ManagedExecutor;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static com.redhat.cloud.notifications.processors.email.AggregationManagedExecutorProducer.AGGREGATION_MAX_ASYNC;
+import static com.redhat.cloud.notifications.processors.email.AggregationManagedExecutorProducer.AGGREGATION_MAX_QUEUED;
 import static jakarta.transaction.Transactional.TxType.REQUIRES_NEW;
 
 /*
@@ -67,6 +74,10 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
     public static final String AGGREGATION_COMMAND_ERROR_COUNTER_NAME = "aggregation.command.error";
 
     public static final String AGGREGATION_CONSUMED_TIMER_NAME = "aggregation.time.consumed";
+    public static final String AGGREGATION_QUEUED_TIMER_NAME = "aggregation.time.queued";
+    public static final String AGGREGATION_BACKLOG_GAUGE_NAME = "aggregation.backlog";
+    public static final String AGGREGATION_IN_PROGRESS_GAUGE_NAME = "aggregation.in-progress";
+    public static final String AGGREGATION_MAX_PENDING = "notifications.aggregation.max-pending";
     protected static final String TAG_KEY_BUNDLE = "bundle";
     protected static final String TAG_KEY_APPLICATION = "application";
     protected static final String TAG_KEY_ORG_ID = "orgid";
@@ -121,9 +132,22 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
     @Inject
     Instance<AsyncAggregation> asyncAggregations;
 
+    @ConfigProperty(name = AGGREGATION_MAX_ASYNC, defaultValue = "10")
+    int maxAsync;
+
+    @ConfigProperty(name = AGGREGATION_MAX_QUEUED, defaultValue = "100")
+    int maxQueued;
+
+    @ConfigProperty(name = AGGREGATION_MAX_PENDING, defaultValue = "1000")
+    int maxPending;
+
     private Counter rejectedAggregationCommandCount;
     private Counter processedAggregationCommandCount;
     private Counter failedAggregationCommandCount;
+    private Timer aggregationQueuedTimer;
+    private Semaphore aggregationSlots;
+    private final Deque<PendingAggregation> pendingAggregations = new ArrayDeque<>();
+    private final AtomicInteger aggregationsInProgress = new AtomicInteger();
 
     @Inject
     ConnectorSender connectorSender;
@@ -133,6 +157,11 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
         rejectedAggregationCommandCount = registry.counter(AGGREGATION_COMMAND_REJECTED_COUNTER_NAME);
         processedAggregationCommandCount = registry.counter(AGGREGATION_COMMAND_PROCESSED_COUNTER_NAME);
         failedAggregationCommandCount = registry.counter(AGGREGATION_COMMAND_ERROR_COUNTER_NAME);
+        aggregationQueuedTimer = registry.timer(AGGREGATION_QUEUED_TIMER_NAME);
+        // The executor never rejects a task as long as the number of submitted tasks does not exceed this limit.
+        aggregationSlots = new Semaphore(maxAsync + maxQueued);
+        registry.gauge(AGGREGATION_BACKLOG_GAUGE_NAME, this, processor -> maxAsync + maxQueued - processor.aggregationSlots.availablePermits() + processor.getPendingAggregationsCount());
+        registry.gauge(AGGREGATION_IN_PROGRESS_GAUGE_NAME, aggregationsInProgress);
     }
 
     @Override
@@ -160,11 +189,21 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
 
             final JsonObject transformedEvent = this.baseTransformer.toJsonObject(event);
             aggregation.setPayload(transformedEvent);
+            final boolean added;
             try {
-                this.emailAggregationRepository.addEmailAggregation(aggregation);
+                added = this.emailAggregationRepository.addEmailAggregation(aggregation);
             } catch (Exception e) {
                 // ConstraintViolationException may be thrown here and it must not interrupt the email that is being sent.
                 Log.warn("Email aggregation persisting failed", e);
+                return;
+            }
+            if (added && this.engineConfig.isIncrementalAggregationEnabled()) {
+                try {
+                    this.emailAggregator.fold(aggregation);
+                } catch (Exception e) {
+                    // The digest will be built from the email aggregations if the states don't match them.
+                    Log.warn("Email aggregation state update failed", e);
+                }
             }
         }
     }
@@ -174,23 +213,84 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
             /*
              * The aggregation process is long-running task. To avoid blocking the thread used to consume
              * Kafka messages from the ingress topic, we're performing the aggregation from a worker thread.
+             * When the executor is saturated, the aggregation waits in a bounded FIFO backlog and is submitted
+             * as soon as a running aggregation completes. The aggregations are therefore processed in the order
+             * they were received from the aggregator, which sends the orgs with the oldest last run first.
+             * The consuming thread never waits: when the backlog is full, the aggregation is rejected.
              */
-            AsyncAggregation asyncAggregation = asyncAggregations.get();
-            asyncAggregation.setEvent(event);
-            managedExecutor.runAsync(asyncAggregation)
-                    .thenRun(() -> {
-                        /*
-                         * When a @Dependent bean is injected into an @ApplicationScoped bean using Instance<T>,
-                         * the dependent bean has to be destroyed manually when it's no longer needed. Otherwise,
-                         * instances of the dependent bean accumulate in memory, causing a memory leak.
-                         */
-                        asyncAggregations.destroy(asyncAggregation);
-                    });
+            synchronized (pendingAggregations) {
+                if (pendingAggregations.size() >= maxPending) {
+                    Log.errorf("Aggregation rejected because the backlog is full [orgId=%s, eventId=%s, maxPending=%d]", event.getOrgId(), event.getId(), maxPending);
+                    rejectedAggregationCommandCount.increment();
+                    return;
+                }
+                pendingAggregations.add(new PendingAggregation(event, Timer.start(registry)));
+            }
+            dispatchPendingAggregations();
         } else {
             processAggregationSync(event);
         }
     }
 
+    /*
+     * Submits the pending aggregations to the executor as long as it has free slots. This is called from the
+     * consuming thread when an aggregation is received and from a worker thread when an aggregation completes.
+     */
+    private void dispatchPendingAggregations() {
+        while (true) {
+            PendingAggregation pending;
+            synchronized (pendingAggregations) {
+                if (pendingAggregations.isEmpty() || !aggregationSlots.tryAcquire()) {
+                    return;
+                }
+                pending = pendingAggregations.poll();
+            }
+            submitAggregation(pending);
+        }
+    }
+
+    private void submitAggregation(PendingAggregation pending) {
+        Event event = pending.event();
+        AsyncAggregation asyncAggregation = asyncAggregations.get();
+        asyncAggregation.setEvent(event);
+        try {
+            managedExecutor.runAsync(() -> {
+                pending.queuedTimer().stop(aggregationQueuedTimer);
+                aggregationsInProgress.incrementAndGet();
+                try {
+                    asyncAggregation.run();
+                } finally {
+                    aggregationsInProgress.decrementAndGet();
+                }
+            }).whenComplete((unused, throwable) -> {
+                if (throwable != null) {
+                    // A failure for one org must not affect the aggregations of the other orgs.
+                    Log.errorf(throwable, "Asynchronous aggregation failed [orgId=%s, eventId=%s]", event.getOrgId(), event.getId());
+                    failedAggregationCommandCount.increment();
+                }
+                /*
+                 * When a @Dependent bean is injected into an @ApplicationScoped bean using Instance<T>,
+                 * the dependent bean has to be destroyed manually when it's no longer needed. Otherwise,
+                 * instances of the dependent bean accumulate in memory, causing a memory leak.
+                 */
+                asyncAggregations.destroy(asyncAggregation);
+                aggregationSlots.release();
+                dispatchPendingAggregations();
+            });
+        } catch (RuntimeException e) {
+            Log.errorf(e, "Asynchronous aggregation submission failed [orgId=%s, eventId=%s]", event.getOrgId(), event.getId());
+            failedAggregationCommandCount.increment();
+            asyncAggregations.destroy(asyncAggregation);
+            aggregationSlots.release();
+        }
+    }
+
+    private int getPendingAggregationsCount() {
+        synchronized (pendingAggregations) {
+            return pendingAggregations.size();
+        }
+    }
+
     @Transactional(REQUIRES_NEW)
     public void processAggregationAsync(Event event) {
         processAggregationSync(event);
@@ -358,7 +458,7 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
         });
 
         for (AggregationCommand applicationAggregationCommand : aggregationCommands) {
-            emailAggregationRepository.purgeOldAggregation(applicationAggregationCommand.getAggregationKey(), applicationAggregationCommand.getEnd());
+            emailAggregator.purge(applicationAggregationCommand.getAggregationKey(), applicationAggregationCommand.getEnd());
         }
     }
 
@@ -382,6 +482,8 @@ public class EmailAggregationProcessor extends SystemEndpointTypeProcessor {
         return new DailyDigestSection(bodyData, Arrays.stream(sections).filter(e -> !e.isBlank()).collect(Collectors.toList()));
     }
 
+    private record PendingAggregation(Event event, Timer.Sample queuedTimer) { }
+
     public class ApplicationAggregatedData {
         Map<String, Object> aggregatedData;
         String appName;
@@ -1,6 +1,9 @@
 package com.redhat.cloud.notifications.processors.email;
 
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.AggregationOrgConfigRepository;
 import com.redhat.cloud.notifications.db.repositories.EmailAggregationRepository;
+import com.redhat.cloud.notifications.db.repositories.EmailAggregationStateRepository;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
 import com.redhat.cloud.notifications.db.repositories.EventTypeRepository;
 import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
@@ -14,27 +17,44 @@ import com.redhat.cloud.notifications.processors.ExternalAuthorizationCriteria;
 import com.redhat.cloud.notifications.processors.ExternalAuthorizationCriteriaExtractor;
 import com.redhat.cloud.notifications.processors.email.aggregators.AbstractEmailPayloadAggregator;
 import com.redhat.cloud.notifications.processors.email.aggregators.EmailPayloadAggregatorFactory;
+import com.redhat.cloud.notifications.processors.email.state.EmailAggregationState;
+import com.redhat.cloud.notifications.recipients.RecipientSettings;
 import com.redhat.cloud.notifications.recipients.User;
 import com.redhat.cloud.notifications.recipients.recipientsresolver.ExternalRecipientsResolver;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.UnknownSubscriptionsSnapshotException;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.RecipientsQuery;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.SubscriptionsReference;
 import com.redhat.cloud.notifications.recipients.request.ActionRecipientSettings;
 import com.redhat.cloud.notifications.recipients.request.EndpointRecipientSettings;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.NoResultException;
+import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static com.redhat.cloud.notifications.processors.ExternalAuthorizationCriteriaExtractor.EXTERNAL_AUTHORIZATION_CRITERIA;
+import static com.redhat.cloud.notifications.processors.email.state.EmailAggregationState.ALL_PARTITION;
+import static com.redhat.cloud.notifications.recipients.recipientsresolver.ExternalRecipientsResolver.buildRecipientsQuery;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
 import static java.util.Map.Entry;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
@@ -45,6 +65,12 @@ public class EmailAggregator {
     @Inject
     EmailAggregationRepository emailAggregationRepository;
 
+    @Inject
+    EmailAggregationStateRepository emailAggregationStateRepository;
+
+    @Inject
+    AggregationOrgConfigRepository aggregationOrgConfigRepository;
+
     @Inject
     EndpointRepository endpointRepository;
 
@@ -64,16 +90,24 @@ public class EmailAggregator {
     @Inject
     ExternalAuthorizationCriteriaExtractor externalAuthorizationCriteriaExtractor;
 
+    @Inject
+    EngineConfig engineConfig;
+
     @ConfigProperty(name = "notifications.aggregation.max-page-size", defaultValue = "100")
     int maxPageSize;
 
     public Map<User, Map<String, Object>> getAggregated(UUID appId, EmailAggregationKey aggregationKey, SubscriptionType subscriptionType, LocalDateTime start, LocalDateTime end) {
 
+        if (engineConfig.isIncrementalAggregationEnabled()) {
+            Optional<Map<User, Map<String, Object>>> aggregatedFromStates = getAggregatedFromStates(appId, aggregationKey, subscriptionType, start, end);
+            if (aggregatedFromStates.isPresent()) {
+                return aggregatedFromStates.get();
+            }
+        }
+
         Map<User, AbstractEmailPayloadAggregator> aggregated = new HashMap<>();
-        Map<String, Set<String>> subscribersByEventType = subscriptionRepository
-                .getSubscribersByEventType(aggregationKey.getOrgId(), appId, subscriptionType);
-        Map<String, Set<String>> unsubscribersByEventType = subscriptionRepository
-                .getUnsubscribersByEventType(aggregationKey.getOrgId(), appId, subscriptionType);
+        RecipientsQueries recipientsQueries = new RecipientsQueries(appId, aggregationKey, subscriptionType);
+        List<PendingAggregation> pendingAggregations = new ArrayList<>();
 
         int offset = 0;
         int totalAggregatedElements = 0;
@@ -86,61 +120,32 @@ public class EmailAggregator {
 
             // For each aggregation...
             for (EmailAggregation aggregation : aggregations) {
-
-                // We need its event type to determine the target endpoints.
-                String eventTypeName = getEventType(aggregation);
-                EventType eventType;
-                try {
-                    eventType = eventTypeRepository.getEventType(aggregationKey.getBundle(), aggregationKey.getApplication(), eventTypeName);
-                } catch (NoResultException e) {
-                    Log.warnf(e, "Unknown event type found in an aggregation payload [orgId=%s, bundle=%s, application=%s, eventType=%s]",
-                            aggregationKey.getOrgId(), aggregationKey.getBundle(), aggregationKey.getApplication(), eventTypeName);
-                    // The exception must not interrupt the loop.
-                    continue;
+                OptionalInt queryIndex = recipientsQueries.add(aggregation);
+                if (queryIndex.isPresent()) {
+                    pendingAggregations.add(new PendingAggregation(aggregation, queryIndex.getAsInt()));
                 }
-                // Let's retrieve these targets.
-                Set<Endpoint> endpoints = Set.copyOf(endpointRepository
-                    .getTargetEmailSubscriptionEndpoints(aggregationKey.getOrgId(), eventType.getId()));
-
-                /*
-                 * Now we want to determine who will actually receive the aggregation email.
-                 * All users who subscribed to the current application and subscription type combination are recipients candidates.
-                 * The actual recipients list may differ from the candidates depending on the endpoint properties and the action settings.
-                 * The target endpoints properties will determine whether each candidate will actually receive an email.
-                 */
-
-                Set<String> subscribers = subscribersByEventType.getOrDefault(eventType.getName(), Collections.emptySet());
-                Set<String> unsubscribers = unsubscribersByEventType.getOrDefault(eventType.getName(), Collections.emptySet());
-                ExternalAuthorizationCriteria externalAuthorizationCriteria = externalAuthorizationCriteriaExtractor.extract(aggregation);
-
-                Set<User> recipients = externalRecipientsResolver.recipientUsers(
-                    aggregationKey.getOrgId(),
-                    Stream.concat(
-                        endpoints
-                            .stream()
-                            .map(EndpointRecipientSettings::new),
-                        getActionRecipientSettings(aggregation)
-                    ).collect(toSet()),
-                    subscribers,
-                    unsubscribers,
-                    eventType.isSubscribedByDefault(),
-                    externalAuthorizationCriteria
-                );
-
-                /*
-                 * We now have the final recipients list.
-                 * Let's populate the Map that will be returned by the method.
-                 */
-                recipients.forEach(recipient -> {
-                    // We may or may not have already initialized an aggregator for the recipient.
-                    AbstractEmailPayloadAggregator aggregator = aggregated
-                        .computeIfAbsent(recipient, ignored -> EmailPayloadAggregatorFactory.by(aggregationKey, start, end));
-                    // It's aggregation time!
-                    aggregator.aggregate(aggregation);
-                });
             }
             totalAggregatedElements += aggregations.size();
         } while (maxPageSize == aggregations.size());
+
+        // All distinct recipients queries are resolved at once, instead of once per aggregation.
+        List<Set<User>> recipientsByQuery = recipientsQueries.resolve();
+        Log.debugf("%d distinct recipients queries were resolved for %d aggregations with key %s", recipientsByQuery.size(), pendingAggregations.size(), aggregationKey);
+
+        /*
+         * We now have the final recipients lists.
+         * Let's populate the Map that will be returned by the method.
+         * The aggregations are processed in the same order as they were read from the DB.
+         */
+        for (PendingAggregation pendingAggregation : pendingAggregations) {
+            recipientsByQuery.get(pendingAggregation.queryIndex()).forEach(recipient -> {
+                // We may or may not have already initialized an aggregator for the recipient.
+                AbstractEmailPayloadAggregator aggregator = aggregated
+                    .computeIfAbsent(recipient, ignored -> EmailPayloadAggregatorFactory.by(aggregationKey, start, end));
+                // It's aggregation time!
+                aggregator.aggregate(pendingAggregation.aggregation());
+            });
+        }
         Log.infof("%d elements were aggregated for key %s", totalAggregatedElements, aggregationKey);
 
         return aggregated.entrySet().stream()
@@ -151,6 +156,279 @@ public class EmailAggregator {
                 ));
     }
 
+    /**
+     * Aggregates an email aggregation into the states of the {@link EmailAggregationState#ALL_PARTITION} partition
+     * and of the partition of its recipients query, in the window which contains its creation date. The states are
+     * locked in that order, so two email aggregations of the same application are aggregated one after the other
+     * without any deadlock.
+     * @param aggregation the email aggregation that was just inserted
+     */
+    @Transactional
+    public void fold(EmailAggregation aggregation) {
+        Optional<LocalTime> dailyDigestTime = aggregationOrgConfigRepository.findDailyDigestTime(aggregation.getOrgId());
+        if (dailyDigestTime.isEmpty()) {
+            // The digest of the current window will be built from the email aggregations.
+            Log.debugf("The daily digest time of org %s is unknown, the aggregation states are not updated", aggregation.getOrgId());
+            return;
+        }
+        EmailAggregationKey aggregationKey = new EmailAggregationKey(aggregation.getOrgId(), aggregation.getBundleName(), aggregation.getApplicationName());
+        LocalDateTime windowEnd = getWindowEnd(aggregation.getCreated(), dailyDigestTime.get());
+        EmailAggregationState allState = emailAggregationStateRepository.lockOrCreate(aggregationKey, windowEnd, ALL_PARTITION, null);
+        if (allState == null) {
+            // The window was purged while this fold was waiting for the lock.
+            return;
+        }
+        fold(aggregationKey, allState, List.of(aggregation));
+        JsonObject recipientsQuery = getRecipientsQuery(aggregation);
+        EmailAggregationState partitionState = emailAggregationStateRepository.lockOrCreate(aggregationKey, windowEnd, getPartitionKey(recipientsQuery), recipientsQuery);
+        if (partitionState == null) {
+            // The window was purged while this fold was waiting for the lock.
+            return;
+        }
+        fold(aggregationKey, partitionState, List.of(aggregation));
+    }
+
+    private void fold(EmailAggregationKey aggregationKey, EmailAggregationState state, List<EmailAggregation> aggregations) {
+        AbstractEmailPayloadAggregator aggregator = EmailPayloadAggregatorFactory.by(aggregationKey, null, null);
+        if (aggregator == null) {
+            return;
+        }
+        if (state.getState() != null) {
+            aggregator.restoreState(state.getState().copy());
+        }
+        for (EmailAggregation aggregation : aggregations) {
+            aggregator.aggregate(aggregation);
+            state.addCreated(aggregation.getCreated());
+        }
+        state.setState(aggregator.saveState());
+    }
+
+    /**
+     * Deletes the email aggregations of an application which were created before the end of a digest. When the
+     * incremental aggregation is enabled, the states of the windows which end after the digest are rebuilt from the
+     * remaining email aggregations in the same transaction, because they may already aggregate email aggregations
+     * which were created between the end of the digest and the purge. The {@link EmailAggregationState#ALL_PARTITION}
+     * states of these windows are locked first, so the concurrent folds wait for the end of the rebuild.
+     * @param aggregationKey the key of the aggregated application
+     * @param end the end of the digest window
+     */
+    @Transactional
+    public void purge(EmailAggregationKey aggregationKey, LocalDateTime end) {
+        Optional<LocalTime> dailyDigestTime = engineConfig.isIncrementalAggregationEnabled()
+                ? aggregationOrgConfigRepository.findDailyDigestTime(aggregationKey.getOrgId())
+                : Optional.empty();
+        if (dailyDigestTime.isEmpty()) {
+            emailAggregationRepository.purgeOldAggregation(aggregationKey, end);
+            emailAggregationStateRepository.deleteStates(aggregationKey);
+            return;
+        }
+
+        // The remaining email aggregations can only belong to the windows which end after the digest and until now.
+        Map<LocalDateTime, EmailAggregationState> allStates = new LinkedHashMap<>();
+        LocalDateTime lastWindowEnd = getWindowEnd(LocalDateTime.now(UTC), dailyDigestTime.get());
+        LocalDateTime windowEnd = getWindowEnd(end, dailyDigestTime.get());
+        if (!windowEnd.isAfter(end)) {
+            windowEnd = windowEnd.plusDays(1);
+        }
+        for (; !windowEnd.isAfter(lastWindowEnd); windowEnd = windowEnd.plusDays(1)) {
+            EmailAggregationState allState = emailAggregationStateRepository.lockOrCreate(aggregationKey, windowEnd, ALL_PARTITION, null);
+            if (allState != null) {
+                allState.reset();
+                allStates.put(windowEnd, allState);
+            }
+        }
+        emailAggregationStateRepository.deleteStatesBeforeRebuild(aggregationKey, end);
+        emailAggregationRepository.purgeOldAggregation(aggregationKey, end);
+        if (allStates.isEmpty()) {
+            return;
+        }
+
+        /*
+         * An email aggregation which was inserted just before the rebuild but not folded yet will be aggregated twice.
+         * The state will then not match the next window and that digest will be built from the email aggregations.
+         */
+        Map<LocalDateTime, List<EmailAggregation>> remainingByWindow = new HashMap<>();
+        for (EmailAggregation aggregation : getEmailAggregations(aggregationKey, end, lastWindowEnd)) {
+            remainingByWindow.computeIfAbsent(getWindowEnd(aggregation.getCreated(), dailyDigestTime.get()), ignored -> new ArrayList<>()).add(aggregation);
+        }
+        int rebuiltAggregations = 0;
+        for (Entry<LocalDateTime, List<EmailAggregation>> windowAggregations : remainingByWindow.entrySet()) {
+            EmailAggregationState allState = allStates.get(windowAggregations.getKey());
+            if (allState == null) {
+                continue;
+            }
+            fold(aggregationKey, allState, windowAggregations.getValue());
+            Map<String, List<EmailAggregation>> aggregationsByPartition = new LinkedHashMap<>();
+            Map<String, JsonObject> recipientsQueries = new HashMap<>();
+            for (EmailAggregation aggregation : windowAggregations.getValue()) {
+                JsonObject recipientsQuery = getRecipientsQuery(aggregation);
+                String partitionKey = getPartitionKey(recipientsQuery);
+                recipientsQueries.putIfAbsent(partitionKey, recipientsQuery);
+                aggregationsByPartition.computeIfAbsent(partitionKey, ignored -> new ArrayList<>()).add(aggregation);
+            }
+            for (Entry<String, List<EmailAggregation>> partitionAggregations : aggregationsByPartition.entrySet()) {
+                EmailAggregationState partitionState = emailAggregationStateRepository.lockOrCreate(aggregationKey, windowAggregations.getKey(),
+                        partitionAggregations.getKey(), recipientsQueries.get(partitionAggregations.getKey()));
+                fold(aggregationKey, partitionState, partitionAggregations.getValue());
+            }
+            rebuiltAggregations += windowAggregations.getValue().size();
+        }
+        Log.debugf("%d remaining elements were aggregated again after the purge of key %s", rebuiltAggregations, aggregationKey);
+    }
+
+    /*
+     * The aggregator starts the daily digest of an org shortly after its scheduled time, so each window ends at that
+     * time of the day. The email aggregations created after the end of the window and before the digest are
+     * aggregated by the digest on top of the states.
+     */
+    private static LocalDateTime getWindowEnd(LocalDateTime created, LocalTime dailyDigestTime) {
+        LocalDateTime windowEnd = created.toLocalDate().atTime(dailyDigestTime);
+        return windowEnd.isBefore(created) ? windowEnd.plusDays(1) : windowEnd;
+    }
+
+    private static String getPartitionKey(JsonObject recipientsQuery) {
+        return UUID.nameUUIDFromBytes(recipientsQuery.encode().getBytes(UTF_8)).toString();
+    }
+
+    /*
+     * Only the parts of the payload which determine the recipients of an email aggregation are kept in the
+     * recipients query of its partition.
+     */
+    private JsonObject getRecipientsQuery(EmailAggregation aggregation) {
+        JsonObject payload = aggregation.getPayload();
+        JsonObject recipientsQuery = new JsonObject();
+        recipientsQuery.put(EVENT_TYPE_KEY, payload.getString(EVENT_TYPE_KEY));
+        if (payload.containsKey(RECIPIENTS_KEY)) {
+            recipientsQuery.put(RECIPIENTS_KEY, payload.getValue(RECIPIENTS_KEY));
+        }
+        JsonObject context = payload.getJsonObject(BaseTransformer.CONTEXT);
+        if (context != null && context.containsKey(EXTERNAL_AUTHORIZATION_CRITERIA)) {
+            recipientsQuery.put(BaseTransformer.CONTEXT, new JsonObject().put(EXTERNAL_AUTHORIZATION_CRITERIA, context.getValue(EXTERNAL_AUTHORIZATION_CRITERIA)));
+        }
+        return recipientsQuery;
+    }
+
+    /*
+     * Builds the digests from the states of the partitions, without reading the email aggregations of the state window
+     * again. The states are only used if a single state window ends in the digest window, if they aggregate exactly
+     * the email aggregations created since the start of the digest window and if each recipient is either targeted by
+     * all the partitions or by a single one. The email aggregations created after the end of the state window are
+     * aggregated on top of the states. Otherwise, an empty result is returned and the digests are built from the
+     * email aggregations.
+     */
+    private Optional<Map<User, Map<String, Object>>> getAggregatedFromStates(UUID appId, EmailAggregationKey aggregationKey, SubscriptionType subscriptionType, LocalDateTime start, LocalDateTime end) {
+
+        List<EmailAggregationState> states = emailAggregationStateRepository.getStates(aggregationKey).stream()
+                .filter(state -> state.getId().windowEnd.isAfter(start) && !state.getId().windowEnd.isAfter(end))
+                .toList();
+        Set<LocalDateTime> windowEnds = states.stream().map(state -> state.getId().windowEnd).collect(toSet());
+        if (windowEnds.size() != 1) {
+            return Optional.empty();
+        }
+        LocalDateTime windowEnd = windowEnds.iterator().next();
+
+        EmailAggregationState allState = null;
+        Map<String, Partition> partitions = new LinkedHashMap<>();
+        for (EmailAggregationState state : states) {
+            if (state.isAllPartition()) {
+                allState = state;
+            } else if (state.getState() != null) {
+                partitions.put(state.getId().partitionKey, new Partition(state.getRecipientsQuery(), state, new ArrayList<>()));
+            }
+        }
+        if (allState == null) {
+            return Optional.empty();
+        }
+        long rangeAggregations = emailAggregationRepository.countEmailAggregation(aggregationKey, start, windowEnd);
+        if (!allState.covers(start, rangeAggregations)) {
+            Log.debugf("The aggregation states of key %s don't match the email aggregations of the window, they are ignored", aggregationKey);
+            return Optional.empty();
+        }
+
+        // The email aggregations created after the end of the state window are aggregated on top of the states.
+        List<EmailAggregation> laterAggregations = getEmailAggregations(aggregationKey, windowEnd, end);
+        for (EmailAggregation aggregation : laterAggregations) {
+            JsonObject recipientsQuery = getRecipientsQuery(aggregation);
+            partitions.computeIfAbsent(getPartitionKey(recipientsQuery), ignored -> new Partition(recipientsQuery, null, new ArrayList<>()))
+                    .laterAggregations().add(aggregation);
+        }
+        if (partitions.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Partition> partitionsList = new ArrayList<>(partitions.values());
+
+        RecipientsQueries recipientsQueries = new RecipientsQueries(appId, aggregationKey, subscriptionType);
+        int[] queryIndexes = new int[partitionsList.size()];
+        for (int i = 0; i < partitionsList.size(); i++) {
+            // The recipients query of the partition is resolved like the payload of an email aggregation.
+            EmailAggregation partitionAggregation = new EmailAggregation();
+            partitionAggregation.setPayload(partitionsList.get(i).recipientsQuery());
+            OptionalInt queryIndex = recipientsQueries.add(partitionAggregation);
+            if (queryIndex.isEmpty()) {
+                return Optional.empty();
+            }
+            queryIndexes[i] = queryIndex.getAsInt();
+        }
+        List<Set<User>> recipientsByQuery = recipientsQueries.resolve();
+
+        Map<User, List<Integer>> partitionsByUser = new HashMap<>();
+        for (int i = 0; i < partitionsList.size(); i++) {
+            for (User recipient : recipientsByQuery.get(queryIndexes[i])) {
+                partitionsByUser.computeIfAbsent(recipient, ignored -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // The context of each state is shared by all the recipients it is sent to.
+        Map<Integer, Optional<Map<String, Object>>> contexts = new HashMap<>();
+        Map<User, Map<String, Object>> aggregated = new HashMap<>();
+        for (Entry<User, List<Integer>> userPartitions : partitionsByUser.entrySet()) {
+            List<Integer> userPartitionIndexes = userPartitions.getValue();
+            Optional<Map<String, Object>> context;
+            if (userPartitionIndexes.size() == partitionsList.size()) {
+                EmailAggregationState state = allState;
+                context = contexts.computeIfAbsent(-1, ignored -> getContext(aggregationKey, state, laterAggregations, start, end));
+            } else if (userPartitionIndexes.size() == 1) {
+                context = contexts.computeIfAbsent(userPartitionIndexes.get(0), index -> {
+                    Partition partition = partitionsList.get(index);
+                    return getContext(aggregationKey, partition.state(), partition.laterAggregations(), start, end);
+                });
+            } else {
+                Log.debugf("A recipient of key %s is targeted by %d partitions out of %d, the aggregation states are ignored",
+                        aggregationKey, userPartitionIndexes.size(), partitionsList.size());
+                return Optional.empty();
+            }
+            context.ifPresent(c -> aggregated.put(userPartitions.getKey(), c));
+        }
+        Log.infof("%d elements were aggregated from %d states and %d later elements for key %s",
+                rangeAggregations, partitions.size(), laterAggregations.size(), aggregationKey);
+
+        return Optional.of(aggregated);
+    }
+
+    private Optional<Map<String, Object>> getContext(EmailAggregationKey aggregationKey, EmailAggregationState state, List<EmailAggregation> laterAggregations, LocalDateTime start, LocalDateTime end) {
+        AbstractEmailPayloadAggregator aggregator = EmailPayloadAggregatorFactory.by(aggregationKey, start, end);
+        if (state != null) {
+            aggregator.restoreState(state.getState().copy());
+        }
+        laterAggregations.forEach(aggregator::aggregate);
+        if (aggregator.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(aggregator.getContext());
+    }
+
+    private List<EmailAggregation> getEmailAggregations(EmailAggregationKey aggregationKey, LocalDateTime start, LocalDateTime end) {
+        List<EmailAggregation> result = new ArrayList<>();
+        int offset = 0;
+        List<EmailAggregation> aggregations;
+        do {
+            aggregations = emailAggregationRepository.getEmailAggregation(aggregationKey, start, end, offset, maxPageSize);
+            offset += maxPageSize;
+            result.addAll(aggregations);
+        } while (maxPageSize == aggregations.size());
+        return result;
+    }
+
     private String getEventType(EmailAggregation aggregation) {
         return aggregation.getPayload().getString(EVENT_TYPE_KEY);
     }
@@ -169,4 +447,150 @@ public class EmailAggregator {
         return Stream.empty();
     }
 
+    /*
+     * Builds the recipients queries of the email aggregations of an application. Each distinct recipients query is
+     * only resolved once, after all aggregations have been added.
+     */
+    private class RecipientsQueries {
+
+        private final UUID appId;
+        private final EmailAggregationKey aggregationKey;
+        private final SubscriptionType subscriptionType;
+        private final Map<String, String> subscriptionsVersions;
+
+        // The event types and their target endpoints are shared by many aggregations, they're only loaded once.
+        private final Map<String, Optional<EventType>> eventTypes = new HashMap<>();
+        private final Map<UUID, Set<Endpoint>> endpointsByEventType = new HashMap<>();
+
+        // The values of this map are the positions of the queries in the batch sent to recipients-resolver.
+        private final Map<RecipientsQueryKey, Integer> distinctQueries = new HashMap<>();
+        private final List<RecipientsQuery> recipientsQueries = new ArrayList<>();
+        private final List<String> recipientsQueriesEventTypes = new ArrayList<>();
+
+        /*
+         * Only the versions of the subscriptions are read at first. The subscriptions themselves are only loaded if
+         * recipients-resolver doesn't already know the snapshots referenced by these versions.
+         */
+        RecipientsQueries(UUID appId, EmailAggregationKey aggregationKey, SubscriptionType subscriptionType) {
+            this.appId = appId;
+            this.aggregationKey = aggregationKey;
+            this.subscriptionType = subscriptionType;
+            subscriptionsVersions = subscriptionRepository
+                    .getSubscriptionsVersionByEventType(aggregationKey.getOrgId(), appId, subscriptionType);
+        }
+
+        /**
+         * Adds the recipients query of an email aggregation.
+         * @param aggregation the email aggregation
+         * @return the position of the query in the list returned by {@link #resolve()}, or an empty value if the
+         * event type of the aggregation is unknown
+         */
+        OptionalInt add(EmailAggregation aggregation) {
+
+            // We need its event type to determine the target endpoints.
+            String eventTypeName = getEventType(aggregation);
+            Optional<EventType> eventType = eventTypes.computeIfAbsent(eventTypeName, ignored -> {
+                try {
+                    return Optional.of(eventTypeRepository.getEventType(aggregationKey.getBundle(), aggregationKey.getApplication(), eventTypeName));
+                } catch (NoResultException e) {
+                    Log.warnf(e, "Unknown event type found in an aggregation payload [orgId=%s, bundle=%s, application=%s, eventType=%s]",
+                            aggregationKey.getOrgId(), aggregationKey.getBundle(), aggregationKey.getApplication(), eventTypeName);
+                    return Optional.empty();
+                }
+            });
+            if (eventType.isEmpty()) {
+                // The unknown event type must not interrupt the loop.
+                return OptionalInt.empty();
+            }
+            // Let's retrieve these targets.
+            Set<Endpoint> endpoints = endpointsByEventType.computeIfAbsent(eventType.get().getId(), eventTypeId -> Set.copyOf(endpointRepository
+                .getTargetEmailSubscriptionEndpoints(aggregationKey.getOrgId(), eventTypeId)));
+
+            /*
+             * Now we want to determine who will actually receive the aggregation email.
+             * All users who subscribed to the current application and subscription type combination are recipients candidates.
+             * The actual recipients list may differ from the candidates depending on the endpoint properties and the action settings.
+             * The target endpoints properties will determine whether each candidate will actually receive an email.
+             */
+            Set<RecipientSettings> recipientSettings = Stream.concat(
+                endpoints
+                    .stream()
+                    .map(EndpointRecipientSettings::new),
+                getActionRecipientSettings(aggregation)
+            ).collect(toSet());
+            ExternalAuthorizationCriteria externalAuthorizationCriteria = externalAuthorizationCriteriaExtractor.extract(aggregation);
+
+            RecipientsQueryKey queryKey = new RecipientsQueryKey(eventType.get().getName(), recipientSettings, externalAuthorizationCriteria);
+            return OptionalInt.of(distinctQueries.computeIfAbsent(queryKey, key -> {
+                RecipientsQuery recipientsQuery = buildRecipientsQuery(
+                    aggregationKey.getOrgId(),
+                    key.recipientSettings(),
+                    Collections.emptySet(),
+                    Collections.emptySet(),
+                    eventType.get().isSubscribedByDefault(),
+                    key.externalAuthorizationCriteria()
+                );
+                // The event types without any subscriptions are sent with empty sets, there's nothing to reference.
+                String subscriptionsVersion = subscriptionsVersions.get(key.eventTypeName());
+                if (subscriptionsVersion != null) {
+                    recipientsQuery.subscribers = null;
+                    recipientsQuery.unsubscribers = null;
+                    recipientsQuery.subscriptionsReference = SubscriptionsReference.of(eventType.get().getId(), subscriptionType, subscriptionsVersion);
+                }
+                recipientsQueries.add(recipientsQuery);
+                recipientsQueriesEventTypes.add(key.eventTypeName());
+                return recipientsQueries.size() - 1;
+            }));
+        }
+
+        // All distinct recipients queries are resolved at once.
+        List<Set<User>> resolve() {
+            if (recipientsQueries.isEmpty()) {
+                return Collections.emptyList();
+            }
+            try {
+                return externalRecipientsResolver.recipientUsers(recipientsQueries);
+            } catch (UnknownSubscriptionsSnapshotException e) {
+                Log.debugf("Sending the full subscriptions of key %s to recipients-resolver", aggregationKey);
+                loadSubscriptions();
+                return externalRecipientsResolver.recipientUsers(recipientsQueries);
+            }
+        }
+
+        /*
+         * The subscriptions may have changed since their versions were read, so the references are updated with the
+         * versions of the loaded subscriptions. A snapshot is therefore always stored under the version of its own
+         * content, even if the subscriptions later return to a previous state.
+         *
+         * The snapshots are stored by each recipients-resolver pod separately. A reference sent to a pod which didn't
+         * receive the snapshot yet is rejected and the full subscriptions are sent again, so a new version can cost
+         * one resend per recipients-resolver pod until all of them know it.
+         */
+        private void loadSubscriptions() {
+            Map<String, Set<String>> subscribersByEventType = subscriptionRepository
+                    .getSubscribersByEventType(aggregationKey.getOrgId(), appId, subscriptionType);
+            Map<String, Set<String>> unsubscribersByEventType = subscriptionRepository
+                    .getUnsubscribersByEventType(aggregationKey.getOrgId(), appId, subscriptionType);
+            for (int i = 0; i < recipientsQueries.size(); i++) {
+                RecipientsQuery recipientsQuery = recipientsQueries.get(i);
+                if (recipientsQuery.subscriptionsReference != null) {
+                    String eventTypeName = recipientsQueriesEventTypes.get(i);
+                    recipientsQuery.subscribers = Set.copyOf(subscribersByEventType.getOrDefault(eventTypeName, Collections.emptySet()));
+                    recipientsQuery.unsubscribers = Set.copyOf(unsubscribersByEventType.getOrDefault(eventTypeName, Collections.emptySet()));
+                    recipientsQuery.subscriptionsReference.version = SubscriptionRepository
+                            .computeSubscriptionsVersion(recipientsQuery.subscribers, recipientsQuery.unsubscribers);
+                }
+            }
+        }
+    }
+
+    private record RecipientsQueryKey(String eventTypeName, Set<RecipientSettings> recipientSettings, ExternalAuthorizationCriteria externalAuthorizationCriteria) {
+    }
+
+    private record PendingAggregation(EmailAggregation aggregation, int queryIndex) {
+    }
+
+    // The state is null when the partition only contains email aggregations created after the end of the state window.
+    private record Partition(JsonObject recipientsQuery, EmailAggregationState state, List<EmailAggregation> laterAggregations) {
+    }
 }
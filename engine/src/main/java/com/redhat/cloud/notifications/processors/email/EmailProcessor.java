@@ -75,9 +75,9 @@ public class EmailProcessor extends SystemEndpointTypeProcessor {
         Set<String> unsubscribers;
         if (event.getEventType().isSubscribedByDefault()) {
             subscribers = Collections.emptySet();
-            unsubscribers = Set.copyOf(subscriptionRepository.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT));
+            unsubscribers = subscriptionRepository.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT);
         } else {
-            subscribers = Set.copyOf(subscriptionRepository.getSubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT));
+            subscribers = subscriptionRepository.getSubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT);
             unsubscribers = Collections.emptySet();
         }
 
@@ -10,6 +10,9 @@ public abstract class AbstractEmailPayloadAggregator {
 
     private static final String START_TIME_KEY = "start_time";
     private static final String END_TIME_KEY = "end_time";
+    private static final String STATE_ORG_ID_KEY = "org_id";
+    private static final String STATE_PROCESSED_AGGREGATIONS_KEY = "processed_aggregations";
+    private static final String STATE_CONTEXT_KEY = "context";
 
     private LocalDateTime startTime;
     private LocalDateTime endTime;
@@ -31,6 +34,43 @@ public abstract class AbstractEmailPayloadAggregator {
         ++processedAggregations;
     }
 
+    /**
+     * Saves the state of the aggregator, from which another aggregator of the
+     * same application can be restored to aggregate more payloads later.
+     * @return the state, which shares the context of the aggregator.
+     */
+    public JsonObject saveState() {
+        JsonObject state = new JsonObject();
+        state.put(STATE_ORG_ID_KEY, orgId);
+        state.put(STATE_PROCESSED_AGGREGATIONS_KEY, processedAggregations);
+        state.put(STATE_CONTEXT_KEY, context);
+        saveAdditionalState(state);
+        return state;
+    }
+
+    /**
+     * Restores the state saved by {@link #saveState()}, once it was encoded
+     * and decoded again.
+     * @param state the state, which becomes the context of the aggregator.
+     */
+    public void restoreState(JsonObject state) {
+        orgId = state.getString(STATE_ORG_ID_KEY);
+        processedAggregations = state.getInteger(STATE_PROCESSED_AGGREGATIONS_KEY);
+        context = state.getJsonObject(STATE_CONTEXT_KEY);
+        restoreAdditionalState(state);
+    }
+
+    /*
+     * The aggregators which keep data outside of the context, or which update
+     * parts of the context through their own fields, save that data here and
+     * link their fields to the restored context again.
+     */
+    void saveAdditionalState(JsonObject state) {
+    }
+
+    void restoreAdditionalState(JsonObject state) {
+    }
+
     public Map<String, Object> getContext() {
         Map<String, Object> payload = this.context.mapTo(Map.class);
         payload.put(START_TIME_KEY, this.startTime);
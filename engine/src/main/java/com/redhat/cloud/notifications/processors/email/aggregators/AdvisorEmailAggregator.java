@@ -129,7 +129,7 @@ public class AdvisorEmailAggregator extends AbstractEmailPayloadAggregator {
     private Map<String, Map<String, Object>> deactivatedRecommendations = new LinkedHashMap<>();
 
     // The updatable JSON object that is set in the context.
-    private final JsonObject advisorJson;
+    private JsonObject advisorJson;
 
     private final AtomicInteger incidentCounter = new AtomicInteger(0);
 
@@ -238,6 +238,32 @@ public class AdvisorEmailAggregator extends AbstractEmailPayloadAggregator {
         });
     }
 
+    @Override
+    void restoreAdditionalState(JsonObject state) {
+        this.advisorJson = context.getJsonObject(ADVISOR_KEY);
+
+        this.incidentCounter.set(this.advisorJson.getInteger(TOTAL_INCIDENT));
+        this.recommendationCounter.set(this.advisorJson.getInteger(TOTAL_RECOMMENDATION));
+        this.advisorJson.put(TOTAL_INCIDENT, incidentCounter);
+        this.advisorJson.put(TOTAL_RECOMMENDATION, recommendationCounter);
+
+        this.newRecommendations = restoreRecommendations(NEW_RECOMMENDATIONS);
+        this.resolvedRecommendations = restoreRecommendations(RESOLVED_RECOMMENDATIONS);
+        this.deactivatedRecommendations = restoreRecommendations(DEACTIVATED_RECOMMENDATIONS);
+    }
+
+    private Map<String, Map<String, Object>> restoreRecommendations(String key) {
+        Map<String, Map<String, Object>> recommendations = new LinkedHashMap<>();
+        JsonObject recommendationsJson = this.advisorJson.getJsonObject(key);
+        if (recommendationsJson != null) {
+            for (String ruleId : recommendationsJson.fieldNames()) {
+                recommendations.put(ruleId, new HashMap<>(recommendationsJson.getJsonObject(ruleId).getMap()));
+            }
+            this.advisorJson.put(key, recommendations);
+        }
+        return recommendations;
+    }
+
     private void countRecommendationsAndIncidents(String ruleIncident) {
         recommendationCounter.incrementAndGet();
         if (Boolean.valueOf(ruleIncident)) {
@@ -4,6 +4,7 @@ import com.redhat.cloud.notifications.models.EmailAggregation;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -26,6 +27,9 @@ public class DriftEmailPayloadAggregator extends AbstractEmailPayloadAggregator
     private static final String INVENTORY_ID = "inventory_id";
     private static final String TAGS = "tags";
 
+    private static final String STATE_UNIQUE_HOSTS_KEY = "unique_hosts";
+    private static final String STATE_UNIQUE_HOSTS_PER_BASELINE_KEY = "unique_hosts_per_baseline";
+
     private final Set<String> uniqueHosts = new HashSet<>();
     private final Map<String, HashSet<String>> uniqueHostPerBaseline = new HashMap<>();
 
@@ -74,6 +78,25 @@ public class DriftEmailPayloadAggregator extends AbstractEmailPayloadAggregator
         this.context.put(UNIQUE_SYSTEM_COUNT, this.uniqueHosts.size());
     }
 
+    @Override
+    void saveAdditionalState(JsonObject state) {
+        state.put(STATE_UNIQUE_HOSTS_KEY, new JsonArray(new ArrayList<>(uniqueHosts)));
+        JsonObject uniqueHostsPerBaseline = new JsonObject();
+        uniqueHostPerBaseline.forEach((key, hosts) -> uniqueHostsPerBaseline.put(key, new JsonArray(new ArrayList<>(hosts))));
+        state.put(STATE_UNIQUE_HOSTS_PER_BASELINE_KEY, uniqueHostsPerBaseline);
+    }
+
+    @Override
+    void restoreAdditionalState(JsonObject state) {
+        state.getJsonArray(STATE_UNIQUE_HOSTS_KEY).forEach(host -> uniqueHosts.add((String) host));
+        JsonObject uniqueHostsPerBaseline = state.getJsonObject(STATE_UNIQUE_HOSTS_PER_BASELINE_KEY);
+        for (String key : uniqueHostsPerBaseline.fieldNames()) {
+            HashSet<String> hosts = new HashSet<>();
+            uniqueHostsPerBaseline.getJsonArray(key).forEach(host -> hosts.add((String) host));
+            uniqueHostPerBaseline.put(key, hosts);
+        }
+    }
+
     public Integer getUniqueHostCount() {
         return this.uniqueHosts.size();
     }
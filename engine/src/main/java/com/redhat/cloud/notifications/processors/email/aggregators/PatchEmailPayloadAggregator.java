@@ -53,6 +53,12 @@ public class PatchEmailPayloadAggregator extends AbstractEmailPayloadAggregator
         return totalAdvisories.get() == 0;
     }
 
+    @Override
+    void restoreAdditionalState(JsonObject state) {
+        totalAdvisories.set(context.getInteger(TOTAL_ADVISORIES));
+        context.put(TOTAL_ADVISORIES, totalAdvisories);
+    }
+
     @Override
     void processEmailAggregation(EmailAggregation notification) {
         JsonObject patch = context.getJsonObject(PATCH_KEY);
@@ -4,6 +4,7 @@ import com.redhat.cloud.notifications.models.EmailAggregation;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -29,6 +30,9 @@ class PoliciesEmailPayloadAggregator extends AbstractEmailPayloadAggregator {
     private static final String INVENTORY_ID = "inventory_id";
     private static final String TAGS = "tags";
 
+    private static final String STATE_UNIQUE_HOSTS_KEY = "unique_hosts";
+    private static final String STATE_UNIQUE_HOSTS_PER_POLICY_KEY = "unique_hosts_per_policy";
+
     private final Set<String> uniqueHosts = new HashSet<>();
     private final Map<String, HashSet<String>> uniqueHostPerPolicy = new HashMap<>();
 
@@ -77,6 +81,25 @@ class PoliciesEmailPayloadAggregator extends AbstractEmailPayloadAggregator {
         this.context.put(UNIQUE_SYSTEM_COUNT, this.uniqueHosts.size());
     }
 
+    @Override
+    void saveAdditionalState(JsonObject state) {
+        state.put(STATE_UNIQUE_HOSTS_KEY, new JsonArray(new ArrayList<>(uniqueHosts)));
+        JsonObject uniqueHostsPerPolicy = new JsonObject();
+        uniqueHostPerPolicy.forEach((key, hosts) -> uniqueHostsPerPolicy.put(key, new JsonArray(new ArrayList<>(hosts))));
+        state.put(STATE_UNIQUE_HOSTS_PER_POLICY_KEY, uniqueHostsPerPolicy);
+    }
+
+    @Override
+    void restoreAdditionalState(JsonObject state) {
+        state.getJsonArray(STATE_UNIQUE_HOSTS_KEY).forEach(host -> uniqueHosts.add((String) host));
+        JsonObject uniqueHostsPerPolicy = state.getJsonObject(STATE_UNIQUE_HOSTS_PER_POLICY_KEY);
+        for (String key : uniqueHostsPerPolicy.fieldNames()) {
+            HashSet<String> hosts = new HashSet<>();
+            uniqueHostsPerPolicy.getJsonArray(key).forEach(host -> hosts.add((String) host));
+            uniqueHostPerPolicy.put(key, hosts);
+        }
+    }
+
     Integer getUniqueHostCount() {
         return this.uniqueHosts.size();
     }
@@ -20,12 +20,24 @@ public class ResourceOptimizationPayloadAggregator extends AbstractEmailPayloadA
     public static final String STATE = "state";
     public static final String SYSTEM_COUNT = "system_count";
 
+    private static final String STATE_CURRENT_STATES_KEY = "current_states";
+
     private final Map</* inventory_id */ String, /* current_state */ String> currentStates = new HashMap<>();
 
     ResourceOptimizationPayloadAggregator() {
         context.put(AGGREGATED_DATA, new JsonObject());
     }
 
+    @Override
+    void saveAdditionalState(JsonObject state) {
+        state.put(STATE_CURRENT_STATES_KEY, new JsonObject(new HashMap<>(currentStates)));
+    }
+
+    @Override
+    void restoreAdditionalState(JsonObject state) {
+        state.getJsonObject(STATE_CURRENT_STATES_KEY).forEach(currentState -> currentStates.put(currentState.getKey(), (String) currentState.getValue()));
+    }
+
     /*
      * When the aggregation process starts (once a day), an instance of
      * ResourceOptimizationEmailAggregator is created. That instance will process
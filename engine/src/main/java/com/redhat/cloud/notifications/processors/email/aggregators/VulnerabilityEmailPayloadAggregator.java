@@ -1,6 +1,7 @@
 package com.redhat.cloud.notifications.processors.email.aggregators;
 
 import com.redhat.cloud.notifications.models.EmailAggregation;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 import java.util.Arrays;
@@ -38,6 +39,16 @@ public class VulnerabilityEmailPayloadAggregator extends AbstractEmailPayloadAgg
         context.put(VULNERABILITY_KEY, vulnerability);
     }
 
+    @Override
+    void restoreAdditionalState(JsonObject state) {
+        JsonObject vulnerability = context.getJsonObject(VULNERABILITY_KEY);
+        JsonArray reportedCves = vulnerability.getJsonArray(REPORTED_CVES);
+        if (reportedCves != null) {
+            reportedCves.forEach(cve -> uniqueCves.add((String) cve));
+            vulnerability.put(REPORTED_CVES, uniqueCves);
+        }
+    }
+
     @Override
     void processEmailAggregation(EmailAggregation notification) {
         JsonObject notifPayload = notification.getPayload();
@@ -0,0 +1,127 @@
+package com.redhat.cloud.notifications.processors.email.state;
+
+import com.redhat.cloud.notifications.db.converters.JsonObjectConverter;
+import io.vertx.core.json.JsonObject;
+import jakarta.persistence.Convert;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state of a daily digest aggregator, updated each time an email aggregation is inserted. Each state only
+ * aggregates the email aggregations created during the day which ends at {@link EmailAggregationStateId#windowEnd},
+ * the scheduled daily digest time of the org. The state of the {@link #ALL_PARTITION} partition aggregates all the
+ * email aggregations of an application. The state of any other partition only aggregates the email aggregations which
+ * share the same recipients query.
+ */
+@Entity
+@Table(name = "email_aggregation_state")
+public class EmailAggregationState {
+
+    public static final String ALL_PARTITION = "all";
+
+    @EmbeddedId
+    private EmailAggregationStateId id;
+
+    @Convert(converter = JsonObjectConverter.class)
+    private JsonObject recipientsQuery;
+
+    @Convert(converter = JsonObjectConverter.class)
+    private JsonObject state;
+
+    private int aggregations;
+
+    private LocalDateTime firstCreated;
+
+    private LocalDateTime lastCreated;
+
+    public EmailAggregationStateId getId() {
+        return id;
+    }
+
+    public void setId(EmailAggregationStateId id) {
+        this.id = id;
+    }
+
+    public JsonObject getRecipientsQuery() {
+        return recipientsQuery;
+    }
+
+    public void setRecipientsQuery(JsonObject recipientsQuery) {
+        this.recipientsQuery = recipientsQuery;
+    }
+
+    public JsonObject getState() {
+        return state;
+    }
+
+    public void setState(JsonObject state) {
+        this.state = state;
+    }
+
+    public int getAggregations() {
+        return aggregations;
+    }
+
+    public void setAggregations(int aggregations) {
+        this.aggregations = aggregations;
+    }
+
+    public LocalDateTime getFirstCreated() {
+        return firstCreated;
+    }
+
+    public void setFirstCreated(LocalDateTime firstCreated) {
+        this.firstCreated = firstCreated;
+    }
+
+    public LocalDateTime getLastCreated() {
+        return lastCreated;
+    }
+
+    public void setLastCreated(LocalDateTime lastCreated) {
+        this.lastCreated = lastCreated;
+    }
+
+    public boolean isAllPartition() {
+        return ALL_PARTITION.equals(id.partitionKey);
+    }
+
+    /**
+     * Records the creation date of an aggregated email aggregation. The folds can be committed in a different order
+     * than the creation dates of the email aggregations, so the first and last dates are a min and a max.
+     * @param created the creation date of the aggregated email aggregation
+     */
+    public void addCreated(LocalDateTime created) {
+        aggregations++;
+        if (firstCreated == null || created.isBefore(firstCreated)) {
+            firstCreated = created;
+        }
+        if (lastCreated == null || created.isAfter(lastCreated)) {
+            lastCreated = created;
+        }
+    }
+
+    public void reset() {
+        state = null;
+        aggregations = 0;
+        firstCreated = null;
+        lastCreated = null;
+    }
+
+    /**
+     * Checks that the state aggregates exactly the email aggregations created between the start of a digest window
+     * and the end of the state window. The aggregated email aggregations were all created in that range and they are
+     * as many as the email aggregations of that range.
+     * @param start the start of the digest window, excluded
+     * @param rangeAggregations the number of email aggregations created after {@code start} and until the end of the
+     * state window
+     * @return {@code true} if the state can be used instead of the email aggregations of that range
+     */
+    public boolean covers(LocalDateTime start, long rangeAggregations) {
+        return state != null && aggregations == rangeAggregations
+                && firstCreated.isAfter(start) && !lastCreated.isAfter(id.windowEnd);
+    }
+}
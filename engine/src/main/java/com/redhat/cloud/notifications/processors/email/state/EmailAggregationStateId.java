@@ -0,0 +1,61 @@
+package com.redhat.cloud.notifications.processors.email.state;
+
+import com.redhat.cloud.notifications.models.EmailAggregationKey;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class EmailAggregationStateId implements Serializable {
+
+    @NotNull
+    public String orgId;
+
+    @NotNull
+    @Column(name = "bundle")
+    public String bundleName;
+
+    @NotNull
+    @Column(name = "application")
+    public String applicationName;
+
+    @NotNull
+    public LocalDateTime windowEnd;
+
+    @NotNull
+    public String partitionKey;
+
+    public EmailAggregationStateId() {
+    }
+
+    public EmailAggregationStateId(EmailAggregationKey aggregationKey, LocalDateTime windowEnd, String partitionKey) {
+        this.orgId = aggregationKey.getOrgId();
+        this.bundleName = aggregationKey.getBundle();
+        this.applicationName = aggregationKey.getApplication();
+        this.windowEnd = windowEnd;
+        this.partitionKey = partitionKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EmailAggregationStateId that = (EmailAggregationStateId) o;
+        return Objects.equals(orgId, that.orgId) && Objects.equals(bundleName, that.bundleName)
+                && Objects.equals(applicationName, that.applicationName) && Objects.equals(windowEnd, that.windowEnd)
+                && Objects.equals(partitionKey, that.partitionKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orgId, bundleName, applicationName, windowEnd, partitionKey);
+    }
+}
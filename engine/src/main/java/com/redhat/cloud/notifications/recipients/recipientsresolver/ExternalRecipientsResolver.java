@@ -7,15 +7,21 @@ import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.Recipie
 import dev.failsafe.Failsafe;
 import dev.failsafe.RetryPolicy;
 import dev.failsafe.function.CheckedSupplier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.cache.CacheResult;
 import io.quarkus.logging.Log;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -29,6 +35,8 @@ public class ExternalRecipientsResolver {
     public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_ATTEMPTS = "notifications.recipients-resolver.retry.max-attempts";
     public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_INITIAL_BACKOFF = "notifications.recipients-resolver.retry.initial-backoff";
     public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_BACKOFF = "notifications.recipients-resolver.retry.max-backoff";
+    public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_BATCH_SIZE = "notifications.recipients-resolver.batch-size";
+    public static final String SUBSCRIPTIONS_SNAPSHOT_COUNTER_NAME = "recipients-resolver.subscriptions-snapshot";
 
     @ConfigProperty(name = NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_ATTEMPTS, defaultValue = "3")
     int maxRetryAttempts;
@@ -39,10 +47,20 @@ public class ExternalRecipientsResolver {
     @ConfigProperty(name = NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_BACKOFF, defaultValue = "1S")
     Duration maxRetryBackoff;
 
+    @ConfigProperty(name = NOTIFICATIONS_RECIPIENTS_RESOLVER_BATCH_SIZE, defaultValue = "100")
+    int batchSize;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
     private RetryPolicy<Object> retryPolicy;
+    private Counter subscriptionsSnapshotHitCounter;
+    private Counter subscriptionsSnapshotMissCounter;
 
     @PostConstruct
     public void postConstruct() {
+        subscriptionsSnapshotHitCounter = meterRegistry.counter(SUBSCRIPTIONS_SNAPSHOT_COUNTER_NAME, "result", "hit");
+        subscriptionsSnapshotMissCounter = meterRegistry.counter(SUBSCRIPTIONS_SNAPSHOT_COUNTER_NAME, "result", "miss");
         retryPolicy = RetryPolicy.builder()
             .handle(IOException.class)
             .withBackoff(initialRetryBackoff, maxRetryBackoff)
@@ -60,6 +78,57 @@ public class ExternalRecipientsResolver {
 
     @CacheResult(cacheName = "recipients-resolver-results")
     public Set<User> recipientUsers(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, ExternalAuthorizationCriteria externalAuthorizationCriteria) {
+        RecipientsQuery recipientsQuery = buildRecipientsQuery(orgId, recipientSettings, subscribers, unsubscribers, subscribedByDefault, externalAuthorizationCriteria);
+        Set<User> recipientsList = retryOnError(() -> recipientsResolverService.getRecipients(recipientsQuery));
+        return recipientsList;
+    }
+
+    /**
+     * Resolves several recipients queries with as few calls to recipients-resolver as possible. The queries are
+     * sent in batches of at most {@link #batchSize} elements.
+     * @param recipientsQueries the queries to resolve
+     * @return the recipients of each query, in the same order as the queries
+     * @throws UnknownSubscriptionsSnapshotException if a query only carries a subscriptions reference which is
+     * unknown to recipients-resolver
+     */
+    public List<Set<User>> recipientUsers(List<RecipientsQuery> recipientsQueries) {
+        List<Set<User>> recipients = new ArrayList<>(recipientsQueries.size());
+        for (int from = 0; from < recipientsQueries.size(); from += batchSize) {
+            List<RecipientsQuery> batch = recipientsQueries.subList(from, Math.min(from + batchSize, recipientsQueries.size()));
+            List<Set<User>> batchRecipients = getRecipientsBatch(batch);
+            if (batchRecipients.size() != batch.size()) {
+                throw new IllegalStateException("Unexpected recipients-resolver batch response size [expected=" + batch.size() + ", actual=" + batchRecipients.size() + "]");
+            }
+            recipients.addAll(batchRecipients);
+        }
+        return recipients;
+    }
+
+    /*
+     * The queries which carry a subscriptions reference without their subscribers and unsubscribers rely on a
+     * subscriptions snapshot previously stored by recipients-resolver. If it doesn't know one of the referenced
+     * snapshots, it replies with a 409 status and the caller has to send the queries again with the full subscriptions,
+     * which recipients-resolver then stores for the next queries.
+     */
+    private List<Set<User>> getRecipientsBatch(List<RecipientsQuery> batch) {
+        boolean compact = batch.stream().anyMatch(query -> query.subscriptionsReference != null && query.subscribers == null);
+        if (!compact) {
+            return retryOnError(() -> recipientsResolverService.getRecipientsBatch(batch));
+        }
+        try {
+            List<Set<User>> batchRecipients = retryOnError(() -> recipientsResolverService.getRecipientsBatch(batch));
+            subscriptionsSnapshotHitCounter.increment();
+            return batchRecipients;
+        } catch (WebApplicationException e) {
+            if (e.getResponse() == null || e.getResponse().getStatus() != Response.Status.CONFLICT.getStatusCode()) {
+                throw e;
+            }
+            subscriptionsSnapshotMissCounter.increment();
+            throw new UnknownSubscriptionsSnapshotException(e);
+        }
+    }
+
+    public static RecipientsQuery buildRecipientsQuery(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, ExternalAuthorizationCriteria externalAuthorizationCriteria) {
         RecipientsQuery recipientsQuery = new RecipientsQuery();
         recipientsQuery.subscribers = Set.copyOf(subscribers);
         recipientsQuery.unsubscribers = Set.copyOf(unsubscribers);
@@ -72,8 +141,7 @@ public class ExternalRecipientsResolver {
         recipientsQuery.recipientSettings = recipientSettingsSet;
         recipientsQuery.subscribedByDefault = subscribedByDefault;
         recipientsQuery.externalAuthorizationCriteria = externalAuthorizationCriteria;
-        Set<User> recipientsList = retryOnError(() -> recipientsResolverService.getRecipients(recipientsQuery));
-        return recipientsList;
+        return recipientsQuery;
     }
 
 }
@@ -9,6 +9,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import java.util.List;
 import java.util.Set;
 
 @RegisterRestClient(configKey = "recipients-resolver")
@@ -19,4 +20,10 @@ public interface RecipientsResolverService {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     Set<User> getRecipients(RecipientsQuery resolversQuery);
+
+    @PUT
+    @Path("/internal/recipients-resolver/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    List<Set<User>> getRecipientsBatch(List<RecipientsQuery> resolversQueries);
 }
@@ -0,0 +1,12 @@
+package com.redhat.cloud.notifications.recipients.recipientsresolver;
+
+/**
+ * Thrown when recipients-resolver doesn't know a subscriptions snapshot referenced by a recipients query. The caller
+ * is expected to send the query again with the full subscribers and unsubscribers.
+ */
+public class UnknownSubscriptionsSnapshotException extends RuntimeException {
+
+    public UnknownSubscriptionsSnapshotException(Throwable cause) {
+        super("Unknown subscriptions snapshot in recipients-resolver", cause);
+    }
+}
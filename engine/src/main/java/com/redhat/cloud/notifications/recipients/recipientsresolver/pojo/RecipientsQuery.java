@@ -22,6 +22,9 @@ public class RecipientsQuery {
 
     public Set<String> unsubscribers;
 
+    // When this reference is set, the subscribers and unsubscribers are only sent if recipients-resolver doesn't know them yet.
+    public SubscriptionsReference subscriptionsReference;
+
     public boolean subscribedByDefault;
 
     public ExternalAuthorizationCriteria externalAuthorizationCriteria;
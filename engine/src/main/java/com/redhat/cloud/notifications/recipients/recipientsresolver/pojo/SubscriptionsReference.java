@@ -0,0 +1,35 @@
+package com.redhat.cloud.notifications.recipients.recipientsresolver.pojo;
+
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.redhat.cloud.notifications.models.SubscriptionType;
+
+import java.util.UUID;
+
+import static com.fasterxml.jackson.databind.PropertyNamingStrategies.SnakeCaseStrategy;
+
+/**
+ * Identifies a version of the subscribers and unsubscribers of an event type. Recipients queries carry this reference
+ * so that recipients-resolver can reuse a subscriptions snapshot it already received instead of receiving the full
+ * usernames sets with each query. The reference is scoped by recipients-resolver to the org ID of the query.
+ */
+@JsonNaming(SnakeCaseStrategy.class)
+public class SubscriptionsReference {
+
+    public UUID eventTypeId;
+
+    public String subscriptionType;
+
+    public String version;
+
+    /**
+     * Builds a reference from a version computed from the subscriptions, which only changes when the subscriptions
+     * change and is the same on all engine pods.
+     */
+    public static SubscriptionsReference of(UUID eventTypeId, SubscriptionType subscriptionType, String version) {
+        SubscriptionsReference reference = new SubscriptionsReference();
+        reference.eventTypeId = eventTypeId;
+        reference.subscriptionType = subscriptionType.name();
+        reference.version = version;
+        return reference;
+    }
+}
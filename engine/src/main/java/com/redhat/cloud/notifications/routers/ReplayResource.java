@@ -1,142 +1,65 @@
 package com.redhat.cloud.notifications.routers;
 
-import com.redhat.cloud.event.parser.ConsoleCloudEventParser;
-import com.redhat.cloud.event.parser.exceptions.ConsoleCloudEventParsingException;
-import com.redhat.cloud.notifications.cloudevent.transformers.CloudEventTransformer;
-import com.redhat.cloud.notifications.cloudevent.transformers.CloudEventTransformerFactory;
-import com.redhat.cloud.notifications.events.EndpointProcessor;
-import com.redhat.cloud.notifications.events.EventWrapper;
-import com.redhat.cloud.notifications.events.EventWrapperAction;
-import com.redhat.cloud.notifications.events.EventWrapperCloudEvent;
-import com.redhat.cloud.notifications.ingress.Action;
-import com.redhat.cloud.notifications.models.Event;
-import com.redhat.cloud.notifications.models.NotificationsConsoleCloudEvent;
+import com.redhat.cloud.notifications.events.replay.EventReplayJobRunner;
 import com.redhat.cloud.notifications.routers.replay.EventsReplayRequest;
-import com.redhat.cloud.notifications.utils.ActionParser;
-import com.redhat.cloud.notifications.utils.ActionParsingException;
+import com.redhat.cloud.notifications.routers.replay.EventsReplayStatus;
 import io.quarkus.logging.Log;
 import jakarta.inject.Inject;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.UUID;
 
 import static com.redhat.cloud.notifications.Constants.API_INTERNAL;
-import static com.redhat.cloud.notifications.models.EndpointType.EMAIL_SUBSCRIPTION;
-import static com.redhat.cloud.notifications.models.NotificationStatus.FAILED_EXTERNAL;
-import static com.redhat.cloud.notifications.models.NotificationStatus.SUCCESS;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
+/**
+ * Replays the events which failed to be sent by email during an outage. The replays run in the background, this
+ * resource starts them and reports their progress.
+ */
 @Path(API_INTERNAL + "/replay")
 public class ReplayResource {
 
-    private static final int MAX_RESULTS = 100;
-
-    @Inject
-    EntityManager entityManager;
-
-    @Inject
-    EndpointProcessor endpointProcessor;
-
     @Inject
-    ActionParser actionParser;
-
-    @Inject
-    CloudEventTransformerFactory cloudEventTransformerFactory;
-
-    ConsoleCloudEventParser cloudEventParser = new ConsoleCloudEventParser();
-
-    public List<Event> getEvents(String orgId,  LocalDateTime startDate, LocalDateTime endDate, int firstResult, int maxResults) {
-
-        String hql = "FROM Event e JOIN FETCH e.eventType " +
-                "WHERE e.created > :start AND e.created <= :end " +
-                "AND EXISTS (SELECT 1 FROM NotificationHistory " +
-                "WHERE e = event AND compositeEndpointType.type = :endpointType AND status = :failed) " +
-                "AND NOT EXISTS (SELECT 1 FROM NotificationHistory " +
-                "WHERE e = event AND compositeEndpointType.type = :endpointType AND status = :success)";
-
-        if (orgId != null) {
-            hql += " AND orgId = :orgId";
-        }
-
-        TypedQuery<Event> typedQuery = entityManager.createQuery(hql, Event.class)
-                .setParameter("start", startDate)
-                .setParameter("end", endDate)
-                .setParameter("endpointType", EMAIL_SUBSCRIPTION)
-                .setParameter("failed", FAILED_EXTERNAL)
-                .setParameter("success", SUCCESS)
-                .setFirstResult(firstResult)
-                .setMaxResults(maxResults);
-
-        if (orgId != null) {
-            typedQuery.setParameter("orgId", orgId);
-        }
-
-        return typedQuery.getResultList();
-    }
+    EventReplayJobRunner eventReplayJobRunner;
 
     @POST
     @Consumes(APPLICATION_JSON)
-    public void replay(@NotNull @Valid EventsReplayRequest eventsReplayRequest) {
+    @Produces(APPLICATION_JSON)
+    public EventsReplayStatus replay(@NotNull @Valid EventsReplayRequest eventsReplayRequest) {
         Log.infof("Replay endpoint was called for events from %s to %s", eventsReplayRequest.startDate, eventsReplayRequest.endDate);
-        int firstResult = 0;
-        List<Event> events;
-        long processedEvents = 0;
-        do {
-            Log.infof("Processing events from index %d", firstResult);
-            events = getEvents(eventsReplayRequest.orgId, eventsReplayRequest.startDate, eventsReplayRequest.endDate, firstResult, MAX_RESULTS);
-            firstResult += MAX_RESULTS;
-            for (Event event : events) {
-                try {
-                    EventWrapper<?, ?> eventWrapper = parsePayload(event.getPayload());
-
-                    if (eventWrapper instanceof EventWrapperCloudEvent) {
-                        // We loaded a cloud event and identified the event-type it belongs to
-                        // At this point, lets check if we have a transformation available for this event
-                        // If we do, transform the event - Later this will be done on a by-integration basis
-                        Optional<CloudEventTransformer> transformer = cloudEventTransformerFactory.getTransformerIfSupported((EventWrapperCloudEvent) eventWrapper);
-                        if (transformer.isPresent()) {
-                            eventWrapper = new EventWrapperAction(
-                                    transformer.get().toAction(
-                                            (EventWrapperCloudEvent) eventWrapper,
-                                            event.getEventType().getApplication().getBundle().getName(),
-                                            event.getEventType().getApplication().getName(),
-                                            event.getEventType().getName()
-                                    ));
-                        }
-                    }
+        return eventReplayJobRunner.start(eventsReplayRequest.orgId, eventsReplayRequest.startDate, eventsReplayRequest.endDate);
+    }
 
-                    event.setEventWrapper(eventWrapper);
+    @GET
+    @Produces(APPLICATION_JSON)
+    public List<EventsReplayStatus> getReplays() {
+        return eventReplayJobRunner.getLatestStatuses();
+    }
 
-                    endpointProcessor.process(event, true);
-                    processedEvents++;
-                } catch (Exception e) {
-                    Log.error("Event replay failed", e);
-                }
-            }
-        } while (MAX_RESULTS == events.size());
-        Log.infof("%d events where replayed", processedEvents);
+    @GET
+    @Path("/{id}")
+    @Produces(APPLICATION_JSON)
+    public EventsReplayStatus getReplay(@PathParam("id") UUID id) {
+        return eventReplayJobRunner.getStatus(id)
+                .orElseThrow(() -> new NotFoundException("Replay not found"));
     }
 
-    private EventWrapper<?, ?> parsePayload(String payload) {
-        try {
-            Action action = actionParser.fromJsonString(payload);
-            return new EventWrapperAction(action);
-        } catch (ActionParsingException actionParseException) {
-            // Try to load it as a CloudEvent
-            try {
-                return new EventWrapperCloudEvent(cloudEventParser.fromJsonString(payload, NotificationsConsoleCloudEvent.class));
-            } catch (ConsoleCloudEventParsingException cloudEventParseException) {
-                actionParseException.addSuppressed(cloudEventParseException);
-                throw actionParseException;
-            }
-        }
+    @POST
+    @Path("/{id}/resume")
+    @Produces(APPLICATION_JSON)
+    public EventsReplayStatus resume(@PathParam("id") UUID id) {
+        getReplay(id);
+        return eventReplayJobRunner.resume(id)
+                .orElseThrow(() -> new BadRequestException("Only an interrupted, failed or abandoned replay can be resumed"));
     }
 }
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.db;
 
 import com.redhat.cloud.notifications.db.repositories.EmailAggregationRepository;
 import com.redhat.cloud.notifications.models.AggregationEmailTemplate;
+import com.redhat.cloud.notifications.models.AggregationOrgConfig;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.Bundle;
 import com.redhat.cloud.notifications.models.EmailAggregation;
@@ -25,12 +26,14 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.TestConstants.DEFAULT_ORG_ID;
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
+import static java.time.ZoneOffset.UTC;
 
 @ApplicationScoped
 public class ResourceHelpers {
@@ -214,6 +217,16 @@ public class ResourceHelpers {
         entityManager.createQuery("DELETE FROM EventTypeEmailSubscription WHERE id = :id").setParameter("id", eventTypeEmailSubscriptionId).executeUpdate();
     }
 
+    @Transactional
+    public void createOrUpdateAggregationOrgConfig(String orgId, LocalTime scheduledExecutionTime) {
+        entityManager.merge(new AggregationOrgConfig(orgId, scheduledExecutionTime, LocalDateTime.now(UTC)));
+    }
+
+    @Transactional
+    public void deleteAggregationOrgConfig(String orgId) {
+        entityManager.createQuery("DELETE FROM AggregationOrgConfig WHERE orgId = :orgId").setParameter("orgId", orgId).executeUpdate();
+    }
+
     @Transactional
     public void deleteEmailTemplatesById(UUID templateId) {
         entityManager.createQuery("DELETE FROM InstantEmailTemplate WHERE id = :id").setParameter("id", templateId).executeUpdate();
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.db.repositories;
 
 import com.redhat.cloud.notifications.TestLifecycleManager;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository.DrawerNotificationsInsert;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.Bundle;
 import com.redhat.cloud.notifications.models.DrawerNotification;
@@ -16,6 +17,7 @@ import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -120,6 +122,60 @@ public class DrawerNotificationRepositoryTest {
         assertEquals(LIMIT, createdNotifications.size());
     }
 
+    @Test
+    @Transactional
+    void testBatchCreations() {
+        Event event1 = resourceHelpers.createEvent(createdEventType);
+        Event event2 = resourceHelpers.createEvent(createdEventType);
+        List<DrawerNotificationsInsert> inserts = List.of(
+            new DrawerNotificationsInsert(DEFAULT_ORG_ID, event1.getId(), event1.getCreated(), new String[] {"user-1", "user-2"}),
+            new DrawerNotificationsInsert(DEFAULT_ORG_ID, event2.getId(), event2.getCreated(), new String[] {"user-1", "user-3", "user-4"}),
+            // The duplicated rows are ignored.
+            new DrawerNotificationsInsert(DEFAULT_ORG_ID, event1.getId(), event1.getCreated(), new String[] {"user-2"})
+        );
+
+        assertEquals(5, drawerNotificationsRepository.create(inserts));
+        assertEquals(2, getDrawerNotificationsByEventId(event1.getId()).size());
+        assertEquals(3, getDrawerNotificationsByEventId(event2.getId()).size());
+        assertEquals(0, drawerNotificationsRepository.create(inserts));
+    }
+
+    /*
+     * Inserts millions of drawer notifications in batches of several events, the same way the engine does during bursts
+     * of org-wide events. This test is only run on demand with -Ddrawer-load-test.rows=<rows>.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "drawer-load-test.rows", matches = "\\d+")
+    void testBatchCreationsLoad() {
+        int totalRows = Integer.getInteger("drawer-load-test.rows");
+        int usersPerEvent = 10_000;
+        int eventsPerBatch = 10;
+        List<UUID> eventIds = new ArrayList<>();
+        long insertedRows = 0;
+        Instant before = Instant.now();
+        while (insertedRows < totalRows) {
+            List<DrawerNotificationsInsert> inserts = new ArrayList<>();
+            for (int i = 0; i < eventsPerBatch; i++) {
+                Event event = resourceHelpers.createEvent(createdEventType);
+                eventIds.add(event.getId());
+                String[] users = new String[usersPerEvent];
+                for (int j = 0; j < usersPerEvent; j++) {
+                    users[j] = "user-" + j;
+                }
+                inserts.add(new DrawerNotificationsInsert(DEFAULT_ORG_ID, event.getId(), event.getCreated(), users));
+            }
+            insertedRows += drawerNotificationsRepository.create(inserts);
+        }
+        long duration = Math.max(1, Duration.between(before, Instant.now()).toMillis());
+        Log.infof("Inserted %d drawer notifications in %d ms (%d rows/s)", insertedRows, duration, insertedRows * 1000 / duration);
+        deleteEvents(eventIds);
+    }
+
+    @Transactional
+    void deleteEvents(List<UUID> eventIds) {
+        entityManager.createQuery("DELETE FROM Event WHERE id IN (:ids)").setParameter("ids", eventIds).executeUpdate();
+    }
+
     public List<DrawerNotification> getDrawerNotificationsByUserId(String userId) {
         String query = "SELECT dn FROM DrawerNotification dn WHERE dn.id.userId = :userId and dn.id.orgId = :orgId";
         return entityManager.createQuery(query, DrawerNotification.class)
@@ -11,11 +11,13 @@ import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
@@ -53,4 +55,32 @@ public class SubscriptionRepositoryTest {
         assertTrue(mapUsersByEventType.get("event-type-a").contains("User-02"));
         assertFalse(mapUsersByEventType.get("event-type-a").contains("User-03"));
     }
+
+    @Test
+    void testSubscriptionsVersion() {
+        Bundle bundle = resourceHelpers.createBundle("versioned-bundle");
+        Application application = resourceHelpers.createApp(bundle.getId(), "versioned-app");
+        EventType eventType = resourceHelpers.createEventType(application.getId(), "versioned-event-type");
+        resourceHelpers.createEventTypeEmailSubscription(ORG_ID, "User-01", eventType, SubscriptionType.DAILY);
+        resourceHelpers.createEventTypeEmailSubscription(ORG_ID, "user-02", eventType, SubscriptionType.DAILY);
+
+        // The version computed by the database matches the version of the loaded subscriptions.
+        String version = getSubscriptionsVersion(application, eventType);
+        assertEquals(SubscriptionRepository.computeSubscriptionsVersion(
+            subscriptionRepository.getSubscribersByEventType(ORG_ID, application.getId(), SubscriptionType.DAILY).get(eventType.getName()),
+            subscriptionRepository.getUnsubscribersByEventType(ORG_ID, application.getId(), SubscriptionType.DAILY).getOrDefault(eventType.getName(), Collections.emptySet())
+        ), version);
+
+        // A deletion changes the version.
+        resourceHelpers.deleteEventTypeEmailSubscription(ORG_ID, "user-02", eventType, SubscriptionType.DAILY);
+        assertNotEquals(version, getSubscriptionsVersion(application, eventType));
+
+        // The same subscriptions have the same version, whatever happened in between.
+        resourceHelpers.createEventTypeEmailSubscription(ORG_ID, "user-02", eventType, SubscriptionType.DAILY);
+        assertEquals(version, getSubscriptionsVersion(application, eventType));
+    }
+
+    private String getSubscriptionsVersion(Application application, EventType eventType) {
+        return subscriptionRepository.getSubscriptionsVersionByEventType(ORG_ID, application.getId(), SubscriptionType.DAILY).get(eventType.getName());
+    }
 }
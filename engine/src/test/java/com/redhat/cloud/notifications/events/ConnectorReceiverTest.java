@@ -8,6 +8,8 @@ import com.redhat.cloud.notifications.db.repositories.NotificationHistoryReposit
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.NotificationHistory;
 import com.redhat.cloud.notifications.models.NotificationStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
@@ -28,7 +30,11 @@ import java.util.UUID;
 import static com.redhat.cloud.notifications.events.ConnectorReceiver.FROMCAMEL_CHANNEL;
 import static com.redhat.cloud.notifications.events.ConnectorReceiver.MESSAGES_ERROR_COUNTER_NAME;
 import static com.redhat.cloud.notifications.events.ConnectorReceiver.MESSAGES_PROCESSED_COUNTER_NAME;
+import static com.redhat.cloud.notifications.events.ConnectorReceiver.STAGE_DURATION_TIMER_NAME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -54,6 +60,9 @@ public class ConnectorReceiverTest {
     @InjectSpy
     EndpointRepository endpointRepository;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     final String expectedHistoryId = UUID.randomUUID().toString();
 
     @BeforeEach
@@ -118,6 +127,62 @@ public class ConnectorReceiverTest {
         testPayload(UUID.randomUUID().toString(), true, 67549274, null, NotificationStatus.SUCCESS);
     }
 
+    @Test
+    void testStageDurations() {
+        long consumed = System.currentTimeMillis() - 1000L;
+        Map<String, Object> dataMap = Map.of(
+                "duration", 800L,
+                "details", Map.of("type", "com.redhat.console.notification.toCamel.stage-test"),
+                "successful", true,
+                "remote_call_duration", 300L,
+                "stage_timestamps", Map.of(
+                        "consumed", consumed,
+                        "sent", consumed + 50L,
+                        "received", consumed + 100L,
+                        "processing_started", consumed + 250L,
+                        "completed", consumed + 900L
+                )
+        );
+
+        String payload = Json.encode(Map.of(
+                "specversion", "1.0",
+                "source", "stage-test",
+                "type", "com.redhat.cloud.notifications.history",
+                "time", "2021-12-14T10:08:23.217Z",
+                "id", expectedHistoryId,
+                "content-type", "application/json",
+                "data", Json.encode(dataMap)
+        ));
+        inMemoryConnector.source(FROMCAMEL_CHANNEL).send(payload);
+
+        micrometerAssertionHelper.awaitAndAssertCounterIncrement(MESSAGES_PROCESSED_COUNTER_NAME, 1);
+
+        assertStageDuration("engine", 50L);
+        assertStageDuration("kafka_to_connector", 50L);
+        assertStageDuration("connector_queue", 150L);
+        assertStageDuration("remote_call", 300L);
+        // The remote call is not counted twice.
+        assertStageDuration("connector_processing", 350L);
+        assertNotNull(findStageTimer("kafka_to_engine"));
+    }
+
+    @Test
+    void testStageDurationsWithoutTimestamps() {
+        testPayload(true, 10, null, NotificationStatus.SUCCESS);
+        assertNull(meterRegistry.find(STAGE_DURATION_TIMER_NAME).tag("connector", "demo-log").timer());
+    }
+
+    private void assertStageDuration(String stage, long expectedDuration) {
+        Timer timer = findStageTimer(stage);
+        assertNotNull(timer);
+        assertEquals(1L, timer.count());
+        assertEquals(expectedDuration, (long) timer.totalTime(MILLISECONDS));
+    }
+
+    private Timer findStageTimer(String stage) {
+        return meterRegistry.find(STAGE_DURATION_TIMER_NAME).tags("connector", "stage-test", "stage", stage).timer();
+    }
+
     private void testPayload(boolean isSuccessful, long expectedDuration, String expectedOutcome, NotificationStatus expectedNotificationStatus) {
         testPayload(expectedHistoryId, isSuccessful, expectedDuration, expectedOutcome, expectedNotificationStatus);
     }
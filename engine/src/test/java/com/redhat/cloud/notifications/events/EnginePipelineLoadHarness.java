@@ -0,0 +1,483 @@
+package com.redhat.cloud.notifications.events;
+
+import com.redhat.cloud.notifications.TestLifecycleManager;
+import com.redhat.cloud.notifications.db.ResourceHelpers;
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.Context;
+import com.redhat.cloud.notifications.ingress.Event;
+import com.redhat.cloud.notifications.ingress.Metadata;
+import com.redhat.cloud.notifications.ingress.Payload;
+import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.BehaviorGroup;
+import com.redhat.cloud.notifications.models.BehaviorGroupAction;
+import com.redhat.cloud.notifications.models.BehaviorGroupActionId;
+import com.redhat.cloud.notifications.models.Bundle;
+import com.redhat.cloud.notifications.models.Endpoint;
+import com.redhat.cloud.notifications.models.EndpointProperties;
+import com.redhat.cloud.notifications.models.EndpointType;
+import com.redhat.cloud.notifications.models.EventType;
+import com.redhat.cloud.notifications.models.EventTypeBehavior;
+import com.redhat.cloud.notifications.models.EventTypeBehaviorId;
+import com.redhat.cloud.notifications.models.HttpType;
+import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
+import com.redhat.cloud.notifications.models.WebhookProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.api.KafkaMessageMetadata;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.kafka.common.header.Header;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static com.redhat.cloud.notifications.TestHelpers.serializeAction;
+import static com.redhat.cloud.notifications.events.ConnectorReceiver.FROMCAMEL_CHANNEL;
+import static com.redhat.cloud.notifications.events.ConnectorReceiver.MESSAGES_PROCESSED_COUNTER_NAME;
+import static com.redhat.cloud.notifications.events.EventConsumer.INGRESS_CHANNEL;
+import static com.redhat.cloud.notifications.events.EventConsumer.PROCESSING_EXCEPTION_COUNTER_NAME;
+import static com.redhat.cloud.notifications.models.EndpointStatus.READY;
+import static com.redhat.cloud.notifications.models.EndpointType.DRAWER;
+import static com.redhat.cloud.notifications.models.EndpointType.EMAIL_SUBSCRIPTION;
+import static com.redhat.cloud.notifications.models.EndpointType.WEBHOOK;
+import static com.redhat.cloud.notifications.processors.ConnectorSender.CLOUD_EVENT_TYPE_PREFIX;
+import static com.redhat.cloud.notifications.processors.ConnectorSender.TOCAMEL_CHANNEL;
+import static com.redhat.cloud.notifications.processors.ConnectorSender.X_RH_NOTIFICATIONS_CONNECTOR_HEADER;
+import static com.redhat.cloud.notifications.processors.ConnectorSender.X_RH_NOTIFICATIONS_CONSUMED_TIME_HEADER;
+import static com.redhat.cloud.notifications.processors.ConnectorSender.X_RH_NOTIFICATIONS_SENT_TIME_HEADER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load harness of the engine pipeline, from {@link EventConsumer} to {@link ConnectorReceiver}. The Kafka topics are
+ * replaced with in-memory channels and the connectors are simulated, so the harness only needs a PostgreSQL database.
+ * It is not run with the other tests and has to be selected explicitly:
+ * <pre>
+ * ./mvnw test -pl engine -Dtest=EnginePipelineLoadHarness -Dload-harness.events=10000 -Dload-harness.orgs=100
+ * </pre>
+ * A local PostgreSQL database (see quarkus.datasource.jdbc.url) is used instead of a container when
+ * {@code -Dquarkus.devservices.enabled=false} is added to the command.
+ */
+@QuarkusTest
+@QuarkusTestResource(TestLifecycleManager.class)
+@TestProfile(EnginePipelineLoadHarness.HarnessProfile.class)
+public class EnginePipelineLoadHarness {
+
+    private static final String WEBHOOK_URL = "https://localhost/load-harness";
+    private static final String RESOLVED_RECIPIENTS_GZIP = "resolved_recipients_gzip";
+    // See DrawerNotificationBatcher#BATCH_ROWS_SUMMARY_NAME.
+    private static final String DRAWER_INSERT_BATCH_ROWS_SUMMARY_NAME = "drawer.insert.batch.rows";
+
+    @ConfigProperty(name = "load-harness.events", defaultValue = "1000")
+    int eventsCount;
+
+    @ConfigProperty(name = "load-harness.orgs", defaultValue = "10")
+    int orgsCount;
+
+    // The number of webhook endpoints per org. Each org also has one email endpoint and one drawer endpoint.
+    @ConfigProperty(name = "load-harness.webhooks-per-org", defaultValue = "2")
+    int webhooksPerOrg;
+
+    // The size of the payload added to each event of the actions.
+    @ConfigProperty(name = "load-harness.payload-size", defaultValue = "1024")
+    int payloadSize;
+
+    // The ratio of the events which are sent by email, to the drawer and to the webhooks, e.g. 1:1:2.
+    @ConfigProperty(name = "load-harness.mix", defaultValue = "1:1:2")
+    String mix;
+
+    // The number of recipients returned by the simulated drawer connector.
+    @ConfigProperty(name = "load-harness.drawer-recipients", defaultValue = "10")
+    int drawerRecipients;
+
+    // 0 means that the events are sent as fast as the engine consumes them.
+    @ConfigProperty(name = "load-harness.events-per-second", defaultValue = "0")
+    int eventsPerSecond;
+
+    @ConfigProperty(name = "load-harness.timeout", defaultValue = "PT10M")
+    Duration timeout;
+
+    @Inject
+    @Any
+    InMemoryConnector inMemoryConnector;
+
+    @Inject
+    ResourceHelpers resourceHelpers;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<UUID, Long> ingressTimes = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> connectorTimes = new ConcurrentHashMap<>();
+
+    @Test
+    void run() throws InterruptedException {
+        String bundleName = "load-harness-" + RandomStringUtils.randomAlphabetic(8).toLowerCase();
+        Bundle bundle = resourceHelpers.createBundle(bundleName);
+        Application app = resourceHelpers.createApp(bundle.getId(), "load-harness");
+        EventType emailEventType = resourceHelpers.createEventType(app.getId(), "email");
+        EventType drawerEventType = resourceHelpers.createEventType(app.getId(), "drawer");
+        EventType webhookEventType = resourceHelpers.createEventType(app.getId(), "webhook");
+        resourceHelpers.createBlankInstantEmailTemplate(bundleName, app.getName(), emailEventType.getName());
+        subscribeByDefault(emailEventType);
+
+        List<String> orgIds = new ArrayList<>();
+        for (int i = 0; i < orgsCount; i++) {
+            String orgId = bundleName + "-org-" + i;
+            orgIds.add(orgId);
+            createBehaviorGroup(orgId, bundle, drawerEventType, List.of(createSystemEndpoint(orgId, DRAWER)));
+            createBehaviorGroup(orgId, bundle, emailEventType, List.of(createSystemEndpoint(orgId, EMAIL_SUBSCRIPTION)));
+            List<Endpoint> webhooks = new ArrayList<>();
+            for (int j = 0; j < webhooksPerOrg; j++) {
+                webhooks.add(createWebhookEndpoint(orgId));
+            }
+            createBehaviorGroup(orgId, bundle, webhookEventType, webhooks);
+        }
+        entityManager.clear();
+
+        // The events are serialized before the measurement starts.
+        int[] weights = Arrays.stream(mix.split(":")).mapToInt(Integer::parseInt).toArray();
+        int totalWeight = Arrays.stream(weights).sum();
+        String filler = RandomStringUtils.randomAlphanumeric(payloadSize);
+        Map<UUID, String> events = new HashMap<>();
+        List<UUID> eventIds = new ArrayList<>();
+        long expectedNotifications = 0;
+        for (int i = 0; i < eventsCount; i++) {
+            int slot = i % totalWeight;
+            EventType eventType;
+            if (slot < weights[0]) {
+                eventType = emailEventType;
+                expectedNotifications++;
+            } else if (slot < weights[0] + weights[1]) {
+                eventType = drawerEventType;
+                expectedNotifications++;
+            } else {
+                eventType = webhookEventType;
+                expectedNotifications += webhooksPerOrg;
+            }
+            UUID eventId = UUID.randomUUID();
+            events.put(eventId, serializeAction(buildAction(eventId, orgIds.get(i % orgsCount), bundleName, app.getName(), eventType.getName(), filler)));
+            eventIds.add(eventId);
+        }
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        Counter repliesCounter = meterRegistry.counter(MESSAGES_PROCESSED_COUNTER_NAME);
+        Counter exceptionsCounter = meterRegistry.counter(PROCESSING_EXCEPTION_COUNTER_NAME);
+        double repliesBefore = repliesCounter.count();
+        double exceptionsBefore = exceptionsCounter.count();
+
+        /*
+         * The drawer notifications are inserted with raw JDBC statements which are not counted by the Hibernate
+         * statistics. Each insert batch is one statement, unless it has more rows than a single statement accepts.
+         */
+        DistributionSummary drawerBatchesSummary = meterRegistry.summary(DRAWER_INSERT_BATCH_ROWS_SUMMARY_NAME);
+        long drawerBatchesBefore = drawerBatchesSummary.count();
+
+        // The sink is cleared before the first event is sent, so that the simulator only replies to this run.
+        InMemorySink<JsonObject> sink = inMemoryConnector.sink(TOCAMEL_CHANNEL);
+        sink.clear();
+        ConnectorSimulator connectorSimulator = new ConnectorSimulator(sink);
+        Thread simulatorThread = new Thread(connectorSimulator, "load-harness-connectors");
+        simulatorThread.start();
+
+        long start = System.nanoTime();
+        long interval = eventsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / eventsPerSecond : 0;
+        for (int i = 0; i < eventIds.size(); i++) {
+            if (interval > 0) {
+                long delay = start + i * interval - System.nanoTime();
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+            }
+            UUID eventId = eventIds.get(i);
+            ingressTimes.put(eventId, System.currentTimeMillis());
+            inMemoryConnector.source(INGRESS_CHANNEL).send(events.get(eventId));
+        }
+
+        long expectedReplies = expectedNotifications;
+        await().atMost(timeout).pollInterval(Duration.ofMillis(100L))
+            .until(() -> repliesCounter.count() - repliesBefore >= expectedReplies);
+        long elapsed = System.nanoTime() - start;
+        long hibernateStatements = statistics.getPrepareStatementCount();
+        long drawerStatements = drawerBatchesSummary.count() - drawerBatchesBefore;
+        long statements = hibernateStatements + drawerStatements;
+        connectorSimulator.stop();
+        simulatorThread.join();
+
+        long[] latencies = getIngressToConnectorLatencies(orgIds);
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        Log.infof("""
+            ++++ Engine pipeline load harness +++
+            events=%d, notifications=%d, orgs=%d, webhooks-per-org=%d, payload-size=%d, mix=%s, events-per-second=%d
+            duration: %.2f s
+            throughput: %.1f events/s, %.1f notifications/s
+            ingress to connector latency: p50=%d ms, p99=%d ms, max=%d ms
+            DB statements: %d (Hibernate: %d, drawer inserts: %d), %.1f per event, %.1f per notification""",
+            eventsCount, expectedNotifications, orgsCount, webhooksPerOrg, payloadSize, mix, eventsPerSecond,
+            seconds,
+            eventsCount / seconds, expectedNotifications / seconds,
+            percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 1),
+            statements, hibernateStatements, drawerStatements, statements / (double) eventsCount, statements / (double) expectedNotifications);
+
+        assertEquals(0, exceptionsCounter.count() - exceptionsBefore, "Some events could not be processed, see the engine log");
+        assertEquals(expectedNotifications, latencies.length);
+    }
+
+    private static Action buildAction(UUID eventId, String orgId, String bundleName, String appName, String eventTypeName, String filler) {
+        Action action = new Action();
+        action.setId(eventId);
+        action.setVersion("v1.0.0");
+        action.setOrgId(orgId);
+        action.setBundle(bundleName);
+        action.setApplication(appName);
+        action.setEventType(eventTypeName);
+        action.setTimestamp(LocalDateTime.now());
+        action.setContext(new Context.ContextBuilder()
+            .withAdditionalProperty("display_name", "load-harness-host")
+            .build());
+        action.setRecipients(List.of());
+        action.setEvents(List.of(
+            new Event.EventBuilder()
+                .withMetadata(new Metadata.MetadataBuilder().build())
+                .withPayload(new Payload.PayloadBuilder()
+                    .withAdditionalProperty("filler", filler)
+                    .build())
+                .build()
+        ));
+        return action;
+    }
+
+    /*
+     * The latency of each notification is measured from the event emission on the ingress channel to the message
+     * emission on the tocamel channel, as stamped by ConnectorSender.
+     */
+    @Transactional
+    long[] getIngressToConnectorLatencies(List<String> orgIds) {
+        List<Object[]> historyEvents = entityManager.createQuery("SELECT h.id, h.event.id FROM NotificationHistory h WHERE h.event.orgId IN (:orgIds)", Object[].class)
+            .setParameter("orgIds", orgIds)
+            .getResultList();
+        long[] latencies = historyEvents.stream()
+            .filter(historyEvent -> connectorTimes.containsKey((UUID) historyEvent[0]))
+            .mapToLong(historyEvent -> connectorTimes.get((UUID) historyEvent[0]) - ingressTimes.get((UUID) historyEvent[1]))
+            .toArray();
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, index)];
+    }
+
+    @Transactional
+    void subscribeByDefault(EventType eventType) {
+        entityManager.createQuery("UPDATE EventType SET subscribedByDefault = true WHERE id = :id")
+            .setParameter("id", eventType.getId())
+            .executeUpdate();
+    }
+
+    private Endpoint createSystemEndpoint(String orgId, EndpointType type) {
+        SystemSubscriptionProperties properties = new SystemSubscriptionProperties();
+        return createEndpoint(orgId, type, properties);
+    }
+
+    private Endpoint createWebhookEndpoint(String orgId) {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setMethod(HttpType.POST);
+        properties.setUrl(WEBHOOK_URL);
+        return createEndpoint(orgId, WEBHOOK, properties);
+    }
+
+    @Transactional
+    Endpoint createEndpoint(String orgId, EndpointType type, EndpointProperties properties) {
+        Endpoint endpoint = new Endpoint();
+        endpoint.setType(type);
+        endpoint.setOrgId(orgId);
+        endpoint.setEnabled(true);
+        endpoint.setName(UUID.randomUUID().toString());
+        endpoint.setDescription("Load harness endpoint");
+        endpoint.setProperties(properties);
+        endpoint.setStatus(READY);
+        properties.setEndpoint(endpoint);
+
+        entityManager.persist(endpoint);
+        entityManager.persist(endpoint.getProperties());
+        return endpoint;
+    }
+
+    @Transactional
+    void createBehaviorGroup(String orgId, Bundle bundle, EventType eventType, List<Endpoint> endpoints) {
+        BehaviorGroup behaviorGroup = new BehaviorGroup();
+        behaviorGroup.setOrgId(orgId);
+        behaviorGroup.setDisplayName(UUID.randomUUID().toString());
+        behaviorGroup.setBundle(bundle);
+        behaviorGroup.setBundleId(bundle.getId());
+        entityManager.persist(behaviorGroup);
+
+        for (Endpoint endpoint : endpoints) {
+            BehaviorGroupAction action = new BehaviorGroupAction();
+            action.setId(new BehaviorGroupActionId());
+            action.setBehaviorGroup(behaviorGroup);
+            action.setEndpoint(entityManager.find(Endpoint.class, endpoint.getId()));
+            entityManager.persist(action);
+        }
+
+        EventTypeBehavior behavior = new EventTypeBehavior();
+        behavior.setId(new EventTypeBehaviorId());
+        behavior.setEventType(entityManager.find(EventType.class, eventType.getId()));
+        behavior.setBehaviorGroup(behaviorGroup);
+        entityManager.persist(behavior);
+        entityManager.flush();
+        resourceHelpers.refreshEndpointLinksToEventTypeFromBehaviorGroup(orgId, Set.of(behaviorGroup.getId()));
+    }
+
+    /*
+     * Replies to the messages sent to the connectors the way the connectors do, with the stage timestamps of the
+     * engine and a successful outcome. The in-memory sink doesn't notify its consumers, so it is polled.
+     */
+    private class ConnectorSimulator implements Runnable {
+
+        private final InMemorySink<JsonObject> sink;
+        private volatile boolean running = true;
+
+        ConnectorSimulator(InMemorySink<JsonObject> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void run() {
+            String drawerRecipientsGzip = encodeDrawerRecipients();
+            int replied = 0;
+            while (running) {
+                List<? extends Message<JsonObject>> received = sink.received();
+                for (int i = replied; i < received.size(); i++) {
+                    reply(received.get(i), drawerRecipientsGzip);
+                }
+                replied = received.size();
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        private void reply(Message<JsonObject> message, String drawerRecipientsGzip) {
+            UUID historyId = UUID.fromString(message.getMetadata(OutgoingCloudEventMetadata.class).orElseThrow().getId());
+            KafkaMessageMetadata<?> kafkaMetadata = message.getMetadata(KafkaMessageMetadata.class).orElseThrow();
+            String connector = getHeader(kafkaMetadata, X_RH_NOTIFICATIONS_CONNECTOR_HEADER);
+            long sentTime = Long.parseLong(getHeader(kafkaMetadata, X_RH_NOTIFICATIONS_SENT_TIME_HEADER));
+            connectorTimes.put(historyId, sentTime);
+
+            Map<String, Object> details = new HashMap<>();
+            details.put("type", CLOUD_EVENT_TYPE_PREFIX + connector);
+            details.put("target", WEBHOOK_URL);
+            if (DRAWER.name().toLowerCase().equals(connector)) {
+                details.put(RESOLVED_RECIPIENTS_GZIP, drawerRecipientsGzip);
+            }
+            long now = System.currentTimeMillis();
+            Map<String, Object> stageTimestamps = new HashMap<>();
+            stageTimestamps.put("consumed", Long.parseLong(getHeader(kafkaMetadata, X_RH_NOTIFICATIONS_CONSUMED_TIME_HEADER)));
+            stageTimestamps.put("sent", sentTime);
+            stageTimestamps.put("received", now);
+            stageTimestamps.put("processing_started", now);
+            stageTimestamps.put("completed", now);
+            Map<String, Object> data = Map.of(
+                "duration", 0L,
+                "successful", true,
+                "details", details,
+                "remote_call_duration", 0L,
+                "stage_timestamps", stageTimestamps
+            );
+
+            inMemoryConnector.source(FROMCAMEL_CHANNEL).send(Json.encode(Map.of(
+                "specversion", "1.0",
+                "source", connector,
+                "type", "com.redhat.cloud.notifications.history",
+                "time", LocalDateTime.now().toString(),
+                "id", historyId.toString(),
+                "content-type", "application/json",
+                "data", Json.encode(data)
+            )));
+        }
+
+        private static String getHeader(KafkaMessageMetadata<?> kafkaMetadata, String name) {
+            Header header = kafkaMetadata.getHeaders().lastHeader(name);
+            return new String(header.value(), UTF_8);
+        }
+
+        private String encodeDrawerRecipients() {
+            List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < drawerRecipients; i++) {
+                usernames.add("load-harness-user-" + i);
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(String.join(",", usernames).getBytes(UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Base64.getEncoder().encodeToString(compressed.toByteArray());
+        }
+    }
+
+    public static class HarnessProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.hibernate-orm.statistics", "true",
+                "notifications.drawer.enabled", "true"
+            );
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.redhat.cloud.notifications.models.HttpType;
 import com.redhat.cloud.notifications.models.NotificationHistory;
 import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
 import com.redhat.cloud.notifications.models.WebhookProperties;
+import io.quarkus.cache.CacheInvalidateAll;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
@@ -178,6 +179,7 @@ public class LifecycleITest {
 
         // Lets subscribe the user to the email preferences
         subscribeUserPreferences(username, eventType.getId());
+        invalidateSubscribersCache();
 
         // Pushing a new message should trigger three webhook calls and 1 email
         pushMessage(3, 1, 1, 0);
@@ -448,4 +450,12 @@ public class LifecycleITest {
         subscription.setType(INSTANT);
         entityManager.persist(subscription);
     }
+
+    @CacheInvalidateAll(cacheName = "subscribers")
+    void invalidateSubscribersCache() {
+        /*
+         * This would normally happen after a certain duration fixed in application.properties with the
+         * quarkus.cache.caffeine.subscribers.expire-after-write key.
+         */
+    }
 }
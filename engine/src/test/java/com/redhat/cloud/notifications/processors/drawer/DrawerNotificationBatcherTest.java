@@ -0,0 +1,87 @@
+package com.redhat.cloud.notifications.processors.drawer;
+
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository.DrawerNotificationsInsert;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class DrawerNotificationBatcherTest {
+
+    @Inject
+    DrawerNotificationBatcher batcher;
+
+    @InjectMock
+    DrawerNotificationRepository drawerNotificationRepository;
+
+    @InjectMock
+    EngineConfig engineConfig;
+
+    @Test
+    void testWithoutWindow() {
+        when(engineConfig.getDrawerInsertBatchWindow()).thenReturn(Duration.ZERO);
+        when(drawerNotificationRepository.create(anyList())).thenReturn(2);
+
+        batcher.insert(buildInsert("user-1", "user-2"));
+        batcher.insert(buildInsert("user-3"));
+
+        verify(drawerNotificationRepository, times(2)).create(argThat((List<DrawerNotificationsInsert> inserts) -> inserts.size() == 1));
+    }
+
+    @Test
+    void testConcurrentInsertsShareABatch() {
+        when(engineConfig.getDrawerInsertBatchWindow()).thenReturn(Duration.ofMillis(500));
+        when(engineConfig.getDrawerInsertBatchMaxRows()).thenReturn(1000);
+        when(drawerNotificationRepository.create(anyList())).thenReturn(3);
+
+        CompletableFuture.allOf(
+            CompletableFuture.runAsync(() -> batcher.insert(buildInsert("user-1"))),
+            CompletableFuture.runAsync(() -> batcher.insert(buildInsert("user-2"))),
+            CompletableFuture.runAsync(() -> batcher.insert(buildInsert("user-3")))
+        ).join();
+
+        verify(drawerNotificationRepository, times(1)).create(argThat((List<DrawerNotificationsInsert> inserts) -> inserts.size() == 3));
+    }
+
+    @Test
+    void testFullBatchIsFlushedBeforeTheEndOfTheWindow() {
+        when(engineConfig.getDrawerInsertBatchWindow()).thenReturn(Duration.ofMinutes(1));
+        when(engineConfig.getDrawerInsertBatchMaxRows()).thenReturn(2);
+        when(drawerNotificationRepository.create(anyList())).thenReturn(2);
+
+        // This would block for a minute if the batch wasn't flushed as soon as it's full.
+        batcher.insert(buildInsert("user-1", "user-2"));
+
+        verify(drawerNotificationRepository, times(1)).create(anyList());
+    }
+
+    @Test
+    void testFailureIsPropagated() {
+        when(engineConfig.getDrawerInsertBatchWindow()).thenReturn(Duration.ZERO);
+        when(drawerNotificationRepository.create(anyList())).thenThrow(new IllegalStateException("insert failed"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> batcher.insert(buildInsert("user-1")));
+        assertEquals("insert failed", e.getMessage());
+    }
+
+    private static DrawerNotificationsInsert buildInsert(String... userIds) {
+        return new DrawerNotificationsInsert("123456", UUID.randomUUID(), LocalDateTime.now(), userIds);
+    }
+}
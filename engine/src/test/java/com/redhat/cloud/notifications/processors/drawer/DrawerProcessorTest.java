@@ -3,6 +3,7 @@ package com.redhat.cloud.notifications.processors.drawer;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository;
+import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository.DrawerNotificationsInsert;
 import com.redhat.cloud.notifications.db.repositories.NotificationHistoryRepository;
 import com.redhat.cloud.notifications.events.EventWrapperAction;
 import com.redhat.cloud.notifications.ingress.Action;
@@ -35,19 +36,29 @@ import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import static com.redhat.cloud.notifications.processors.ConnectorSender.TOCAMEL_CHANNEL;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -145,6 +156,44 @@ class DrawerProcessorTest {
         deleteEvent(createdEvent);
     }
 
+    @Test
+    void shouldKeepResolvedRecipientsOutOfHistoryDetails() throws IOException {
+        UUID historyId = UUID.randomUUID();
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setOrgId("123456");
+        event.setCreated(LocalDateTime.now());
+        doReturn(event).when(notificationHistoryRepository).getEventIdFromHistoryId(historyId);
+        doReturn(2).when(drawerNotificationRepository).create(anyList());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("type", "com.redhat.console.notification.toCamel.drawer");
+        details.put(DrawerProcessor.RESOLVED_RECIPIENTS_GZIP, encodeRecipients("foo,bar"));
+        details.put(DrawerProcessor.RESOLVED_RECIPIENTS_COUNT, 2);
+        testee.manageConnectorDrawerReturnsIfNeeded(new HashMap<>(Map.of("details", details)), historyId);
+
+        verify(drawerNotificationRepository, times(1)).create(argThat((List<DrawerNotificationsInsert> inserts) ->
+            inserts.size() == 1 && inserts.get(0).eventId().equals(event.getId()) && Arrays.equals(new String[] {"foo", "bar"}, inserts.get(0).userIds())));
+        assertEquals(Map.of("type", "com.redhat.console.notification.toCamel.drawer", "new_drawer_entry_counter", 2), details);
+
+        // Without recipients, no drawer notification is created but the recipients are still removed from the details.
+        details.put(DrawerProcessor.RESOLVED_RECIPIENTS_GZIP, encodeRecipients(""));
+        details.put(DrawerProcessor.RESOLVED_RECIPIENTS_COUNT, 0);
+        details.remove("new_drawer_entry_counter");
+        testee.manageConnectorDrawerReturnsIfNeeded(new HashMap<>(Map.of("details", details)), historyId);
+
+        verify(drawerNotificationRepository, times(1)).create(anyList());
+        assertEquals(Map.of("type", "com.redhat.console.notification.toCamel.drawer"), details);
+    }
+
+    private static String encodeRecipients(String recipients) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(recipients.getBytes(UTF_8));
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
     @Transactional
     Event createEvent() {
         Bundle createdBundle = resourceHelpers.createBundle("test-drawer-engine-event-bundle");
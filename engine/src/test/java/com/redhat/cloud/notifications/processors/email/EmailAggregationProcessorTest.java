@@ -19,10 +19,13 @@ import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
 import com.redhat.cloud.notifications.processors.email.connector.dto.EmailNotification;
-import com.redhat.cloud.notifications.recipients.RecipientSettings;
 import com.redhat.cloud.notifications.recipients.User;
 import com.redhat.cloud.notifications.recipients.recipientsresolver.ExternalRecipientsResolver;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.RecipientsQuery;
 import com.redhat.cloud.notifications.templates.EmailTemplateMigrationService;
+import com.redhat.cloud.notifications.utils.ActionParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.ClientProxy;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
@@ -32,6 +35,7 @@ import jakarta.enterprise.inject.Any;
 import jakarta.inject.Inject;
 import jakarta.persistence.NoResultException;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +44,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -48,24 +53,31 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.redhat.cloud.notifications.TestConstants.DEFAULT_ORG_ID;
 import static com.redhat.cloud.notifications.events.EventConsumer.INGRESS_CHANNEL;
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
+import static com.redhat.cloud.notifications.processors.email.AggregationManagedExecutorProducer.AGGREGATION_MAX_ASYNC;
+import static com.redhat.cloud.notifications.processors.email.AggregationManagedExecutorProducer.AGGREGATION_MAX_QUEUED;
+import static com.redhat.cloud.notifications.processors.email.EmailAggregationProcessor.AGGREGATION_BACKLOG_GAUGE_NAME;
 import static com.redhat.cloud.notifications.processors.email.EmailAggregationProcessor.AGGREGATION_COMMAND_ERROR_COUNTER_NAME;
 import static com.redhat.cloud.notifications.processors.email.EmailAggregationProcessor.AGGREGATION_COMMAND_PROCESSED_COUNTER_NAME;
 import static com.redhat.cloud.notifications.processors.email.EmailAggregationProcessor.AGGREGATION_COMMAND_REJECTED_COUNTER_NAME;
 import static com.redhat.cloud.notifications.processors.email.EmailAggregationProcessor.AGGREGATION_CONSUMED_TIMER_NAME;
 import static java.time.ZoneOffset.UTC;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -103,6 +115,21 @@ class EmailAggregationProcessorTest {
     @InjectSpy
     TemplateRepository templateRepository;
 
+    @Inject
+    EmailAggregationProcessor emailAggregationProcessor;
+
+    @InjectSpy
+    ActionParser actionParser;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = AGGREGATION_MAX_ASYNC, defaultValue = "10")
+    int maxAsync;
+
+    @ConfigProperty(name = AGGREGATION_MAX_QUEUED, defaultValue = "100")
+    int maxQueued;
+
     static User user1 = new User();
     static User user2 = new User();
     static User user3 = new User();
@@ -495,14 +522,55 @@ class EmailAggregationProcessorTest {
         }
     }
 
+    @Test
+    void shouldRejectAggregationsWithoutBlockingWhenBacklogIsFull() throws InterruptedException {
+        EmailAggregationProcessor processor = ClientProxy.unwrap(emailAggregationProcessor);
+        int initialMaxPending = processor.maxPending;
+        processor.maxPending = 2;
+
+        // The aggregations are held by the action parser, so that they take every executor slot.
+        CountDownLatch parsingAllowed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            parsingAllowed.await(30, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(actionParser).fromJsonString(anyString());
+
+        int executorSlots = maxAsync + maxQueued;
+        try {
+            // The running and queued tasks of the executor, then the backlog, then one more aggregation.
+            for (int i = 0; i < executorSlots + 3; i++) {
+                Event event = new Event();
+                event.setId(UUID.randomUUID());
+                event.setOrgId(DEFAULT_ORG_ID);
+                // This payload is rejected by the action parser once the aggregation is processed.
+                event.setPayload("not an action");
+                emailAggregationProcessor.processAggregation(event);
+            }
+
+            // The last aggregation doesn't fit in the backlog, it is rejected from the calling thread.
+            assertEquals(executorSlots + 2, registry.get(AGGREGATION_BACKLOG_GAUGE_NAME).gauge().value());
+            micrometerAssertionHelper.assertCounterIncrement(AGGREGATION_COMMAND_REJECTED_COUNTER_NAME, 1);
+        } finally {
+            processor.maxPending = initialMaxPending;
+            parsingAllowed.countDown();
+        }
+
+        // The pending aggregations are submitted in order as soon as executor slots are available.
+        micrometerAssertionHelper.awaitAndAssertCounterIncrement(AGGREGATION_COMMAND_REJECTED_COUNTER_NAME, executorSlots + 3);
+        await().atMost(Duration.ofSeconds(30)).until(() -> registry.get(AGGREGATION_BACKLOG_GAUGE_NAME).gauge().value() == 0);
+        micrometerAssertionHelper.assertCounterIncrement(AGGREGATION_COMMAND_PROCESSED_COUNTER_NAME, 0);
+    }
+
     private void mockUsers(User user1, User user2, User user3) {
-        when(externalRecipientsResolver.recipientUsers(anyString(), anySet(), anySet(), anySet(), anyBoolean(), any()))
+        when(externalRecipientsResolver.recipientUsers(anyList()))
             .then(invocation -> {
-                    Set<RecipientSettings> list = invocation.getArgument(1);
-                    if (list.isEmpty()) {
-                        return Set.of(user1, user2);
-                    }
-                    return Set.of(user1, user2, user3);
+                    List<RecipientsQuery> queries = invocation.getArgument(0);
+                    return queries.stream().map(query -> {
+                        if (query.recipientSettings.isEmpty()) {
+                            return Set.of(user1, user2);
+                        }
+                        return Set.of(user1, user2, user3);
+                    }).toList();
                 }
             );
     }
@@ -0,0 +1,309 @@
+package com.redhat.cloud.notifications.processors.email;
+
+import com.redhat.cloud.notifications.TestHelpers;
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.ResourceHelpers;
+import com.redhat.cloud.notifications.db.repositories.EmailAggregationRepository;
+import com.redhat.cloud.notifications.db.repositories.EmailAggregationStateRepository;
+import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.ingress.Recipient;
+import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.EmailAggregation;
+import com.redhat.cloud.notifications.models.EmailAggregationKey;
+import com.redhat.cloud.notifications.models.Endpoint;
+import com.redhat.cloud.notifications.models.EndpointType;
+import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
+import com.redhat.cloud.notifications.processors.email.connector.dto.RecipientSettings;
+import com.redhat.cloud.notifications.processors.email.state.EmailAggregationState;
+import com.redhat.cloud.notifications.recipients.User;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.RecipientsResolverService;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.RecipientsQuery;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
+import static java.time.ZoneOffset.UTC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ * The digests built from the aggregation states must always be the same as the digests built from the email
+ * aggregations. When the states can't be used, the digests are built from the email aggregations.
+ */
+@QuarkusTest
+class EmailAggregatorStateTest {
+
+    private static final String ORG_ID = "org-incremental";
+    private static final LocalTime DAILY_DIGEST_TIME = LocalTime.of(10, 0);
+    private static final EmailAggregationKey AGGREGATION_KEY = new EmailAggregationKey(ORG_ID, "rhel", "policies");
+    // This user is returned for every recipients query.
+    private static final String COMMON_USER = "common-user";
+
+    @InjectSpy
+    EngineConfig engineConfig;
+
+    @InjectSpy
+    EmailAggregationRepository emailAggregationRepository;
+
+    @Inject
+    EmailAggregationStateRepository emailAggregationStateRepository;
+
+    @InjectMock
+    @RestClient
+    RecipientsResolverService recipientsResolverService;
+
+    @InjectMock
+    EndpointRepository endpointRepository;
+
+    @Inject
+    EmailAggregator emailAggregator;
+
+    @Inject
+    ResourceHelpers resourceHelpers;
+
+    Application application;
+    // The state window ends yesterday at the daily digest time, the digest window ends a few minutes later.
+    LocalDateTime windowEnd;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    @BeforeEach
+    void beforeEach() {
+        windowEnd = LocalDate.now(UTC).minusDays(1).atTime(DAILY_DIGEST_TIME);
+        start = windowEnd.minusDays(1).plusMinutes(3);
+        end = windowEnd.plusMinutes(5);
+
+        application = resourceHelpers.findApp("rhel", "policies");
+        resourceHelpers.findOrCreateEventType(application.getId(), TestHelpers.eventType);
+        resourceHelpers.createOrUpdateAggregationOrgConfig(ORG_ID, DAILY_DIGEST_TIME);
+
+        Endpoint endpoint = new Endpoint();
+        endpoint.setProperties(new SystemSubscriptionProperties());
+        endpoint.setType(EndpointType.EMAIL_SUBSCRIPTION);
+        when(endpointRepository.getTargetEmailSubscriptionEndpoints(anyString(), any(UUID.class))).thenReturn(List.of(endpoint));
+
+        // Each query is resolved as the common user and the users of its action recipients.
+        when(recipientsResolverService.getRecipientsBatch(anyList())).then(parameters -> {
+            List<RecipientsQuery> queries = parameters.getArgument(0);
+            return queries.stream().map(query -> {
+                Set<String> usernames = new HashSet<>();
+                usernames.add(COMMON_USER);
+                for (RecipientSettings recipientSettings : query.recipientSettings) {
+                    if (recipientSettings.getUsers() != null) {
+                        usernames.addAll(recipientSettings.getUsers());
+                    }
+                }
+                return usernames.stream().map(username -> {
+                    User user = new User();
+                    user.setUsername(username);
+                    return user;
+                }).collect(Collectors.toSet());
+            }).toList();
+        });
+
+        when(engineConfig.isIncrementalAggregationEnabled()).thenReturn(true);
+    }
+
+    @AfterEach
+    void afterEach() {
+        when(engineConfig.isIncrementalAggregationEnabled()).thenReturn(false);
+        emailAggregator.purge(AGGREGATION_KEY, LocalDateTime.now(UTC).plusDays(2));
+        resourceHelpers.deleteAggregationOrgConfig(ORG_ID);
+    }
+
+    @Test
+    void testAllAndSinglePartitionContexts() {
+        addAndFold(start.plusHours(1), "policy-1");
+        addAndFold(start.plusHours(2), "policy-2");
+        addAndFold(start.plusHours(3), "policy-3", "user-a");
+        // These ones are created after the end of the state window and aggregated on top of the states.
+        addAndFold(windowEnd.plusMinutes(1), "policy-4");
+        addAndFold(windowEnd.plusMinutes(2), "policy-5", "user-b");
+
+        Map<User, Map<String, Object>> aggregated = assertSameDigest(start, end, true);
+        assertEquals(Set.of(COMMON_USER, "user-a", "user-b"), aggregated.keySet().stream().map(User::getUsername).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testFallbackWhenRecipientIsTargetedBySomePartitions() {
+        addAndFold(start.plusHours(1), "policy-1");
+        addAndFold(start.plusHours(2), "policy-2", "user-a");
+        addAndFold(start.plusHours(3), "policy-3", "user-a", "user-b");
+
+        assertSameDigest(start, end, false);
+    }
+
+    @Test
+    void testFallbackWhenEventTypeIsUnknown() {
+        addAndFold(start.plusHours(1), "policy-1");
+        EmailAggregation unknown = buildEmailAggregation(start.plusHours(2), "policy-2");
+        unknown.getPayload().put("event_type", "unknown-event-type");
+        emailAggregationRepository.addEmailAggregation(unknown);
+        emailAggregator.fold(unknown);
+
+        assertSameDigest(start, end, false);
+    }
+
+    @Test
+    void testFallbackWhenStateMissesAnAggregation() {
+        addAndFold(start.plusHours(1), "policy-1");
+        // This email aggregation is not folded into the states.
+        emailAggregationRepository.addEmailAggregation(buildEmailAggregation(start.plusHours(2), "policy-2"));
+
+        assertSameDigest(start, end, false);
+    }
+
+    @Test
+    void testFallbackWhenStateAggregatedAnEarlierAggregation() {
+        // This email aggregation belongs to the state window but was included in the previous digest.
+        addAndFold(start.minusMinutes(1), "policy-1");
+        addAndFold(start.plusHours(1), "policy-2");
+
+        assertSameDigest(start, end, false);
+    }
+
+    @Test
+    void testFoldsCommittedOutOfOrder() {
+        addAndFold(start.plusHours(3), "policy-3");
+        addAndFold(start.plusHours(1), "policy-1");
+        addAndFold(start.plusHours(2), "policy-2");
+
+        EmailAggregationState allState = getAllState(windowEnd);
+        assertEquals(3, allState.getAggregations());
+        assertEquals(start.plusHours(1), allState.getFirstCreated());
+        assertEquals(start.plusHours(3), allState.getLastCreated());
+        assertSameDigest(start, end, true);
+    }
+
+    @Test
+    void testPurgeRebuildsTheNextWindow() {
+        addAndFold(start.plusHours(1), "policy-1");
+        // This one is included in the digest but it belongs to the next window.
+        addAndFold(windowEnd.plusMinutes(1), "policy-2");
+        // These ones are created between the end of the digest and the purge.
+        addAndFold(end.plusMinutes(1), "policy-3");
+        addAndFold(end.plusMinutes(2), "policy-4", "user-a");
+
+        assertSameDigest(start, end, true);
+        emailAggregator.purge(AGGREGATION_KEY, end);
+
+        LocalDateTime nextWindowEnd = windowEnd.plusDays(1);
+        assertTrue(emailAggregationStateRepository.getStates(AGGREGATION_KEY).stream().allMatch(state -> state.getId().windowEnd.equals(nextWindowEnd)));
+        EmailAggregationState allState = getAllState(nextWindowEnd);
+        assertEquals(2, allState.getAggregations());
+        assertEquals(end.plusMinutes(1), allState.getFirstCreated());
+        assertEquals(end.plusMinutes(2), allState.getLastCreated());
+
+        addAndFold(end.plusHours(1), "policy-5");
+        assertSameDigest(end, nextWindowEnd.plusMinutes(5), true);
+    }
+
+    @Test
+    void testConcurrentFolds() throws Exception {
+        int aggregations = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < aggregations; i++) {
+                LocalDateTime created = start.plusMinutes(10 + i);
+                String policyId = "policy-" + i;
+                String[] extraRecipients = i % 2 == 0 ? new String[0] : new String[] {"user-a"};
+                futures.add(executor.submit(() -> addAndFold(created, policyId, extraRecipients)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        EmailAggregationState allState = getAllState(windowEnd);
+        assertEquals(aggregations, allState.getAggregations());
+        assertEquals(start.plusMinutes(10), allState.getFirstCreated());
+        assertEquals(start.plusMinutes(10 + aggregations - 1), allState.getLastCreated());
+        assertEquals(aggregations, emailAggregationStateRepository.getStates(AGGREGATION_KEY).stream()
+                .filter(state -> !state.isAllPartition())
+                .mapToInt(EmailAggregationState::getAggregations)
+                .sum());
+        assertSameDigest(start, end, true);
+    }
+
+    /*
+     * Builds the digest with the incremental aggregation enabled, then with the replay of the email aggregations, and
+     * checks that both digests are the same.
+     */
+    private Map<User, Map<String, Object>> assertSameDigest(LocalDateTime start, LocalDateTime end, boolean fromStates) {
+        clearInvocations(emailAggregationRepository);
+        Map<User, Map<String, Object>> incremental = emailAggregator.getAggregated(application.getId(), AGGREGATION_KEY, DAILY, start, end);
+        if (fromStates) {
+            verify(emailAggregationRepository, never()).getEmailAggregation(eq(AGGREGATION_KEY), eq(start), eq(end), anyInt(), anyInt());
+        } else {
+            verify(emailAggregationRepository, atLeastOnce()).getEmailAggregation(eq(AGGREGATION_KEY), eq(start), eq(end), anyInt(), anyInt());
+        }
+
+        when(engineConfig.isIncrementalAggregationEnabled()).thenReturn(false);
+        try {
+            Map<User, Map<String, Object>> replayed = emailAggregator.getAggregated(application.getId(), AGGREGATION_KEY, DAILY, start, end);
+            assertEquals(replayed, incremental);
+        } finally {
+            when(engineConfig.isIncrementalAggregationEnabled()).thenReturn(true);
+        }
+        return incremental;
+    }
+
+    private EmailAggregationState getAllState(LocalDateTime windowEnd) {
+        return emailAggregationStateRepository.getStates(AGGREGATION_KEY).stream()
+                .filter(state -> state.isAllPartition() && state.getId().windowEnd.equals(windowEnd))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void addAndFold(LocalDateTime created, String policyId, String... extraRecipients) {
+        EmailAggregation aggregation = buildEmailAggregation(created, policyId, extraRecipients);
+        emailAggregationRepository.addEmailAggregation(aggregation);
+        emailAggregator.fold(aggregation);
+    }
+
+    private static EmailAggregation buildEmailAggregation(LocalDateTime created, String policyId, String... extraRecipients) {
+        EmailAggregation aggregation = TestHelpers.createEmailAggregation(ORG_ID, "rhel", "policies", policyId, "host-01");
+        aggregation.setCreated(created);
+        if (extraRecipients.length > 0) {
+            Recipient recipient = new Recipient();
+            recipient.setUsers(List.of(extraRecipients));
+            aggregation.getPayload().put("recipients", new JsonArray().add(JsonObject.mapFrom(recipient)));
+        }
+        return aggregation;
+    }
+}
@@ -4,6 +4,7 @@ import com.redhat.cloud.notifications.TestHelpers;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.db.repositories.EmailAggregationRepository;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.EmailAggregationKey;
 import com.redhat.cloud.notifications.models.Endpoint;
@@ -18,6 +19,7 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.junit.jupiter.api.AfterEach;
@@ -39,9 +41,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -65,6 +69,9 @@ class EmailAggregatorTest {
     @InjectMock
     EndpointRepository endpointRepository;
 
+    @InjectSpy
+    SubscriptionRepository subscriptionRepository;
+
     Application application;
     EventType eventType1;
     EventType eventType2;
@@ -99,21 +106,34 @@ class EmailAggregatorTest {
         endpoint.setType(EndpointType.EMAIL_SUBSCRIPTION);
 
         when(endpointRepository.getTargetEmailSubscriptionEndpoints(anyString(), any(UUID.class))).thenReturn(List.of(endpoint));
-        when(recipientsResolverService.getRecipients(any(RecipientsQuery.class))).then(parameters -> {
-            RecipientsQuery query = parameters.getArgument(0);
-            Set<String> users = query.subscribers;
-            return users.stream().map(usrStr -> {
+        // This mock stores the subscriptions snapshots the same way recipients-resolver does.
+        Map<String, Set<String>> subscribersSnapshots = new HashMap<>();
+        when(recipientsResolverService.getRecipientsBatch(anyList())).then(parameters -> {
+            List<RecipientsQuery> queries = parameters.getArgument(0);
+            for (RecipientsQuery query : queries) {
+                if (query.subscriptionsReference == null) {
+                    continue;
+                }
+                if (query.subscribers != null) {
+                    subscribersSnapshots.put(query.subscriptionsReference.version, query.subscribers);
+                } else if (!subscribersSnapshots.containsKey(query.subscriptionsReference.version)) {
+                    throw new WebApplicationException(409);
+                }
+            }
+            return queries.stream().map(query -> (query.subscriptionsReference == null ? query.subscribers : subscribersSnapshots.get(query.subscriptionsReference.version)).stream().map(usrStr -> {
                 User usr = new User();
                 usr.setEmail(usrStr);
                 return usr;
-            }).collect(Collectors.toSet());
+            }).collect(Collectors.toSet())).toList();
         });
 
         // Test user subscription based on event type
         Map<User, Map<String, Object>> result = aggregate();
         verify(emailAggregationRepository, times(1)).getEmailAggregation(any(EmailAggregationKey.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(), anyInt());
         verify(emailAggregationRepository, times(1)).getEmailAggregation(any(EmailAggregationKey.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(0), eq(emailAggregator.maxPageSize));
-        verify(recipientsResolverService, times(1)).getRecipients(any(RecipientsQuery.class));
+        // The event type has no subscriptions at all, there's no snapshot to reference.
+        verify(recipientsResolverService, times(1)).getRecipientsBatch(anyList());
+        verify(recipientsResolverService, never()).getRecipients(any(RecipientsQuery.class));
 
         // nobody subscribed to the right event type yet
         assertEquals(0, result.size());
@@ -129,7 +149,18 @@ class EmailAggregatorTest {
         User user = result.keySet().stream().findFirst().get();
         assertTrue(user.getEmail().equals("user-2"));
         assertEquals(8, ((LinkedHashMap) result.get(user).get("policies")).size());
-        verify(recipientsResolverService, times(1)).getRecipients(any(RecipientsQuery.class));
+        // The subscriptions snapshot is unknown at first, so the subscriptions are loaded and the batch is sent again.
+        verify(recipientsResolverService, times(2)).getRecipientsBatch(anyList());
+        verify(recipientsResolverService, never()).getRecipients(any(RecipientsQuery.class));
+        verify(subscriptionRepository, times(1)).getSubscribersByEventType(eq("org-1"), eq(application.getId()), eq(DAILY));
+
+        clearInvocations(recipientsResolverService, subscriptionRepository);
+        result = aggregate();
+        assertEquals(1, result.size());
+        // The subscriptions didn't change, only the snapshot reference is sent and the subscriptions are not loaded.
+        verify(recipientsResolverService, times(1)).getRecipientsBatch(anyList());
+        verify(subscriptionRepository, never()).getSubscribersByEventType(anyString(), any(UUID.class), any());
+        verify(subscriptionRepository, never()).getUnsubscribersByEventType(anyString(), any(UUID.class), any());
     }
 
     private Map<User, Map<String, Object>> aggregate() {
@@ -0,0 +1,114 @@
+package com.redhat.cloud.notifications.processors.email.aggregators;
+
+import com.redhat.cloud.notifications.DriftTestHelpers;
+import com.redhat.cloud.notifications.PatchTestHelpers;
+import com.redhat.cloud.notifications.ResourceOptimizationTestHelpers;
+import com.redhat.cloud.notifications.TestHelpers;
+import com.redhat.cloud.notifications.VulnerabilityTestHelpers;
+import com.redhat.cloud.notifications.models.EmailAggregation;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.redhat.cloud.notifications.AdvisorTestHelpers.createEmailAggregation;
+import static com.redhat.cloud.notifications.TestConstants.DEFAULT_ORG_ID;
+import static com.redhat.cloud.notifications.processors.email.aggregators.AdvisorEmailAggregator.DEACTIVATED_RECOMMENDATION;
+import static com.redhat.cloud.notifications.processors.email.aggregators.AdvisorEmailAggregator.NEW_RECOMMENDATION;
+import static com.redhat.cloud.notifications.processors.email.aggregators.AdvisorEmailAggregator.RESOLVED_RECOMMENDATION;
+import static com.redhat.cloud.notifications.processors.email.aggregators.AdvisorEmailAggregatorTest.TEST_RULE_1;
+import static com.redhat.cloud.notifications.processors.email.aggregators.AdvisorEmailAggregatorTest.TEST_RULE_2;
+import static com.redhat.cloud.notifications.processors.email.aggregators.AdvisorEmailAggregatorTest.TEST_RULE_3;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * The daily digest aggregators can be saved after each aggregated payload and restored later to aggregate the next
+ * one. The context built that way must be the same as the context built by a single aggregator.
+ */
+public class EmailPayloadAggregatorStateTest {
+
+    @Test
+    void testAdvisor() {
+        assertSameContext(AdvisorEmailAggregator::new, List.of(
+                createEmailAggregation(NEW_RECOMMENDATION, TEST_RULE_1),
+                createEmailAggregation(NEW_RECOMMENDATION, TEST_RULE_1),
+                createEmailAggregation(NEW_RECOMMENDATION, TEST_RULE_2),
+                createEmailAggregation(RESOLVED_RECOMMENDATION, TEST_RULE_3),
+                createEmailAggregation(RESOLVED_RECOMMENDATION, TEST_RULE_3),
+                createEmailAggregation(DEACTIVATED_RECOMMENDATION, TEST_RULE_2)
+        ));
+    }
+
+    @Test
+    void testDrift() {
+        assertSameContext(DriftEmailPayloadAggregator::new, List.of(
+                DriftTestHelpers.createEmailAggregation("rhel", "drift", "baseline_01", "baseline_1", "host-01", "Machine 1"),
+                DriftTestHelpers.createEmailAggregation("rhel", "drift", "baseline_01", "baseline_1", "host-02", "Machine 2"),
+                DriftTestHelpers.createEmailAggregation("rhel", "drift", "baseline_02", "baseline_2", "host-01", "Machine 1"),
+                DriftTestHelpers.createEmailAggregation("rhel", "drift", "baseline_01", "baseline_1", "host-01", "Machine 1")
+        ));
+    }
+
+    @Test
+    void testPatch() {
+        assertSameContext(PatchEmailPayloadAggregator::new, List.of(
+                PatchTestHelpers.createEmailAggregation("rhel", "patch", "advisory_1", "test synopsis", "security", "host-01"),
+                PatchTestHelpers.createEmailAggregation("rhel", "patch", "advisory_2", "test synopsis", "enhancement", "host-01"),
+                PatchTestHelpers.createEmailAggregation("rhel", "patch", "advisory_3", "test synopsis", "enhancement", "host-02"),
+                PatchTestHelpers.createEmailAggregation("rhel", "patch", "advisory_4", "test synopsis", "bugfix", "host-03"),
+                PatchTestHelpers.createEmailAggregationMultipleEvents("rhel", "patch")
+        ));
+    }
+
+    @Test
+    void testPolicies() {
+        assertSameContext(PoliciesEmailPayloadAggregator::new, List.of(
+                TestHelpers.createEmailAggregation(DEFAULT_ORG_ID, "rhel", "policies", TestHelpers.policyId1, "host-01"),
+                TestHelpers.createEmailAggregation(DEFAULT_ORG_ID, "rhel", "policies", TestHelpers.policyId1, "host-02"),
+                TestHelpers.createEmailAggregation(DEFAULT_ORG_ID, "rhel", "policies", TestHelpers.policyId2, "host-01"),
+                TestHelpers.createEmailAggregation(DEFAULT_ORG_ID, "rhel", "policies", TestHelpers.policyId1, "host-01")
+        ));
+    }
+
+    @Test
+    void testResourceOptimization() {
+        assertSameContext(ResourceOptimizationPayloadAggregator::new, List.of(
+                ResourceOptimizationTestHelpers.createEmailAggregation(101, "inventory-1", "IDLING"),
+                ResourceOptimizationTestHelpers.createEmailAggregation(103, "inventory-1", "UNDER_PRESSURE"),
+                ResourceOptimizationTestHelpers.createEmailAggregation(78, "inventory-2", "IDLING"),
+                ResourceOptimizationTestHelpers.createEmailAggregation(48, "inventory-2", "UNKNOWN")
+        ));
+    }
+
+    @Test
+    void testVulnerability() {
+        assertSameContext(VulnerabilityEmailPayloadAggregator::new, List.of(
+                VulnerabilityTestHelpers.createEmailAggregation("rhel", "vulnerability", "new-cve-cvss", "CVE-2021-0001"),
+                VulnerabilityTestHelpers.createEmailAggregation("rhel", "vulnerability", "any-cve-known-exploit", "CVE-2021-0001"),
+                VulnerabilityTestHelpers.createEmailAggregation("rhel", "vulnerability", "new-cve-security-rule", "CVE-2021-0002"),
+                VulnerabilityTestHelpers.createEmailAggregation("rhel", "vulnerability", "new-cve-severity", "CVE-2021-0003")
+        ));
+    }
+
+    private static void assertSameContext(Supplier<AbstractEmailPayloadAggregator> aggregatorSupplier, List<EmailAggregation> aggregations) {
+        AbstractEmailPayloadAggregator expected = aggregatorSupplier.get();
+        aggregations.forEach(expected::aggregate);
+
+        // The state is saved and restored after each aggregation, like when the state is stored in the DB.
+        JsonObject state = null;
+        AbstractEmailPayloadAggregator restored = null;
+        for (EmailAggregation aggregation : aggregations) {
+            restored = aggregatorSupplier.get();
+            if (state != null) {
+                restored.restoreState(new JsonObject(state.encode()));
+            }
+            restored.aggregate(aggregation);
+            state = restored.saveState();
+        }
+
+        assertEquals(expected.getProcessedAggregations(), restored.getProcessedAggregations());
+        assertEquals(expected.isEmpty(), restored.isEmpty());
+        assertEquals(expected.getContext(), restored.getContext());
+    }
+}
@@ -1,21 +1,14 @@
 package com.redhat.cloud.notifications.processors.email.aggregators;
 
-import com.redhat.cloud.notifications.TestHelpers;
-import com.redhat.cloud.notifications.ingress.Action;
-import com.redhat.cloud.notifications.ingress.Context;
-import com.redhat.cloud.notifications.ingress.Event;
-import com.redhat.cloud.notifications.ingress.Metadata;
-import com.redhat.cloud.notifications.ingress.Payload;
+import com.redhat.cloud.notifications.ResourceOptimizationTestHelpers;
 import com.redhat.cloud.notifications.models.EmailAggregation;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
 
-import static com.redhat.cloud.notifications.TestConstants.DEFAULT_ORG_ID;
 import static com.redhat.cloud.notifications.processors.email.aggregators.ResourceOptimizationPayloadAggregator.AGGREGATED_DATA;
 import static com.redhat.cloud.notifications.processors.email.aggregators.ResourceOptimizationPayloadAggregator.STATE;
 import static com.redhat.cloud.notifications.processors.email.aggregators.ResourceOptimizationPayloadAggregator.STATES;
@@ -77,42 +70,6 @@ public class ResourceOptimizationPayloadAggregatorTest {
     }
 
     private static EmailAggregation buildEmailAggregation(int systemsWithSuggestions, String inventoryId, String currentState) {
-
-        Action action = buildAction(systemsWithSuggestions, inventoryId, currentState);
-
-        EmailAggregation aggregation = new EmailAggregation();
-        aggregation.setBundleName("rhel");
-        aggregation.setApplicationName("resource-optimization");
-        aggregation.setOrgId(DEFAULT_ORG_ID);
-        aggregation.setPayload(TestHelpers.wrapActionToJsonObject(action));
-        return aggregation;
-    }
-
-    private static Action buildAction(int systemsWithSuggestions, String inventoryId, String currentState) {
-
-        return new Action.ActionBuilder()
-                .withBundle("rhel")
-                .withApplication("resource-optimization")
-                .withEventType("new-suggestion")
-                .withOrgId(DEFAULT_ORG_ID)
-                .withTimestamp(LocalDateTime.now())
-                .withContext(new Context.ContextBuilder()
-                        .withAdditionalProperty("event_name", "New suggestion")
-                        .withAdditionalProperty("systems_with_suggestions", systemsWithSuggestions)
-                        .build()
-                )
-                .withEvents(List.of(new Event.EventBuilder()
-                        .withMetadata(new Metadata.MetadataBuilder().build())
-                        .withPayload(new Payload.PayloadBuilder()
-                                .withAdditionalProperty("display_name", "ros-stage-sytem")
-                                .withAdditionalProperty("inventory_id", inventoryId)
-                                .withAdditionalProperty("message", "80f7e57d-a16a-4189-82af-1d68a747c8b3 has a new suggestion.")
-                                .withAdditionalProperty("previous_state", "IDLING")
-                                .withAdditionalProperty("current_state", currentState)
-                                .build()
-                        )
-                        .build()
-                ))
-                .build();
+        return ResourceOptimizationTestHelpers.createEmailAggregation(systemsWithSuggestions, inventoryId, currentState);
     }
 }
@@ -4,6 +4,8 @@ import com.redhat.cloud.notifications.Json;
 import com.redhat.cloud.notifications.TestLifecycleManager;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.events.replay.EventReplayJob;
+import com.redhat.cloud.notifications.events.replay.EventReplayJobStatus;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.Bundle;
 import com.redhat.cloud.notifications.models.Endpoint;
@@ -25,9 +27,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 
 import static com.redhat.cloud.notifications.Constants.API_INTERNAL;
 import static com.redhat.cloud.notifications.TestHelpers.createPoliciesAction;
@@ -36,8 +40,13 @@ import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static java.time.Month.SEPTEMBER;
 import static java.time.ZoneOffset.UTC;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -114,14 +123,7 @@ public class ReplayResourceTest {
     void testReplayAll() {
         EventsReplayRequest replayRequest = getEventsReplayRequest();
 
-        given()
-                .basePath(API_INTERNAL)
-                .contentType(JSON)
-                .body(Json.encode(replayRequest))
-                .when()
-                .post("/replay")
-                .then()
-                .statusCode(204);
+        replayAndWait(replayRequest);
 
         verify(emailConnectorProcessor, never()).process(eq(event1), any(), eq(true));
         verify(emailConnectorProcessor, never()).process(eq(event2), any(), eq(true));
@@ -136,20 +138,133 @@ public class ReplayResourceTest {
         EventsReplayRequest replayRequest = getEventsReplayRequest();
         replayRequest.orgId = "123";
 
+        replayAndWait(replayRequest);
+
+        verify(emailConnectorProcessor, never()).process(eq(event1), any(), eq(true));
+        verify(emailConnectorProcessor, never()).process(eq(event2), any(), eq(true));
+        verify(emailConnectorProcessor, times(1)).process(eq(event3), any(), eq(true));
+        verify(emailConnectorProcessor, never()).process(eq(event4), any(), eq(true));
+        verify(emailConnectorProcessor, never()).process(eq(event5), any(), eq(true));
+    }
+
+    @Test
+    void testResumeFromCheckpoint() {
+        // Both events have the same creation date, PostgreSQL sorts them by ID in the order of their string form.
+        Event first = event3.getId().toString().compareTo(event5.getId().toString()) < 0 ? event3 : event5;
+        Event second = first == event3 ? event5 : event3;
+        EventReplayJob job = createInterruptedJob(null, first);
+
+        given()
+                .basePath(API_INTERNAL)
+                .when()
+                .post("/replay/{id}/resume", job.getId())
+                .then()
+                .statusCode(200)
+                .body("status", is("RUNNING"));
+        waitForCompletion(job.getId().toString());
+
+        // The events before the checkpoint, including the checkpoint itself, were replayed before the interruption.
+        verify(emailConnectorProcessor, never()).process(eq(event1), any(), eq(true));
+        verify(emailConnectorProcessor, never()).process(eq(first), any(), eq(true));
+        verify(emailConnectorProcessor, times(1)).process(eq(second), any(), eq(true));
+
+        // A completed replay can't be resumed.
+        given()
+                .basePath(API_INTERNAL)
+                .when()
+                .post("/replay/{id}/resume", job.getId())
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void testHeartbeatDuringSlowPage() throws InterruptedException {
+        CountDownLatch pageReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            pageReleased.await();
+            return null;
+        }).when(emailConnectorProcessor).process(any(), any(), anyBoolean());
+
+        EventsReplayRequest replayRequest = getEventsReplayRequest();
+        replayRequest.orgId = ORG_ID_2;
+        String id = given()
+                .basePath(API_INTERNAL)
+                .contentType(JSON)
+                .body(Json.encode(replayRequest))
+                .when()
+                .post("/replay")
+                .then()
+                .statusCode(200)
+                .extract().path("id");
+        String started = getUpdated(id);
+
+        try {
+            // The page is blocked, only the heartbeat can refresh the replay.
+            await().atMost(Duration.ofSeconds(10)).until(() -> !started.equals(getUpdated(id)));
+            assertEquals("RUNNING", getStatus(id));
+        } finally {
+            pageReleased.countDown();
+        }
+        waitForCompletion(id);
+    }
+
+    @Test
+    void testUnknownReplay() {
         given()
+                .basePath(API_INTERNAL)
+                .when()
+                .get("/replay/{id}", UUID.randomUUID())
+                .then()
+                .statusCode(404);
+    }
+
+    private void replayAndWait(EventsReplayRequest replayRequest) {
+        String id = given()
                 .basePath(API_INTERNAL)
                 .contentType(JSON)
                 .body(Json.encode(replayRequest))
                 .when()
                 .post("/replay")
                 .then()
-                .statusCode(204);
+                .statusCode(200)
+                .contentType(JSON)
+                .extract().path("id");
+        waitForCompletion(id);
+    }
 
-        verify(emailConnectorProcessor, never()).process(eq(event1), any(), eq(true));
-        verify(emailConnectorProcessor, never()).process(eq(event2), any(), eq(true));
-        verify(emailConnectorProcessor, times(1)).process(eq(event3), any(), eq(true));
-        verify(emailConnectorProcessor, never()).process(eq(event4), any(), eq(true));
-        verify(emailConnectorProcessor, never()).process(eq(event5), any(), eq(true));
+    private static void waitForCompletion(String id) {
+        await().atMost(Duration.ofSeconds(30)).until(() -> "COMPLETED".equals(getStatus(id)));
+    }
+
+    private static String getStatus(String id) {
+        return getReplayField(id, "status");
+    }
+
+    private static String getUpdated(String id) {
+        return getReplayField(id, "updated");
+    }
+
+    private static String getReplayField(String id, String field) {
+        return given()
+                .basePath(API_INTERNAL)
+                .when()
+                .get("/replay/{id}", id)
+                .then()
+                .statusCode(200)
+                .extract().path(field);
+    }
+
+    @Transactional
+    EventReplayJob createInterruptedJob(String orgId, Event checkpoint) {
+        EventReplayJob job = new EventReplayJob();
+        job.setOrgId(orgId);
+        job.setStartDate(LocalDateTime.of(2024, SEPTEMBER, 2, 8, 0));
+        job.setEndDate(LocalDateTime.of(2024, SEPTEMBER, 2, 11, 0));
+        job.setStatus(EventReplayJobStatus.INTERRUPTED);
+        job.setCheckpointCreated(checkpoint.getCreated());
+        job.setCheckpointEventId(checkpoint.getId());
+        entityManager.persist(job);
+        return job;
     }
 
     @Transactional
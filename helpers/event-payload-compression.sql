@@ -0,0 +1,32 @@
+-- Stores the event payloads compressed and out of line. This is opt-in: run it on a database only after
+-- helpers/event-payload-storage-comparison.sql showed a gain on that database.
+--
+--   psql -h <host> -U <user> -d notifications -f helpers/event-payload-compression.sql
+--
+-- Only the rows written after this script are affected, so no table is rewritten. The settings can be reverted with:
+--
+--   ALTER TABLE event RESET (toast_tuple_target);
+--   ALTER TABLE event ALTER COLUMN payload SET COMPRESSION default;
+--   ALTER TABLE event ALTER COLUMN rendered_drawer_notification SET COMPRESSION default;
+--   ALTER TABLE payload_details ALTER COLUMN contents SET COMPRESSION default;
+
+-- The event payloads are only read by the export, the replay and the drawer rendering, but they are stored in the
+-- heap pages of the event table as long as the row is under 2kB, which is where the event log reads its rows from.
+-- Lowering the TOAST target makes Postgres compress the payloads of smaller rows and move them out of line when they
+-- are still too large, so that the event log reads fewer pages.
+ALTER TABLE event SET (toast_tuple_target = 512);
+
+-- lz4 is much faster than the default pglz compression for a similar ratio. It is only available from Postgres 14
+-- and only if the server was built with it, the default compression is kept otherwise.
+DO $$
+BEGIN
+    IF current_setting('server_version_num')::INTEGER >= 140000 THEN
+        EXECUTE 'ALTER TABLE event ALTER COLUMN payload SET COMPRESSION lz4';
+        EXECUTE 'ALTER TABLE event ALTER COLUMN rendered_drawer_notification SET COMPRESSION lz4';
+        EXECUTE 'ALTER TABLE payload_details ALTER COLUMN contents SET COMPRESSION lz4';
+    END IF;
+EXCEPTION
+    WHEN feature_not_supported THEN
+        RAISE NOTICE 'lz4 compression is not supported by this server, the default compression is kept';
+END
+$$;
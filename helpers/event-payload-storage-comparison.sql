@@ -0,0 +1,63 @@
+-- Compares the storage and the throughput of the event payloads with the default TOAST settings and with the settings
+-- applied by helpers/event-payload-compression.sql. Run it against a copy of the database where the compression would
+-- be enabled. The server must run Postgres 14 or later, built with lz4:
+--
+--   psql -h localhost -U postgres -d notifications -f helpers/event-payload-storage-comparison.sql
+--
+-- The events are copied from the event table when it holds at least 10000 events, synthetic payloads of a typical
+-- size are generated otherwise.
+
+\timing on
+
+DROP TABLE IF EXISTS payload_comparison_source, payload_comparison_default, payload_comparison_compressed;
+
+CREATE TABLE payload_comparison_source AS
+    SELECT id, org_id, created, bundle_display_name, application_display_name, event_type_display_name, payload
+    FROM event
+    ORDER BY created DESC
+    LIMIT 100000;
+
+INSERT INTO payload_comparison_source
+    SELECT gen_random_uuid(), 'org-' || (i % 100), now() - (i || ' seconds')::INTERVAL, 'Bundle', 'Application', 'Event type',
+           json_build_object(
+               'version', '2.0.0',
+               'bundle', 'rhel',
+               'application', 'policies',
+               'event_type', 'policy-triggered',
+               'timestamp', now(),
+               'org_id', 'org-' || (i % 100),
+               'context', json_build_object('inventory_id', gen_random_uuid(), 'display_name', 'host-' || i, 'tags', '[]'::JSON),
+               'events', (SELECT json_agg(json_build_object('metadata', '{}'::JSON, 'payload',
+                   json_build_object('policy_id', gen_random_uuid(), 'policy_name', 'Policy ' || j, 'policy_description', repeat('Checks the configuration of the host. ', 4))))
+                   FROM generate_series(1, 6) AS j)
+           )::TEXT
+    FROM generate_series(1, 100000) AS i
+    WHERE (SELECT COUNT(*) FROM payload_comparison_source) < 10000;
+
+CREATE TABLE payload_comparison_default (LIKE payload_comparison_source);
+CREATE TABLE payload_comparison_compressed (LIKE payload_comparison_source);
+ALTER TABLE payload_comparison_compressed SET (toast_tuple_target = 512);
+ALTER TABLE payload_comparison_compressed ALTER COLUMN payload SET COMPRESSION lz4;
+
+-- Write throughput.
+INSERT INTO payload_comparison_default SELECT * FROM payload_comparison_source;
+INSERT INTO payload_comparison_compressed SELECT * FROM payload_comparison_source;
+VACUUM ANALYZE payload_comparison_default, payload_comparison_compressed;
+
+-- Storage: the heap is what the event log reads, the total includes the TOAST table.
+SELECT relname,
+       pg_size_pretty(pg_relation_size(oid)) AS heap,
+       pg_size_pretty(pg_total_relation_size(oid) - pg_relation_size(oid)) AS toast_and_indexes,
+       pg_size_pretty(pg_total_relation_size(oid)) AS total
+FROM pg_class
+WHERE relname IN ('payload_comparison_default', 'payload_comparison_compressed');
+
+-- Read throughput of the event log columns, which don't need the payloads.
+SELECT COUNT(*), MAX(event_type_display_name) FROM payload_comparison_default;
+SELECT COUNT(*), MAX(event_type_display_name) FROM payload_comparison_compressed;
+
+-- Read throughput of the payloads, which have to be decompressed.
+SELECT SUM(LENGTH(payload)) FROM payload_comparison_default;
+SELECT SUM(LENGTH(payload)) FROM payload_comparison_compressed;
+
+DROP TABLE payload_comparison_source, payload_comparison_default, payload_comparison_compressed;
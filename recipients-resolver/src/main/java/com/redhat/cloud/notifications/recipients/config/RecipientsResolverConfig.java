@@ -33,6 +33,7 @@ public class RecipientsResolverConfig {
     private static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_USE_KESSEL_ENABLED = "notifications.recipients-resolver.use.kessel.enabled";
     private static final String KESSEL_TARGET_URL = "notifications.recipients-resolver.kessel.target-url";
     private static final String KESSEL_USE_SECURE_CLIENT = "notifications.kessel.secure-client";
+    private static final String KESSEL_LOOKUP_SUBJECTS_TIMEOUT = "notifications.recipients-resolver.kessel.lookup-subjects.timeout";
 
     /*
      * Unleash configuration
@@ -89,6 +90,12 @@ public class RecipientsResolverConfig {
     @ConfigProperty(name = KESSEL_USE_SECURE_CLIENT, defaultValue = "false")
     boolean kesselUseSecureClient;
 
+    /**
+     * Maximum duration of a Kessel subjects lookup, including the time spent reading the streamed subjects.
+     */
+    @ConfigProperty(name = KESSEL_LOOKUP_SUBJECTS_TIMEOUT, defaultValue = "5S")
+    Duration kesselLookupSubjectsTimeout;
+
     @Inject
     ToggleRegistry toggleRegistry;
 
@@ -123,6 +130,7 @@ public class RecipientsResolverConfig {
         config.put(NOTIFICATIONS_RECIPIENTS_RESOLVER_USE_KESSEL_ENABLED, isUseKesselEnabled());
         config.put(KESSEL_TARGET_URL, getKesselTargetUrl());
         config.put(KESSEL_USE_SECURE_CLIENT, isKesselUseSecureClient());
+        config.put(KESSEL_LOOKUP_SUBJECTS_TIMEOUT, getKesselLookupSubjectsTimeout());
 
         Log.info("=== Startup configuration ===");
         config.forEach((key, value) -> {
@@ -188,6 +196,10 @@ public class RecipientsResolverConfig {
         return kesselTargetUrl;
     }
 
+    public Duration getKesselLookupSubjectsTimeout() {
+        return kesselLookupSubjectsTimeout;
+    }
+
     public Duration getLogTooLongRequestLimit() {
         return logTooLongRequestLimit;
     }
@@ -0,0 +1,24 @@
+package com.redhat.cloud.notifications.recipients.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Identifies a version of the subscribers and unsubscribers of an event type for a subscription type. The version
+ * is read by the engine from the database and only changes when the subscriptions change. Recipients queries can
+ * carry this reference instead of the full usernames sets once recipients-resolver knows the subscriptions snapshot
+ * it points to. The reference doesn't contain any org ID: the snapshots are always scoped to the org ID of the query.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SubscriptionsReference(
+    @NotNull UUID eventTypeId,
+    @NotBlank String subscriptionType,
+    @NotBlank String version
+) {
+}
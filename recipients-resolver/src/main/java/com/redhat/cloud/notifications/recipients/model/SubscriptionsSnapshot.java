@@ -0,0 +1,9 @@
+package com.redhat.cloud.notifications.recipients.model;
+
+import java.util.Set;
+
+/**
+ * Lower case usernames of the subscribers and unsubscribers identified by a {@link SubscriptionsReference}.
+ */
+public record SubscriptionsSnapshot(Set<String> subscribers, Set<String> unsubscribers) {
+}
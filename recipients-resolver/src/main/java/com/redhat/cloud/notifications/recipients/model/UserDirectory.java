@@ -0,0 +1,145 @@
+package com.redhat.cloud.notifications.recipients.model;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable list of the users of an org (or of an RBAC group), indexed by lower case username. This is the value
+ * cached by {@link com.redhat.cloud.notifications.recipients.resolver.FetchUsersFromExternalServices}, so the index
+ * is built once per users fetch instead of once per recipients resolution.
+ * <p>
+ * Filtering the directory is done on a {@link BitSet} of user positions, which avoids copying the users and
+ * lowercasing their usernames each time the recipients of a notification are resolved.
+ */
+public final class UserDirectory extends AbstractList<User> implements RandomAccess {
+
+    public static final UserDirectory EMPTY = new UserDirectory(List.of());
+
+    private final User[] users;
+    private final String[] lowerCaseUsernames;
+    // Several users could share the same lower case username, so each username is mapped to all matching positions.
+    private final Map<String, int[]> positionsByLowerCaseUsername;
+
+    private UserDirectory(List<User> users) {
+        this.users = users.toArray(new User[0]);
+        lowerCaseUsernames = new String[this.users.length];
+        positionsByLowerCaseUsername = new HashMap<>(this.users.length * 4 / 3 + 1);
+        for (int i = 0; i < this.users.length; i++) {
+            // Users without a username can't match any username filter.
+            if (this.users[i].getUsername() != null) {
+                lowerCaseUsernames[i] = this.users[i].getUsername().toLowerCase();
+                positionsByLowerCaseUsername.merge(lowerCaseUsernames[i], new int[] {i}, UserDirectory::concat);
+            }
+        }
+    }
+
+    /**
+     * Returns the given users as a directory. No copy is made if the users already are a directory.
+     * @param users the users to index
+     * @return the users directory
+     */
+    public static UserDirectory of(List<User> users) {
+        if (users instanceof UserDirectory directory) {
+            return directory;
+        } else if (users.isEmpty()) {
+            return EMPTY;
+        } else {
+            return new UserDirectory(users);
+        }
+    }
+
+    @Override
+    public User get(int index) {
+        return users[index];
+    }
+
+    @Override
+    public int size() {
+        return users.length;
+    }
+
+    /**
+     * @return a new selection which contains all the users of the directory
+     */
+    public BitSet selectAll() {
+        BitSet selection = new BitSet(users.length);
+        selection.set(0, users.length);
+        return selection;
+    }
+
+    /**
+     * Removes from the selection the users whose username is not part of the given usernames.
+     * @param selection the selection to update
+     * @param lowerCaseUsernames the lower case usernames to retain
+     */
+    public void retainUsernames(BitSet selection, Set<String> lowerCaseUsernames) {
+        if (lowerCaseUsernames.size() < selection.cardinality()) {
+            // The usernames are looked up in the index, which is cheaper than checking every selected user.
+            BitSet retained = new BitSet(users.length);
+            for (String username : lowerCaseUsernames) {
+                int[] positions = positionsByLowerCaseUsername.get(username);
+                if (positions != null) {
+                    for (int position : positions) {
+                        retained.set(position);
+                    }
+                }
+            }
+            selection.and(retained);
+        } else {
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                if (this.lowerCaseUsernames[i] == null || !lowerCaseUsernames.contains(this.lowerCaseUsernames[i])) {
+                    selection.clear(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes from the selection the users whose username is part of the given usernames.
+     * @param selection the selection to update
+     * @param lowerCaseUsernames the lower case usernames to remove
+     */
+    public void removeUsernames(BitSet selection, Set<String> lowerCaseUsernames) {
+        if (lowerCaseUsernames.size() < selection.cardinality()) {
+            for (String username : lowerCaseUsernames) {
+                int[] positions = positionsByLowerCaseUsername.get(username);
+                if (positions != null) {
+                    for (int position : positions) {
+                        selection.clear(position);
+                    }
+                }
+            }
+        } else {
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                if (this.lowerCaseUsernames[i] != null && lowerCaseUsernames.contains(this.lowerCaseUsernames[i])) {
+                    selection.clear(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param selection the selected users positions
+     * @return the selected users, deduplicated the same way any {@link Set} of users would be
+     */
+    public Set<User> getUsers(BitSet selection) {
+        Set<User> selectedUsers = new HashSet<>(selection.cardinality() * 4 / 3 + 1);
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            selectedUsers.add(users[i]);
+        }
+        return selectedUsers;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = new int[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
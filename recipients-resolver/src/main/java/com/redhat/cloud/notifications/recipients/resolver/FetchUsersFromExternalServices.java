@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
 import com.redhat.cloud.notifications.recipients.model.User;
+import com.redhat.cloud.notifications.recipients.model.UserDirectory;
 import com.redhat.cloud.notifications.recipients.resolver.itservice.ITUserService;
 import com.redhat.cloud.notifications.recipients.resolver.itservice.pojo.request.ITUserRequest;
 import com.redhat.cloud.notifications.recipients.resolver.itservice.pojo.response.AccountRelationship;
@@ -158,7 +159,8 @@ public class FetchUsersFromExternalServices {
         getUsersTotalTimer.stop(meterRegistry.timer("user-provider.get-users.total", "supplier", supplier, "orgId", orgIdTag));
         getRbacUsersGauge(orgIdTag).set(users.size());
 
-        return users;
+        // The cached value is an indexed directory, so that it is not indexed again for each recipients resolution.
+        return UserDirectory.of(users);
     }
 
     private List<User> fetchUsersWithItUserService(String orgId, boolean adminsOnly) {
@@ -293,7 +295,7 @@ public class FetchUsersFromExternalServices {
 
             // The group does not exist (or no longer exists - ignore)
             if (exception.getResponse().getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
-                return List.of();
+                return UserDirectory.EMPTY;
             }
 
             throw exception;
@@ -325,7 +327,7 @@ public class FetchUsersFromExternalServices {
         // Micrometer doesn't like when tags are null and throws a NPE.
         String orgIdTag = orgId == null ? "" : orgId;
         getGroupUsersTotalTimer.stop(meterRegistry.timer("rbac.get-group-users.total", "orgId", orgIdTag, "users", String.valueOf(users.size())));
-        return users;
+        return UserDirectory.of(users);
     }
 
     private <T> T retryOnError(final CheckedSupplier<T> usersServiceCall) {
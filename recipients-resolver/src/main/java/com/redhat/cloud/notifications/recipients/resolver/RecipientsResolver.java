@@ -3,19 +3,28 @@ package com.redhat.cloud.notifications.recipients.resolver;
 import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
 import com.redhat.cloud.notifications.recipients.model.ExternalAuthorizationCriteria;
 import com.redhat.cloud.notifications.recipients.model.RecipientSettings;
+import com.redhat.cloud.notifications.recipients.model.SubscriptionsReference;
+import com.redhat.cloud.notifications.recipients.model.SubscriptionsSnapshot;
 import com.redhat.cloud.notifications.recipients.model.User;
+import com.redhat.cloud.notifications.recipients.model.UserDirectory;
 import com.redhat.cloud.notifications.recipients.resolver.kessel.KesselService;
+import io.grpc.Status;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.quarkus.cache.CacheResult;
+import io.quarkus.cache.CaffeineCache;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.core.Response;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.stream.Collectors.toSet;
 
@@ -31,15 +40,55 @@ public class RecipientsResolver {
     @Inject
     KesselService kesselLookupService;
 
+    @CacheName("subscriptions-snapshots")
+    Cache subscriptionsSnapshots;
+
     public Set<User> findRecipients(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault) {
         return findRecipients(orgId, recipientSettings, subscribers, unsubscribers, subscribedByDefault, null);
     }
 
     @CacheResult(cacheName = "find-recipients")
     public Set<User> findRecipients(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, ExternalAuthorizationCriteria externalAuthorizationCriteria) {
+        return resolveRecipients(orgId, recipientSettings, toLowerCaseOrEmpty(subscribers), toLowerCaseOrEmpty(unsubscribers), subscribedByDefault, externalAuthorizationCriteria);
+    }
+
+    /**
+     * Stores the subscriptions identified by the given reference, so that the following queries of the same org can
+     * only send the reference instead of the full usernames sets.
+     * @param orgId the org ID of the query which carried the subscriptions
+     * @param subscriptionsReference the subscriptions reference
+     * @param subscribers the subscribers usernames
+     * @param unsubscribers the unsubscribers usernames
+     */
+    public void storeSubscriptionsSnapshot(String orgId, SubscriptionsReference subscriptionsReference, Set<String> subscribers, Set<String> unsubscribers) {
+        SubscriptionsSnapshot snapshot = new SubscriptionsSnapshot(toLowerCaseOrEmpty(subscribers), toLowerCaseOrEmpty(unsubscribers));
+        subscriptionsSnapshots.as(CaffeineCache.class).put(new SubscriptionsSnapshotKey(orgId, subscriptionsReference), CompletableFuture.completedFuture(snapshot));
+    }
+
+    /**
+     * Finds the recipients using a subscriptions snapshot previously stored for the same org with
+     * {@link #storeSubscriptionsSnapshot(String, SubscriptionsReference, Set, Set)}. The results are cached with the
+     * reference as part of the key, which is much cheaper to hash and compare than the usernames sets.
+     * @throws ClientErrorException with a 409 status if the snapshot is unknown or expired, in which case the caller
+     * is expected to send the query again with the full usernames sets.
+     */
+    @CacheResult(cacheName = "find-recipients")
+    public Set<User> findRecipients(String orgId, Set<RecipientSettings> recipientSettings, SubscriptionsReference subscriptionsReference, boolean subscribedByDefault, ExternalAuthorizationCriteria externalAuthorizationCriteria) {
+        CompletableFuture<SubscriptionsSnapshot> snapshot = subscriptionsSnapshots.as(CaffeineCache.class).getIfPresent(new SubscriptionsSnapshotKey(orgId, subscriptionsReference));
+        if (snapshot == null) {
+            Log.debugf("Unknown subscriptions snapshot [orgId=%s, reference=%s]", orgId, subscriptionsReference);
+            throw new ClientErrorException("Unknown subscriptions snapshot", Response.Status.CONFLICT);
+        }
+        SubscriptionsSnapshot subscriptions = snapshot.join();
+        return resolveRecipients(orgId, recipientSettings, subscriptions.subscribers(), subscriptions.unsubscribers(), subscribedByDefault, externalAuthorizationCriteria);
+    }
+
+    // A snapshot can only be read by the queries of the org which stored it.
+    private record SubscriptionsSnapshotKey(String orgId, SubscriptionsReference subscriptionsReference) {
+    }
+
+    private Set<User> resolveRecipients(String orgId, Set<RecipientSettings> recipientSettings, Set<String> lowerCaseSubscribers, Set<String> lowerCaseUnsubscribers, boolean subscribedByDefault, ExternalAuthorizationCriteria externalAuthorizationCriteria) {
         Optional<Set<String>> requestUsersIntersection = extractRequestUsersIntersection(recipientSettings);
-        Set<String> lowerCaseSubscribers = toLowerCaseOrEmpty(subscribers);
-        Set<String> lowerCaseUnsubscribers = toLowerCaseOrEmpty(unsubscribers);
 
         return recipientSettings.stream()
             .flatMap(r -> recipientUsers(orgId, r, requestUsersIntersection, lowerCaseSubscribers, lowerCaseUnsubscribers, subscribedByDefault, externalAuthorizationCriteria).stream())
@@ -59,53 +108,39 @@ public class RecipientsResolver {
             return Collections.emptySet();
         }
 
-        List<User> fetchedUsers;
+        UserDirectory fetchedUsers;
         if (request.getGroupUUID() == null) {
-            fetchedUsers = fetchingUsers.getUsers(orgId, request.isAdminsOnly());
+            fetchedUsers = UserDirectory.of(fetchingUsers.getUsers(orgId, request.isAdminsOnly()));
         } else {
-            fetchedUsers = fetchingUsers.getGroupUsers(orgId, request.isAdminsOnly(), request.getGroupUUID());
-        }
-
-        final Set<String> authorizedUsers = new HashSet<>();
-        if (recipientsResolverConfig.isUseKesselEnabled() && !fetchedUsers.isEmpty() && null != externalAuthorizationCriteria) {
-            authorizedUsers.addAll(findAuthorizedUsersWithCriteria(externalAuthorizationCriteria));
+            fetchedUsers = UserDirectory.of(fetchingUsers.getGroupUsers(orgId, request.isAdminsOnly(), request.getGroupUUID()));
         }
 
-        // The fetched users are cached, so we need to create a new Set to avoid altering the cached data.
-        Set<User> recipients = new HashSet<>(fetchedUsers);
+        // The fetched users are cached, the filters below only alter the selection of users and not the cached data.
+        BitSet selection = fetchedUsers.selectAll();
 
-        // We need to remove from the users Set the ones that do not qualify as recipients.
-        recipients.removeIf(user -> {
-            String lowerCaseUsername = user.getUsername().toLowerCase();
+        /*
+         * When there is a request users intersection, only the users from that intersection will qualify as recipients,
+         * if we did fetch them from the external service. Any fetched users who are not included in the intersection are removed.
+         */
+        requestUsersIntersection.ifPresent(usernames -> fetchedUsers.retainUsernames(selection, usernames));
 
-            /*
-             * When there is a request users intersection, only the users from that intersection will qualify as recipients,
-             * if we did fetch them from the external service. Any fetched users who are not included in the intersection are removed.
-             */
-            if (requestUsersIntersection.isPresent() && !requestUsersIntersection.get().contains(lowerCaseUsername)) {
-                return true;
-            }
+        if (recipientsResolverConfig.isUseKesselEnabled() && !fetchedUsers.isEmpty() && null != externalAuthorizationCriteria) {
+            fetchedUsers.retainUsernames(selection, findAuthorizedUsersWithCriteria(externalAuthorizationCriteria));
+        }
 
-            if (recipientsResolverConfig.isUseKesselEnabled() && null != externalAuthorizationCriteria && !authorizedUsers.contains(lowerCaseUsername)) {
-                return true;
+        // Subscriptions are only considered if the user preferences are NOT ignored.
+        if (!request.isIgnoreUserPreferences()) {
+            if (subscribedByDefault) {
+                // When subscribedByDefault is true, we need to remove from the users anyone who unsubscribed.
+                fetchedUsers.removeUsernames(selection, unsubscribers);
+            } else {
+                // When subscribedByDefault is false, we need to keep only subscribed users, by removing from the users anyone who DID NOT subscribe.
+                fetchedUsers.retainUsernames(selection, subscribers);
             }
+        }
 
-            // Subscriptions are only considered if the user preferences are NOT ignored.
-            if (!request.isIgnoreUserPreferences()) {
-                if (subscribedByDefault) {
-                    // When subscribedByDefault is true, we need to remove from the users anyone who unsubscribed.
-                    return unsubscribers.contains(lowerCaseUsername);
-                } else {
-                    // When subscribedByDefault is false, we need to keep only subscribed users, by removing from the users anyone who DID NOT subscribe.
-                    return !subscribers.contains(lowerCaseUsername);
-                }
-            }
-
-            // The current user was not removed by any of the conditions above, so we'll keep them in the Set!
-            return false;
-
-        });
-        Log.infof("%d recipients found for org ID %s: %s", recipients.size(), orgId, recipients.stream().map(User::getUsername).collect(Collectors.toSet()));
+        Set<User> recipients = fetchedUsers.getUsers(selection);
+        Log.infof("%d recipients found for org ID %s among %d users", recipients.size(), orgId, fetchedUsers.size());
         return recipients;
     }
 
@@ -148,7 +183,13 @@ public class RecipientsResolver {
             try {
                 authorizedUsers = kesselLookupService.lookupSubjects(externalAuthorizationCriteria);
             } catch (Exception ex) {
-                Log.error("Error calling Kessel relationship Api", ex);
+                // Without the authorized subjects, no user is notified.
+                if (Status.fromThrowable(ex).getCode() == Status.Code.DEADLINE_EXCEEDED) {
+                    Log.warnf("Kessel subjects lookup timed out, no users will be authorized [assetType=%s, assetId=%s, relation=%s]",
+                        externalAuthorizationCriteria.getAssetType(), externalAuthorizationCriteria.getAssetId(), externalAuthorizationCriteria.getRelation());
+                } else {
+                    Log.error("Error calling Kessel relationship Api", ex);
+                }
             }
         }
         return authorizedUsers;
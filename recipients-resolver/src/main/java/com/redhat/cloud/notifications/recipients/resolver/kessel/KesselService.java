@@ -2,7 +2,13 @@ package com.redhat.cloud.notifications.recipients.resolver.kessel;
 
 import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
 import com.redhat.cloud.notifications.recipients.model.ExternalAuthorizationCriteria;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.cache.CacheResult;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.project_kessel.api.relations.v1beta1.LookupSubjectsRequest;
@@ -15,17 +21,28 @@ import org.project_kessel.relations.client.RelationsGrpcClientsManager;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @ApplicationScoped
 public class KesselService {
 
     static final String SUBJECT_TYPE_USER = "user";
+    static final String LOOKUP_SUBJECTS_TIMER_NAME = "kessel.lookup-subjects";
 
     @Inject
     RecipientsResolverConfig recipientsResolverConfig;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     LookupClient lookupClient;
 
+    // Only used to cancel the lookups which exceed their deadline.
+    private ScheduledExecutorService deadlineScheduler;
+
     @PostConstruct
     void postConstruct() {
         RelationsGrpcClientsManager clientsManager;
@@ -35,17 +52,55 @@ public class KesselService {
             clientsManager = RelationsGrpcClientsManager.forInsecureClients(recipientsResolverConfig.getKesselTargetUrl());
         }
         lookupClient = clientsManager.getLookupClient();
+        deadlineScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kessel-lookup-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void preDestroy() {
+        deadlineScheduler.shutdownNow();
     }
 
+    /*
+     * The cache key is the (resource type, resource ID, relation) triplet of the criteria. Concurrent calls with the
+     * same criteria wait for the lookup that is already in flight instead of opening another stream. Failed lookups,
+     * including the ones that exceeded the timeout, are not cached.
+     */
+    @CacheResult(cacheName = "kessel-lookup-subjects")
     public Set<String> lookupSubjects(ExternalAuthorizationCriteria externalAuthorizationCriteria) {
-        Set<String> userNames = new HashSet<>();
         LookupSubjectsRequest request = getLookupSubjectsRequest(externalAuthorizationCriteria);
 
-        for (Iterator<LookupSubjectsResponse> it = lookupClient.lookupSubjects(request); it.hasNext();) {
-            LookupSubjectsResponse response = it.next();
-            userNames.add(response.getSubject().getSubject().getId());
+        /*
+         * The deadline is attached to the gRPC context, so it bounds the whole call: opening the stream and reading
+         * every streamed subject. When it expires, the stream is cancelled and a DEADLINE_EXCEEDED status is thrown.
+         */
+        Context.CancellableContext context = Context.current()
+            .withDeadlineAfter(recipientsResolverConfig.getKesselLookupSubjectsTimeout().toMillis(), MILLISECONDS, deadlineScheduler);
+        Timer.Sample timer = Timer.start(meterRegistry);
+        String result = "failure";
+        try {
+            Set<String> userNames = new HashSet<>();
+            context.run(() -> {
+                for (Iterator<LookupSubjectsResponse> it = lookupClient.lookupSubjects(request); it.hasNext();) {
+                    LookupSubjectsResponse response = it.next();
+                    userNames.add(response.getSubject().getSubject().getId());
+                }
+            });
+            result = "success";
+            // The cached set is shared by all the callers, so it has to be immutable.
+            return Set.copyOf(userNames);
+        } catch (RuntimeException e) {
+            if (Status.fromThrowable(e).getCode() == Status.Code.DEADLINE_EXCEEDED) {
+                result = "timeout";
+            }
+            throw e;
+        } finally {
+            context.cancel(null);
+            timer.stop(meterRegistry.timer(LOOKUP_SUBJECTS_TIMER_NAME, "result", result));
         }
-        return userNames;
     }
 
     private static LookupSubjectsRequest getLookupSubjectsRequest(ExternalAuthorizationCriteria externalAuthorizationCriteria) {
@@ -1,7 +1,10 @@
 package com.redhat.cloud.notifications.recipients.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.cloud.notifications.recipients.model.User;
 import com.redhat.cloud.notifications.recipients.resolver.RecipientsResolver;
+import com.redhat.cloud.notifications.recipients.rest.pojo.RecipientsProjection;
 import com.redhat.cloud.notifications.recipients.rest.pojo.RecipientsQuery;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -10,9 +13,11 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.List;
 import java.util.Set;
 
-
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
 @Path("/internal/recipients-resolver")
@@ -21,10 +26,48 @@ public class RecipientsResolverResource {
     @Inject
     RecipientsResolver recipientsResolver;
 
+    @Inject
+    ObjectMapper objectMapper;
+
+    @PUT
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    public Response getRecipients(@NotNull @Valid RecipientsQuery recipientsQuery) {
+        Set<User> recipients = findRecipients(recipientsQuery);
+        if (recipientsQuery.projection == null) {
+            return Response.ok(recipients).build();
+        } else {
+            return Response.ok(project(recipients, recipientsQuery.projection)).build();
+        }
+    }
+
+    /*
+     * Resolves several queries with a single HTTP call. This is used by the daily digest which needs the recipients
+     * of many distinct event types and recipient settings combinations for the same org. The response contains one
+     * recipients Set per query, in the same order as the queries.
+     */
     @PUT
+    @Path("/batch")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Set<User> getRecipients(@NotNull @Valid RecipientsQuery recipientsQuery) {
+    public List<Set<User>> getRecipientsBatch(@NotNull List<@NotNull @Valid RecipientsQuery> recipientsQueries) {
+        return recipientsQueries.stream()
+            .map(this::findRecipients)
+            .toList();
+    }
+
+    private Set<User> findRecipients(RecipientsQuery recipientsQuery) {
+        if (recipientsQuery.subscriptionsReference != null) {
+            if (recipientsQuery.subscribers != null || recipientsQuery.unsubscribers != null) {
+                recipientsResolver.storeSubscriptionsSnapshot(recipientsQuery.orgId, recipientsQuery.subscriptionsReference, recipientsQuery.subscribers, recipientsQuery.unsubscribers);
+            }
+            return recipientsResolver.findRecipients(
+                recipientsQuery.orgId,
+                recipientsQuery.recipientSettings,
+                recipientsQuery.subscriptionsReference,
+                recipientsQuery.subscribedByDefault,
+                recipientsQuery.externalAuthorizationCriteria);
+        }
         return recipientsResolver.findRecipients(
             recipientsQuery.orgId,
             recipientsQuery.recipientSettings,
@@ -33,4 +76,23 @@ public class RecipientsResolverResource {
             recipientsQuery.subscribedByDefault,
             recipientsQuery.externalAuthorizationCriteria);
     }
+
+    /*
+     * The projected values are written one by one to the response stream, so the full response is never held in
+     * memory as a String. Users without a value for the projected field are skipped.
+     */
+    private StreamingOutput project(Set<User> recipients, RecipientsProjection projection) {
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                for (User recipient : recipients) {
+                    String value = projection.apply(recipient);
+                    if (value != null) {
+                        generator.writeString(value);
+                    }
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
 }
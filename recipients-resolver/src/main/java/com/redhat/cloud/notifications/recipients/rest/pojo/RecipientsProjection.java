@@ -0,0 +1,25 @@
+package com.redhat.cloud.notifications.recipients.rest.pojo;
+
+import com.redhat.cloud.notifications.recipients.model.User;
+
+import java.util.function.Function;
+
+/**
+ * The only user field a recipients query needs. When a query declares a projection, the recipients are returned as
+ * a JSON array of strings instead of an array of users.
+ */
+public enum RecipientsProjection {
+
+    USERNAME(User::getUsername),
+    EMAIL(User::getEmail);
+
+    private final Function<User, String> field;
+
+    RecipientsProjection(Function<User, String> field) {
+        this.field = field;
+    }
+
+    public String apply(User user) {
+        return field.apply(user);
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.redhat.cloud.notifications.recipients.model.ExternalAuthorizationCriteria;
 import com.redhat.cloud.notifications.recipients.model.RecipientSettings;
+import com.redhat.cloud.notifications.recipients.model.SubscriptionsReference;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.Set;
@@ -24,7 +26,20 @@ public class RecipientsQuery {
 
     public Set<String> unsubscribers;
 
+    /*
+     * When this reference is set without the subscribers and unsubscribers, they are read from a snapshot previously
+     * sent with the same reference. When it is set with the subscribers and unsubscribers, the snapshot is stored.
+     */
+    @Valid
+    public SubscriptionsReference subscriptionsReference;
+
     public boolean subscribedByDefault;
 
     public ExternalAuthorizationCriteria externalAuthorizationCriteria;
+
+    /*
+     * Optional. When it is set, the response only contains the projected field of each recipient. It is ignored by
+     * the batch endpoint.
+     */
+    public RecipientsProjection projection;
 }
@@ -0,0 +1,73 @@
+package com.redhat.cloud.notifications.recipients.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserDirectoryTest {
+
+    private final User user1 = createUser("User1");
+    private final User user2 = createUser("user2");
+    private final User user3 = createUser("USER3");
+    private final User admin1 = createUser("admin1");
+
+    @Test
+    void testOf() {
+        UserDirectory directory = UserDirectory.of(List.of(user1, user2, user1));
+        assertEquals(List.of(user1, user2, user1), directory);
+        assertEquals(Set.of(user1, user2), directory.getUsers(directory.selectAll()));
+        assertSame(directory, UserDirectory.of(directory));
+        assertSame(UserDirectory.EMPTY, UserDirectory.of(List.of()));
+    }
+
+    @Test
+    void testRetainUsernames() {
+        UserDirectory directory = UserDirectory.of(List.of(user1, user2, user3, admin1));
+
+        // Fewer usernames than selected users, the index is used.
+        BitSet selection = directory.selectAll();
+        directory.retainUsernames(selection, Set.of("user1", "user3", "unknown"));
+        assertEquals(Set.of(user1, user3), directory.getUsers(selection));
+
+        // More usernames than selected users, the selected users are checked one by one.
+        directory.retainUsernames(selection, Set.of("user1", "user2", "admin1", "unknown"));
+        assertEquals(Set.of(user1), directory.getUsers(selection));
+    }
+
+    @Test
+    void testRemoveUsernames() {
+        UserDirectory directory = UserDirectory.of(List.of(user1, user2, user3, admin1));
+
+        BitSet selection = directory.selectAll();
+        directory.removeUsernames(selection, Set.of("user2"));
+        assertEquals(Set.of(user1, user3, admin1), directory.getUsers(selection));
+
+        directory.removeUsernames(selection, Set.of("user1", "user2", "user3", "unknown"));
+        assertEquals(Set.of(admin1), directory.getUsers(selection));
+
+        directory.removeUsernames(selection, Set.of("admin1"));
+        assertTrue(directory.getUsers(selection).isEmpty());
+    }
+
+    @Test
+    void testUsernamesWithDifferentCases() {
+        User upperCaseUser = createUser("USER2");
+        UserDirectory directory = UserDirectory.of(List.of(user1, user2, upperCaseUser));
+
+        BitSet selection = directory.selectAll();
+        directory.retainUsernames(selection, Set.of("user2"));
+        assertEquals(Set.of(user2, upperCaseUser), directory.getUsers(selection));
+    }
+
+    private static User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -3,6 +3,7 @@ package com.redhat.cloud.notifications.recipients.resolver;
 import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
 import com.redhat.cloud.notifications.recipients.model.ExternalAuthorizationCriteria;
 import com.redhat.cloud.notifications.recipients.model.RecipientSettings;
+import com.redhat.cloud.notifications.recipients.model.SubscriptionsReference;
 import com.redhat.cloud.notifications.recipients.model.User;
 import com.redhat.cloud.notifications.recipients.resolver.kessel.KesselService;
 import io.quarkus.cache.Cache;
@@ -11,6 +12,7 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -22,6 +24,7 @@ import java.util.UUID;
 
 import static java.util.Collections.emptySet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.eq;
@@ -604,6 +607,46 @@ public class RecipientsResolverTest {
         verifyNoMoreInteractions(fetchUsersFromExternalServices);
     }
 
+    @Test
+    void testSubscriptionsReference() {
+        SubscriptionsReference subscriptionsReference = new SubscriptionsReference(UUID.randomUUID(), "DAILY", UUID.randomUUID().toString());
+        Set<RecipientSettings> recipientSettings = Set.of(new RecipientSettings(false, false, null, emptySet()));
+
+        // The snapshot is unknown, the caller has to send the subscriptions.
+        ClientErrorException exception = assertThrows(ClientErrorException.class, () -> recipientsResolver.findRecipients(
+                ORG_ID,
+                recipientSettings,
+                subscriptionsReference,
+                false,
+                null
+        ));
+        assertEquals(409, exception.getResponse().getStatus());
+        verifyNoInteractions(fetchUsersFromExternalServices);
+
+        recipientsResolver.storeSubscriptionsSnapshot(ORG_ID, subscriptionsReference, Set.of("USER1", "admin1"), null);
+        Set<User> recipients = recipientsResolver.findRecipients(
+                ORG_ID,
+                recipientSettings,
+                subscriptionsReference,
+                false,
+                null
+        );
+        assertEquals(Set.of(admin1, user1), recipients);
+        verify(fetchUsersFromExternalServices, times(1)).getUsers(eq(ORG_ID), eq(false));
+        verifyNoMoreInteractions(fetchUsersFromExternalServices);
+
+        // The snapshot is scoped to the org which stored it.
+        exception = assertThrows(ClientErrorException.class, () -> recipientsResolver.findRecipients(
+                "another-org-id",
+                recipientSettings,
+                subscriptionsReference,
+                false,
+                null
+        ));
+        assertEquals(409, exception.getResponse().getStatus());
+        verifyNoMoreInteractions(fetchUsersFromExternalServices);
+    }
+
     public User createUser(String username, boolean isAdmin) {
         User user = new User();
         user.setUsername(username);
@@ -0,0 +1,120 @@
+package com.redhat.cloud.notifications.recipients.resolver.kessel;
+
+import com.redhat.cloud.notifications.recipients.model.ExternalAuthorizationCriteria;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.project_kessel.api.relations.v1beta1.LookupSubjectsRequest;
+import org.project_kessel.api.relations.v1beta1.LookupSubjectsResponse;
+import org.project_kessel.api.relations.v1beta1.ObjectReference;
+import org.project_kessel.api.relations.v1beta1.SubjectReference;
+import org.project_kessel.relations.client.LookupClient;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.redhat.cloud.notifications.recipients.resolver.kessel.KesselService.LOOKUP_SUBJECTS_TIMER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+public class KesselServiceTest {
+
+    private static final ExternalAuthorizationCriteria CRITERIA = new ExternalAuthorizationCriteria("rhel/host", "host-1", "view");
+
+    @Inject
+    KesselService kesselService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @CacheName("kessel-lookup-subjects")
+    Cache lookupSubjectsCache;
+
+    LookupClient originalLookupClient;
+    LookupClient lookupClient;
+
+    @BeforeEach
+    void beforeEach() {
+        lookupSubjectsCache.invalidateAll().await().indefinitely();
+        KesselService service = ClientProxy.unwrap(kesselService);
+        originalLookupClient = service.lookupClient;
+        lookupClient = mock(LookupClient.class);
+        service.lookupClient = lookupClient;
+    }
+
+    @AfterEach
+    void afterEach() {
+        ClientProxy.unwrap(kesselService).lookupClient = originalLookupClient;
+    }
+
+    @Test
+    void testLookupSubjectsIsCached() {
+        when(lookupClient.lookupSubjects(any(LookupSubjectsRequest.class))).then(invocation -> responses("user1", "user2"));
+
+        assertEquals(Set.of("user1", "user2"), kesselService.lookupSubjects(CRITERIA));
+        assertEquals(Set.of("user1", "user2"), kesselService.lookupSubjects(new ExternalAuthorizationCriteria("rhel/host", "host-1", "view")));
+        verify(lookupClient, times(1)).lookupSubjects(any(LookupSubjectsRequest.class));
+
+        // Another relation is another cache entry.
+        kesselService.lookupSubjects(new ExternalAuthorizationCriteria("rhel/host", "host-1", "edit"));
+        verify(lookupClient, times(2)).lookupSubjects(any(LookupSubjectsRequest.class));
+    }
+
+    @Test
+    void testFailedLookupSubjectsIsNotCached() {
+        when(lookupClient.lookupSubjects(any(LookupSubjectsRequest.class)))
+            .thenThrow(Status.UNAVAILABLE.asRuntimeException())
+            .then(invocation -> responses("user1"));
+
+        assertThrows(RuntimeException.class, () -> kesselService.lookupSubjects(CRITERIA));
+        assertEquals(Set.of("user1"), kesselService.lookupSubjects(CRITERIA));
+        verify(lookupClient, times(2)).lookupSubjects(any(LookupSubjectsRequest.class));
+    }
+
+    @Test
+    void testLookupSubjectsTimeout() {
+        AtomicReference<Deadline> deadline = new AtomicReference<>();
+        when(lookupClient.lookupSubjects(any(LookupSubjectsRequest.class))).then(invocation -> {
+            deadline.set(Context.current().getDeadline());
+            throw Status.DEADLINE_EXCEEDED.asRuntimeException();
+        });
+        double timeoutsBefore = meterRegistry.timer(LOOKUP_SUBJECTS_TIMER_NAME, "result", "timeout").count();
+
+        assertThrows(RuntimeException.class, () -> kesselService.lookupSubjects(CRITERIA));
+
+        // The gRPC call is bounded by the configured timeout.
+        assertNotNull(deadline.get());
+        assertTrue(deadline.get().timeRemaining(TimeUnit.SECONDS) <= 5);
+        assertEquals(timeoutsBefore + 1, meterRegistry.timer(LOOKUP_SUBJECTS_TIMER_NAME, "result", "timeout").count());
+    }
+
+    private static Iterator<LookupSubjectsResponse> responses(String... userIds) {
+        return Arrays.stream(userIds)
+            .map(userId -> LookupSubjectsResponse.newBuilder()
+                .setSubject(SubjectReference.newBuilder()
+                    .setSubject(ObjectReference.newBuilder().setId(userId).build())
+                    .build())
+                .build())
+            .iterator();
+    }
+}
@@ -2,13 +2,16 @@ package com.redhat.cloud.notifications.recipients.rest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.notifications.recipients.model.SubscriptionsReference;
 import com.redhat.cloud.notifications.recipients.model.User;
 import com.redhat.cloud.notifications.recipients.resolver.RecipientsResolver;
+import com.redhat.cloud.notifications.recipients.rest.pojo.RecipientsProjection;
 import com.redhat.cloud.notifications.recipients.rest.pojo.RecipientsQuery;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.common.mapper.TypeRef;
 import io.restassured.response.Response;
+import jakarta.ws.rs.ClientErrorException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import java.util.HashSet;
@@ -21,6 +24,8 @@ import static io.restassured.http.ContentType.JSON;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,6 +64,77 @@ public class RecipientResolverResourceTest {
         Assertions.assertEquals(500, userList.size());
     }
 
+    @Test
+    public void testGetRecipientsBatch() throws JsonProcessingException {
+        RecipientsQuery invalidQuery = new RecipientsQuery();
+        invalidQuery.orgId = "123456";
+        getRecipientsBatch(List.of(invalidQuery), 400);
+
+        RecipientsQuery query1 = new RecipientsQuery();
+        query1.recipientSettings = new HashSet<>();
+        query1.orgId = "123456";
+        query1.subscribers = Set.of("username-1");
+
+        RecipientsQuery query2 = new RecipientsQuery();
+        query2.recipientSettings = new HashSet<>();
+        query2.orgId = "123456";
+        query2.subscribers = Set.of("username-2");
+
+        when(recipientsResolver.findRecipients(anyString(), any(), eq(query1.subscribers), any(), anyBoolean(), any())).thenReturn(createUserList(3));
+        when(recipientsResolver.findRecipients(anyString(), any(), eq(query2.subscribers), any(), anyBoolean(), any())).thenReturn(createUserList(5, 10));
+
+        List<List<User>> results = getRecipientsBatch(List.of(query1, query2), 200).as(new TypeRef<>() { });
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals(3, results.get(0).size());
+        Assertions.assertEquals(5, results.get(1).size());
+        verify(recipientsResolver, times(2)).findRecipients(anyString(), any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    public void testGetRecipientsWithSubscriptionsReference() throws JsonProcessingException {
+        RecipientsQuery recipientQuery = new RecipientsQuery();
+        recipientQuery.recipientSettings = new HashSet<>();
+        recipientQuery.orgId = "123456";
+        recipientQuery.subscriptionsReference = new SubscriptionsReference(UUID.randomUUID(), "DAILY", "version-1");
+
+        // Without subscriptions, the snapshot is not stored.
+        when(recipientsResolver.findRecipients(anyString(), any(), any(SubscriptionsReference.class), anyBoolean(), any())).thenReturn(createUserList(3));
+        Assertions.assertEquals(3, getRecipientsPage(recipientQuery).size());
+        verify(recipientsResolver, never()).storeSubscriptionsSnapshot(any(), any(), any(), any());
+
+        // With subscriptions, the snapshot is stored before the recipients are resolved.
+        recipientQuery.subscribers = Set.of("username-1");
+        Assertions.assertEquals(3, getRecipientsPage(recipientQuery).size());
+        verify(recipientsResolver, times(1)).storeSubscriptionsSnapshot(eq("123456"), eq(recipientQuery.subscriptionsReference), eq(recipientQuery.subscribers), any());
+        verify(recipientsResolver, times(2)).findRecipients(anyString(), any(), eq(recipientQuery.subscriptionsReference), anyBoolean(), any());
+
+        // The snapshot is unknown to recipients-resolver.
+        recipientQuery.subscribers = null;
+        when(recipientsResolver.findRecipients(anyString(), any(), any(SubscriptionsReference.class), anyBoolean(), any()))
+            .thenThrow(new ClientErrorException(409));
+        getRecipients(recipientQuery, 409);
+    }
+
+    @Test
+    public void testGetRecipientsWithProjection() throws JsonProcessingException {
+        RecipientsQuery recipientQuery = new RecipientsQuery();
+        recipientQuery.recipientSettings = new HashSet<>();
+        recipientQuery.orgId = "123456";
+
+        Set<User> users = createUserList(3);
+        users.iterator().next().setEmail("user@example.com");
+        when(recipientsResolver.findRecipients(anyString(), any(), any(), any(), anyBoolean(), any())).thenReturn(users);
+
+        recipientQuery.projection = RecipientsProjection.USERNAME;
+        Set<String> usernames = getRecipients(recipientQuery, 200).as(new TypeRef<>() { });
+        Assertions.assertEquals(Set.of("username-0", "username-1", "username-2"), usernames);
+
+        // Users without an email are skipped.
+        recipientQuery.projection = RecipientsProjection.EMAIL;
+        Set<String> emails = getRecipients(recipientQuery, 200).as(new TypeRef<>() { });
+        Assertions.assertEquals(Set.of("user@example.com"), emails);
+    }
+
     private static List<User> getRecipientsPage(RecipientsQuery resolverQuery) throws JsonProcessingException {
         return getRecipients(resolverQuery, 200).as(new TypeRef<>() { });
     }
@@ -73,6 +149,16 @@ public class RecipientResolverResourceTest {
             .statusCode(expectedStatusCode).extract().response();
     }
 
+    private static Response getRecipientsBatch(List<RecipientsQuery> resolverQueries, int expectedStatusCode) throws JsonProcessingException {
+        return given()
+            .when()
+            .contentType(JSON)
+            .body(OBJECT_MAPPER.writeValueAsString(resolverQueries))
+            .put("/internal/recipients-resolver/batch")
+            .then()
+            .statusCode(expectedStatusCode).extract().response();
+    }
+
     public Set<User> createUserList(int size) {
         return createUserList(size, 0);
     }